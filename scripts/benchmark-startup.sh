@@ -0,0 +1,95 @@
+#!/bin/bash
+#
+# Startup benchmark for RPI I2C MCP Server
+# Measures time to readiness, time to the first tool list and tool call responses and resident
+# memory of the JVM application (with and without AppCDS archive) and the native executable.
+#
+# Usage: ./benchmark-startup.sh [runs] [port]
+#
+# Build both variants first:
+#   ./gradlew build -x test            (JVM, build/quarkus-app)
+#   ./gradlew build -x test -Pnative   (native, build/*-runner; the JVM build is replaced,
+#                                       so copy build/quarkus-app aside or build it again)
+#   ./scripts/generate-appcds.sh       (AppCDS archive, build/quarkus-app/app-cds.jsa)
+#
+# The tool call reads register 0x00 of address 0x48 on bus 1 (CALL_BUS, CALL_ADDRESS); without a
+# device the call returns an error result, which still measures dispatch and serialization.
+#
+
+set -e
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_DIR="$(dirname "$SCRIPT_DIR")"
+
+RUNS="${1:-5}"
+PORT="${2:-8089}"
+URL="http://localhost:$PORT"
+CALL="{\"name\":\"i2cget\",\"arguments\":{\"bus\":${CALL_BUS:-1},\"address\":\"${CALL_ADDRESS:-0x48}\",\"register\":\"0x00\"}}"
+
+now_ms() {
+    date +%s%3N
+}
+
+# Runs one measurement; prints "<ready ms> <first list ms> <first call ms> <rss kB>"
+measure() {
+    local start ready listed called rss pid
+    start=$(now_ms)
+    QUARKUS_HTTP_PORT="$PORT" QUARKUS_LOG_LEVEL=WARN "$@" > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf "$URL/q/health/ready" > /dev/null 2>&1; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Error: server exited during startup" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    ready=$(now_ms)
+    curl -sf "$URL/tools/list" > /dev/null
+    listed=$(now_ms)
+    curl -sf -H "Content-Type: application/json" -d "$CALL" "$URL/tools/call" > /dev/null
+    called=$(now_ms)
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$((ready - start)) $((listed - start)) $((called - start)) $rss"
+}
+
+benchmark() {
+    local name="$1"
+    shift
+    local total_ready=0 total_list=0 total_call=0 total_rss=0 result
+    for ((i = 1; i <= RUNS; i++)); do
+        result=$(measure "$@")
+        read -r ready list call rss <<< "$result"
+        echo "$name run $i: ready ${ready} ms, first /tools/list ${list} ms, first /tools/call ${call} ms," \
+             "RSS ${rss} kB"
+        total_ready=$((total_ready + ready))
+        total_list=$((total_list + list))
+        total_call=$((total_call + call))
+        total_rss=$((total_rss + rss))
+    done
+    echo "$name average: ready $((total_ready / RUNS)) ms, first /tools/list $((total_list / RUNS)) ms," \
+         "first /tools/call $((total_call / RUNS)) ms, RSS $((total_rss / RUNS)) kB"
+    echo ""
+}
+
+cd "$PROJECT_DIR"
+
+if [ -f build/quarkus-app/quarkus-run.jar ]; then
+    benchmark "jvm" java -Xshare:auto -jar build/quarkus-app/quarkus-run.jar
+    if [ -f build/quarkus-app/app-cds.jsa ]; then
+        benchmark "jvm-appcds" java -XX:SharedArchiveFile=build/quarkus-app/app-cds.jsa -Xshare:auto \
+                  -jar build/quarkus-app/quarkus-run.jar
+    else
+        echo "Skipping AppCDS mode: build/quarkus-app/app-cds.jsa not found"
+    fi
+else
+    echo "Skipping JVM mode: build/quarkus-app/quarkus-run.jar not found"
+fi
+
+RUNNER=$(ls build/*-runner 2> /dev/null | head -n 1)
+if [ -n "$RUNNER" ]; then
+    benchmark "native" "$RUNNER" -Xmx${MAX_HEAP:-64m}
+else
+    echo "Skipping native mode: build/*-runner not found"
+fi
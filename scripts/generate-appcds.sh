@@ -0,0 +1,73 @@
+#!/bin/bash
+#
+# AppCDS archive generation for RPI I2C MCP Server
+# Starts the JVM application once as training run, exercises the tool endpoints and writes the
+# loaded classes to a dynamic class data sharing archive when the server shuts down. Later starts
+# map the archive instead of loading, verifying and linking these classes again.
+#
+# Usage: ./generate-appcds.sh [port]
+#
+# The archive is only valid for the JDK and the application jars it was created with; it is
+# written to build/quarkus-app/app-cds.jsa and must be regenerated after every build or JDK update.
+# A stale archive is rejected by the JVM, which then starts normally.
+#
+
+set -e
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_DIR="$(dirname "$SCRIPT_DIR")"
+
+PORT="${1:-8089}"
+URL="http://localhost:$PORT"
+APP_DIR="$PROJECT_DIR/build/quarkus-app"
+ARCHIVE="$APP_DIR/app-cds.jsa"
+
+if [ ! -f "$APP_DIR/quarkus-run.jar" ]; then
+    echo "Error: $APP_DIR/quarkus-run.jar not found, build the application first"
+    exit 1
+fi
+
+rm -f "$ARCHIVE"
+
+echo "Starting training run on port $PORT..."
+cd "$APP_DIR"
+QUARKUS_HTTP_PORT="$PORT" QUARKUS_LOG_LEVEL=WARN \
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" -jar quarkus-run.jar > /dev/null 2>&1 &
+PID=$!
+
+for ((i = 0; i < 600; i++)); do
+    if curl -sf "$URL/q/health/ready" > /dev/null 2>&1; then
+        break
+    fi
+    if ! kill -0 "$PID" 2> /dev/null; then
+        echo "Error: server exited during training run"
+        exit 1
+    fi
+    sleep 0.5
+done
+
+# Exercise listing, dispatch, argument validation and serialization in JSON and CBOR.
+# The calls may report bus errors when no device answers; only the code paths matter here.
+for accept in application/json application/cbor; do
+    curl -s -H "Accept: $accept" "$URL/tools/list" > /dev/null
+    for call in \
+        '{"name":"i2cget","arguments":{"bus":1,"address":"0x48","register":"0x00","format":"u16,hex"}}' \
+        '{"name":"i2cget","arguments":{"bus":1,"address":"0x48","register":"0x00","mode":"w"}}' \
+        '{"name":"read_device","arguments":{"bus":1,"address":"0x48","profile":"tmp102"}}' \
+        '{"name":"i2cget","arguments":{}}' \
+        '{"name":"unknown","arguments":{}}'; do
+        curl -s -H "Accept: $accept" -H "Content-Type: application/json" -d "$call" \
+             "$URL/tools/call" > /dev/null
+    done
+done
+
+echo "Stopping training run and writing archive..."
+kill "$PID"
+wait "$PID" 2> /dev/null || true
+
+if [ -f "$ARCHIVE" ]; then
+    echo "AppCDS archive created: $ARCHIVE ($(du -h "$ARCHIVE" | cut -f1))"
+else
+    echo "Error: AppCDS archive was not created"
+    exit 1
+fi
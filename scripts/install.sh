@@ -3,11 +3,27 @@
 # Installation script for RPI I2C MCP Server
 # This script installs all dependencies and builds the application for Raspberry Pi 5
 #
-# Usage: sudo ./install.sh
+# Usage: sudo ./install.sh [--native]
+#
+#   --native  Build a GraalVM/Mandrel native executable instead of the JVM application.
+#             Requires native-image on the PATH or GRAALVM_HOME pointing to a GraalVM/Mandrel
+#             (JDK 21) installation for aarch64. Set MAX_HEAP to change the heap limit (default 64m).
 #
 
 set -e
 
+NATIVE=false
+for arg in "$@"; do
+    case "$arg" in
+        --native) NATIVE=true ;;
+        *)
+            echo "Error: Unknown option '$arg'"
+            echo "Usage: sudo $0 [--native]"
+            exit 1
+            ;;
+    esac
+done
+
 echo "=========================================="
 echo "RPI I2C MCP Server Installation Script"
 echo "=========================================="
@@ -115,7 +131,27 @@ fi
 echo ""
 echo "Step 7: Building the application..."
 cd "$(dirname "$0")/.."
-sudo -u ${SUDO_USER:-$USER} ./gradlew clean build -x test
+if [ "$NATIVE" = true ]; then
+    if [ -z "$GRAALVM_HOME" ] && ! command -v native-image &> /dev/null; then
+        echo "Error: native-image not found"
+        echo "Install GraalVM or Mandrel for JDK 21 (aarch64) and set GRAALVM_HOME"
+        exit 1
+    fi
+    echo "Building native executable (this takes several minutes on a Raspberry Pi)..."
+    sudo -u ${SUDO_USER:-$USER} GRAALVM_HOME="$GRAALVM_HOME" ./gradlew clean build -x test -Pnative
+    RUNNER=$(ls "$(pwd)"/build/*-runner | head -n 1)
+    EXEC_START="$RUNNER -Xmx${MAX_HEAP:-64m}"
+    echo "Native executable: $RUNNER"
+else
+    sudo -u ${SUDO_USER:-$USER} ./gradlew clean build -x test
+    EXEC_START="/usr/bin/java -jar $(pwd)/build/quarkus-app/quarkus-run.jar"
+    echo "Generating AppCDS archive (training run)..."
+    if sudo -u ${SUDO_USER:-$USER} ./scripts/generate-appcds.sh; then
+        EXEC_START="/usr/bin/java -XX:SharedArchiveFile=$(pwd)/build/quarkus-app/app-cds.jsa -Xshare:auto -jar $(pwd)/build/quarkus-app/quarkus-run.jar"
+    else
+        echo "Warning: AppCDS archive generation failed, the service starts without it"
+    fi
+fi
 
 echo ""
 echo "Step 8: Creating systemd service..."
@@ -128,7 +164,7 @@ After=network.target
 Type=simple
 User=${SUDO_USER:-$USER}
 WorkingDirectory=$(pwd)
-ExecStart=/usr/bin/java -jar $(pwd)/build/quarkus-app/quarkus-run.jar
+ExecStart=$EXEC_START
 Restart=on-failure
 RestartSec=10
 StandardOutput=journal
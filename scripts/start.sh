@@ -3,7 +3,7 @@
 # Startup script for RPI I2C MCP Server
 # This script starts the MCP server in development or production mode
 #
-# Usage: ./start.sh [dev|prod]
+# Usage: ./start.sh [dev|prod|native]
 #
 
 set -e
@@ -64,23 +64,53 @@ elif [ "$MODE" = "prod" ]; then
         ./gradlew clean build -x test
     fi
     
+    # Use the AppCDS archive created by generate-appcds.sh, unless disabled with APPCDS=false
+    CDS_OPTS=""
+    ARCHIVE="$PROJECT_DIR/build/quarkus-app/app-cds.jsa"
+    if [ "${APPCDS:-true}" = "true" ] && [ -f "$ARCHIVE" ]; then
+        if [ "$ARCHIVE" -nt "$PROJECT_DIR/build/quarkus-app/quarkus-run.jar" ]; then
+            echo "Using AppCDS archive: $ARCHIVE"
+            CDS_OPTS="-XX:SharedArchiveFile=$ARCHIVE -Xshare:auto"
+        else
+            echo "AppCDS archive is older than the build, run ./scripts/generate-appcds.sh to refresh it"
+        fi
+    fi
+
     echo "Starting server..."
     echo "Press Ctrl+C to stop"
     echo ""
     
     if [ "$DEBUG" = "debug" ]; then
         echo "Remote debugging enabled on port 5005"
-        java -agentlib:jdwp=transport=dt_socket,server=y,suspend=n,address=*:5005 \
+        java $CDS_OPTS -agentlib:jdwp=transport=dt_socket,server=y,suspend=n,address=*:5005 \
              -jar "$PROJECT_DIR/build/quarkus-app/quarkus-run.jar"
     else
-        java -jar "$PROJECT_DIR/build/quarkus-app/quarkus-run.jar"
+        java $CDS_OPTS -jar "$PROJECT_DIR/build/quarkus-app/quarkus-run.jar"
     fi
     
+elif [ "$MODE" = "native" ]; then
+    echo "Starting NATIVE executable..."
+    echo ""
+
+    RUNNER=$(ls "$PROJECT_DIR"/build/*-runner 2>/dev/null | head -n 1)
+    if [ -z "$RUNNER" ]; then
+        echo "Native executable not built. Building now..."
+        ./gradlew clean build -x test -Pnative
+        RUNNER=$(ls "$PROJECT_DIR"/build/*-runner | head -n 1)
+    fi
+
+    echo "Starting server..."
+    echo "Press Ctrl+C to stop"
+    echo ""
+
+    "$RUNNER" -Xmx${MAX_HEAP:-64m}
+
 else
     echo "Error: Invalid mode '$MODE'"
-    echo "Usage: $0 [dev|prod] [debug]"
-    echo "  dev   - Development mode with hot reload"
-    echo "  prod  - Production mode"
-    echo "  debug - Enable remote debugging on port 5005"
+    echo "Usage: $0 [dev|prod|native] [debug]"
+    echo "  dev    - Development mode with hot reload"
+    echo "  prod   - Production mode (uses build/quarkus-app/app-cds.jsa if present)"
+    echo "  native - Native executable (build with ./gradlew build -Pnative)"
+    echo "  debug  - Enable remote debugging on port 5005 (dev and prod)"
     exit 1
 fi
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted mix of tool calls. A mix is given as comma separated entries <code>tool[@priority]=weight</code>, e.g.
+ * <code>i2cget=70,read_device=20,eeprom@bulk=10</code>; each virtual client picks the next call at random by weight.
+ * The arguments of each tool are fixed and address the devices answered by the simulated bus; <code>i2cset</code> and
+ * <code>i2c_update_bits</code> write registers of the device at 0x48.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+final class CallMix {
+
+  /**
+   * Mix used with the simulated bus.
+   */
+  static final String DEFAULT = "i2cget=60,i2cset=10,read_device=20,eeprom=10";
+
+  /**
+   * Mix used against a running server, it only reads from the devices.
+   */
+  static final String READ_ONLY = "i2cget=70,read_device=20,eeprom=10";
+
+  /**
+   * One kind of call of the mix.
+   *
+   * @param label the label in the report, the tool name with the optional priority
+   * @param weight the relative frequency
+   * @param write whether the call writes to the device
+   * @param body the serialized tool call
+   */
+  record Entry(String label, int weight, boolean write, byte[] body) {
+  }
+
+  private final List<Entry> entries;
+
+  private final int totalWeight;
+
+  private CallMix(List<Entry> entries)
+  {
+    this.entries = List.copyOf(entries);
+    this.totalWeight = entries.stream().mapToInt(Entry::weight).sum();
+  }
+
+  /**
+   * Parses a mix.
+   *
+   * @param spec the comma separated entries
+   * @param bus the bus addressed by the calls
+   * @param objectMapper the mapper serializing the calls
+   * @return the mix
+   * @throws IllegalArgumentException if the mix is empty or an entry is invalid
+   */
+  static CallMix parse(String spec, int bus, ObjectMapper objectMapper)
+  {
+    List<Entry> entries = new ArrayList<>();
+    for (String item : spec.split(",")) {
+      String trimmed = item.trim();
+      int eq = trimmed.indexOf('=');
+      if (eq <= 0) {
+        throw new IllegalArgumentException("Invalid mix entry " + trimmed + ", expected tool[@priority]=weight");
+      }
+      String label = trimmed.substring(0, eq).trim();
+      int weight;
+      try {
+        weight = Integer.parseInt(trimmed.substring(eq + 1).trim());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid weight in mix entry " + trimmed, e);
+      }
+      if (weight <= 0) {
+        throw new IllegalArgumentException("Weight must be positive: " + trimmed);
+      }
+      if (entries.stream().anyMatch(entry -> entry.label().equals(label))) {
+        throw new IllegalArgumentException("Duplicate mix entry " + label);
+      }
+      int at = label.indexOf('@');
+      String tool = at < 0 ? label : label.substring(0, at);
+      Map<String, Object> arguments = arguments(tool, bus);
+      if (at >= 0) {
+        arguments.put("priority", label.substring(at + 1));
+      }
+      Map<String, Object> call = Map.of("name", tool, "arguments", arguments);
+      try {
+        entries.add(new Entry(label, weight, isWrite(tool), objectMapper.writeValueAsBytes(call)));
+      } catch (JsonProcessingException e) {
+        throw new IllegalArgumentException("Cannot serialize call " + label, e);
+      }
+    }
+    return new CallMix(entries);
+  }
+
+  /**
+   * Gets the arguments of a tool call.
+   */
+  private static Map<String, Object> arguments(String tool, int bus)
+  {
+    Map<String, Object> arguments = new LinkedHashMap<>();
+    arguments.put("bus", bus);
+    switch (tool) {
+      case "i2cget" -> {
+        arguments.put("address", "0x48");
+        arguments.put("register", "0x00");
+        arguments.put("mode", "w");
+      }
+      case "i2cset" -> {
+        arguments.put("address", "0x48");
+        arguments.put("register", "0x02");
+        arguments.put("value", "0x4b00");
+      }
+      case "i2c_update_bits" -> {
+        arguments.put("address", "0x48");
+        arguments.put("register", "0x01");
+        arguments.put("mask", "0x60");
+        arguments.put("value", "0x20");
+      }
+      case "read_device" -> {
+        arguments.put("address", "0x48");
+        arguments.put("profile", "tmp102");
+      }
+      case "eeprom" -> {
+        arguments.put("action", "read");
+        arguments.put("address", "0x50");
+        arguments.put("profile", "24c32");
+        arguments.put("length", 1024);
+      }
+      default -> throw new IllegalArgumentException("Unsupported tool " + tool
+              + " in mix, expected i2cget, i2cset, i2c_update_bits, read_device or eeprom");
+    }
+    return arguments;
+  }
+
+  private static boolean isWrite(String tool)
+  {
+    return tool.equals("i2cset") || tool.equals("i2c_update_bits");
+  }
+
+  /**
+   * Gets the entries of the mix.
+   *
+   * @return the entries in the order given
+   */
+  List<Entry> getEntries()
+  {
+    return entries;
+  }
+
+  /**
+   * Picks the index of the next call by weight.
+   *
+   * @param random the random source of the calling client
+   * @return the index into {@link #getEntries()}
+   */
+  int next(Random random)
+  {
+    int value = random.nextInt(totalWeight);
+    for (int i = 0; i < entries.size(); i++) {
+      value -= entries.get(i).weight();
+      if (value < 0) {
+        return i;
+      }
+    }
+    return entries.size() - 1;
+  }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load test harness. Starts the packaged server with a simulated bus (<code>i2c.simulation.enabled</code>), or uses
+ * the server given by <code>--url</code>, and drives a weighted mix of tool calls over HTTP from concurrent virtual
+ * thread clients. Each client sends its next call as soon as the previous one is answered. After a warm-up the
+ * throughput and the p50, p95, p99 and p999 latencies are measured, in total and per kind of call, and written as
+ * JSON report, so runs of different releases can be compared. Against a running server the default mix only reads,
+ * calls writing to the devices are refused unless <code>--allow-writes=true</code> is given.
+ * <p>
+ * Started by <code>./gradlew loadTest --args="--clients=128 --duration=60s"</code>, see {@link #usage()} for the
+ * options.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public final class LoadTest {
+
+  private static final Map<String, String> DEFAULTS = defaults();
+
+  private final Map<String, String> options;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final HttpClient http = HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .connectTimeout(Duration.ofSeconds(5))
+          .build();
+
+  private LoadTest(Map<String, String> options)
+  {
+    this.options = options;
+  }
+
+  private static Map<String, String> defaults()
+  {
+    Map<String, String> defaults = new LinkedHashMap<>();
+    defaults.put("url", "");
+    defaults.put("server", "build/quarkus-app/quarkus-run.jar");
+    defaults.put("port", "18080");
+    defaults.put("transaction-us", "200");
+    defaults.put("clients", "64");
+    defaults.put("warmup", "10s");
+    defaults.put("duration", "30s");
+    defaults.put("mix", "");
+    defaults.put("allow-writes", "false");
+    defaults.put("bus", "1");
+    defaults.put("timeout", "10s");
+    defaults.put("output", "build/loadtest/report.json");
+    return defaults;
+  }
+
+  /**
+   * Runs the load test.
+   *
+   * @param args options as <code>--name=value</code>
+   * @throws Exception if the server cannot be started or the run fails
+   */
+  public static void main(String[] args) throws Exception
+  {
+    Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+    for (String arg : args) {
+      int eq = arg.indexOf('=');
+      String name = arg.startsWith("--") && eq > 2 ? arg.substring(2, eq) : null;
+      if (name == null || !DEFAULTS.containsKey(name)) {
+        System.err.println("Invalid option " + arg);
+        System.err.println(usage());
+        System.exit(2);
+      }
+      options.put(name, arg.substring(eq + 1));
+    }
+    if (options.get("mix").isBlank()) {
+      options.put("mix", options.get("url").isBlank() ? CallMix.DEFAULT : CallMix.READ_ONLY);
+    }
+    new LoadTest(options).run();
+  }
+
+  private static String usage()
+  {
+    return """
+           Options (--name=value):
+             url             server to test, e.g. http://pi1:8080; empty starts the server jar with a simulated bus
+             server          server jar started without url
+             port            HTTP port of the started server
+             transaction-us  bus time of a simulated transaction in microseconds
+             clients         number of concurrent virtual thread clients
+             warmup          warm-up before the measurement, e.g. 10s
+             duration        length of the measurement, e.g. 30s or 2m
+             mix             weighted calls as tool[@priority]=weight,... with tool one of i2cget, i2cset,
+                             i2c_update_bits, read_device, eeprom; empty uses %s,
+                             with url %s
+             allow-writes    true runs the writing i2cset and i2c_update_bits calls against the devices of url
+             bus             bus addressed by the calls
+             timeout         request timeout
+             output          JSON report file
+           """.formatted(CallMix.DEFAULT, CallMix.READ_ONLY) + "Defaults: " + DEFAULTS;
+  }
+
+  private void run() throws Exception
+  {
+    CallMix mix = CallMix.parse(options.get("mix"), Integer.parseInt(options.get("bus")), objectMapper);
+    if (!options.get("url").isBlank() && !Boolean.parseBoolean(options.get("allow-writes"))) {
+      List<String> writes = mix.getEntries().stream().filter(CallMix.Entry::write).map(CallMix.Entry::label).toList();
+      if (!writes.isEmpty()) {
+        throw new IllegalArgumentException("Mix entries " + writes + " write to the devices of " + options.get("url")
+                + ", add --allow-writes=true to run them");
+      }
+    }
+    int clients = Integer.parseInt(options.get("clients"));
+    if (clients <= 0) {
+      throw new IllegalArgumentException("clients must be positive: " + clients);
+    }
+    Process server = null;
+    URI base;
+    if (options.get("url").isBlank()) {
+      base = URI.create("http://localhost:" + options.get("port") + "/");
+      server = startServer();
+    } else {
+      base = URI.create(options.get("url").endsWith("/") ? options.get("url") : options.get("url") + "/");
+    }
+    try {
+      awaitReady(base, server);
+      URI endpoint = base.resolve("tools/call");
+      System.out.printf("Warming up %d clients for %s%n", clients, options.get("warmup"));
+      drive(endpoint, mix, clients, duration("warmup"));
+      Duration duration = duration("duration");
+      System.out.printf("Measuring %d clients for %s%n", clients, options.get("duration"));
+      long start = System.nanoTime();
+      List<Samples> samples = drive(endpoint, mix, clients, duration);
+      double seconds = (System.nanoTime() - start) / 1e9;
+      writeReport(base, mix, clients, seconds, samples);
+    } finally {
+      if (server != null) {
+        server.destroy();
+        server.waitFor();
+      }
+    }
+  }
+
+  /**
+   * Starts the server jar with a simulated bus, its output goes to server.log next to the report.
+   */
+  private Process startServer() throws IOException
+  {
+    Path jar = Path.of(options.get("server"));
+    if (!Files.isRegularFile(jar)) {
+      throw new IOException("Server jar " + jar + " not found, build it with ./gradlew build");
+    }
+    Path log = Path.of(options.get("output")).toAbsolutePath().resolveSibling("server.log");
+    Files.createDirectories(log.getParent());
+    String java = ProcessHandle.current().info().command().orElse("java");
+    List<String> command = List.of(java,
+            "-Dquarkus.http.port=" + options.get("port"),
+            "-Dquarkus.log.level=WARN",
+            "-Di2c.simulation.enabled=true",
+            "-Di2c.simulation.transaction-us=" + options.get("transaction-us"),
+            "-Di2c.history.enabled=false",
+            "-jar", jar.toString());
+    System.out.printf("Starting %s with simulated bus on port %s%n", jar, options.get("port"));
+    Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+    Runtime.getRuntime().addShutdownHook(new Thread(process::destroy));
+    return process;
+  }
+
+  private void awaitReady(URI base, Process server) throws IOException, InterruptedException
+  {
+    HttpRequest request = HttpRequest.newBuilder(base.resolve("q/health/ready")).timeout(Duration.ofSeconds(2)).build();
+    long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+    while (true) {
+      try {
+        if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // not listening yet
+      }
+      if (server != null && !server.isAlive()) {
+        throw new IOException("Server exited with " + server.exitValue() + ", see server.log");
+      }
+      if (System.nanoTime() > deadline) {
+        throw new IOException("Server at " + base + " not ready within 60 seconds");
+      }
+      Thread.sleep(100);
+    }
+  }
+
+  /**
+   * Runs the clients for the given time.
+   *
+   * @return the samples per entry of the mix, merged over all clients
+   */
+  private List<Samples> drive(URI endpoint, CallMix mix, int clients, Duration duration) throws Exception
+  {
+    long end = System.nanoTime() + duration.toNanos();
+    List<Future<Samples[]>> results = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < clients; i++) {
+        results.add(executor.submit(() -> client(endpoint, mix, end)));
+      }
+    }
+    List<Samples> merged = new ArrayList<>();
+    mix.getEntries().forEach(entry -> merged.add(new Samples()));
+    for (Future<Samples[]> result : results) {
+      Samples[] samples = result.get();
+      for (int i = 0; i < samples.length; i++) {
+        merged.get(i).merge(samples[i]);
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Loop of one virtual client.
+   */
+  private Samples[] client(URI endpoint, CallMix mix, long end) throws InterruptedException
+  {
+    Random random = ThreadLocalRandom.current();
+    Duration timeout = duration("timeout");
+    Samples[] samples = new Samples[mix.getEntries().size()];
+    for (int i = 0; i < samples.length; i++) {
+      samples[i] = new Samples();
+    }
+    while (System.nanoTime() < end) {
+      int index = mix.next(random);
+      HttpRequest request = HttpRequest.newBuilder(endpoint)
+              .timeout(timeout)
+              .header("Content-Type", "application/json")
+              .header("Accept", "application/json")
+              .POST(HttpRequest.BodyPublishers.ofByteArray(mix.getEntries().get(index).body()))
+              .build();
+      long start = System.nanoTime();
+      try {
+        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        long latency = System.nanoTime() - start;
+        samples[index].record(latency, response.statusCode() != 200
+                || objectMapper.readTree(response.body()).path("isError").asBoolean());
+      } catch (IOException e) {
+        samples[index].fail();
+      }
+    }
+    return samples;
+  }
+
+  private void writeReport(URI base, CallMix mix, int clients, double seconds, List<Samples> samples)
+          throws IOException
+  {
+    Samples total = new Samples();
+    Map<String, Object> calls = new LinkedHashMap<>();
+    for (int i = 0; i < samples.size(); i++) {
+      total.merge(samples.get(i));
+      calls.put(mix.getEntries().get(i).label(), samples.get(i).summarize(seconds));
+    }
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("version", System.getProperty("loadtest.version", "unknown"));
+    report.put("timestamp", Instant.now().toString());
+    report.put("java", Runtime.version().toString());
+    report.put("target", base.toString());
+    report.put("simulated", options.get("url").isBlank());
+    report.put("transaction_us", options.get("url").isBlank() ? Long.valueOf(options.get("transaction-us")) : null);
+    report.put("clients", clients);
+    report.put("duration_s", Math.round(seconds * 10) / 10.0);
+    report.put("mix", options.get("mix"));
+    report.put("total", total.summarize(seconds));
+    report.put("calls", calls);
+    String json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report);
+    Path output = Path.of(options.get("output"));
+    if (output.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(output.toAbsolutePath().getParent());
+    }
+    Files.writeString(output, json);
+    System.out.println(json);
+    System.out.println("Report written to " + output);
+  }
+
+  /**
+   * Parses a duration option such as 500ms, 30s or 2m.
+   */
+  private Duration duration(String name)
+  {
+    String value = options.get(name).trim();
+    try {
+      if (value.endsWith("ms")) {
+        return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+      } else if (value.endsWith("s")) {
+        return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+      } else if (value.endsWith("m")) {
+        return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException("Invalid duration for " + name + ": " + value
+            + ", expected e.g. 500ms, 30s or 2m");
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latencies of one kind of call. Each virtual client records into its own instance, the instances are merged after
+ * the run; percentiles are exact (nearest rank over all samples), not estimated from buckets.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+final class Samples {
+
+  private long[] nanos = new long[1024];
+
+  private int count;
+
+  private long errors;
+
+  /**
+   * Records the latency of a completed call.
+   *
+   * @param latency the time from sending the request to receiving the response in nanoseconds
+   * @param error whether the call failed
+   */
+  void record(long latency, boolean error)
+  {
+    if (count == nanos.length) {
+      nanos = Arrays.copyOf(nanos, count * 2);
+    }
+    nanos[count++] = latency;
+    if (error) {
+      errors++;
+    }
+  }
+
+  /**
+   * Counts a call that did not complete, e.g. on a timeout. Its latency is not recorded.
+   */
+  void fail()
+  {
+    errors++;
+  }
+
+  /**
+   * Adds the samples of another instance.
+   *
+   * @param other the samples to add
+   */
+  void merge(Samples other)
+  {
+    if (count + other.count > nanos.length) {
+      nanos = Arrays.copyOf(nanos, count + other.count);
+    }
+    System.arraycopy(other.nanos, 0, nanos, count, other.count);
+    count += other.count;
+    errors += other.errors;
+  }
+
+  /**
+   * Gets the number of completed calls.
+   *
+   * @return the count
+   */
+  int getCount()
+  {
+    return count;
+  }
+
+  /**
+   * Summarizes the samples for the report.
+   *
+   * @param seconds the length of the measurement in seconds
+   * @return requests, errors, throughput in requests per second and the latency percentiles in milliseconds
+   */
+  Map<String, Object> summarize(double seconds)
+  {
+    long[] sorted = Arrays.copyOf(nanos, count);
+    Arrays.sort(sorted);
+    Map<String, Object> latency = new LinkedHashMap<>();
+    latency.put("p50", millis(percentile(sorted, 0.5)));
+    latency.put("p95", millis(percentile(sorted, 0.95)));
+    latency.put("p99", millis(percentile(sorted, 0.99)));
+    latency.put("p999", millis(percentile(sorted, 0.999)));
+    latency.put("max", millis(count == 0 ? 0 : sorted[count - 1]));
+    latency.put("mean", millis(count == 0 ? 0 : (long) Arrays.stream(sorted).average().orElse(0)));
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("requests", count);
+    summary.put("errors", errors);
+    summary.put("throughput_rps", Math.round(count / seconds * 10) / 10.0);
+    summary.put("latency_ms", latency);
+    return summary;
+  }
+
+  /**
+   * Gets a percentile by nearest rank.
+   *
+   * @param sorted the sorted samples
+   * @param p the percentile between 0 and 1
+   * @return the smallest sample that at least the fraction p of all samples does not exceed, 0 without samples
+   */
+  static long percentile(long[] sorted, double p)
+  {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(p * sorted.length);
+    return sorted[Math.clamp(rank - 1, 0, sorted.length - 1)];
+  }
+
+  private static double millis(long nanos)
+  {
+    return Math.round(nanos / 1000.0) / 1000.0;
+  }
+}
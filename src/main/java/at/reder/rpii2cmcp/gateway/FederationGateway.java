@@ -0,0 +1,415 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.gateway;
+
+import at.reder.rpii2cmcp.model.mcp.McpContent;
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolCall;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.resource.ToolCatalog;
+import at.reder.rpii2cmcp.tool.ToolArguments;
+import at.reder.rpii2cmcp.tool.ToolSchema;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Gateway mode of the server. The gateway aggregates the tool catalogues of the configured nodes and routes each tool
+ * call by a node qualified bus identifier such as <code>pi1:1</code> to the owning node, so agents only need to know
+ * one endpoint. Batches spanning several nodes are executed in parallel, one virtual thread per node; calls for the
+ * same node keep their order.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class FederationGateway {
+
+  private static final Logger LOG = Logger.getLogger(FederationGateway.class);
+
+  /**
+   * Name of the batch tool provided by the gateway itself.
+   */
+  public static final String BATCH_TOOL = "batch";
+
+  /**
+   * A tool call resolved to its node.
+   *
+   * @param node the node executing the call
+   * @param call the call with node local arguments
+   */
+  private record Routed(NodeClient node, McpToolCall call) {
+
+  }
+
+  /**
+   * Whether the gateway mode is enabled.
+   */
+  @ConfigProperty(name = "i2c.gateway.enabled", defaultValue = "false")
+  boolean enabled;
+
+  /**
+   * The nodes as <code>name=url</code> entries.
+   */
+  @ConfigProperty(name = "i2c.gateway.nodes")
+  Optional<List<String>> nodeConfig;
+
+  /**
+   * Connect and request timeout for node requests.
+   */
+  @ConfigProperty(name = "i2c.gateway.timeout", defaultValue = "5s")
+  Duration timeout;
+
+  /**
+   * Interval after which the aggregated tool catalogue is fetched again.
+   */
+  @ConfigProperty(name = "i2c.gateway.catalog-refresh", defaultValue = "60s")
+  Duration catalogRefresh;
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  @Inject
+  ToolCatalog toolCatalog;
+
+  private HttpClient http;
+
+  private Map<String, NodeClient> nodes = Map.of();
+
+  private volatile long catalogExpiry = System.nanoTime();
+
+  @PostConstruct
+  void init()
+  {
+    if (enabled) {
+      configure(nodeConfig.orElse(List.of()));
+    }
+  }
+
+  @PreDestroy
+  void close()
+  {
+    if (http != null) {
+      http.close();
+    }
+  }
+
+  /**
+   * Creates the node clients.
+   *
+   * @param entries the nodes as <code>name=url</code> entries
+   * @throws IllegalArgumentException if an entry is malformed or a node name is used twice
+   */
+  void configure(List<String> entries)
+  {
+    http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(timeout)
+            .build();
+    Map<String, NodeClient> clients = new LinkedHashMap<>();
+    for (String entry : entries) {
+      int separator = entry.indexOf('=');
+      if (separator <= 0 || separator == entry.length() - 1) {
+        throw new IllegalArgumentException("Invalid gateway node: " + entry + ". Expected name=url");
+      }
+      String name = entry.substring(0, separator).trim();
+      if (name.contains(":")) {
+        throw new IllegalArgumentException("Invalid gateway node name: " + name);
+      }
+      URI uri = URI.create(entry.substring(separator + 1).trim());
+      if (clients.putIfAbsent(name, new NodeClient(name, uri, http, objectMapper, timeout)) != null) {
+        throw new IllegalArgumentException("Duplicate gateway node: " + name);
+      }
+    }
+    nodes = clients;
+    LOG.infof("Gateway mode with %d nodes: %s", nodes.size(), String.join(", ", nodes.keySet()));
+  }
+
+  /**
+   * Checks whether the gateway mode is enabled.
+   *
+   * @return true in gateway mode
+   */
+  public boolean isEnabled()
+  {
+    return enabled;
+  }
+
+  /**
+   * Gets the configured nodes.
+   *
+   * @return the node clients by name, in configuration order
+   */
+  public Map<String, NodeClient> getNodes()
+  {
+    return nodes;
+  }
+
+  /**
+   * Drops the cached tool catalogue if the refresh interval has elapsed or the last fetch missed a node.
+   */
+  public void refreshIfStale()
+  {
+    if (System.nanoTime() - catalogExpiry >= 0) {
+      toolCatalog.invalidate();
+    }
+  }
+
+  /**
+   * Fetches the catalogues of all nodes in parallel and merges them. Each tool is listed once; its bus property is
+   * replaced by a node qualified bus, tools without bus get a node property. Unreachable nodes are skipped and the
+   * catalogue is fetched again on the next request.
+   *
+   * @return the aggregated tool definitions followed by the batch tool
+   */
+  public List<McpTool> getDefinitions()
+  {
+    Map<String, McpTool> merged = new LinkedHashMap<>();
+    boolean complete = true;
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      Map<NodeClient, Future<List<McpTool>>> futures = new LinkedHashMap<>();
+      for (NodeClient node : nodes.values()) {
+        futures.put(node, executor.submit(node::listTools));
+      }
+      for (Map.Entry<NodeClient, Future<List<McpTool>>> entry : futures.entrySet()) {
+        try {
+          for (McpTool tool : entry.getValue().get()) {
+            merged.putIfAbsent(tool.getName(), qualify(tool));
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          complete = false;
+        } catch (ExecutionException e) {
+          LOG.warnf("Cannot fetch tool catalogue of node %s: %s", entry.getKey().getName(), describe(e.getCause()));
+          complete = false;
+        }
+      }
+    }
+    long now = System.nanoTime();
+    catalogExpiry = complete ? now + catalogRefresh.toNanos() : now;
+    List<McpTool> tools = new ArrayList<>(merged.values());
+    tools.add(batchDefinition());
+    return tools;
+  }
+
+  /**
+   * Routes a tool call to the node owning the addressed bus.
+   *
+   * @param name the tool name
+   * @param arguments the arguments with a node qualified bus or a node argument
+   * @return the result of the node, or an error result if the node cannot be reached
+   * @throws IllegalArgumentException if the bus is not node qualified or the node is unknown
+   */
+  public McpToolResult call(String name, Map<String, Object> arguments)
+  {
+    if (BATCH_TOOL.equals(name)) {
+      return batch(new ToolArguments(arguments));
+    }
+    Routed routed = route(name, arguments);
+    return forward(routed);
+  }
+
+  private McpToolResult batch(ToolArguments arguments)
+  {
+    Object raw = arguments.asMap().get("calls");
+    if (!(raw instanceof List<?> list) || list.isEmpty()) {
+      throw new IllegalArgumentException("Argument calls must be a non-empty array of tool calls");
+    }
+    List<Routed> routed = new ArrayList<>();
+    for (Object element : list) {
+      if (!(element instanceof Map<?, ?> call) || !(call.get("name") instanceof String callName)) {
+        throw new IllegalArgumentException("Each call needs a name and optional arguments");
+      }
+      if (BATCH_TOOL.equals(callName)) {
+        throw new IllegalArgumentException("Batches cannot be nested");
+      }
+      routed.add(route(callName, toArguments(call.get("arguments"))));
+    }
+    Map<NodeClient, List<Integer>> byNode = new LinkedHashMap<>();
+    for (int i = 0; i < routed.size(); i++) {
+      byNode.computeIfAbsent(routed.get(i).node(), n -> new ArrayList<>()).add(i);
+    }
+    McpToolResult[] results = new McpToolResult[routed.size()];
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (List<Integer> indexes : byNode.values()) {
+        executor.submit(() -> {
+          for (int index : indexes) {
+            results[index] = forward(routed.get(index));
+          }
+        });
+      }
+    }
+    List<Map<String, Object>> entries = new ArrayList<>();
+    int failed = 0;
+    for (int i = 0; i < results.length; i++) {
+      Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put("node", routed.get(i).node().getName());
+      entry.put("name", routed.get(i).call().getName());
+      entry.put("isError", results[i].isError());
+      entry.put("text", text(results[i]));
+      if (results[i].getStructuredContent() != null) {
+        entry.put("structuredContent", results[i].getStructuredContent());
+      }
+      entries.add(entry);
+      if (results[i].isError()) {
+        failed++;
+      }
+    }
+    Map<String, Object> structured = new LinkedHashMap<>();
+    structured.put("nodes", byNode.size());
+    structured.put("failed", failed);
+    structured.put("results", entries);
+    return McpToolResult.success(String.format("Executed %d calls on %d nodes, %d failed",
+            results.length, byNode.size(), failed), structured);
+  }
+
+  private Routed route(String name, Map<String, Object> arguments)
+  {
+    Map<String, Object> local = new LinkedHashMap<>(arguments != null ? arguments : Map.of());
+    String nodeName;
+    Object bus = local.get("bus");
+    if (bus != null) {
+      String qualified = bus.toString();
+      int separator = qualified.lastIndexOf(':');
+      if (separator <= 0) {
+        throw new IllegalArgumentException("Bus must be node qualified (node:bus), e.g. "
+                + nodes.keySet().stream().findFirst().orElse("pi1") + ":1");
+      }
+      nodeName = qualified.substring(0, separator);
+      try {
+        local.put("bus", Integer.parseInt(qualified.substring(separator + 1)));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid bus: " + qualified);
+      }
+    } else if (local.get("node") instanceof String node) {
+      nodeName = node;
+      local.remove("node");
+    } else {
+      throw new IllegalArgumentException("Missing required argument: bus");
+    }
+    NodeClient node = nodes.get(nodeName);
+    if (node == null) {
+      throw new IllegalArgumentException("Unknown node: " + nodeName + ". Known nodes are: "
+              + String.join(", ", nodes.keySet()));
+    }
+    return new Routed(node, new McpToolCall(name, local));
+  }
+
+  private McpToolResult forward(Routed routed)
+  {
+    try {
+      McpToolResult result = routed.node().callTool(routed.call());
+      if (result == null) {
+        LOG.warnf("Tool call %s on node %s returned no result", routed.call().getName(), routed.node().getName());
+        return McpToolResult.error("Node " + routed.node().getName() + " returned no result");
+      }
+      return result;
+    } catch (IOException | RuntimeException e) {
+      // a failing node yields an error result, so the other calls of a batch still complete
+      LOG.warnf("Tool call %s on node %s failed: %s", routed.call().getName(), routed.node().getName(), describe(e));
+      return McpToolResult.error("Node " + routed.node().getName() + " failed: " + describe(e));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return McpToolResult.error("Node " + routed.node().getName() + " call interrupted");
+    }
+  }
+
+  private static String describe(Throwable e)
+  {
+    return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> toArguments(Object raw)
+  {
+    if (raw == null) {
+      return Map.of();
+    }
+    if (raw instanceof Map<?, ?>) {
+      return (Map<String, Object>) raw;
+    }
+    throw new IllegalArgumentException("Call arguments must be an object");
+  }
+
+  private static String text(McpToolResult result)
+  {
+    if (result.getContent() == null) {
+      return "";
+    }
+    return result.getContent().stream().map(McpContent::getText).collect(Collectors.joining("\n"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private McpTool qualify(McpTool tool)
+  {
+    Map<String, Object> schema = new LinkedHashMap<>(tool.getInputSchema() != null ? tool.getInputSchema() : Map.of());
+    Map<String, Object> properties = new LinkedHashMap<>();
+    if (schema.get("properties") instanceof Map<?, ?> existing) {
+      properties.putAll((Map<String, Object>) existing);
+    }
+    String nodeList = String.join(", ", nodes.keySet());
+    if (properties.containsKey("bus")) {
+      properties.put("bus", Map.of("type", "string",
+              "description", "Node qualified I2C bus (node:bus, e.g. pi1:1). Nodes: " + nodeList));
+    } else {
+      properties.put("node", Map.of("type", "string",
+              "description", "Node to execute the tool on. Nodes: " + nodeList));
+      List<Object> required = new ArrayList<>();
+      if (schema.get("required") instanceof List<?> existing) {
+        required.addAll(existing);
+      }
+      required.add("node");
+      schema.put("required", List.copyOf(required));
+    }
+    schema.put("properties", properties);
+    return new McpTool(tool.getName(), tool.getDescription(), schema);
+  }
+
+  private static McpTool batchDefinition()
+  {
+    Map<String, Object> call = Map.of(
+            "type", "object",
+            "properties", Map.of(
+                    "name", Map.of("type", "string", "description", "Tool name"),
+                    "arguments", Map.of("type", "object", "description", "Tool arguments with node qualified bus")),
+            "required", List.of("name"));
+    return new McpTool(BATCH_TOOL,
+            "Execute several tool calls in one request. Calls on different nodes run in parallel, calls on the same "
+            + "node run in the given order. Results are returned in request order.",
+            ToolSchema.object()
+                    .property("calls", Map.of("type", "array", "items", call,
+                            "description", "The tool calls to execute"), true)
+                    .build());
+  }
+}
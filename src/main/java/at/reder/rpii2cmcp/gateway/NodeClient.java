@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.gateway;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolCall;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Client for the tool endpoints of one federated node. All clients of a gateway share one {@link HttpClient}, which
+ * keeps idle HTTP/1.1 connections alive and reuses them for subsequent requests to the same node.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public final class NodeClient {
+
+  private static final TypeReference<List<McpTool>> TOOL_LIST = new TypeReference<>() {
+  };
+
+  private final String name;
+
+  private final URI baseUri;
+
+  private final HttpClient http;
+
+  private final ObjectMapper objectMapper;
+
+  private final Duration timeout;
+
+  /**
+   * Creates a node client.
+   *
+   * @param name the node name used in qualified bus identifiers
+   * @param baseUri the base URI of the node, e.g. http://pi1:8080 or http://gw/pi1/ behind a reverse proxy
+   * @param http the shared HTTP client
+   * @param objectMapper the mapper for request and response bodies
+   * @param timeout the request timeout
+   */
+  public NodeClient(String name, URI baseUri, HttpClient http, ObjectMapper objectMapper, Duration timeout)
+  {
+    this.name = name;
+    // the tool paths are resolved relative to the base, so a path prefix of the node is kept
+    this.baseUri = baseUri.getPath().endsWith("/") ? baseUri : URI.create(baseUri + "/");
+    this.http = http;
+    this.objectMapper = objectMapper;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Gets the node name.
+   *
+   * @return the name
+   */
+  public String getName()
+  {
+    return name;
+  }
+
+  /**
+   * Gets the base URI of the node.
+   *
+   * @return the base URI, ending with a slash
+   */
+  public URI getBaseUri()
+  {
+    return baseUri;
+  }
+
+  /**
+   * Fetches the tool catalogue of the node.
+   *
+   * @return the tools offered by the node
+   * @throws IOException if the node cannot be reached or answers with an error status
+   * @throws InterruptedException if the calling thread is interrupted
+   */
+  public List<McpTool> listTools() throws IOException, InterruptedException
+  {
+    HttpRequest request = request("tools/list").GET().build();
+    return objectMapper.readValue(send(request), TOOL_LIST);
+  }
+
+  /**
+   * Executes a tool call on the node.
+   *
+   * @param call the tool call with node local arguments
+   * @return the result reported by the node
+   * @throws IOException if the node cannot be reached or answers with an error status
+   * @throws InterruptedException if the calling thread is interrupted
+   */
+  public McpToolResult callTool(McpToolCall call) throws IOException, InterruptedException
+  {
+    HttpRequest request = request("tools/call")
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(call)))
+            .build();
+    return objectMapper.readValue(send(request), McpToolResult.class);
+  }
+
+  private HttpRequest.Builder request(String path)
+  {
+    return HttpRequest.newBuilder(baseUri.resolve(path))
+            .timeout(timeout)
+            .header("Accept", "application/json");
+  }
+
+  private byte[] send(HttpRequest request) throws IOException, InterruptedException
+  {
+    HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    if (response.statusCode() != 200) {
+      throw new IOException("HTTP " + response.statusCode() + " from " + request.uri());
+    }
+    return response.body();
+  }
+}
@@ -62,6 +62,12 @@ public class I2CCommand {
   @JsonProperty("mode")
   private String mode;
 
+  /**
+   * Whether a write is executed even if the shadow copy of the register already holds the value.
+   */
+  @JsonProperty("force")
+  private boolean force;
+
   /**
    * Default constructor for Jackson deserialization.
    */
@@ -213,4 +219,24 @@ public class I2CCommand {
     this.mode = mode;
   }
 
+  /**
+   * Checks whether a write bypasses the write elision of shadowed registers.
+   *
+   * @return true to always write
+   */
+  public boolean isForce()
+  {
+    return force;
+  }
+
+  /**
+   * Sets whether a write bypasses the write elision of shadowed registers.
+   *
+   * @param force true to always write
+   */
+  public void setForce(boolean force)
+  {
+    this.force = force;
+  }
+
 }
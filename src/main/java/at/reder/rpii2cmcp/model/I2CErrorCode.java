@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.model;
+
+import java.util.Locale;
+
+/**
+ * Classified cause of a failed I2C command, derived from the error output of i2c-tools.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public enum I2CErrorCode {
+
+    /**
+     * The device did not acknowledge, typically because it is absent or powered off.
+     */
+    NACK,
+    /**
+     * The transfer timed out, e.g. because a device holds the clock line low.
+     */
+    TIMEOUT,
+    /**
+     * The bus or the address is in use by a kernel driver or another process.
+     */
+    BUSY,
+    /**
+     * The process may not open the bus device.
+     */
+    PERMISSION,
+    /**
+     * The bus device does not exist.
+     */
+    NO_BUS,
+    /**
+     * The command parameters are invalid.
+     */
+    INVALID,
+    /**
+     * I2C commands are disabled by configuration.
+     */
+    DISABLED,
+    /**
+     * The command was rejected without bus access because the device failed repeatedly.
+     */
+    CIRCUIT_OPEN,
+    /**
+     * Any other failure.
+     */
+    UNKNOWN;
+
+    /**
+     * Classifies the error output of i2cget or i2cset.
+     *
+     * @param output the output, may be null
+     * @return the error code
+     */
+    public static I2CErrorCode classify(String output) {
+        if (output == null) {
+            return UNKNOWN;
+        }
+        String text = output.toLowerCase(Locale.ROOT);
+        if (text.contains("permission denied") || text.contains("operation not permitted")) {
+            return PERMISSION;
+        }
+        if (text.contains("no such file or directory") || text.contains("could not open file")) {
+            return NO_BUS;
+        }
+        if (text.contains("resource busy")) {
+            return BUSY;
+        }
+        if (text.contains("timed out") || text.contains("timeout")) {
+            return TIMEOUT;
+        }
+        if (text.contains("read failed") || text.contains("write failed") || text.contains("remote i/o error")
+                || text.contains("no such device or address")) {
+            return NACK;
+        }
+        return UNKNOWN;
+    }
+}
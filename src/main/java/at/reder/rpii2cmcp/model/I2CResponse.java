@@ -15,6 +15,7 @@
  */
 package at.reder.rpii2cmcp.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -44,12 +45,32 @@ public class I2CResponse {
     @JsonProperty("error")
     private String error;
 
+    /**
+     * Classified cause of the error, or null if the operation succeeded.
+     */
+    @JsonProperty("errorCode")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private I2CErrorCode errorCode;
+
     /**
      * The original command that was executed.
      */
     @JsonProperty("command")
     private String command;
 
+    /**
+     * The raw bytes read from the device in bus (wire) order, or null if not applicable.
+     */
+    @JsonProperty("bytes")
+    private byte[] bytes;
+
+    /**
+     * Whether the response was served from the shadow copy of the register without bus access.
+     */
+    @JsonProperty("shadow")
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean shadow;
+
     /**
      * Default constructor.
      */
@@ -83,6 +104,20 @@ public class I2CResponse {
         this.command = command;
     }
 
+    /**
+     * Creates a failed response with a classified cause.
+     *
+     * @param errorCode the cause of the error
+     * @param error     the error message
+     * @param command   the command that was executed
+     * @return the response
+     */
+    public static I2CResponse failure(I2CErrorCode errorCode, String error, String command) {
+        I2CResponse response = new I2CResponse(false, null, error, command);
+        response.errorCode = errorCode;
+        return response;
+    }
+
     /**
      * Gets the success status.
      *
@@ -137,6 +172,24 @@ public class I2CResponse {
         this.error = error;
     }
 
+    /**
+     * Gets the classified cause of the error.
+     *
+     * @return the error code, or null if the operation succeeded or the cause was not classified
+     */
+    public I2CErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     * Sets the classified cause of the error.
+     *
+     * @param errorCode the error code
+     */
+    public void setErrorCode(I2CErrorCode errorCode) {
+        this.errorCode = errorCode;
+    }
+
     /**
      * Gets the executed command.
      *
@@ -154,4 +207,40 @@ public class I2CResponse {
     public void setCommand(String command) {
         this.command = command;
     }
+
+    /**
+     * Gets the raw bytes read from the device.
+     *
+     * @return the bytes in bus order, or null if not applicable
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Sets the raw bytes read from the device.
+     *
+     * @param bytes the bytes in bus order
+     */
+    public void setBytes(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Checks whether the response was served from the shadow copy of the register.
+     *
+     * @return true if the device was not accessed
+     */
+    public boolean isShadow() {
+        return shadow;
+    }
+
+    /**
+     * Sets whether the response was served from the shadow copy of the register.
+     *
+     * @param shadow true if the device was not accessed
+     */
+    public void setShadow(boolean shadow) {
+        this.shadow = shadow;
+    }
 }
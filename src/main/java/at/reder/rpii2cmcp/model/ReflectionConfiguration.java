@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.model;
+
+import at.reder.rpii2cmcp.model.mcp.McpContent;
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolCall;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.model.profile.BitField;
+import at.reder.rpii2cmcp.model.profile.DeviceProfile;
+import at.reder.rpii2cmcp.model.profile.EepromDefinition;
+import at.reder.rpii2cmcp.model.profile.RegisterDefinition;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Registers the model classes for reflection in native images. Quarkus detects the types of REST method parameters
+ * and return values automatically, but not the classes mapped by the YAML and CBOR mappers or nested in generic
+ * structures.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@RegisterForReflection(targets = {
+  I2CCommand.class,
+  I2CResponse.class,
+  ServerEvent.class,
+  McpContent.class,
+  McpTool.class,
+  McpToolCall.class,
+  McpToolResult.class,
+  BitField.class,
+  DeviceProfile.class,
+  EepromDefinition.class,
+  RegisterDefinition.class
+})
+public final class ReflectionConfiguration {
+
+    private ReflectionConfiguration() {
+    }
+}
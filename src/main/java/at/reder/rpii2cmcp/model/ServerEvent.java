@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Map;
+
+/**
+ * An event pushed to clients over the server event stream, e.g. a threshold crossing detected by a monitor.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public class ServerEvent {
+
+    /**
+     * The event type, e.g. "monitor".
+     */
+    @JsonProperty("type")
+    private String type;
+
+    /**
+     * The id of the object that raised the event, e.g. the monitor id.
+     */
+    @JsonProperty("source")
+    private String source;
+
+    /**
+     * Time of the event in milliseconds since the epoch.
+     */
+    @JsonProperty("timestamp")
+    private long timestamp;
+
+    /**
+     * Event specific data.
+     */
+    @JsonProperty("data")
+    private Map<String, Object> data;
+
+    /**
+     * Default constructor.
+     */
+    public ServerEvent() {
+    }
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param type the event type
+     * @param source the id of the event source
+     * @param timestamp the time of the event in milliseconds since the epoch
+     * @param data the event data
+     */
+    public ServerEvent(String type, String source, long timestamp, Map<String, Object> data) {
+        this.type = type;
+        this.source = source;
+        this.timestamp = timestamp;
+        this.data = data;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Map<String, Object> getData() {
+        return data;
+    }
+
+    public void setData(Map<String, Object> data) {
+        this.data = data;
+    }
+}
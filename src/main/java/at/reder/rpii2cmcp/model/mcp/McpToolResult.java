@@ -15,8 +15,10 @@
  */
 package at.reder.rpii2cmcp.model.mcp;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents the result of an MCP tool call.
@@ -32,6 +34,10 @@ public class McpToolResult {
     @JsonProperty("isError")
     private boolean isError;
 
+    @JsonProperty("structuredContent")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Object> structuredContent;
+
     public McpToolResult() {
     }
 
@@ -44,10 +50,22 @@ public class McpToolResult {
         return new McpToolResult(List.of(new McpContent("text", text)), false);
     }
 
+    public static McpToolResult success(String text, Map<String, Object> structuredContent) {
+        McpToolResult result = success(text);
+        result.setStructuredContent(structuredContent);
+        return result;
+    }
+
     public static McpToolResult error(String text) {
         return new McpToolResult(List.of(new McpContent("text", text)), true);
     }
 
+    public static McpToolResult error(String text, Map<String, Object> structuredContent) {
+        McpToolResult result = error(text);
+        result.setStructuredContent(structuredContent);
+        return result;
+    }
+
     public List<McpContent> getContent() {
         return content;
     }
@@ -63,4 +81,12 @@ public class McpToolResult {
     public void setError(boolean error) {
         isError = error;
     }
+
+    public Map<String, Object> getStructuredContent() {
+        return structuredContent;
+    }
+
+    public void setStructuredContent(Map<String, Object> structuredContent) {
+        this.structuredContent = structuredContent;
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.model.profile;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A named group of bits inside a register.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public class BitField {
+
+    /**
+     * The name of the bit field.
+     */
+    @JsonProperty("name")
+    private String name;
+
+    /**
+     * The position of the least significant bit of the field.
+     */
+    @JsonProperty("lsb")
+    private int lsb;
+
+    /**
+     * The number of bits of the field.
+     */
+    @JsonProperty("bits")
+    private int bits = 1;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public BitField() {
+    }
+
+    /**
+     * Creates a new bit field.
+     *
+     * @param name the field name
+     * @param lsb  the position of the least significant bit
+     * @param bits the number of bits
+     */
+    public BitField(String name, int lsb, int bits) {
+        this.name = name;
+        this.lsb = lsb;
+        this.bits = bits;
+    }
+
+    /**
+     * Extracts the field from an unsigned raw register value.
+     *
+     * @param raw the raw register value
+     * @return the field value
+     */
+    public long extract(long raw) {
+        return (raw >>> lsb) & ((1L << bits) - 1);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getLsb() {
+        return lsb;
+    }
+
+    public void setLsb(int lsb) {
+        this.lsb = lsb;
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    public void setBits(int bits) {
+        this.bits = bits;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.model.profile;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes the register layout of an I2C device type, and for EEPROMs the memory layout.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public class DeviceProfile {
+
+    /**
+     * The profile name, taken from the key in the profile file.
+     */
+    @JsonProperty("name")
+    private String name;
+
+    /**
+     * A human readable description of the device.
+     */
+    @JsonProperty("description")
+    private String description;
+
+    /**
+     * Whether the device advances its register pointer during sequential reads, which allows several registers to be
+     * fetched with one block read.
+     */
+    @JsonProperty("autoIncrement")
+    private boolean autoIncrement = true;
+
+    /**
+     * The registers of the device.
+     */
+    @JsonProperty("registers")
+    private List<RegisterDefinition> registers = new ArrayList<>();
+
+    /**
+     * The memory layout if the device is an EEPROM, otherwise null.
+     */
+    @JsonProperty("eeprom")
+    private EepromDefinition eeprom;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public DeviceProfile() {
+    }
+
+    /**
+     * Creates a new device profile.
+     *
+     * @param name        the profile name
+     * @param description the description
+     * @param registers   the register definitions
+     */
+    public DeviceProfile(String name, String description, List<RegisterDefinition> registers) {
+        this.name = name;
+        this.description = description;
+        this.registers = registers;
+    }
+
+    /**
+     * Looks up a register by name.
+     *
+     * @param registerName the register name
+     * @return the register, or null if the profile has no such register
+     */
+    public RegisterDefinition getRegister(String registerName) {
+        for (RegisterDefinition register : registers) {
+            if (register.getName().equals(registerName)) {
+                return register;
+            }
+        }
+        return null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public boolean isAutoIncrement() {
+        return autoIncrement;
+    }
+
+    public void setAutoIncrement(boolean autoIncrement) {
+        this.autoIncrement = autoIncrement;
+    }
+
+    public List<RegisterDefinition> getRegisters() {
+        return registers;
+    }
+
+    public void setRegisters(List<RegisterDefinition> registers) {
+        this.registers = registers;
+    }
+
+    public EepromDefinition getEeprom() {
+        return eeprom;
+    }
+
+    public void setEeprom(EepromDefinition eeprom) {
+        this.eeprom = eeprom;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.model.profile;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Describes the memory of a serial EEPROM such as the 24Cxx series.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public class EepromDefinition {
+
+    /**
+     * The memory size in bytes.
+     */
+    @JsonProperty("size")
+    private int size;
+
+    /**
+     * The write page size in bytes. A write must not cross a page boundary, the device would wrap around within the
+     * page.
+     */
+    @JsonProperty("pageSize")
+    private int pageSize;
+
+    /**
+     * The number of memory address bytes sent before the data: 1 for devices up to 2 KB, which take the upper address
+     * bits from the device address, or 2.
+     */
+    @JsonProperty("addressWidth")
+    private int addressWidth = 1;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public EepromDefinition() {
+    }
+
+    /**
+     * Creates a new EEPROM definition.
+     *
+     * @param size         the memory size in bytes
+     * @param pageSize     the write page size in bytes
+     * @param addressWidth the number of memory address bytes
+     */
+    public EepromDefinition(int size, int pageSize, int addressWidth) {
+        this.size = size;
+        this.pageSize = pageSize;
+        this.addressWidth = addressWidth;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int getAddressWidth() {
+        return addressWidth;
+    }
+
+    public void setAddressWidth(int addressWidth) {
+        this.addressWidth = addressWidth;
+    }
+}
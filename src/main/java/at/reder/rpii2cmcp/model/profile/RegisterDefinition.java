@@ -0,0 +1,230 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.model.profile;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes a single device register: its address, width, encoding and how the raw value is converted into
+ * engineering units.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public class RegisterDefinition {
+
+    /**
+     * The register name.
+     */
+    @JsonProperty("name")
+    private String name;
+
+    /**
+     * The register address in hex format (e.g., "0x00").
+     */
+    @JsonProperty("register")
+    private String register;
+
+    /**
+     * The register width in bytes (1 to 4).
+     */
+    @JsonProperty("width")
+    private int width = 1;
+
+    /**
+     * The byte order of multi-byte registers: "big" (default) or "little".
+     */
+    @JsonProperty("endian")
+    private String endian = "big";
+
+    /**
+     * Whether the raw value is a two's complement number.
+     */
+    @JsonProperty("signed")
+    private boolean signed;
+
+    /**
+     * Number of bits the raw value is shifted right before scaling (e.g., 4 for left-justified 12 bit values).
+     */
+    @JsonProperty("shift")
+    private int shift;
+
+    /**
+     * Factor applied to the raw value, or null to keep the raw integer.
+     */
+    @JsonProperty("scale")
+    private Double scale;
+
+    /**
+     * Offset added after scaling, or null for none.
+     */
+    @JsonProperty("offset")
+    private Double offset;
+
+    /**
+     * The engineering unit of the scaled value.
+     */
+    @JsonProperty("unit")
+    private String unit;
+
+    /**
+     * Bit fields contained in the register.
+     */
+    @JsonProperty("bitfields")
+    private List<BitField> bitfields = new ArrayList<>();
+
+    /**
+     * Whether the register never changes (e.g., a chip id or factory calibration). It is read once per device and then
+     * served from a cache.
+     */
+    @JsonProperty("constant")
+    private boolean constant;
+
+    /**
+     * Whether the server keeps a shadow copy of the register (e.g., a write-only or slow configuration register). Reads
+     * are served from the last written value and writes of an unchanged value are skipped.
+     */
+    @JsonProperty("shadow")
+    private boolean shadow;
+
+    /**
+     * Default constructor for Jackson deserialization.
+     */
+    public RegisterDefinition() {
+    }
+
+    /**
+     * Creates a new register definition with default encoding.
+     *
+     * @param name     the register name
+     * @param register the register address in hex format
+     * @param width    the width in bytes
+     */
+    public RegisterDefinition(String name, String register, int width) {
+        this.name = name;
+        this.register = register;
+        this.width = width;
+    }
+
+    /**
+     * Gets the register address as number.
+     *
+     * @return the register address
+     */
+    @JsonIgnore
+    public int getAddress() {
+        return Integer.decode(register);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getRegister() {
+        return register;
+    }
+
+    public void setRegister(String register) {
+        this.register = register;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public String getEndian() {
+        return endian;
+    }
+
+    public void setEndian(String endian) {
+        this.endian = endian;
+    }
+
+    public boolean isSigned() {
+        return signed;
+    }
+
+    public void setSigned(boolean signed) {
+        this.signed = signed;
+    }
+
+    public int getShift() {
+        return shift;
+    }
+
+    public void setShift(int shift) {
+        this.shift = shift;
+    }
+
+    public Double getScale() {
+        return scale;
+    }
+
+    public void setScale(Double scale) {
+        this.scale = scale;
+    }
+
+    public Double getOffset() {
+        return offset;
+    }
+
+    public void setOffset(Double offset) {
+        this.offset = offset;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
+    public List<BitField> getBitfields() {
+        return bitfields;
+    }
+
+    public void setBitfields(List<BitField> bitfields) {
+        this.bitfields = bitfields;
+    }
+
+    public boolean isConstant() {
+        return constant;
+    }
+
+    public void setConstant(boolean constant) {
+        this.constant = constant;
+    }
+
+    public boolean isShadow() {
+        return shadow;
+    }
+
+    public void setShadow(boolean shadow) {
+        this.shadow = shadow;
+    }
+}
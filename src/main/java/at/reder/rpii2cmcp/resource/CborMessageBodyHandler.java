@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.resource;
+
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes request and response bodies as CBOR (RFC 8949). Clients select it with
+ * <code>Content-Type: application/cbor</code> and <code>Accept: application/cbor</code>. Compared to JSON, CBOR saves
+ * the number formatting and parsing and carries byte arrays as native byte strings instead of base64 text.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@Provider
+@Produces(CborMessageBodyHandler.APPLICATION_CBOR)
+@Consumes(CborMessageBodyHandler.APPLICATION_CBOR)
+public class CborMessageBodyHandler implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+  /**
+   * The CBOR media type.
+   */
+  public static final String APPLICATION_CBOR = "application/cbor";
+
+  private static final MediaType APPLICATION_CBOR_TYPE = MediaType.valueOf(APPLICATION_CBOR);
+
+  private final CBORMapper mapper = createMapper();
+
+  /**
+   * Creates a CBOR mapper that leaves the entity streams open for the container. Like the Quarkus JSON mapper it
+   * ignores unknown properties, so a request is accepted in both formats or in neither.
+   *
+   * @return a new mapper
+   */
+  static CBORMapper createMapper()
+  {
+    return CBORMapper.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .build();
+  }
+
+  @Override
+  public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType)
+  {
+    return APPLICATION_CBOR_TYPE.isCompatible(mediaType);
+  }
+
+  @Override
+  public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                         MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException
+  {
+    return mapper.readValue(entityStream, mapper.constructType(genericType));
+  }
+
+  @Override
+  public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType)
+  {
+    return APPLICATION_CBOR_TYPE.isCompatible(mediaType);
+  }
+
+  @Override
+  public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                      MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException
+  {
+    mapper.writerFor(mapper.constructType(genericType)).writeValue(entityStream, value);
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.resource;
+
+import at.reder.rpii2cmcp.model.profile.EepromDefinition;
+import at.reder.rpii2cmcp.service.EepromService;
+import at.reder.rpii2cmcp.service.Lane;
+import at.reder.rpii2cmcp.service.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.logging.Logger;
+
+/**
+ * Transfers EEPROM images as binary bodies. Unlike the eeprom tool, images are neither hex nor base64 encoded, and a
+ * write streams the request body instead of parsing it into a JSON document. The progress of both directions is
+ * published as <code>eeprom</code> events on <code>/events</code>. Transfers run with {@link Priority#BULK}, so
+ * interactive calls on the bus are served between them.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@Path("/eeprom/{bus}/{address}")
+@Tag(name = "EEPROM", description = "Binary EEPROM images")
+public class EepromResource {
+
+  private static final Logger LOG = Logger.getLogger(EepromResource.class);
+
+  @Inject
+  EepromService eepromService;
+
+  /**
+   * Reads a range of an EEPROM.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param profile the EEPROM profile
+   * @param size the memory size, overrides the profile
+   * @param pageSize the page size, overrides the profile
+   * @param addressWidth the number of address bytes, overrides the profile
+   * @param offset the first memory address
+   * @param length the number of bytes, or null to read up to the end of the memory
+   * @return the bytes read, or an error
+   */
+  @GET
+  @Operation(summary = "Read EEPROM", description = "Reads a range of an EEPROM as binary data")
+  @APIResponses(value = {
+    @APIResponse(responseCode = "200", description = "The data read"),
+    @APIResponse(responseCode = "400", description = "Invalid parameters"),
+    @APIResponse(responseCode = "502", description = "The device did not answer")
+  })
+  public Response read(
+          @PathParam("bus") int bus,
+          @PathParam("address") String address,
+          @Parameter(description = "EEPROM device profile, e.g. 24c32") @QueryParam("profile") String profile,
+          @QueryParam("size") Integer size,
+          @QueryParam("pageSize") Integer pageSize,
+          @QueryParam("addressWidth") Integer addressWidth,
+          @QueryParam("offset") @DefaultValue("0") int offset,
+          @QueryParam("length") Integer length)
+  {
+    try {
+      EepromDefinition eeprom = eepromService.resolve(profile, size, pageSize, addressWidth);
+      int device = EepromService.parseAddress(address);
+      int count = length != null ? length : eeprom.getSize() - offset;
+      byte[] data = Lane.call(Priority.BULK, null, () -> eepromService.read(bus, device, eeprom, offset, count));
+      return Response.ok(data, MediaType.APPLICATION_OCTET_STREAM).build();
+    } catch (IllegalArgumentException e) {
+      return error(Response.Status.BAD_REQUEST, e);
+    } catch (IOException e) {
+      return error(Response.Status.BAD_GATEWAY, e);
+    }
+  }
+
+  /**
+   * Writes the request body to an EEPROM.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param profile the EEPROM profile
+   * @param size the memory size, overrides the profile
+   * @param pageSize the page size, overrides the profile
+   * @param addressWidth the number of address bytes, overrides the profile
+   * @param offset the first memory address
+   * @param verify true to read the data back and compare it
+   * @param body the data
+   * @return the write statistics, or an error
+   */
+  @PUT
+  @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+  @Operation(summary = "Write EEPROM", description = "Writes the binary request body with page writes")
+  @APIResponses(value = {
+    @APIResponse(responseCode = "200", description = "Data written"),
+    @APIResponse(responseCode = "400", description = "Invalid parameters or data exceeds the EEPROM"),
+    @APIResponse(responseCode = "502", description = "The device did not answer or verification failed")
+  })
+  public Response write(
+          @PathParam("bus") int bus,
+          @PathParam("address") String address,
+          @Parameter(description = "EEPROM device profile, e.g. 24c32") @QueryParam("profile") String profile,
+          @QueryParam("size") Integer size,
+          @QueryParam("pageSize") Integer pageSize,
+          @QueryParam("addressWidth") Integer addressWidth,
+          @QueryParam("offset") @DefaultValue("0") int offset,
+          @QueryParam("verify") boolean verify,
+          InputStream body)
+  {
+    try {
+      EepromDefinition eeprom = eepromService.resolve(profile, size, pageSize, addressWidth);
+      int device = EepromService.parseAddress(address);
+      byte[] data = EepromService.readPayload(body, Math.max(0, eeprom.getSize() - offset));
+      EepromService.WriteResult result = Lane.call(Priority.BULK, null,
+              () -> eepromService.write(bus, device, eeprom, offset, data, verify));
+      return Response.ok(result.toMap(), MediaType.APPLICATION_JSON).build();
+    } catch (IllegalArgumentException e) {
+      return error(Response.Status.BAD_REQUEST, e);
+    } catch (IOException e) {
+      return error(Response.Status.BAD_GATEWAY, e);
+    }
+  }
+
+  private static Response error(Response.Status status, Exception e)
+  {
+    LOG.warnf("EEPROM request failed: %s", e.getMessage());
+    return Response.status(status).type(MediaType.APPLICATION_JSON).entity(Map.of("error", e.getMessage())).build();
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.resource;
+
+import at.reder.rpii2cmcp.model.ServerEvent;
+import at.reder.rpii2cmcp.service.EventStream;
+import io.smallrye.mutiny.Multi;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+/**
+ * Server-sent event stream for notifications raised by the server, such as threshold crossings of monitors. Clients
+ * keep one connection open instead of polling tool calls.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@Path("/events")
+@Tag(name = "Events", description = "Server-sent event stream")
+public class EventResource {
+
+  private static final Logger LOG = Logger.getLogger(EventResource.class);
+
+  @Inject
+  EventStream eventStream;
+
+  /**
+   * Streams server events as they occur.
+   *
+   * @param type only events of this type (optional)
+   * @param source only events of this source (optional)
+   * @return the event stream, one JSON object per event
+   */
+  @GET
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  @RestStreamElementType(MediaType.APPLICATION_JSON)
+  @Operation(summary = "Stream server events",
+          description = "Streams events such as monitor threshold crossings as server-sent events")
+  public Multi<ServerEvent> events(
+          @Parameter(description = "Event type filter, e.g. monitor") @QueryParam("type") String type,
+          @Parameter(description = "Event source filter, e.g. a monitor id") @QueryParam("source") String source)
+  {
+    LOG.infof("Event stream subscription: type=%s, source=%s", type, source);
+    return eventStream.subscribe(type, source);
+  }
+}
@@ -15,25 +15,28 @@
  */
 package at.reder.rpii2cmcp.resource;
 
-import at.reder.rpii2cmcp.model.I2CCommand;
-import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.gateway.FederationGateway;
 import at.reder.rpii2cmcp.model.mcp.McpTool;
 import at.reder.rpii2cmcp.model.mcp.McpToolCall;
 import at.reder.rpii2cmcp.model.mcp.McpToolResult;
 import at.reder.rpii2cmcp.service.I2CService;
+import at.reder.rpii2cmcp.tool.ToolRegistry;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
@@ -42,29 +45,42 @@ import org.jboss.logging.Logger;
 
 /**
  * MCP Server resource for I2C command execution. Provides tools for executing I2C read and write operations via MCP
- * protocol.
+ * protocol. The tools themselves are provided by the {@link ToolRegistry}; in gateway mode the tools of the federated
+ * nodes are served and calls are routed by the {@link FederationGateway}.
  *
  * @author Wolfgang Reder
  * @version 1.0.0
  */
 @Path("/tools")
 @Tag(name = "MCP Tools", description = "MCP Server tool endpoints for I2C operations")
-@Produces(MediaType.APPLICATION_JSON)
-@Consumes(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+@Consumes({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
 public class I2CResource {
 
   private static final Logger LOG = Logger.getLogger(I2CResource.class);
 
-  private static final String TOOL_I2CGET = "i2cget";
-  private static final String TOOL_I2CSET = "i2cset";
+  @Inject
+  ToolRegistry toolRegistry;
+
+  @Inject
+  ToolCatalog toolCatalog;
+
+  @Inject
+  FederationGateway gateway;
+
+  @Inject
+  IdempotencyCache idempotencyCache;
 
   @Inject
   I2CService i2cService;
 
   /**
-   * Lists all available MCP tools.
+   * Lists all available MCP tools. The catalogue is served pre-serialized with a strong ETag; a request with a
+   * matching If-None-Match header gets a 304 response without body.
    *
-   * @return list of available tools with their schemas
+   * @param request the request used to evaluate preconditions
+   * @param headers the request headers used to select the representation
+   * @return list of available tools with their schemas, or 304 if the client's copy is current
    */
   @GET
   @Path("/list")
@@ -73,18 +89,24 @@ public class I2CResource {
   @APIResponses(value = {
     @APIResponse(responseCode = "200", description = "Tools listed successfully",
             content = @Content(mediaType = MediaType.APPLICATION_JSON,
-                    schema = @Schema(implementation = McpTool.class)))
+                    schema = @Schema(implementation = McpTool.class))),
+    @APIResponse(responseCode = "304", description = "Tool catalogue not modified")
   })
-  public List<McpTool> getTools()
+  public Response getTools(@Context Request request, @Context HttpHeaders headers)
   {
     LOG.info("Listing available MCP tools");
-    return List.of(createI2cgetTool(), createI2csetTool());
+    if (gateway.isEnabled()) {
+      gateway.refreshIfStale();
+      return toolCatalog.respond(gateway::getDefinitions, request, headers);
+    }
+    return toolCatalog.respond(toolRegistry::getDefinitions, request, headers);
   }
 
   /**
    * Executes an MCP tool call.
    *
    * @param toolCall the tool call request containing tool name and arguments
+   * @param idempotencyKey the optional key of the <code>Idempotency-Key</code> header
    * @return the result of the tool execution
    */
   @POST
@@ -100,20 +122,34 @@ public class I2CResource {
   })
   public McpToolResult callTool(
           @RequestBody(description = "MCP tool call request", required = true,
-                  content = @Content(schema = @Schema(implementation = McpToolCall.class))) McpToolCall toolCall)
+                  content = @Content(schema = @Schema(implementation = McpToolCall.class))) McpToolCall toolCall,
+          @Parameter(description = "Optional key identifying retries of the same call; a retry gets the result of "
+                  + "the first call without executing it again")
+          @HeaderParam(IdempotencyCache.HEADER) String idempotencyKey)
   {
 
-    LOG.infof("Received MCP tool call: name=%s", toolCall.getName());
+    // calls of the startup warm-up run on a simulated bus and are only logged at debug level
+    LOG.logf(i2cService.isSimulated() ? Logger.Level.DEBUG : Logger.Level.INFO, "Received MCP tool call: name=%s",
+             toolCall.getName());
+
+    if (idempotencyKey != null) {
+      try {
+        return idempotencyCache.execute(idempotencyKey, toolCall.getName(), toolCall.getArguments(),
+                                        () -> dispatch(toolCall));
+      } catch (IllegalArgumentException e) {
+        return McpToolResult.error(e.getMessage());
+      }
+    }
+    return dispatch(toolCall);
+  }
 
+  private McpToolResult dispatch(McpToolCall toolCall)
+  {
     try {
-      return switch (toolCall.getName()) {
-        case TOOL_I2CGET ->
-          executeI2cget(toolCall.getArguments());
-        case TOOL_I2CSET ->
-          executeI2cset(toolCall.getArguments());
-        default ->
-          McpToolResult.error("Unknown tool: " + toolCall.getName());
-      };
+      if (gateway.isEnabled()) {
+        return gateway.call(toolCall.getName(), toolCall.getArguments());
+      }
+      return toolRegistry.call(toolCall.getName(), toolCall.getArguments());
     } catch (IllegalArgumentException e) {
       LOG.error("Invalid tool call", e);
       return McpToolResult.error(e.getMessage());
@@ -122,134 +158,4 @@ public class I2CResource {
       return McpToolResult.error("Internal server error: " + e.getMessage());
     }
   }
-
-  private McpToolResult executeI2cget(Map<String, Object> arguments)
-  {
-    int bus = getIntArgument(arguments, "bus");
-    String address = getStringArgument(arguments, "address");
-    String register = getStringArgument(arguments, "register");
-    String mode = getOptionalStringArgument(arguments, "mode");
-
-    I2CCommand command = new I2CCommand(bus, address, register, null, "read", mode);
-    I2CResponse response = i2cService.executeCommand(command);
-
-    if (response.isSuccess()) {
-      return McpToolResult.success(response.getData());
-    } else {
-      return McpToolResult.error(response.getError());
-    }
-  }
-
-  private McpToolResult executeI2cset(Map<String, Object> arguments)
-  {
-    int bus = getIntArgument(arguments, "bus");
-    String address = getStringArgument(arguments, "address");
-    String register = getStringArgument(arguments, "register");
-    String value = getStringArgument(arguments, "value");
-    String mode = getOptionalStringArgument(arguments, "mode");
-
-    I2CCommand command = new I2CCommand(bus, address, register, value, "write", mode);
-    I2CResponse response = i2cService.executeCommand(command);
-
-    if (response.isSuccess()) {
-      return McpToolResult.success(response.getData());
-    } else {
-      return McpToolResult.error(response.getError());
-    }
-  }
-
-  private int getIntArgument(Map<String, Object> arguments, String name)
-  {
-    Object value = arguments.get(name);
-    if (value == null) {
-      throw new IllegalArgumentException("Missing required argument: " + name);
-    }
-    if (value instanceof Number) {
-      return ((Number) value).intValue();
-    }
-    return Integer.parseInt(value.toString());
-  }
-
-  private String getStringArgument(Map<String, Object> arguments, String name)
-  {
-    Object value = arguments.get(name);
-    if (value == null) {
-      throw new IllegalArgumentException("Missing required argument: " + name);
-    }
-    return value.toString();
-  }
-
-  private String getOptionalStringArgument(Map<String, Object> arguments, String name)
-  {
-    Object value = arguments.get(name);
-    if (value == null) {
-      return null;
-    }
-    return value.toString();
-  }
-
-  private McpTool createI2cgetTool()
-  {
-    Map<String, Object> schema = new LinkedHashMap<>();
-    schema.put("type", "object");
-
-    Map<String, Object> properties = new LinkedHashMap<>();
-    properties.put("bus", Map.of(
-                   "type", "integer",
-                   "description", "I2C bus number (typically 0 or 1 on Raspberry Pi)"
-           ));
-    properties.put("address", Map.of(
-                   "type", "string",
-                   "description", "I2C device address in hex format (e.g., 0x48)"
-           ));
-    properties.put("register", Map.of(
-                   "type", "string",
-                   "description", "Register address to read from in hex format (e.g., 0x00)"
-           ));
-    properties.put("mode", Map.of(
-                   "type", "string",
-                   "description",
-                   "Data Mode: b for one byte (default can be omitted), w for word and i <number> for reading/writing <number> bytes (e.g. i 4 for 32bit double word)"
-           ));
-    schema.put("properties", properties);
-    schema.put("required", List.of("bus", "address", "register"));
-
-    return new McpTool(
-            TOOL_I2CGET,
-            "Read a byte from an I2C device register. Returns the value in hex format.",
-            schema
-    );
-  }
-
-  private McpTool createI2csetTool()
-  {
-    Map<String, Object> schema = new LinkedHashMap<>();
-    schema.put("type", "object");
-
-    Map<String, Object> properties = new LinkedHashMap<>();
-    properties.put("bus", Map.of(
-                   "type", "integer",
-                   "description", "I2C bus number (typically 0 or 1 on Raspberry Pi)"
-           ));
-    properties.put("address", Map.of(
-                   "type", "string",
-                   "description", "I2C device address in hex format (e.g., 0x48)"
-           ));
-    properties.put("register", Map.of(
-                   "type", "string",
-                   "description", "Register address to write to in hex format (e.g., 0x00)"
-           ));
-    properties.put("value", Map.of(
-                   "type", "string",
-                   "description", "Value to write in hex format (e.g., 0xFF)"
-           ));
-    schema.put("properties", properties);
-    schema.put("required", List.of("bus", "address", "register", "value"));
-
-    return new McpTool(
-            TOOL_I2CSET,
-            "Write a byte to an I2C device register.",
-            schema
-    );
-  }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.resource;
+
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Remembers the results of tool calls sent with an <code>Idempotency-Key</code> header. A retry with the same key gets
+ * the stored result without executing the call again, so a client retrying a timed out write does not repeat it on
+ * the bus. A retry arriving while the first call still runs waits for its result. Entries expire after
+ * <code>i2c.idempotency.ttl</code>; at most <code>i2c.idempotency.max-entries</code> are kept, the oldest are evicted
+ * first. Replays, executions and key conflicts are counted in the <code>i2c.idempotency.calls</code> metric.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class IdempotencyCache {
+
+  private static final Logger LOG = Logger.getLogger(IdempotencyCache.class);
+
+  /**
+   * Name of the request header carrying the key.
+   */
+  public static final String HEADER = "Idempotency-Key";
+
+  /**
+   * Maximum length of a key.
+   */
+  static final int MAX_KEY_LENGTH = 255;
+
+  /**
+   * Maximum number of remembered calls.
+   */
+  @ConfigProperty(name = "i2c.idempotency.max-entries", defaultValue = "1024")
+  int maxEntries;
+
+  /**
+   * Time a result is remembered.
+   */
+  @ConfigProperty(name = "i2c.idempotency.ttl", defaultValue = "5m")
+  Duration ttl;
+
+  @Inject
+  MeterRegistry registry;
+
+  private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+  private Counter executed;
+
+  private Counter replayed;
+
+  private Counter conflicts;
+
+  private record Entry(String name, Map<String, Object> arguments, long created,
+                       CompletableFuture<McpToolResult> result) {
+
+  }
+
+  @PostConstruct
+  void init()
+  {
+    executed = registry.counter("i2c.idempotency.calls", "result", "executed");
+    replayed = registry.counter("i2c.idempotency.calls", "result", "replayed");
+    conflicts = registry.counter("i2c.idempotency.calls", "result", "conflict");
+    registry.gauge("i2c.idempotency.entries", this, IdempotencyCache::size);
+  }
+
+  /**
+   * Executes a call once per key.
+   *
+   * @param key the idempotency key
+   * @param name the tool name
+   * @param arguments the tool arguments
+   * @param call executes the call; must return a result instead of throwing
+   * @return the result of the call, or the stored result of an earlier call with the same key
+   * @throws IllegalArgumentException if the key is empty or too long
+   */
+  public McpToolResult execute(String key, String name, Map<String, Object> arguments, Supplier<McpToolResult> call)
+  {
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      throw new IllegalArgumentException("Idempotency key must have 1 to " + MAX_KEY_LENGTH + " characters");
+    }
+    Entry entry;
+    Entry created = null;
+    synchronized (entries) {
+      evict(System.nanoTime());
+      entry = entries.get(key);
+      if (entry == null) {
+        created = new Entry(name, arguments, System.nanoTime(), new CompletableFuture<>());
+        entries.put(key, created);
+        while (entries.size() > maxEntries) {
+          Iterator<Entry> eldest = entries.values().iterator();
+          eldest.next();
+          eldest.remove();
+        }
+      }
+    }
+    if (created != null) {
+      executed.increment();
+      try {
+        McpToolResult result = call.get();
+        created.result().complete(result);
+        return result;
+      } catch (RuntimeException | Error e) {
+        synchronized (entries) {
+          entries.remove(key, created);
+        }
+        created.result().completeExceptionally(e);
+        throw e;
+      }
+    }
+    if (!entry.name().equals(name) || !Objects.equals(entry.arguments(), arguments)) {
+      conflicts.increment();
+      return McpToolResult.error("Idempotency key " + key + " was already used for a different call");
+    }
+    replayed.increment();
+    LOG.infof("Replaying result of %s for idempotency key %s", name, key);
+    try {
+      return entry.result().get(ttl.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      return McpToolResult.error("Internal server error: " + e.getCause().getMessage());
+    } catch (TimeoutException e) {
+      return McpToolResult.error("Call with idempotency key " + key + " is still running");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return McpToolResult.error("Interrupted while waiting for call with idempotency key " + key);
+    }
+  }
+
+  /**
+   * Gets the number of remembered calls.
+   *
+   * @return the number of entries
+   */
+  public int size()
+  {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  private void evict(long now)
+  {
+    long limit = now - ttl.toNanos();
+    Iterator<Entry> iterator = entries.values().iterator();
+    while (iterator.hasNext() && iterator.next().created() - limit < 0) {
+      iterator.remove();
+    }
+  }
+}
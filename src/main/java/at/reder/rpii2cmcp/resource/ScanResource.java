@@ -21,11 +21,15 @@ import at.reder.rpii2cmcp.model.mcp.McpToolResult;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
-import java.util.List;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -44,8 +48,8 @@ import org.jboss.logging.Logger;
  */
 @Path("/api/scan")
 @Tag(name = "Scan API", description = "Copilot MCP server discovery endpoints")
-@Produces(MediaType.APPLICATION_JSON)
-@Consumes(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+@Consumes({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
 public class ScanResource {
 
   private static final Logger LOG = Logger.getLogger(ScanResource.class);
@@ -54,9 +58,12 @@ public class ScanResource {
   I2CResource i2cResource;
 
   /**
-   * Lists all available MCP tools. This endpoint mirrors /tools/list for Copilot compatibility.
+   * Lists all available MCP tools. This endpoint mirrors /tools/list for Copilot compatibility, including ETag
+   * revalidation.
    *
-   * @return list of available tools with their schemas
+   * @param request the request used to evaluate preconditions
+   * @param headers the request headers used to select the representation
+   * @return list of available tools with their schemas, or 304 if the client's copy is current
    */
   @GET
   @Path("/tools")
@@ -66,18 +73,20 @@ public class ScanResource {
   @APIResponses(value = {
     @APIResponse(responseCode = "200", description = "Tools listed successfully",
             content = @Content(mediaType = MediaType.APPLICATION_JSON,
-                    schema = @Schema(implementation = McpTool.class)))
+                    schema = @Schema(implementation = McpTool.class))),
+    @APIResponse(responseCode = "304", description = "Tool catalogue not modified")
   })
-  public List<McpTool> getTools()
+  public Response getTools(@Context Request request, @Context HttpHeaders headers)
   {
     LOG.info("Scan API: Listing available MCP tools");
-    return i2cResource.getTools();
+    return i2cResource.getTools(request, headers);
   }
 
   /**
    * Executes an MCP tool call. This endpoint mirrors /tools/call for Copilot compatibility.
    *
    * @param toolCall the tool call request containing tool name and arguments
+   * @param idempotencyKey the optional key of the <code>Idempotency-Key</code> header
    * @return the result of the tool execution
    */
   @POST
@@ -94,10 +103,11 @@ public class ScanResource {
   })
   public McpToolResult callTool(
           @RequestBody(description = "MCP tool call request", required = true,
-                  content = @Content(schema = @Schema(implementation = McpToolCall.class))) McpToolCall toolCall)
+                  content = @Content(schema = @Schema(implementation = McpToolCall.class))) McpToolCall toolCall,
+          @HeaderParam(IdempotencyCache.HEADER) String idempotencyKey)
   {
     LOG.infof("Scan API: Received MCP tool call: name=%s", toolCall.getName());
-    return i2cResource.callTool(toolCall);
+    return i2cResource.callTool(toolCall, idempotencyKey);
   }
 
   /**
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.resource;
+
+import at.reder.rpii2cmcp.gateway.FederationGateway;
+import at.reder.rpii2cmcp.model.mcp.McpToolCall;
+import at.reder.rpii2cmcp.service.DeviceProfileService;
+import at.reder.rpii2cmcp.service.I2CService;
+import at.reder.rpii2cmcp.tool.ToolRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+import org.jboss.logging.Logger;
+
+/**
+ * Warms up the server after startup and reports readiness when done. First the constant registers of the devices
+ * listed in <code>i2c.warmup.devices</code> are read into the cache of the {@link DeviceProfileService}, which also
+ * opens their buses. Then typical tool calls are run through deserialization, dispatch, the {@link I2CService} and
+ * JSON and CBOR serialization against a simulated bus, so classes are loaded and the hot paths are compiled before the
+ * first client request arrives. Until then <code>/q/health/ready</code> reports DOWN.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@Readiness
+@ApplicationScoped
+public class StartupWarmup implements HealthCheck {
+
+  private static final Logger LOG = Logger.getLogger(StartupWarmup.class);
+
+  /**
+   * Calls run against the simulated bus in every iteration.
+   */
+  static final List<String> CALLS = List.of(
+          "{\"name\":\"i2cget\",\"arguments\":{\"bus\":1,\"address\":\"0x48\",\"register\":\"0x00\"}}",
+          "{\"name\":\"i2cget\",\"arguments\":{\"bus\":1,\"address\":\"0x48\",\"register\":\"0x00\",\"mode\":\"w\","
+          + "\"format\":[\"u16\",\"hex\"]}}",
+          "{\"name\":\"i2cset\",\"arguments\":{\"bus\":1,\"address\":\"0x48\",\"register\":\"0x01\",\"value\":\"0x60\"}}",
+          "{\"name\":\"i2c_update_bits\",\"arguments\":{\"bus\":1,\"address\":\"0x48\",\"register\":\"0x01\","
+          + "\"mask\":\"0x01\",\"value\":\"0x01\"}}",
+          "{\"name\":\"read_device\",\"arguments\":{\"bus\":1,\"address\":\"0x48\",\"profile\":\"tmp102\"}}",
+          "{\"name\":\"unknown\",\"arguments\":{}}");
+
+  /**
+   * Whether the server is warmed up before it reports ready.
+   */
+  @ConfigProperty(name = "i2c.warmup.enabled", defaultValue = "true")
+  boolean enabled;
+
+  /**
+   * Number of times the calls are run.
+   */
+  @ConfigProperty(name = "i2c.warmup.iterations", defaultValue = "100")
+  int iterations;
+
+  /**
+   * Devices whose constant registers are read at startup, as bus:address=profile.
+   */
+  @ConfigProperty(name = "i2c.warmup.devices")
+  Optional<List<String>> devices;
+
+  @Inject
+  I2CResource resource;
+
+  @Inject
+  ToolRegistry toolRegistry;
+
+  @Inject
+  FederationGateway gateway;
+
+  @Inject
+  I2CService i2cService;
+
+  @Inject
+  DeviceProfileService deviceProfileService;
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  private final CBORMapper cborMapper = CborMessageBodyHandler.createMapper();
+
+  private volatile boolean ready;
+
+  private volatile long elapsedMs;
+
+  void onStart(@Observes StartupEvent event)
+  {
+    if (!enabled) {
+      ready = true;
+      return;
+    }
+    Thread.ofPlatform().name("warmup").daemon().start(this::run);
+  }
+
+  /**
+   * Runs the warm-up and marks the server ready. Failures are logged; they never keep the server from becoming ready.
+   */
+  void run()
+  {
+    long start = System.nanoTime();
+    try {
+      int primed = primeDevices();
+      exercise();
+      elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      LOG.infof("Warm-up finished in %d ms: %d constant registers cached, %d iterations", elapsedMs, primed,
+                iterations);
+    } catch (RuntimeException e) {
+      elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      LOG.warnf(e, "Warm-up failed after %d ms", elapsedMs);
+    } finally {
+      ready = true;
+    }
+  }
+
+  /**
+   * Reads the constant registers of the configured devices.
+   *
+   * @return the number of cached registers
+   */
+  int primeDevices()
+  {
+    int primed = 0;
+    for (String device : devices.orElse(List.of())) {
+      try {
+        DeviceProfileService.DeviceBinding binding = DeviceProfileService.DeviceBinding.parse(device);
+        primed += deviceProfileService.primeConstants(binding.bus(), binding.address(), binding.profile());
+      } catch (IOException | IllegalArgumentException e) {
+        LOG.warnf("Cannot prime device %s: %s", device, e.getMessage());
+      }
+    }
+    return primed;
+  }
+
+  /**
+   * Runs the calls against the simulated bus. Simulated calls log at debug level only, so the warm-up does not flood
+   * the log and real calls served meanwhile keep their info messages.
+   */
+  void exercise()
+  {
+    i2cService.simulate(() -> {
+      for (int i = 0; i < iterations; i++) {
+        for (String json : CALLS) {
+          execute(json);
+        }
+        serialize(toolRegistry.getDefinitions());
+      }
+      return null;
+    });
+  }
+
+  private void execute(String json)
+  {
+    try {
+      McpToolCall call = objectMapper.readValue(json, McpToolCall.class);
+      // in gateway mode the resource routes calls to the nodes, the local tools are exercised directly
+      serialize(gateway.isEnabled() ? toolRegistry.call(call.getName(), call.getArguments())
+                : resource.callTool(call, null));
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot parse warm-up call " + json, e);
+    }
+  }
+
+  private void serialize(Object value)
+  {
+    try {
+      objectMapper.writeValueAsBytes(value);
+      cborMapper.writeValueAsBytes(value);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot serialize " + value, e);
+    }
+  }
+
+  /**
+   * Checks whether the warm-up has finished.
+   *
+   * @return true if the server is ready
+   */
+  public boolean isReady()
+  {
+    return ready;
+  }
+
+  @Override
+  public HealthCheckResponse call()
+  {
+    return HealthCheckResponse.named("warmup")
+            .status(ready)
+            .withData("elapsedMs", elapsedMs)
+            .build();
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.resource;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+import org.jboss.logging.Logger;
+
+/**
+ * Caches the MCP tool catalogue. The tool list is built once, serialized to JSON and CBOR and served with a strong
+ * ETag per representation, so clients can revalidate with <code>If-None-Match</code> and get a 304 instead of
+ * downloading and parsing the catalogue again. The cache is rebuilt after {@link #invalidate()}.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class ToolCatalog {
+
+  private static final Logger LOG = Logger.getLogger(ToolCatalog.class);
+
+  private static final MediaType CBOR_TYPE = MediaType.valueOf(CborMessageBodyHandler.APPLICATION_CBOR);
+
+  /**
+   * A serialized version of the tool catalogue.
+   *
+   * @param tools the tools
+   * @param json the tools serialized as JSON
+   * @param jsonTag the entity tag of the JSON representation
+   * @param cbor the tools serialized as CBOR
+   * @param cborTag the entity tag of the CBOR representation
+   */
+  public record Snapshot(List<McpTool> tools, byte[] json, EntityTag jsonTag, byte[] cbor, EntityTag cborTag) {
+
+  }
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  private final ObjectMapper cborMapper = CborMessageBodyHandler.createMapper();
+
+  private volatile Snapshot snapshot;
+
+  /**
+   * Gets the current catalogue, building it with the given factory if there is none.
+   *
+   * @param factory creates the tool list
+   * @return the cached catalogue
+   */
+  public Snapshot get(Supplier<List<McpTool>> factory)
+  {
+    Snapshot result = snapshot;
+    if (result == null) {
+      synchronized (this) {
+        result = snapshot;
+        if (result == null) {
+          result = build(factory.get());
+          snapshot = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Drops the cached catalogue, so that it is rebuilt on the next request. Must be called whenever the set of tools
+   * or their schemas change.
+   */
+  public void invalidate()
+  {
+    snapshot = null;
+  }
+
+  /**
+   * Creates the HTTP response for a catalogue request. The representation is chosen from the Accept header; if the
+   * client already holds it, a 304 without body is returned.
+   *
+   * @param factory creates the tool list if the catalogue is not cached
+   * @param request the request used to evaluate If-None-Match
+   * @param headers the request headers
+   * @return the response
+   */
+  public Response respond(Supplier<List<McpTool>> factory, Request request, HttpHeaders headers)
+  {
+    Snapshot current = get(factory);
+    boolean cbor = prefersCbor(headers);
+    EntityTag tag = cbor ? current.cborTag() : current.jsonTag();
+    Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+    Response.ResponseBuilder builder;
+    if (notModified != null) {
+      builder = notModified;
+    } else if (cbor) {
+      builder = Response.ok(current.cbor(), CBOR_TYPE);
+    } else {
+      builder = Response.ok(current.json(), MediaType.APPLICATION_JSON_TYPE);
+    }
+    return builder.tag(tag)
+            .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+            .build();
+  }
+
+  private boolean prefersCbor(HttpHeaders headers)
+  {
+    for (MediaType type : headers.getAcceptableMediaTypes()) {
+      if (CBOR_TYPE.equals(type)) {
+        return true;
+      }
+      if (type.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  private Snapshot build(List<McpTool> tools)
+  {
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(tools);
+      byte[] cbor = cborMapper.writeValueAsBytes(tools);
+      String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json), 0, 16);
+      LOG.infof("Built tool catalogue with %d tools, ETag %s", tools.size(), hash);
+      return new Snapshot(List.copyOf(tools), json, new EntityTag(hash), cbor, new EntityTag(hash + "-cbor"));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+
+/**
+ * Reentrant lock serializing the commands on one physical bus. Waiting threads are granted the bus earliest deadline
+ * first, so an interactive command overtakes queued background work, while background work whose deadline has come
+ * does not starve. Among waiters of the same {@link Priority}, a waiter whose route is ready, e.g. a command for the
+ * multiplexer channel that is already selected, may overtake waiters with earlier deadlines for other channels. This
+ * groups queued commands by channel and saves control register writes. A waiter is overtaken that way at most a
+ * configured number of times, so commands for other channels are delayed by a bounded amount. The commands of one
+ * client thread are never reordered, the thread waits for each command to complete before it can issue the next one.
+ * The bus is released between transactions, which is where long operations are preempted.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+final class BusArbiter {
+
+  private final ReentrantLock guard = new ReentrantLock();
+
+  private final IntPredicate ready;
+
+  private final int maxOvertakes;
+
+  private final List<Waiter> waiters = new ArrayList<>();
+
+  private Thread owner;
+
+  private int holds;
+
+  /**
+   * A thread waiting for the bus.
+   */
+  private static final class Waiter {
+
+    private final Thread thread;
+
+    private final int bus;
+
+    private final Priority priority;
+
+    private final long deadline;
+
+    private final Condition granted;
+
+    private int overtaken;
+
+    private Waiter(Thread thread, int bus, Priority priority, long deadline, Condition granted)
+    {
+      this.thread = thread;
+      this.bus = bus;
+      this.priority = priority;
+      this.deadline = deadline;
+      this.granted = granted;
+    }
+  }
+
+  /**
+   * Creates an arbiter.
+   *
+   * @param ready tells whether a (virtual) bus can be accessed without switching a multiplexer
+   * @param maxOvertakes the number of times a waiter may be overtaken for a ready route, 0 for strict deadline order
+   */
+  BusArbiter(IntPredicate ready, int maxOvertakes)
+  {
+    this.ready = ready;
+    this.maxOvertakes = maxOvertakes;
+  }
+
+  /**
+   * Acquires the bus, waiting uninterruptibly if another thread holds it. A thread already holding the bus acquires it
+   * again immediately.
+   *
+   * @param bus the bus number of the command, a virtual bus for multiplexer channels
+   * @param priority the priority class of the command
+   * @param deadline the deadline of the command in {@link System#nanoTime()} units
+   */
+  void lock(int bus, Priority priority, long deadline)
+  {
+    Thread current = Thread.currentThread();
+    guard.lock();
+    try {
+      if (owner == current) {
+        holds++;
+        return;
+      }
+      if (owner == null) {
+        owner = current;
+        holds = 1;
+        return;
+      }
+      Waiter waiter = new Waiter(current, bus, priority, deadline, guard.newCondition());
+      waiters.add(waiter);
+      while (owner != current) {
+        waiter.granted.awaitUninterruptibly();
+      }
+    } finally {
+      guard.unlock();
+    }
+  }
+
+  /**
+   * Releases the bus. When the last hold is released, the bus is handed to the next waiter.
+   *
+   * @throws IllegalMonitorStateException if the calling thread does not hold the bus
+   */
+  void unlock()
+  {
+    guard.lock();
+    try {
+      if (owner != Thread.currentThread()) {
+        throw new IllegalMonitorStateException("Bus not held by " + Thread.currentThread().getName());
+      }
+      if (--holds > 0) {
+        return;
+      }
+      owner = null;
+      if (!waiters.isEmpty()) {
+        Waiter next = next();
+        owner = next.thread;
+        holds = 1;
+        next.granted.signal();
+      }
+    } finally {
+      guard.unlock();
+    }
+  }
+
+  /**
+   * Checks whether the calling thread holds the bus.
+   *
+   * @return true if the thread holds the bus
+   */
+  boolean isHeldByCurrentThread()
+  {
+    guard.lock();
+    try {
+      return owner == Thread.currentThread();
+    } finally {
+      guard.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of threads waiting for the bus.
+   *
+   * @return the number of waiters
+   */
+  int getWaiting()
+  {
+    guard.lock();
+    try {
+      return waiters.size();
+    } finally {
+      guard.unlock();
+    }
+  }
+
+  /**
+   * Removes the waiter to grant the bus to: the waiter with the earliest deadline, or the earliest waiter of the same
+   * priority whose route is ready, unless the earliest has been overtaken often enough. Waiters with equal deadlines
+   * are granted in arrival order.
+   */
+  private Waiter next()
+  {
+    Waiter due = waiters.get(0);
+    for (Waiter waiter : waiters) {
+      if (waiter.deadline - due.deadline < 0) {
+        due = waiter;
+      }
+    }
+    Waiter chosen = due;
+    if (due.overtaken < maxOvertakes && !ready.test(due.bus)) {
+      for (Waiter waiter : waiters) {
+        if (waiter.priority == due.priority && ready.test(waiter.bus)
+                && (chosen == due || waiter.deadline - chosen.deadline < 0)) {
+          chosen = waiter;
+        }
+      }
+    }
+    if (chosen != due) {
+      for (Waiter waiter : waiters) {
+        if (waiter.priority == chosen.priority && waiter.deadline - chosen.deadline < 0) {
+          waiter.overtaken++;
+        }
+      }
+    }
+    waiters.remove(chosen);
+    return chosen;
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+/**
+ * Circuit breaker of one device. After a number of consecutive failures the circuit opens and commands fail without
+ * bus access until the cooldown has passed. Then a single probe is let through (half open): if it succeeds the
+ * circuit closes, if it fails the circuit opens for another cooldown.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+final class CircuitBreaker {
+
+  /**
+   * State of the circuit.
+   */
+  enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private final int threshold;
+
+  private final long cooldownNanos;
+
+  private State state = State.CLOSED;
+
+  private int failures;
+
+  private long openedAt;
+
+  private boolean probing;
+
+  /**
+   * Creates a closed circuit breaker.
+   *
+   * @param threshold the number of consecutive failures that open the circuit
+   * @param cooldownNanos the time the circuit stays open before a probe
+   */
+  CircuitBreaker(int threshold, long cooldownNanos)
+  {
+    this.threshold = threshold;
+    this.cooldownNanos = cooldownNanos;
+  }
+
+  /**
+   * Asks for permission to access the device.
+   *
+   * @param now the current {@link System#nanoTime()}
+   * @return 0 if the command may run, otherwise the time in nanoseconds until the next probe
+   */
+  synchronized long tryAcquire(long now)
+  {
+    switch (state) {
+      case OPEN: {
+        long remaining = openedAt + cooldownNanos - now;
+        if (remaining > 0) {
+          return remaining;
+        }
+        state = State.HALF_OPEN;
+        probing = true;
+        return 0;
+      }
+      case HALF_OPEN:
+        if (probing) {
+          return Math.max(1, openedAt + cooldownNanos - now);
+        }
+        probing = true;
+        return 0;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Records a command the device answered.
+   */
+  synchronized void onSuccess()
+  {
+    state = State.CLOSED;
+    failures = 0;
+    probing = false;
+  }
+
+  /**
+   * Records a command the device did not answer.
+   *
+   * @param now the current {@link System#nanoTime()}
+   * @return true if the circuit opened
+   */
+  synchronized boolean onFailure(long now)
+  {
+    failures++;
+    probing = false;
+    if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= threshold)) {
+      state = State.OPEN;
+      openedAt = now;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Records a command that failed for a reason unrelated to the device, e.g. a busy bus. A running probe ends
+   * without changing the state, so the next command probes again.
+   */
+  synchronized void onIgnored()
+  {
+    probing = false;
+  }
+
+  /**
+   * Gets the state.
+   *
+   * @return the state
+   */
+  synchronized State getState()
+  {
+    return state;
+  }
+
+  /**
+   * Gets the number of consecutive failures.
+   *
+   * @return the failures
+   */
+  synchronized int getFailures()
+  {
+    return failures;
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes raw bytes read from an I2C device into typed views. The bytes are interpreted directly, so clients receive
+ * numeric values instead of having to parse the hex text produced by i2cget.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public final class DataDecoder {
+
+  /**
+   * Names of all supported views. The "bytes" view holds the raw byte array, which is base64 encoded in JSON and
+   * carried as native byte string in binary encodings such as CBOR.
+   */
+  public static final List<String> VIEWS = List.of("u8", "s8", "u16", "s16", "u32", "s32", "hex", "base64", "bytes");
+
+  private DataDecoder()
+  {
+  }
+
+  /**
+   * Parses an endianness name.
+   *
+   * @param endian "little", "big" or null (defaults to little endian, the SMBus word order)
+   * @return the byte order
+   * @throws IllegalArgumentException if the name is unknown
+   */
+  public static ByteOrder parseByteOrder(String endian)
+  {
+    if (endian == null || endian.isBlank() || "little".equalsIgnoreCase(endian)) {
+      return ByteOrder.LITTLE_ENDIAN;
+    }
+    if ("big".equalsIgnoreCase(endian)) {
+      return ByteOrder.BIG_ENDIAN;
+    }
+    throw new IllegalArgumentException("Invalid endian: " + endian + ". Valid values are 'little' or 'big'");
+  }
+
+  /**
+   * Validates view names before any bus access takes place.
+   *
+   * @param views the views to check
+   * @throws IllegalArgumentException if a view is unknown
+   */
+  public static void validateViews(List<String> views)
+  {
+    for (String view : views) {
+      if (!VIEWS.contains(view)) {
+        throw new IllegalArgumentException("Invalid format: " + view + ". Valid formats are: " + String.join(", ", VIEWS));
+      }
+    }
+  }
+
+  /**
+   * Decodes the given bytes into the requested views. Multi-byte views contain as many values as fit into the data;
+   * trailing bytes that do not fill a complete value are ignored.
+   *
+   * @param data the raw bytes in bus order
+   * @param views the views to produce, see {@link #VIEWS}
+   * @param order the byte order used for 16 and 32 bit views
+   * @return a map with "length", "endian" and one entry per requested view
+   * @throws IllegalArgumentException if a view is unknown
+   */
+  public static Map<String, Object> decode(byte[] data, List<String> views, ByteOrder order)
+  {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("length", data.length);
+    result.put("endian", order == ByteOrder.BIG_ENDIAN ? "big" : "little");
+    ByteBuffer buffer = ByteBuffer.wrap(data).order(order);
+    for (String view : views) {
+      result.put(view, decodeView(buffer, view));
+    }
+    return result;
+  }
+
+  private static Object decodeView(ByteBuffer buffer, String view)
+  {
+    int length = buffer.capacity();
+    switch (view) {
+      case "u8": {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+          values[i] = Byte.toUnsignedInt(buffer.get(i));
+        }
+        return values;
+      }
+      case "s8": {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+          values[i] = buffer.get(i);
+        }
+        return values;
+      }
+      case "u16": {
+        int[] values = new int[length / 2];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = Short.toUnsignedInt(buffer.getShort(i * 2));
+        }
+        return values;
+      }
+      case "s16": {
+        int[] values = new int[length / 2];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = buffer.getShort(i * 2);
+        }
+        return values;
+      }
+      case "u32": {
+        long[] values = new long[length / 4];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = Integer.toUnsignedLong(buffer.getInt(i * 4));
+        }
+        return values;
+      }
+      case "s32": {
+        int[] values = new int[length / 4];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = buffer.getInt(i * 4);
+        }
+        return values;
+      }
+      case "hex":
+        return HexFormat.of().formatHex(buffer.array());
+      case "base64":
+        return Base64.getEncoder().encodeToString(buffer.array());
+      case "bytes":
+        return buffer.array().clone();
+      default:
+        throw new IllegalArgumentException("Invalid format: " + view + ". Valid formats are: " + String.join(", ", VIEWS));
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.profile.BitField;
+import at.reder.rpii2cmcp.model.profile.DeviceProfile;
+import at.reder.rpii2cmcp.model.profile.EepromDefinition;
+import at.reder.rpii2cmcp.model.profile.RegisterDefinition;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Registry of device profiles. Profiles are loaded from {@value #CLASSPATH_RESOURCE} on the classpath (next to
+ * application.yml) and from an optional file on the filesystem, whose profiles replace classpath profiles with the
+ * same name.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class DeviceProfileRegistry {
+
+  private static final Logger LOG = Logger.getLogger(DeviceProfileRegistry.class);
+
+  /**
+   * Name of the profile resource on the classpath.
+   */
+  static final String CLASSPATH_RESOURCE = "device-profiles.yml";
+
+  private static final TypeReference<Map<String, DeviceProfile>> PROFILE_MAP = new TypeReference<>() {
+  };
+
+  /**
+   * Path of an additional profile file on the filesystem.
+   */
+  @ConfigProperty(name = "i2c.profiles.file", defaultValue = "config/device-profiles.yml")
+  String profilesFile;
+
+  private final YAMLMapper mapper = new YAMLMapper();
+
+  private volatile Map<String, DeviceProfile> profiles = Map.of();
+
+  @PostConstruct
+  void init()
+  {
+    Map<String, DeviceProfile> loaded = new TreeMap<>();
+    try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(CLASSPATH_RESOURCE)) {
+      if (in != null) {
+        loaded.putAll(load(in));
+      }
+      Path file = Path.of(profilesFile);
+      if (Files.isRegularFile(file)) {
+        try (InputStream fileIn = Files.newInputStream(file)) {
+          loaded.putAll(load(fileIn));
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot load device profiles", e);
+    }
+    profiles = Collections.unmodifiableMap(loaded);
+    LOG.infof("Loaded %d device profiles: %s", profiles.size(), profiles.keySet());
+  }
+
+  /**
+   * Parses and validates a profile document.
+   *
+   * @param in the YAML document with a top level "profiles" map
+   * @return the profiles by name
+   * @throws IOException if the document cannot be parsed
+   * @throws IllegalArgumentException if a profile is invalid
+   */
+  Map<String, DeviceProfile> load(InputStream in) throws IOException
+  {
+    JsonNode root = mapper.readTree(in);
+    if (root == null || root.path("profiles").isMissingNode()) {
+      return Map.of();
+    }
+    Map<String, DeviceProfile> result = mapper.convertValue(root.get("profiles"), PROFILE_MAP);
+    for (Map.Entry<String, DeviceProfile> entry : result.entrySet()) {
+      entry.getValue().setName(entry.getKey());
+      validate(entry.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Validates a profile.
+   *
+   * @param profile the profile to validate
+   * @throws IllegalArgumentException if the profile is invalid
+   */
+  void validate(DeviceProfile profile)
+  {
+    for (RegisterDefinition register : profile.getRegisters()) {
+      if (register.getName() == null || register.getName().isBlank()) {
+        throw new IllegalArgumentException("Register without name in profile " + profile.getName());
+      }
+      validateRegister(profile.getName() + "." + register.getName(), register);
+    }
+    if (profile.getEeprom() != null) {
+      validateEeprom(profile.getName(), profile.getEeprom());
+    }
+  }
+
+  /**
+   * Validates the memory layout of an EEPROM. Devices with one address byte address at most 8 blocks of 256 bytes
+   * through the low bits of the device address.
+   *
+   * @param context the profile name used in error messages
+   * @param eeprom the layout to validate
+   * @throws IllegalArgumentException if the layout is invalid
+   */
+  static void validateEeprom(String context, EepromDefinition eeprom)
+  {
+    if (eeprom.getAddressWidth() != 1 && eeprom.getAddressWidth() != 2) {
+      throw new IllegalArgumentException("Invalid EEPROM address width in " + context + ": "
+              + eeprom.getAddressWidth());
+    }
+    int maxSize = eeprom.getAddressWidth() == 1 ? 2048 : 65536;
+    if (eeprom.getSize() < 1 || eeprom.getSize() > maxSize) {
+      throw new IllegalArgumentException("Invalid EEPROM size in " + context + ": " + eeprom.getSize());
+    }
+    if (eeprom.getPageSize() < 1 || eeprom.getPageSize() > 256 || Integer.bitCount(eeprom.getPageSize()) != 1) {
+      throw new IllegalArgumentException("Invalid EEPROM page size in " + context + ": " + eeprom.getPageSize());
+    }
+  }
+
+  /**
+   * Validates address, width, byte order and bit fields of a register definition.
+   *
+   * @param context the register name used in error messages
+   * @param register the register to validate
+   * @throws IllegalArgumentException if the register is invalid
+   */
+  static void validateRegister(String context, RegisterDefinition register)
+  {
+    try {
+      int address = register.getAddress();
+      if (address < 0 || address > 0xff) {
+        throw new IllegalArgumentException("Register address out of range in " + context);
+      }
+    } catch (NumberFormatException | NullPointerException e) {
+      throw new IllegalArgumentException("Invalid register address in " + context + ": " + register.getRegister());
+    }
+    if (register.getWidth() < 1 || register.getWidth() > 4) {
+      throw new IllegalArgumentException("Invalid width in " + context + ": " + register.getWidth());
+    }
+    if (register.isShadow() && (register.getWidth() > 2 || register.isConstant())) {
+      throw new IllegalArgumentException("Shadow registers must be 1 or 2 bytes wide and not constant in " + context);
+    }
+    DataDecoder.parseByteOrder(register.getEndian());
+    for (BitField field : register.getBitfields()) {
+      if (field.getBits() < 1 || field.getLsb() < 0 || field.getLsb() + field.getBits() > register.getWidth() * 8) {
+        throw new IllegalArgumentException("Invalid bit field " + field.getName() + " in " + context);
+      }
+    }
+  }
+
+  /**
+   * Looks up a profile by name.
+   *
+   * @param name the profile name
+   * @return the profile, or null if there is no such profile
+   */
+  public DeviceProfile getProfile(String name)
+  {
+    return profiles.get(name);
+  }
+
+  /**
+   * Gets the names of all loaded profiles.
+   *
+   * @return the profile names in alphabetical order
+   */
+  public Set<String> getProfileNames()
+  {
+    return profiles.keySet();
+  }
+
+  /**
+   * Gets all loaded profiles.
+   *
+   * @return the profiles in alphabetical order of their names
+   */
+  public Collection<DeviceProfile> getProfiles()
+  {
+    return profiles.values();
+  }
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.model.profile.BitField;
+import at.reder.rpii2cmcp.model.profile.DeviceProfile;
+import at.reder.rpii2cmcp.model.profile.RegisterDefinition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Reads devices described by a {@link DeviceProfile}. All registers needed are fetched with as few block reads as
+ * possible and decoded into engineering units. Registers declared constant are read once per device and cached;
+ * registers declared shadow are mirrored by the {@link I2CService} for the devices listed in
+ * <code>i2c.shadow.devices</code>.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class DeviceProfileService {
+
+  private static final Logger LOG = Logger.getLogger(DeviceProfileService.class);
+
+  /**
+   * Maximum number of bytes i2cget can read in one block transaction.
+   */
+  static final int MAX_BLOCK_LENGTH = 32;
+
+  @Inject
+  I2CService i2cService;
+
+  @Inject
+  DeviceProfileRegistry registry;
+
+  /**
+   * Devices whose shadow registers are mirrored, as bus:address=profile.
+   */
+  @ConfigProperty(name = "i2c.shadow.devices")
+  Optional<List<String>> shadowDevices;
+
+  @Inject
+  MeterRegistry meterRegistry;
+
+  private final Map<String, byte[]> constants = new ConcurrentHashMap<>();
+
+  /**
+   * A contiguous register range fetched with a single bus transaction.
+   *
+   * @param start the first register address
+   * @param length the number of bytes to read
+   * @param registers the registers contained in the range
+   */
+  record ReadBlock(int start, int length, List<RegisterDefinition> registers) {
+
+  }
+
+  /**
+   * A device bound to a profile in the configuration.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param profile the profile name
+   */
+  public record DeviceBinding(int bus, String address, String profile) {
+
+    /**
+     * Parses a binding written as bus:address=profile, e.g. 1:0x76=bmp280.
+     *
+     * @param text the binding
+     * @return the binding
+     * @throws IllegalArgumentException if the text is not a binding
+     */
+    public static DeviceBinding parse(String text)
+    {
+      int separator = text.indexOf('=');
+      int colon = text.indexOf(':');
+      if (colon < 0 || separator < colon) {
+        throw new IllegalArgumentException("Invalid device " + text + ", expected bus:address=profile");
+      }
+      try {
+        return new DeviceBinding(Integer.parseInt(text.substring(0, colon).trim()),
+                                 text.substring(colon + 1, separator).trim(), text.substring(separator + 1).trim());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid bus in device " + text);
+      }
+    }
+  }
+
+  /**
+   * Declares the shadow registers of the configured devices and publishes the number of skipped writes.
+   *
+   * @param event the startup event
+   */
+  void onStart(@Observes StartupEvent event)
+  {
+    meterRegistry.more().counter("i2c.shadow.skipped.writes", List.of(), i2cService, I2CService::getElidedWrites);
+    for (String device : shadowDevices.orElse(List.of())) {
+      try {
+        DeviceBinding binding = DeviceBinding.parse(device);
+        LOG.infof("Mirroring %d shadow registers of %s", declareShadows(binding.bus(), binding.address(),
+                                                                         binding.profile()), device);
+      } catch (IllegalArgumentException e) {
+        LOG.warnf("Cannot mirror device %s: %s", device, e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Declares the registers of a profile marked shadow as shadow registers of a device, see
+   * {@link I2CService#declareShadow}.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param profileName the name of the device profile
+   * @return the number of shadow registers of the profile
+   * @throws IllegalArgumentException if the profile is unknown or the address is invalid
+   */
+  public int declareShadows(int bus, String address, String profileName)
+  {
+    int count = 0;
+    for (RegisterDefinition register : getProfile(profileName).getRegisters()) {
+      if (register.isShadow()) {
+        i2cService.declareShadow(bus, address, register.getAddress(), register.getWidth());
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Reads and decodes registers of a device. Constant registers already read from the device are taken from the cache
+   * without bus access.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param profileName the name of the device profile
+   * @param registerNames the registers to read, or an empty list for all registers of the profile
+   * @return the decoded reading with one entry per register
+   * @throws IllegalArgumentException if the profile or a register is unknown
+   * @throws IOException if a bus transaction fails
+   */
+  public Map<String, Object> readDevice(int bus, String address, String profileName, List<String> registerNames)
+          throws IOException
+  {
+    DeviceProfile profile = getProfile(profileName);
+    List<RegisterDefinition> registers = selectRegisters(profile, registerNames);
+    Map<String, Object> decoded = new HashMap<>();
+    List<RegisterDefinition> uncached = new ArrayList<>();
+    for (RegisterDefinition register : registers) {
+      byte[] data = register.isConstant() ? constants.get(constantKey(bus, address, register)) : null;
+      if (data != null) {
+        decoded.put(register.getName(), decodeRegister(register, data, 0));
+      } else {
+        uncached.add(register);
+      }
+    }
+    List<ReadBlock> blocks = planReads(uncached, profile.isAutoIncrement());
+    LOG.logf(i2cService.isSimulated() ? Logger.Level.DEBUG : Logger.Level.INFO,
+             "Reading %d registers of %s at %s on bus %d with %d transactions", registers.size(), profileName, address,
+             bus, blocks.size());
+
+    for (ReadBlock block : blocks) {
+      byte[] data = readBlock(bus, address, block);
+      for (RegisterDefinition register : block.registers()) {
+        int offset = register.getAddress() - block.start();
+        decoded.put(register.getName(), decodeRegister(register, data, offset));
+        if (register.isConstant() && !i2cService.isSimulated()) {
+          constants.put(constantKey(bus, address, register),
+                        Arrays.copyOfRange(data, offset, offset + register.getWidth()));
+        }
+      }
+    }
+
+    List<RegisterDefinition> sorted = new ArrayList<>(registers);
+    sorted.sort(Comparator.comparingInt(RegisterDefinition::getAddress));
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (RegisterDefinition register : sorted) {
+      values.put(register.getName(), decoded.get(register.getName()));
+    }
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("profile", profile.getName());
+    result.put("bus", bus);
+    result.put("address", address);
+    result.put("transactions", blocks.size());
+    result.put("registers", values);
+    return result;
+  }
+
+  /**
+   * Reads the constant registers of a device into the cache, so later reads of them need no bus access.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param profileName the name of the device profile
+   * @return the number of constant registers of the profile
+   * @throws IllegalArgumentException if the profile is unknown
+   * @throws IOException if a bus transaction fails
+   */
+  public int primeConstants(int bus, String address, String profileName) throws IOException
+  {
+    List<String> names = getProfile(profileName).getRegisters().stream()
+            .filter(RegisterDefinition::isConstant)
+            .map(RegisterDefinition::getName)
+            .toList();
+    if (!names.isEmpty()) {
+      readDevice(bus, address, profileName, names);
+    }
+    return names.size();
+  }
+
+  private static String constantKey(int bus, String address, RegisterDefinition register)
+  {
+    return bus + ":" + Integer.decode(address) + ":" + register.getAddress() + ":" + register.getWidth();
+  }
+
+  /**
+   * Looks up a profile.
+   *
+   * @param profileName the profile name
+   * @return the profile
+   * @throws IllegalArgumentException if the profile is unknown
+   */
+  public DeviceProfile getProfile(String profileName)
+  {
+    DeviceProfile profile = registry.getProfile(profileName);
+    if (profile == null) {
+      throw new IllegalArgumentException("Unknown device profile: " + profileName);
+    }
+    return profile;
+  }
+
+  /**
+   * Reads and scales a single register.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param register the register definition
+   * @return the engineering value, see {@link #scale(RegisterDefinition, long)}
+   * @throws IOException if the bus transaction fails
+   */
+  public Number readRegister(int bus, String address, RegisterDefinition register) throws IOException
+  {
+    byte[] data = readBlock(bus, address, new ReadBlock(register.getAddress(), register.getWidth(), List.of(register)));
+    return scale(register, extractRaw(register, data, 0));
+  }
+
+  List<RegisterDefinition> selectRegisters(DeviceProfile profile, List<String> registerNames)
+  {
+    if (registerNames == null || registerNames.isEmpty()) {
+      return profile.getRegisters();
+    }
+    List<RegisterDefinition> result = new ArrayList<>();
+    for (String name : registerNames) {
+      RegisterDefinition register = profile.getRegister(name);
+      if (register == null) {
+        throw new IllegalArgumentException("Unknown register " + name + " in profile " + profile.getName());
+      }
+      result.add(register);
+    }
+    return result;
+  }
+
+  /**
+   * Groups registers into the smallest number of block reads. Registers are sorted by address and a block is extended
+   * as long as it stays within {@link #MAX_BLOCK_LENGTH} bytes; for intervals of bounded length this greedy strategy
+   * yields the minimum number of transactions. Devices without register auto increment get one read per register.
+   *
+   * @param registers the registers to read
+   * @param autoIncrement whether registers may be combined into one block read
+   * @return the planned block reads in address order
+   */
+  List<ReadBlock> planReads(List<RegisterDefinition> registers, boolean autoIncrement)
+  {
+    List<RegisterDefinition> sorted = new ArrayList<>(registers);
+    sorted.sort(Comparator.comparingInt(RegisterDefinition::getAddress));
+    List<ReadBlock> blocks = new ArrayList<>();
+    int start = -1;
+    int end = -1;
+    List<RegisterDefinition> current = new ArrayList<>();
+    for (RegisterDefinition register : sorted) {
+      int registerEnd = register.getAddress() + register.getWidth();
+      if (autoIncrement && start >= 0 && registerEnd - start <= MAX_BLOCK_LENGTH) {
+        end = Math.max(end, registerEnd);
+        current.add(register);
+      } else {
+        if (start >= 0) {
+          blocks.add(new ReadBlock(start, end - start, current));
+        }
+        start = register.getAddress();
+        end = registerEnd;
+        current = new ArrayList<>();
+        current.add(register);
+      }
+    }
+    if (start >= 0) {
+      blocks.add(new ReadBlock(start, end - start, current));
+    }
+    return blocks;
+  }
+
+  byte[] readBlock(int bus, String address, ReadBlock block) throws IOException
+  {
+    String register = String.format("0x%02x", block.start());
+    String mode = block.length() == 1 ? null : "i " + block.length();
+    I2CResponse response = i2cService.executeCommand(new I2CCommand(bus, address, register, null, "read", mode));
+    if (!response.isSuccess()) {
+      throw new IOException("Block read at " + register + " failed: " + response.getError());
+    }
+    byte[] data = response.getBytes();
+    if (data == null || data.length < block.length()) {
+      throw new IOException("Short block read at " + register + ": " + response.getData());
+    }
+    return data;
+  }
+
+  /**
+   * Decodes one register from a block of bytes.
+   *
+   * @param register the register definition
+   * @param data the bytes of the block containing the register
+   * @param offset the offset of the register within the block
+   * @return the decoded register with raw value, scaled value, unit and bit fields
+   */
+  Map<String, Object> decodeRegister(RegisterDefinition register, byte[] data, int offset)
+  {
+    long raw = extractRaw(register, data, offset);
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("register", register.getRegister());
+    result.put("raw", raw);
+    result.put("value", scale(register, raw));
+    if (register.getUnit() != null) {
+      result.put("unit", register.getUnit());
+    }
+    if (!register.getBitfields().isEmpty()) {
+      Map<String, Object> fields = new LinkedHashMap<>();
+      for (BitField field : register.getBitfields()) {
+        fields.put(field.getName(), field.extract(raw));
+      }
+      result.put("bitfields", fields);
+    }
+    return result;
+  }
+
+  /**
+   * Assembles the unsigned raw value of a register.
+   *
+   * @param register the register definition
+   * @param data the bytes of the block containing the register
+   * @param offset the offset of the register within the block
+   * @return the unsigned raw value
+   */
+  static long extractRaw(RegisterDefinition register, byte[] data, int offset)
+  {
+    boolean bigEndian = DataDecoder.parseByteOrder(register.getEndian()) == ByteOrder.BIG_ENDIAN;
+    int width = register.getWidth();
+    long raw = 0;
+    for (int i = 0; i < width; i++) {
+      int index = offset + (bigEndian ? i : width - 1 - i);
+      raw = (raw << 8) | (data[index] & 0xff);
+    }
+    return raw;
+  }
+
+  /**
+   * Converts a raw register value into its engineering value by applying sign, shift, scale and offset.
+   *
+   * @param register the register definition
+   * @param raw the unsigned raw value
+   * @return a Long if the register has neither scale nor offset, otherwise a Double
+   */
+  static Number scale(RegisterDefinition register, long raw)
+  {
+    long value = raw;
+    if (register.isSigned()) {
+      int unused = 64 - register.getWidth() * 8;
+      value = (value << unused) >> unused;
+    }
+    value >>= register.getShift();
+    if (register.getScale() == null && register.getOffset() == null) {
+      return value;
+    }
+    double scaled = value * (register.getScale() != null ? register.getScale() : 1.0);
+    return scaled + (register.getOffset() != null ? register.getOffset() : 0.0);
+  }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.I2CErrorCode;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.model.ServerEvent;
+import at.reder.rpii2cmcp.model.profile.DeviceProfile;
+import at.reder.rpii2cmcp.model.profile.EepromDefinition;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Reads and writes serial EEPROMs such as the 24Cxx series with combined i2ctransfer transactions instead of one
+ * i2cget or i2cset call per byte. Reads fetch as many bytes as possible with one sequential read. Writes are split at
+ * page boundaries, one transfer per page; after each page the device is polled until it acknowledges again, which
+ * ends the internal write cycle as early as the device allows instead of waiting a fixed worst case time. Progress is
+ * published as <code>eeprom</code> events on the {@link EventStream}.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class EepromService {
+
+  private static final Logger LOG = Logger.getLogger(EepromService.class);
+
+  private static final byte[] NO_DATA = new byte[0];
+
+  /**
+   * Maximum time to poll for the acknowledge after a page write.
+   */
+  @ConfigProperty(name = "i2c.eeprom.write-timeout", defaultValue = "50ms")
+  Duration writeTimeout;
+
+  /**
+   * Maximum number of bytes fetched with one sequential read.
+   */
+  @ConfigProperty(name = "i2c.eeprom.max-read", defaultValue = "8192")
+  int maxRead;
+
+  /**
+   * Maximum number of bytes fetched with one sequential read in monitoring and bulk lanes. The bus is released between
+   * the reads, so waiting interactive commands are not blocked for a whole image.
+   */
+  @ConfigProperty(name = "i2c.eeprom.background-read", defaultValue = "256")
+  int backgroundRead;
+
+  /**
+   * Minimum time between two progress events of an operation.
+   */
+  @ConfigProperty(name = "i2c.eeprom.progress-interval", defaultValue = "250ms")
+  Duration progressInterval;
+
+  @Inject
+  I2CService i2cService;
+
+  @Inject
+  DeviceProfileRegistry registry;
+
+  @Inject
+  EventStream eventStream;
+
+  /**
+   * Result of a write.
+   *
+   * @param bytes the number of bytes written
+   * @param pages the number of page writes
+   * @param polls the number of acknowledge polls after the page writes
+   * @param elapsed the duration in milliseconds
+   * @param verified true if the data was read back and compared
+   */
+  public record WriteResult(int bytes, int pages, int polls, long elapsed, boolean verified) {
+
+    /**
+     * Converts the result into structured content.
+     *
+     * @return the result as map
+     */
+    public Map<String, Object> toMap()
+    {
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("bytes", bytes);
+      map.put("pages", pages);
+      map.put("polls", polls);
+      map.put("elapsed", elapsed);
+      map.put("verified", verified);
+      return map;
+    }
+  }
+
+  /**
+   * Determines the memory layout from a device profile, explicit values, or both; explicit values override the
+   * profile.
+   *
+   * @param profileName the device profile, may be null
+   * @param size the memory size in bytes, may be null
+   * @param pageSize the page size in bytes, may be null
+   * @param addressWidth the number of address bytes, may be null
+   * @return the layout
+   * @throws IllegalArgumentException if the profile is unknown or no EEPROM, or the layout is incomplete or invalid
+   */
+  public EepromDefinition resolve(String profileName, Integer size, Integer pageSize, Integer addressWidth)
+  {
+    EepromDefinition result = new EepromDefinition(0, 0, 0);
+    if (profileName != null) {
+      DeviceProfile profile = registry.getProfile(profileName);
+      if (profile == null) {
+        throw new IllegalArgumentException("Unknown device profile: " + profileName);
+      }
+      if (profile.getEeprom() == null) {
+        throw new IllegalArgumentException("Device profile " + profileName + " is not an EEPROM");
+      }
+      result = new EepromDefinition(profile.getEeprom().getSize(), profile.getEeprom().getPageSize(),
+                                    profile.getEeprom().getAddressWidth());
+    }
+    if (size != null) {
+      result.setSize(size);
+    }
+    if (pageSize != null) {
+      result.setPageSize(pageSize);
+    }
+    if (addressWidth != null) {
+      result.setAddressWidth(addressWidth);
+    }
+    if (result.getSize() == 0 || result.getPageSize() == 0 || result.getAddressWidth() == 0) {
+      throw new IllegalArgumentException("EEPROM layout requires a profile or size, pageSize and addressWidth");
+    }
+    DeviceProfileRegistry.validateEeprom("request", result);
+    return result;
+  }
+
+  /**
+   * Reads a range of the memory with as few sequential reads as possible.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address, for devices with one address byte the address of the first block
+   * @param eeprom the memory layout
+   * @param offset the first memory address
+   * @param length the number of bytes
+   * @return the bytes read
+   * @throws IllegalArgumentException if the range exceeds the memory
+   * @throws IOException if a transfer fails
+   */
+  public byte[] read(int bus, int address, EepromDefinition eeprom, int offset, int length) throws IOException
+  {
+    checkRange(eeprom, offset, length);
+    long start = System.nanoTime();
+    Progress progress = new Progress("read", bus, address, length);
+    byte[] result = new byte[length];
+    int position = offset;
+    int transfers = 0;
+    int limit = Lane.currentPriority() == Priority.INTERACTIVE ? maxRead : Math.min(maxRead, backgroundRead);
+    while (position < offset + length) {
+      int chunk = Math.min(offset + length - position, limit);
+      if (eeprom.getAddressWidth() == 1) {
+        chunk = Math.min(chunk, 256 - (position & 0xff));
+      }
+      I2CResponse response = i2cService.transfer(bus, deviceAddress(address, eeprom, position),
+                                                 memoryAddress(eeprom, position), chunk);
+      transfers++;
+      if (!response.isSuccess()) {
+        throw new IOException(String.format("Read at 0x%04x failed: %s", position, response.getError()));
+      }
+      System.arraycopy(response.getBytes(), 0, result, position - offset, chunk);
+      position += chunk;
+      progress.update(position - offset);
+    }
+    LOG.infof("Read %d bytes of EEPROM 0x%02x on bus %d with %d transfers in %d ms", length, address, bus, transfers,
+              elapsedMs(start));
+    return result;
+  }
+
+  /**
+   * Writes data page by page, polling for the acknowledge after each page.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address, for devices with one address byte the address of the first block
+   * @param eeprom the memory layout
+   * @param offset the first memory address
+   * @param data the data
+   * @param verify true to read the data back and compare it
+   * @return the statistics of the write
+   * @throws IllegalArgumentException if the data exceeds the memory
+   * @throws IOException if a transfer fails, the device does not acknowledge in time or the verification fails
+   */
+  public WriteResult write(int bus, int address, EepromDefinition eeprom, int offset, byte[] data, boolean verify)
+          throws IOException
+  {
+    if (data.length == 0) {
+      throw new IllegalArgumentException("No data to write");
+    }
+    checkRange(eeprom, offset, data.length);
+    long start = System.nanoTime();
+    Progress progress = new Progress("write", bus, address, data.length);
+    int position = offset;
+    int pages = 0;
+    int polls = 0;
+    while (position < offset + data.length) {
+      int chunk = Math.min(offset + data.length - position, eeprom.getPageSize() - position % eeprom.getPageSize());
+      byte[] memoryAddress = memoryAddress(eeprom, position);
+      byte[] message = Arrays.copyOf(memoryAddress, memoryAddress.length + chunk);
+      System.arraycopy(data, position - offset, message, memoryAddress.length, chunk);
+      int device = deviceAddress(address, eeprom, position);
+      I2CResponse response = i2cService.transfer(bus, device, message, 0);
+      if (!response.isSuccess()) {
+        throw new IOException(String.format("Write at 0x%04x failed: %s", position, response.getError()));
+      }
+      polls += awaitWriteCycle(bus, device, position);
+      pages++;
+      position += chunk;
+      progress.update(position - offset);
+    }
+    if (verify) {
+      byte[] readBack = read(bus, address, eeprom, offset, data.length);
+      int mismatch = Arrays.mismatch(data, readBack);
+      if (mismatch >= 0) {
+        throw new IOException(String.format("Verification failed at 0x%04x: wrote 0x%02x, read 0x%02x",
+                                            offset + mismatch, data[mismatch] & 0xff, readBack[mismatch] & 0xff));
+      }
+    }
+    WriteResult result = new WriteResult(data.length, pages, polls, elapsedMs(start), verify);
+    LOG.infof("Wrote %d bytes to EEPROM 0x%02x on bus %d with %d pages and %d polls in %d ms", data.length, address,
+              bus, pages, polls, result.elapsed());
+    return result;
+  }
+
+  /**
+   * Reads a payload that must fit into the memory. At most one byte more than the capacity is read, so an oversized
+   * payload is rejected before anything is written.
+   *
+   * @param in the payload stream
+   * @param capacity the number of bytes available from the write offset to the end of the memory
+   * @return the payload
+   * @throws IllegalArgumentException if the payload is empty or exceeds the capacity
+   * @throws IOException if the stream cannot be read
+   */
+  public static byte[] readPayload(InputStream in, int capacity) throws IOException
+  {
+    byte[] data = in.readNBytes(capacity + 1);
+    if (data.length == 0) {
+      throw new IllegalArgumentException("No data to write");
+    }
+    if (data.length > capacity) {
+      throw new IllegalArgumentException("Data exceeds the EEPROM, " + capacity + " bytes available");
+    }
+    return data;
+  }
+
+  /**
+   * Parses a device address.
+   *
+   * @param address the address in hex format
+   * @return the address
+   * @throws IllegalArgumentException if the address is invalid
+   */
+  public static int parseAddress(String address)
+  {
+    try {
+      int value = Integer.decode(address);
+      if (value >= 0 && value <= 0x7f && (address.startsWith("0x") || address.startsWith("0X"))) {
+        return value;
+      }
+    } catch (NumberFormatException | NullPointerException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException("Invalid address format: " + address);
+  }
+
+  private static void checkRange(EepromDefinition eeprom, int offset, int length)
+  {
+    if (offset < 0 || length < 1 || offset + length > eeprom.getSize()) {
+      throw new IllegalArgumentException(String.format("Range 0x%x+%d exceeds the EEPROM size of %d bytes", offset,
+                                                       length, eeprom.getSize()));
+    }
+  }
+
+  /**
+   * Polls the device until it acknowledges again after a page write.
+   *
+   * @return the number of polls
+   */
+  private int awaitWriteCycle(int bus, int device, int position) throws IOException
+  {
+    long deadline = System.nanoTime() + writeTimeout.toNanos();
+    int polls = 0;
+    while (true) {
+      I2CResponse response = i2cService.transfer(bus, device, NO_DATA, 1);
+      polls++;
+      if (response.isSuccess()) {
+        return polls;
+      }
+      if (response.getErrorCode() != I2CErrorCode.NACK) {
+        throw new IOException(String.format("Polling after write at 0x%04x failed: %s", position,
+                                            response.getError()));
+      }
+      if (System.nanoTime() - deadline > 0) {
+        throw new IOException(String.format("EEPROM 0x%02x did not acknowledge within %d ms after write at 0x%04x",
+                                            device, writeTimeout.toMillis(), position));
+      }
+    }
+  }
+
+  /**
+   * Gets the device address of a memory address. Devices with one address byte take the upper bits of the memory
+   * address from the low bits of the device address.
+   */
+  static int deviceAddress(int address, EepromDefinition eeprom, int position)
+  {
+    return eeprom.getAddressWidth() == 1 ? address + (position >> 8) : address;
+  }
+
+  /**
+   * Gets the address bytes sent before the data.
+   */
+  static byte[] memoryAddress(EepromDefinition eeprom, int position)
+  {
+    if (eeprom.getAddressWidth() == 1) {
+      return new byte[]{(byte) position};
+    }
+    return new byte[]{(byte) (position >> 8), (byte) position};
+  }
+
+  private static long elapsedMs(long start)
+  {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+  }
+
+  /**
+   * Publishes progress events of one operation, at most one per progress interval and always the last one.
+   */
+  private final class Progress {
+
+    private final String operation;
+
+    private final String source;
+
+    private final int total;
+
+    private long last = System.nanoTime();
+
+    Progress(String operation, int bus, int address, int total)
+    {
+      this.operation = operation;
+      this.source = String.format("%d:0x%02x", bus, address);
+      this.total = total;
+    }
+
+    void update(int done)
+    {
+      long now = System.nanoTime();
+      if (done < total && now - last < progressInterval.toNanos()) {
+        return;
+      }
+      last = now;
+      Map<String, Object> data = new LinkedHashMap<>();
+      data.put("operation", operation);
+      data.put("done", done);
+      data.put("total", total);
+      eventStream.publish(new ServerEvent("eeprom", source, System.currentTimeMillis(), data));
+    }
+  }
+}
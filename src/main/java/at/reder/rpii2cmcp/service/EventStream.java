@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.ServerEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hot stream of server events. Every subscriber receives the events published after it subscribed; a subscriber that
+ * cannot keep up loses events instead of slowing down the publishers.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class EventStream {
+
+  private final BroadcastProcessor<ServerEvent> processor = BroadcastProcessor.create();
+
+  private final AtomicLong published = new AtomicLong();
+
+  /**
+   * Publishes an event to all current subscribers.
+   *
+   * @param event the event
+   */
+  public synchronized void publish(ServerEvent event)
+  {
+    published.incrementAndGet();
+    processor.onNext(event);
+  }
+
+  /**
+   * Subscribes to the events, optionally filtered.
+   *
+   * @param type only events of this type, or null for all types
+   * @param source only events of this source, or null for all sources
+   * @return the event stream
+   */
+  public Multi<ServerEvent> subscribe(String type, String source)
+  {
+    return processor
+            .select().where(event -> (type == null || type.equals(event.getType()))
+                    && (source == null || source.equals(event.getSource())))
+            .onOverflow().drop();
+  }
+
+  /**
+   * Gets the number of events published since startup.
+   *
+   * @return the event count
+   */
+  public long getPublishedCount()
+  {
+    return published.get();
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Source of GPIO line edges. Implementations are CDI beans selected by name with <code>i2c.gpio.source</code>, so a
+ * different kernel interface or a simulation can be plugged in without touching the triggers.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public interface GpioEventSource {
+
+  /**
+   * An edge on a GPIO line.
+   *
+   * @param chip the GPIO chip, e.g. gpiochip0
+   * @param line the line offset on the chip
+   * @param rising true for a rising edge, false for a falling edge
+   * @param timestamp the time of the edge in milliseconds since the epoch
+   */
+  record Edge(String chip, int line, boolean rising, long timestamp) {
+
+  }
+
+  /**
+   * Gets the name used to select this source.
+   *
+   * @return the source name
+   */
+  String name();
+
+  /**
+   * Starts watching a line. The listener is called once per edge on a thread owned by the source.
+   *
+   * @param chip the GPIO chip
+   * @param line the line offset
+   * @param listener receives the edges
+   * @return a handle that stops watching when closed
+   * @throws IOException if the line cannot be watched
+   */
+  Closeable watch(String chip, int line, Consumer<Edge> listener) throws IOException;
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import java.io.Closeable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An I2C read bound to an edge of a GPIO line, typically the data ready or interrupt output of a device. The read runs
+ * only when the line changes, so the status register does not have to be polled over the bus.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public final class GpioTrigger {
+
+  /**
+   * Fire on rising edges.
+   */
+  public static final String RISING = "rising";
+
+  /**
+   * Fire on falling edges.
+   */
+  public static final String FALLING = "falling";
+
+  /**
+   * Fire on both edges.
+   */
+  public static final String BOTH = "both";
+
+  /**
+   * The read executed on an edge: either the registers of a device profile or a raw register read.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param profile the device profile, or null for a raw read
+   * @param registers the profile registers to read, empty for all
+   * @param register the first register of a raw read in hex format
+   * @param length the number of bytes of a raw read
+   */
+  public record Read(int bus, String address, String profile, List<String> registers, String register, int length) {
+
+  }
+
+  private final String id;
+
+  private final String chip;
+
+  private final int line;
+
+  private final String edge;
+
+  private final long debounceMs;
+
+  private final Read read;
+
+  private long edges;
+
+  private long reads;
+
+  private long skipped;
+
+  private long errors;
+
+  private long lastFired = Long.MIN_VALUE;
+
+  private String lastError;
+
+  Closeable watch;
+
+  /**
+   * Creates a trigger.
+   *
+   * @param id the trigger id
+   * @param chip the GPIO chip
+   * @param line the line offset
+   * @param edge the edges that fire: {@link #RISING}, {@link #FALLING} or {@link #BOTH}
+   * @param debounceMs minimum time between two reads; edges within this time are skipped
+   * @param read the read to execute
+   */
+  public GpioTrigger(String id, String chip, int line, String edge, long debounceMs, Read read)
+  {
+    this.id = id;
+    this.chip = chip;
+    this.line = line;
+    this.edge = edge;
+    this.debounceMs = debounceMs;
+    this.read = read;
+  }
+
+  public String getId()
+  {
+    return id;
+  }
+
+  public String getChip()
+  {
+    return chip;
+  }
+
+  public int getLine()
+  {
+    return line;
+  }
+
+  public String getEdge()
+  {
+    return edge;
+  }
+
+  public Read getRead()
+  {
+    return read;
+  }
+
+  /**
+   * Decides whether an edge fires the read.
+   *
+   * @param rising true for a rising edge
+   * @param time the time of the edge in milliseconds since the epoch
+   * @return true if the edge matches and is outside the debounce time of the last read
+   */
+  synchronized boolean accept(boolean rising, long time)
+  {
+    edges++;
+    boolean matches = BOTH.equals(edge) || rising == RISING.equals(edge);
+    if (!matches || (lastFired != Long.MIN_VALUE && time - lastFired < debounceMs)) {
+      skipped++;
+      return false;
+    }
+    lastFired = time;
+    return true;
+  }
+
+  /**
+   * Records a successful read.
+   */
+  synchronized void recordRead()
+  {
+    reads++;
+    lastError = null;
+  }
+
+  /**
+   * Records a failed read.
+   *
+   * @param message the error message
+   */
+  synchronized void recordError(String message)
+  {
+    errors++;
+    lastError = message;
+  }
+
+  /**
+   * Gets the state as map for tool results.
+   *
+   * @return the definition, counters and last error
+   */
+  public synchronized Map<String, Object> toMap()
+  {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("id", id);
+    result.put("chip", chip);
+    result.put("line", line);
+    result.put("edge", edge);
+    result.put("debounce", debounceMs);
+    result.put("bus", read.bus());
+    result.put("address", read.address());
+    if (read.profile() != null) {
+      result.put("profile", read.profile());
+      if (!read.registers().isEmpty()) {
+        result.put("registers", read.registers());
+      }
+    } else {
+      result.put("register", read.register());
+      result.put("length", read.length());
+    }
+    result.put("edges", edges);
+    result.put("reads", reads);
+    result.put("skipped", skipped);
+    result.put("errors", errors);
+    if (lastError != null) {
+      result.put("error", lastError);
+    }
+    return result;
+  }
+}
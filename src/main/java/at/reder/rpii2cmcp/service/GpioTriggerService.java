@@ -0,0 +1,286 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.model.ServerEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Runs I2C reads when a GPIO line changes. Edges come from the {@link GpioEventSource} named by
+ * <code>i2c.gpio.source</code>; each matching edge executes the read of its {@link GpioTrigger} and publishes the
+ * result, or the error, as an event on the {@link EventStream}.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class GpioTriggerService {
+
+  private static final Logger LOG = Logger.getLogger(GpioTriggerService.class);
+
+  /**
+   * Event type of trigger events.
+   */
+  public static final String EVENT_TYPE = "gpio";
+
+  private static final Pattern ID_PATTERN = Pattern.compile("^[A-Za-z0-9_-][A-Za-z0-9_.-]{0,63}$");
+
+  private static final Pattern CHIP_PATTERN = Pattern.compile("^gpiochip[0-9]{1,3}$");
+
+  private static final Pattern HEX_PATTERN = Pattern.compile("^0[xX][0-9A-Fa-f]+$");
+
+  private static final int MAX_LINE = 1023;
+
+  /**
+   * Name of the edge source.
+   */
+  @ConfigProperty(name = "i2c.gpio.source", defaultValue = GpiomonEventSource.NAME)
+  String sourceName;
+
+  /**
+   * Maximum number of triggers.
+   */
+  @ConfigProperty(name = "i2c.gpio.max-triggers", defaultValue = "16")
+  int maxTriggers;
+
+  @Inject
+  @Any
+  Instance<GpioEventSource> sources;
+
+  @Inject
+  I2CService i2cService;
+
+  @Inject
+  DeviceProfileService deviceProfileService;
+
+  @Inject
+  EventStream eventStream;
+
+  private final Map<String, GpioTrigger> triggers = new ConcurrentHashMap<>();
+
+  private final AtomicInteger nextId = new AtomicInteger(1);
+
+  @PreDestroy
+  void shutdown()
+  {
+    for (String id : List.copyOf(triggers.keySet())) {
+      remove(id);
+    }
+  }
+
+  /**
+   * Adds a trigger and starts watching its line.
+   *
+   * @param id the trigger id, or null to generate one
+   * @param chip the GPIO chip, e.g. gpiochip0
+   * @param line the line offset
+   * @param edge the edges that fire the read, see {@link GpioTrigger}
+   * @param debounceMs minimum time between two reads in milliseconds
+   * @param read the read to execute
+   * @return the new trigger
+   * @throws IllegalArgumentException if the definition is invalid, the id or line is in use or the limit is reached
+   * @throws IOException if the line cannot be watched
+   */
+  public GpioTrigger add(String id, String chip, int line, String edge, long debounceMs, GpioTrigger.Read read)
+          throws IOException
+  {
+    String triggerId = id != null ? id : "g" + nextId.getAndIncrement();
+    if (!ID_PATTERN.matcher(triggerId).matches()) {
+      throw new IllegalArgumentException("Invalid trigger id: " + triggerId);
+    }
+    if (chip == null || !CHIP_PATTERN.matcher(chip).matches()) {
+      throw new IllegalArgumentException("Invalid GPIO chip: " + chip + ". Expected gpiochip<n>");
+    }
+    if (line < 0 || line > MAX_LINE) {
+      throw new IllegalArgumentException("Invalid GPIO line: " + line);
+    }
+    if (!GpioTrigger.RISING.equals(edge) && !GpioTrigger.FALLING.equals(edge) && !GpioTrigger.BOTH.equals(edge)) {
+      throw new IllegalArgumentException("Invalid edge: " + edge + ". Valid edges are: rising, falling, both");
+    }
+    if (debounceMs < 0) {
+      throw new IllegalArgumentException("Debounce must not be negative: " + debounceMs);
+    }
+    validateRead(read);
+    GpioTrigger trigger = new GpioTrigger(triggerId, chip, line, edge, debounceMs, read);
+    // checked together with the insert, so concurrent adds can neither exceed the limit nor watch one line twice
+    synchronized (triggers) {
+      if (triggers.size() >= maxTriggers) {
+        throw new IllegalArgumentException("Too many triggers, the limit is " + maxTriggers);
+      }
+      for (GpioTrigger existing : triggers.values()) {
+        if (existing.getChip().equals(chip) && existing.getLine() == line) {
+          throw new IllegalArgumentException("Line " + line + " of " + chip + " is used by trigger "
+                                             + existing.getId());
+        }
+      }
+      if (triggers.putIfAbsent(triggerId, trigger) != null) {
+        throw new IllegalArgumentException("Trigger already exists: " + triggerId);
+      }
+    }
+    try {
+      trigger.watch = source().watch(chip, line, e -> fire(trigger, e));
+    } catch (IOException | RuntimeException e) {
+      triggers.remove(triggerId);
+      throw e;
+    }
+    LOG.infof("Added trigger %s: %s edges of %s line %d read %s on bus %d",
+              triggerId, edge, chip, line, read.address(), read.bus());
+    return trigger;
+  }
+
+  private void validateRead(GpioTrigger.Read read)
+  {
+    if (read.address() == null || !HEX_PATTERN.matcher(read.address()).matches()) {
+      throw new IllegalArgumentException("Invalid address format: " + read.address());
+    }
+    if (read.profile() != null) {
+      deviceProfileService.selectRegisters(deviceProfileService.getProfile(read.profile()), read.registers());
+      return;
+    }
+    if (read.register() == null || !HEX_PATTERN.matcher(read.register()).matches()) {
+      throw new IllegalArgumentException("Invalid register format: " + read.register());
+    }
+    if (read.length() < 1 || read.length() > DeviceProfileService.MAX_BLOCK_LENGTH) {
+      throw new IllegalArgumentException("Length must be between 1 and " + DeviceProfileService.MAX_BLOCK_LENGTH
+                                         + ": " + read.length());
+    }
+  }
+
+  private GpioEventSource source()
+  {
+    List<String> names = new ArrayList<>();
+    for (GpioEventSource source : sources) {
+      if (source.name().equals(sourceName)) {
+        return source;
+      }
+      names.add(source.name());
+    }
+    throw new IllegalArgumentException("Unknown GPIO source: " + sourceName + ". Available sources are: "
+                                       + String.join(", ", names));
+  }
+
+  /**
+   * Removes a trigger and stops watching its line.
+   *
+   * @param id the trigger id
+   * @return true if the trigger existed
+   */
+  public boolean remove(String id)
+  {
+    GpioTrigger trigger = id != null ? triggers.remove(id) : null;
+    if (trigger == null) {
+      return false;
+    }
+    try {
+      if (trigger.watch != null) {
+        trigger.watch.close();
+      }
+    } catch (IOException e) {
+      LOG.warnf("Cannot stop watching %s line %d: %s", trigger.getChip(), trigger.getLine(), e.getMessage());
+    }
+    LOG.infof("Removed trigger %s", id);
+    return true;
+  }
+
+  /**
+   * Gets a trigger.
+   *
+   * @param id the trigger id
+   * @return the trigger, or null if there is no such trigger
+   */
+  public GpioTrigger getTrigger(String id)
+  {
+    return id != null ? triggers.get(id) : null;
+  }
+
+  /**
+   * Gets all triggers.
+   *
+   * @return the triggers sorted by id
+   */
+  public List<GpioTrigger> getTriggers()
+  {
+    List<GpioTrigger> result = new ArrayList<>(triggers.values());
+    result.sort((a, b) -> a.getId().compareTo(b.getId()));
+    return result;
+  }
+
+  /**
+   * Handles an edge of a trigger's line. The read runs in the monitoring lane, so it does not compete with interactive
+   * tool calls for the bus.
+   *
+   * @param trigger the trigger
+   * @param edge the edge
+   */
+  void fire(GpioTrigger trigger, GpioEventSource.Edge edge)
+  {
+    if (!trigger.accept(edge.rising(), edge.timestamp())) {
+      return;
+    }
+    Map<String, Object> data = new LinkedHashMap<>();
+    data.put("edge", edge.rising() ? GpioTrigger.RISING : GpioTrigger.FALLING);
+    data.put("chip", edge.chip());
+    data.put("line", edge.line());
+    try {
+      data.putAll(Lane.call(Priority.MONITORING, null, () -> read(trigger.getRead())));
+      trigger.recordRead();
+    } catch (IOException | RuntimeException e) {
+      LOG.warnf("Trigger %s read failed: %s", trigger.getId(), e.getMessage());
+      trigger.recordError(e.getMessage());
+      data.put("error", String.valueOf(e.getMessage()));
+    }
+    eventStream.publish(new ServerEvent(EVENT_TYPE, trigger.getId(), edge.timestamp(), data));
+  }
+
+  private Map<String, Object> read(GpioTrigger.Read read) throws IOException
+  {
+    if (read.profile() != null) {
+      return deviceProfileService.readDevice(read.bus(), read.address(), read.profile(), read.registers());
+    }
+    String mode = read.length() == 1 ? null : "i " + read.length();
+    I2CResponse response = i2cService.executeCommand(
+            new I2CCommand(read.bus(), read.address(), read.register(), null, "read", mode));
+    if (!response.isSuccess()) {
+      throw new IOException("Read at " + read.register() + " failed: " + response.getError());
+    }
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("bus", read.bus());
+    result.put("address", read.address());
+    result.put("register", read.register());
+    result.put("data", response.getData());
+    if (response.getBytes() != null) {
+      result.put("hex", HexFormat.of().formatHex(response.getBytes()));
+    }
+    return result;
+  }
+}
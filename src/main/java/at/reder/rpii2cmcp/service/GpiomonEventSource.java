@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Edge source reading the Linux GPIO character device through <code>gpiomon</code> from libgpiod. One gpiomon process
+ * per watched line blocks in the kernel until an edge occurs and prints one line per edge, which a virtual thread
+ * parses; nothing is polled. Lines containing "rising" or "falling" (any case) are edges, which covers the output of
+ * libgpiod 1.x and 2.x.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class GpiomonEventSource implements GpioEventSource {
+
+  private static final Logger LOG = Logger.getLogger(GpiomonEventSource.class);
+
+  /**
+   * Name of this source.
+   */
+  public static final String NAME = "gpiomon";
+
+  /**
+   * Command line of the monitor process; {chip} and {line} are replaced. The default matches libgpiod 1.x, use
+   * "gpiomon -c {chip} {line}" for libgpiod 2.x.
+   */
+  @ConfigProperty(name = "i2c.gpio.monitor-command", defaultValue = "gpiomon {chip} {line}")
+  String monitorCommand;
+
+  @Override
+  public String name()
+  {
+    return NAME;
+  }
+
+  @Override
+  public Closeable watch(String chip, int line, Consumer<Edge> listener) throws IOException
+  {
+    List<String> command = command(chip, line);
+    LOG.infof("Watching %s line %d: %s", chip, line, String.join(" ", command));
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    Thread.ofVirtual().name("gpiomon-" + chip + "-" + line).start(() -> {
+      try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+        String output;
+        while ((output = reader.readLine()) != null) {
+          Boolean rising = parseEdge(output);
+          if (rising != null) {
+            listener.accept(new Edge(chip, line, rising, System.currentTimeMillis()));
+          } else if (!output.isBlank()) {
+            LOG.infof("gpiomon %s %d: %s", chip, line, output);
+          }
+        }
+      } catch (IOException e) {
+        LOG.warnf("Reading gpiomon %s %d failed: %s", chip, line, e.getMessage());
+      }
+      if (process.isAlive()) {
+        process.destroy();
+      } else if (process.exitValue() != 0) {
+        LOG.warnf("gpiomon %s %d exited with code %d", chip, line, process.exitValue());
+      }
+    });
+    return process::destroy;
+  }
+
+  /**
+   * Builds the command line for a line.
+   *
+   * @param chip the GPIO chip
+   * @param line the line offset
+   * @return the command and its arguments
+   */
+  List<String> command(String chip, int line)
+  {
+    List<String> command = new ArrayList<>();
+    for (String token : monitorCommand.trim().split("\\s+")) {
+      command.add(token.replace("{chip}", chip).replace("{line}", String.valueOf(line)));
+    }
+    return command;
+  }
+
+  /**
+   * Parses one output line of gpiomon.
+   *
+   * @param output the output line
+   * @return true for a rising edge, false for a falling edge, null if the line is no edge
+   */
+  static Boolean parseEdge(String output)
+  {
+    String text = output.toLowerCase(Locale.ROOT);
+    if (text.contains("rising")) {
+      return Boolean.TRUE;
+    }
+    if (text.contains("falling")) {
+      return Boolean.FALSE;
+    }
+    return null;
+  }
+}
@@ -16,20 +16,42 @@
 package at.reder.rpii2cmcp.service;
 
 import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CErrorCode;
 import at.reder.rpii2cmcp.model.I2CResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 /**
- * Service for executing I2C commands using i2c-tools on Raspberry Pi. This service provides secure execution of i2cget and
- * i2cset commands with proper validation and error handling.
+ * Service for executing I2C commands using i2c-tools on Raspberry Pi. This service provides secure execution of i2cget,
+ * i2cset and i2ctransfer commands with proper validation and error handling. Commands on the same bus are serialized by
+ * a per-bus {@link BusArbiter}, which also makes multi-step operations such as {@link #updateBits} atomic with respect
+ * to other clients. Waiting commands are granted the bus earliest deadline first; the deadline depends on the
+ * {@link Priority} of the calling thread's {@link Lane}. Channels of configured multiplexers are addressed as virtual
+ * buses, see {@link Multiplexer}. Failures are classified into {@link I2CErrorCode}s; devices that repeatedly do not
+ * answer are guarded by a per-device circuit breaker, which rejects commands without bus access until the cooldown has
+ * passed. Declared shadow registers are mirrored in memory, see {@link #declareShadow}.
  *
  * @author Wolfgang Reder
  * @version 1.0.0
@@ -55,6 +77,16 @@ public class I2CService {
    */
   private static final int MAX_BUS_NUMBER = 10;
 
+  /**
+   * Maximum virtual bus number of a multiplexer channel.
+   */
+  private static final int MAX_VIRTUAL_BUS = 99;
+
+  /**
+   * Maximum length of one message of a combined transfer, the limit of the i2c-dev driver.
+   */
+  public static final int MAX_TRANSFER_LENGTH = 8192;
+
   /**
    * Path to i2cget command.
    */
@@ -67,12 +99,205 @@ public class I2CService {
   @ConfigProperty(name = "i2c.command.set", defaultValue = "/usr/sbin/i2cset")
   String i2csetPath;
 
+  /**
+   * Path to i2ctransfer command.
+   */
+  @ConfigProperty(name = "i2c.command.transfer", defaultValue = "/usr/sbin/i2ctransfer")
+  String i2ctransferPath;
+
   /**
    * Whether I2C commands are enabled.
    */
   @ConfigProperty(name = "i2c.enabled", defaultValue = "true")
   boolean i2cEnabled;
 
+  /**
+   * Whether devices that repeatedly do not answer are guarded by a circuit breaker.
+   */
+  @ConfigProperty(name = "i2c.breaker.enabled", defaultValue = "true")
+  boolean breakerEnabled;
+
+  /**
+   * Number of consecutive NACKs or timeouts that open the circuit of a device.
+   */
+  @ConfigProperty(name = "i2c.breaker.failure-threshold", defaultValue = "3")
+  int breakerThreshold;
+
+  /**
+   * Time an open circuit rejects commands before a probe is let through.
+   */
+  @ConfigProperty(name = "i2c.breaker.cooldown", defaultValue = "5s")
+  Duration breakerCooldown;
+
+  /**
+   * Whether declared shadow registers are served from memory and unchanged writes to them are skipped.
+   */
+  @ConfigProperty(name = "i2c.shadow.enabled", defaultValue = "true")
+  boolean shadowEnabled;
+
+  /**
+   * Multiplexers as <code>bus:address=first-last</code> entries, e.g. 1:0x70=20-27.
+   */
+  @ConfigProperty(name = "i2c.mux.devices")
+  Optional<List<String>> muxDevices;
+
+  /**
+   * Number of times a queued command may be overtaken by commands for the selected multiplexer channel.
+   */
+  @ConfigProperty(name = "i2c.mux.max-reorder", defaultValue = "4")
+  int maxReorder;
+
+  /**
+   * Default deadline of interactive bus transactions.
+   */
+  @ConfigProperty(name = "i2c.scheduler.interactive-deadline-ms", defaultValue = "100")
+  long interactiveDeadlineMs;
+
+  /**
+   * Default deadline of monitoring bus transactions.
+   */
+  @ConfigProperty(name = "i2c.scheduler.monitoring-deadline-ms", defaultValue = "1000")
+  long monitoringDeadlineMs;
+
+  /**
+   * Default deadline of bulk bus transactions.
+   */
+  @ConfigProperty(name = "i2c.scheduler.bulk-deadline-ms", defaultValue = "10000")
+  long bulkDeadlineMs;
+
+  /**
+   * Whether all commands are answered by the simulated bus, see {@link #simulate(Supplier)}. Used to load test the
+   * server without devices.
+   */
+  @ConfigProperty(name = "i2c.simulation.enabled", defaultValue = "false")
+  boolean simulationEnabled;
+
+  /**
+   * Bus time of a simulated transaction in microseconds. The bus is held meanwhile, so concurrent commands queue as
+   * they do on a real bus.
+   */
+  @ConfigProperty(name = "i2c.simulation.transaction-us", defaultValue = "0")
+  long simulatedTransactionUs;
+
+  @Inject
+  MeterRegistry registry;
+
+  /**
+   * Time from queuing a transaction to its completion, by priority.
+   */
+  private Map<Priority, Timer> latency = Map.of();
+
+  private final Map<Integer, BusArbiter> busLocks = new ConcurrentHashMap<>();
+
+  /**
+   * The multiplexers by virtual bus number.
+   */
+  private Map<Integer, Multiplexer> routes = Map.of();
+
+  private List<Multiplexer> muxes = List.of();
+
+  private final LongAdder channelSwitches = new LongAdder();
+
+  private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+  private final Map<String, ShadowRegister> shadows = new ConcurrentHashMap<>();
+
+  private final LongAdder elidedWrites = new LongAdder();
+
+  /**
+   * Set on threads whose commands are answered by a simulated bus, see {@link #simulate(Supplier)}.
+   */
+  private final ThreadLocal<Boolean> simulated = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+  @PostConstruct
+  void init()
+  {
+    configureMuxes(muxDevices.orElse(List.of()));
+    registry.more().counter("i2c.mux.switches", List.of(), this, I2CService::getChannelSwitches);
+    Map<Priority, Timer> timers = new EnumMap<>(Priority.class);
+    for (Priority priority : Priority.values()) {
+      timers.put(priority, Timer.builder("i2c.bus.latency")
+              .description("Time from queuing a bus transaction to its completion")
+              .tag("priority", priority.getName())
+              .publishPercentiles(0.5, 0.95, 0.99, 0.999)
+              .register(registry));
+    }
+    latency = timers;
+  }
+
+  /**
+   * Configures the multiplexers.
+   *
+   * @param entries the multiplexers as <code>bus:address=first-last</code> entries
+   * @throws IllegalArgumentException if an entry is malformed, not connected to a physical bus or its virtual buses
+   * overlap physical buses or another multiplexer
+   */
+  void configureMuxes(List<String> entries)
+  {
+    Map<Integer, Multiplexer> configured = new HashMap<>();
+    List<Multiplexer> parsed = new ArrayList<>();
+    for (String entry : entries) {
+      Multiplexer mux = Multiplexer.parse(entry);
+      if (mux.getParentBus() < 0 || mux.getParentBus() > MAX_BUS_NUMBER) {
+        throw new IllegalArgumentException("Multiplexers must be connected to a bus from 0 to " + MAX_BUS_NUMBER
+                + ": " + entry);
+      }
+      int last = mux.getFirstBus() + mux.getChannels() - 1;
+      if (mux.getFirstBus() <= MAX_BUS_NUMBER || last > MAX_VIRTUAL_BUS) {
+        throw new IllegalArgumentException("Virtual buses must be between " + (MAX_BUS_NUMBER + 1) + " and "
+                + MAX_VIRTUAL_BUS + ": " + entry);
+      }
+      for (Multiplexer other : parsed) {
+        if (other.getParentBus() == mux.getParentBus() && other.getAddress() == mux.getAddress()) {
+          throw new IllegalArgumentException("Duplicate multiplexer: " + entry);
+        }
+      }
+      for (int bus = mux.getFirstBus(); bus <= last; bus++) {
+        if (configured.putIfAbsent(bus, mux) != null) {
+          throw new IllegalArgumentException("Virtual bus " + bus + " is used by two multiplexers");
+        }
+      }
+      parsed.add(mux);
+      LOG.infof("Multiplexer 0x%02x on bus %d: channels 0-%d are buses %d-%d", mux.getAddress(), mux.getParentBus(),
+                mux.getChannels() - 1, mux.getFirstBus(), last);
+    }
+    muxes = List.copyOf(parsed);
+    routes = configured;
+  }
+
+  /**
+   * Gets the number of multiplexer control register writes.
+   *
+   * @return the number of channel switches since startup
+   */
+  public long getChannelSwitches()
+  {
+    return channelSwitches.sum();
+  }
+
+  /**
+   * Gets the physical bus a command is executed on.
+   *
+   * @param bus the bus number, a virtual bus for multiplexer channels
+   * @return the bus number itself, or the parent bus of a multiplexer channel
+   */
+  public int physicalBus(int bus)
+  {
+    Multiplexer mux = routes.get(bus);
+    return mux == null ? bus : mux.getParentBus();
+  }
+
+  /**
+   * Result of a read-modify-write.
+   *
+   * @param oldValue the register value read
+   * @param newValue the register value after the update
+   * @param written false if the write was skipped because the value did not change
+   */
+  public record BitUpdate(int oldValue, int newValue, boolean written) {
+
+  }
+
   /**
    * Executes an I2C command (read or write).
    *
@@ -84,37 +309,630 @@ public class I2CService {
   {
     if (command == null) {
       LOG.error("Received null command");
-      return new I2CResponse(false, null, "Command cannot be null", "");
+      return I2CResponse.failure(I2CErrorCode.INVALID, "Command cannot be null", "");
     }
 
-    LOG.infof("Executing I2C command: operation=%s, bus=%d, address=%s, register=%s",
+    LOG.logf(commandLogLevel(), "Executing I2C command: operation=%s, bus=%d, address=%s, register=%s",
               command.getOperation(), command.getBus(), command.getAddress(), command.getRegister());
 
     if (!i2cEnabled) {
       LOG.warn("I2C commands are disabled");
-      return new I2CResponse(false, null, "I2C commands are disabled", "");
+      return I2CResponse.failure(I2CErrorCode.DISABLED, "I2C commands are disabled", "");
     }
 
     try {
       // Validate input
       validateCommand(command);
+    } catch (IllegalArgumentException e) {
+      LOG.error("Invalid command parameters", e);
+      return I2CResponse.failure(I2CErrorCode.INVALID, e.getMessage(), "");
+    }
+    return executeValidated(command);
+  }
+
+  /**
+   * Executes a command without validating it again. Only for commands that already passed the validation of
+   * {@link #executeCommand(I2CCommand)}, e.g. a prepared command validated once when it was registered; the command
+   * parameters are passed to i2cget and i2cset unchecked.
+   *
+   * @param command the validated command
+   * @return the response containing the result or error
+   */
+  public I2CResponse executeValidated(I2CCommand command)
+  {
+    if (!i2cEnabled) {
+      LOG.warn("I2C commands are disabled");
+      return I2CResponse.failure(I2CErrorCode.DISABLED, "I2C commands are disabled", "");
+    }
+    ShadowRegister shadow = shadow(command);
+    if (shadow != null) {
+      I2CResponse response = fromShadow(command, shadow);
+      if (response != null) {
+        return response;
+      }
+    }
+    CircuitBreaker breaker = isSimulated() ? null : breaker(command);
+    if (breaker != null) {
+      long remaining = breaker.tryAcquire(System.nanoTime());
+      if (remaining > 0) {
+        return I2CResponse.failure(I2CErrorCode.CIRCUIT_OPEN, String.format(
+                "Device %s on bus %d does not respond, circuit open for %d ms", command.getAddress(),
+                command.getBus(), TimeUnit.NANOSECONDS.toMillis(remaining) + 1), "");
+      }
+    }
+    I2CResponse response;
+    boolean read = "read".equalsIgnoreCase(command.getOperation());
+    Multiplexer mux = routes.get(command.getBus());
+    BusArbiter lock = busLock(command.getBus());
+    long queued = acquire(lock, command.getBus());
+    try {
+      try {
+        response = selectChannel(mux, command.getBus());
+        if (response == null) {
+          I2CCommand routed = mux == null ? command : onBus(command, mux.getParentBus());
+          response = read ? executeRead(routed) : executeWrite(routed);
+        }
+        if (!read && mux == null && !isSimulated()) {
+          invalidateMux(command.getBus(), Integer.decode(command.getAddress()));
+        }
+      } catch (Exception e) {
+        LOG.error("Error executing I2C command", e);
+        response = I2CResponse.failure(I2CErrorCode.classify(e.getMessage()),
+                "Error executing command: " + e.getMessage(), "");
+      }
+      if (!read && shadowEnabled && !shadows.isEmpty() && !isSimulated()) {
+        updateShadows(command, response.isSuccess());
+      }
+    } finally {
+      release(lock, queued);
+    }
+    if (breaker != null) {
+      record(breaker, command, response);
+    }
+    return response;
+  }
+
+  /**
+   * Declares a shadow register. Writes through {@link #executeValidated} keep a copy of its value; once the value is
+   * known, reads of the full register width are answered from the copy and writes of the same value are skipped
+   * unless forced. Registers must only be declared shadow if nothing but this server changes them, e.g. configuration
+   * registers; transfers do not update shadows.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param register the register address
+   * @param width the register width in bytes, 1 or 2
+   * @return true if the register was not declared before
+   * @throws IllegalArgumentException if a parameter is invalid
+   */
+  public boolean declareShadow(int bus, String address, int register, int width)
+  {
+    validateCommand(new I2CCommand(bus, address, String.format("0x%02x", register), null, "read"));
+    if (register < 0 || register > 0xff) {
+      throw new IllegalArgumentException(String.format("Invalid register: 0x%x", register));
+    }
+    if (width != 1 && width != 2) {
+      throw new IllegalArgumentException("Shadow registers must be 1 or 2 bytes wide: " + width);
+    }
+    return shadows.putIfAbsent(shadowKey(bus, address, register), new ShadowRegister(width)) == null;
+  }
+
+  /**
+   * Gets the number of writes skipped because the shadow register already held the value.
+   *
+   * @return the number of elided writes since startup
+   */
+  public long getElidedWrites()
+  {
+    return elidedWrites.sum();
+  }
+
+  /**
+   * Gets the value of a shadow register.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param register the register address
+   * @return the last value written, or null if the register is not shadowed or its value is unknown
+   */
+  Integer getShadowValue(int bus, String address, int register)
+  {
+    ShadowRegister shadow = shadows.get(shadowKey(bus, address, register));
+    return shadow == null ? null : shadow.getValue();
+  }
+
+  private static String shadowKey(int bus, String address, int register)
+  {
+    return bus + ":" + Integer.decode(address) + ":" + register;
+  }
+
+  private ShadowRegister shadow(I2CCommand command)
+  {
+    if (!shadowEnabled || shadows.isEmpty() || isSimulated()) {
+      return null;
+    }
+    return shadows.get(shadowKey(command.getBus(), command.getAddress(), Integer.decode(command.getRegister())));
+  }
+
+  /**
+   * Answers a command from a shadow register.
+   *
+   * @return the response, or null if the command must access the device
+   */
+  private I2CResponse fromShadow(I2CCommand command, ShadowRegister shadow)
+  {
+    Integer value = shadow.getValue();
+    if (value == null) {
+      return null;
+    }
+    if ("read".equalsIgnoreCase(command.getOperation())) {
+      String output = shadowOutput(command.getMode(), shadow.getWidth(), value);
+      if (output == null) {
+        return null;
+      }
+      LOG.debugf("Read of register %s of %s on bus %d served from shadow", command.getRegister(),
+                 command.getAddress(), command.getBus());
+      I2CResponse response = new I2CResponse(true, output, null, "shadow");
+      response.setBytes(parseReadOutput(output, command.getMode()));
+      response.setShadow(true);
+      return response;
+    }
+    if (command.isForce() || writeWidth(command.getValue()) != shadow.getWidth()
+            || Integer.decode(command.getValue()) != value.intValue()) {
+      return null;
+    }
+    elidedWrites.increment();
+    LOG.infof("Write of %s to register %s of %s on bus %d skipped, the value is unchanged", command.getValue(),
+              command.getRegister(), command.getAddress(), command.getBus());
+    I2CResponse response = new I2CResponse(true, "Write skipped, register already holds " + command.getValue(), null,
+                                           "shadow");
+    response.setShadow(true);
+    return response;
+  }
 
-      if ("read".equalsIgnoreCase(command.getOperation())) {
-        return executeRead(command);
-      } else if ("write".equalsIgnoreCase(command.getOperation())) {
-        return executeWrite(command);
+  /**
+   * Formats a shadow value as i2cget would print it for the given mode.
+   *
+   * @return the output, or null if the mode does not read exactly the register
+   */
+  private static String shadowOutput(String mode, int width, int value)
+  {
+    String trimmed = mode == null ? "" : mode.trim();
+    if (trimmed.isEmpty() || "b".equals(trimmed)) {
+      return width == 1 ? String.format("0x%02x", value) : null;
+    }
+    if ("w".equals(trimmed)) {
+      return width == 2 ? String.format("0x%04x", value) : null;
+    }
+    if (Integer.parseInt(trimmed.substring(1).trim()) != width) {
+      return null;
+    }
+    // word writes transfer the low byte first, a block read returns the bytes in that order
+    return width == 1 ? String.format("0x%02x", value)
+            : String.format("0x%02x 0x%02x", value & 0xff, value >> 8);
+  }
+
+  /**
+   * Gets the number of bytes written by i2cset for a value, see {@link #executeWrite}.
+   */
+  private static int writeWidth(String value)
+  {
+    if (value.length() <= 4) {
+      return 1;
+    }
+    return value.length() <= 6 ? 2 : (value.length() - 1) / 2;
+  }
+
+  /**
+   * Updates the shadow registers covered by a write. A write of the full width of a shadow register sets its value;
+   * shadows only partly covered, or written by a failed command, become unknown.
+   */
+  private void updateShadows(I2CCommand command, boolean success)
+  {
+    int register = Integer.decode(command.getRegister());
+    int width = writeWidth(command.getValue());
+    // a word shadow one register below overlaps the first byte of the write
+    for (int r = register - 1; r < register + width; r++) {
+      ShadowRegister shadow = shadows.get(shadowKey(command.getBus(), command.getAddress(), r));
+      if (shadow == null || r + shadow.getWidth() <= register) {
+        continue;
+      }
+      if (success && r == register && shadow.getWidth() == width) {
+        shadow.set(Integer.decode(command.getValue()));
       } else {
-        throw new IllegalArgumentException("Invalid operation: " + command.getOperation());
+        shadow.invalidate();
       }
-    } catch (IllegalArgumentException e) {
-      LOG.error("Invalid command parameters", e);
-      return new I2CResponse(false, null, e.getMessage(), "");
-    } catch (Exception e) {
-      LOG.error("Error executing I2C command", e);
-      return new I2CResponse(false, null, "Error executing command: " + e.getMessage(), "");
     }
   }
 
+  /**
+   * Gets the circuit breaker of the addressed device.
+   *
+   * @param command the command
+   * @return the breaker, or null if circuit breakers are disabled
+   */
+  private CircuitBreaker breaker(I2CCommand command)
+  {
+    if (!breakerEnabled) {
+      return null;
+    }
+    String key = command.getBus() + ":" + Integer.decode(command.getAddress());
+    return breakers.computeIfAbsent(key, k -> new CircuitBreaker(breakerThreshold, breakerCooldown.toNanos()));
+  }
+
+  /**
+   * Feeds the outcome of a command into the circuit breaker of the device. Only missing answers of the device count as
+   * failures; a busy bus or a permission problem says nothing about the device.
+   */
+  private void record(CircuitBreaker breaker, I2CCommand command, I2CResponse response)
+  {
+    if (response.isSuccess()) {
+      breaker.onSuccess();
+    } else if (response.getErrorCode() == I2CErrorCode.NACK || response.getErrorCode() == I2CErrorCode.TIMEOUT) {
+      if (breaker.onFailure(System.nanoTime())) {
+        LOG.warnf("Device %s on bus %d failed %d times, circuit open for %d ms", command.getAddress(),
+                  command.getBus(), breaker.getFailures(), breakerCooldown.toMillis());
+      }
+    } else {
+      breaker.onIgnored();
+    }
+  }
+
+  /**
+   * Gets the circuit state of a device.
+   *
+   * @param bus the bus number
+   * @param address the device address in hex format
+   * @return the state
+   */
+  CircuitBreaker.State getCircuitState(int bus, String address)
+  {
+    CircuitBreaker breaker = breakers.get(bus + ":" + Integer.decode(address));
+    return breaker == null ? CircuitBreaker.State.CLOSED : breaker.getState();
+  }
+
+  /**
+   * Runs an action with a simulated bus on the calling thread. Commands take the same path through validation, bus lock
+   * and output parsing as real commands, but no i2c-tools process is started: reads return 0x42 per byte and writes
+   * succeed. Circuit breakers are not affected. Used to warm up the code paths at startup; other threads keep
+   * accessing the real bus unless {@code i2c.simulation.enabled} simulates it for all threads.
+   *
+   * @param <T> the result type
+   * @param action the action
+   * @return the result of the action
+   */
+  public <T> T simulate(Supplier<T> action)
+  {
+    simulated.set(Boolean.TRUE);
+    try {
+      return action.get();
+    } finally {
+      simulated.remove();
+    }
+  }
+
+  /**
+   * Checks whether commands of the calling thread are answered by a simulated bus.
+   *
+   * @return true inside {@link #simulate(Supplier)} or if the simulation is enabled
+   */
+  public boolean isSimulated()
+  {
+    return simulationEnabled || simulated.get();
+  }
+
+  /**
+   * Gets the level of the per-command log messages. Simulated commands log at debug level, so the warm-up and load
+   * tests do not flood the log while real commands keep logging at info level.
+   */
+  private Logger.Level commandLogLevel()
+  {
+    return isSimulated() ? Logger.Level.DEBUG : Logger.Level.INFO;
+  }
+
+  /**
+   * Holds the bus for the configured time of a simulated transaction.
+   */
+  private void simulateBusTime()
+  {
+    if (simulationEnabled && simulatedTransactionUs > 0) {
+      LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(simulatedTransactionUs));
+    }
+  }
+
+  /**
+   * Executes a combined transfer with i2ctransfer: an optional write message followed by an optional read message,
+   * joined by a repeated start. Unlike i2cget and i2cset this is not limited to one register byte and 32 data bytes,
+   * e.g. an EEPROM can be written with two address bytes and read sequentially in one transfer. Transfers do not feed
+   * the circuit breakers, a NACK can be an expected answer, e.g. while an EEPROM is busy writing.
+   *
+   * @param bus the I2C bus number
+   * @param address the 7 bit device address
+   * @param write the bytes to write, may be empty
+   * @param readLength the number of bytes to read, may be 0
+   * @return the response, with the bytes read as {@link I2CResponse#getBytes()}
+   * @throws IllegalArgumentException if a parameter is invalid
+   */
+  public I2CResponse transfer(int bus, int address, byte[] write, int readLength)
+  {
+    if (bus < 0 || (bus > MAX_BUS_NUMBER && !routes.containsKey(bus))) {
+      throw new IllegalArgumentException("Invalid bus number: " + bus);
+    }
+    if (address < 0 || address > 0x7f) {
+      throw new IllegalArgumentException(String.format("Invalid address: 0x%x", address));
+    }
+    if (write.length > MAX_TRANSFER_LENGTH || readLength < 0 || readLength > MAX_TRANSFER_LENGTH
+            || (write.length == 0 && readLength == 0)) {
+      throw new IllegalArgumentException("Transfer length must be between 1 and " + MAX_TRANSFER_LENGTH);
+    }
+    if (!i2cEnabled) {
+      return I2CResponse.failure(I2CErrorCode.DISABLED, "I2C commands are disabled", "");
+    }
+    Multiplexer mux = routes.get(bus);
+    List<String> cmdList = new ArrayList<>();
+    cmdList.add(i2ctransferPath);
+    cmdList.add("-y");
+    cmdList.add("-a");
+    cmdList.add(String.valueOf(physicalBus(bus)));
+    if (write.length > 0) {
+      cmdList.add(String.format("w%d@0x%02x", write.length, address));
+      for (byte b : write) {
+        cmdList.add(String.format("0x%02x", b & 0xff));
+      }
+    }
+    if (readLength > 0) {
+      cmdList.add(String.format("r%d@0x%02x", readLength, address));
+    }
+    String cmdString = String.join(" ", cmdList);
+    LOG.debugf("Executing transfer: %s", cmdString);
+    BusArbiter lock = busLock(bus);
+    long queued = acquire(lock, bus);
+    try {
+      I2CResponse selected = selectChannel(mux, bus);
+      if (selected != null) {
+        return selected;
+      }
+      if (mux == null && write.length > 0 && !isSimulated()) {
+        invalidateMux(bus, address);
+      }
+      String output;
+      if (isSimulated()) {
+        simulateBusTime();
+        output = readLength > 0 ? simulatedOutput("i " + readLength) : "";
+      } else {
+        ProcessBuilder pb = new ProcessBuilder(cmdList);
+        pb.redirectErrorStream(true);
+        Process process = pb.start();
+        output = readProcessOutput(process);
+        if (process.waitFor() != 0) {
+          LOG.debugf("Transfer failed: %s", output);
+          return I2CResponse.failure(I2CErrorCode.classify(output), "Command failed: " + output.trim(), cmdString);
+        }
+      }
+      I2CResponse response = new I2CResponse(true, output.trim(), null, cmdString);
+      if (readLength > 0) {
+        byte[] data = parseReadOutput(output, null);
+        if (data == null || data.length != readLength) {
+          return I2CResponse.failure(I2CErrorCode.UNKNOWN, "Cannot parse transfer output: " + output.trim(),
+                                     cmdString);
+        }
+        response.setBytes(data);
+      }
+      return response;
+    } catch (IOException e) {
+      LOG.error("Error executing I2C transfer", e);
+      return I2CResponse.failure(I2CErrorCode.classify(e.getMessage()), "Error executing command: " + e.getMessage(),
+                                 cmdString);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return I2CResponse.failure(I2CErrorCode.UNKNOWN, "Transfer interrupted", cmdString);
+    } finally {
+      release(lock, queued);
+    }
+  }
+
+  /**
+   * Atomically updates bits of a register: reads the register, replaces the bits selected by the mask with the given
+   * value and writes the result back. The bus lock is held from the read to the write, so no other command on the bus
+   * can interleave. The write is skipped if the bits already have the requested value.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param register the register address in hex format
+   * @param mask the bits to change
+   * @param value the new value of the masked bits
+   * @param word true for a 16 bit register, false for an 8 bit register
+   * @return the old and new register value
+   * @throws IllegalArgumentException if a parameter is invalid
+   * @throws IOException if the read or the write fails
+   */
+  public BitUpdate updateBits(int bus, String address, String register, int mask, int value, boolean word)
+          throws IOException
+  {
+    int limit = word ? 0xffff : 0xff;
+    if (mask < 0 || mask > limit || mask == 0) {
+      throw new IllegalArgumentException(String.format("Mask must be between 0x1 and 0x%x: 0x%x", limit, mask));
+    }
+    if ((value & ~mask) != 0) {
+      throw new IllegalArgumentException(String.format("Value 0x%x has bits outside mask 0x%x", value, mask));
+    }
+    String mode = word ? "w" : "b";
+    I2CCommand readCommand = new I2CCommand(bus, address, register, null, "read", mode);
+    validateCommand(readCommand);
+    BusArbiter lock = busLock(bus);
+    long queued = acquire(lock, bus);
+    try {
+      I2CResponse read = executeCommand(readCommand);
+      if (!read.isSuccess()) {
+        throw new IOException("Read of " + register + " failed: " + read.getError());
+      }
+      int oldValue;
+      try {
+        oldValue = Integer.decode(read.getData().trim()) & limit;
+      } catch (NumberFormatException e) {
+        throw new IOException("Cannot parse read output: " + read.getData());
+      }
+      int newValue = (oldValue & ~mask) | value;
+      if (newValue == oldValue) {
+        LOG.logf(commandLogLevel(), "Register %s of %s on bus %d already has bits 0x%x = 0x%x", register, address, bus,
+                 mask, value);
+        return new BitUpdate(oldValue, newValue, false);
+      }
+      String text = String.format(word ? "0x%04x" : "0x%02x", newValue);
+      I2CResponse write = executeCommand(new I2CCommand(bus, address, register, text, "write", mode));
+      if (!write.isSuccess()) {
+        throw new IOException("Write of " + register + " failed: " + write.getError());
+      }
+      return new BitUpdate(oldValue, newValue, true);
+    } finally {
+      release(lock, queued);
+    }
+  }
+
+  /**
+   * Gets the arbiter serializing the commands on a bus. All channels of a multiplexer share the arbiter of the parent
+   * bus, which prefers queued commands for the selected channel.
+   *
+   * @param bus the bus number, a virtual bus for multiplexer channels
+   * @return the arbiter
+   */
+  BusArbiter busLock(int bus)
+  {
+    return busLocks.computeIfAbsent(physicalBus(bus), b -> new BusArbiter(this::isRouteReady, maxReorder));
+  }
+
+  /**
+   * Acquires the bus with the deadline of the calling thread's lane.
+   *
+   * @param lock the arbiter of the bus
+   * @param bus the bus number of the transaction
+   * @return the time the transaction was queued, or -1 if its latency is not recorded because the thread already held
+   * the bus or the calls are simulated for warm-up
+   */
+  private long acquire(BusArbiter lock, int bus)
+  {
+    long now = System.nanoTime();
+    boolean nested = lock.isHeldByCurrentThread();
+    Lane lane = Lane.current();
+    Priority priority = lane == null ? Priority.INTERACTIVE : lane.getPriority();
+    long budget = TimeUnit.MILLISECONDS.toNanos(switch (priority) {
+      case INTERACTIVE -> interactiveDeadlineMs;
+      case MONITORING -> monitoringDeadlineMs;
+      case BULK -> bulkDeadlineMs;
+    });
+    lock.lock(bus, priority, lane == null ? now + budget : lane.deadline(budget));
+    return nested || simulated.get() ? -1 : now;
+  }
+
+  /**
+   * Releases the bus and records the latency of the transaction.
+   */
+  private void release(BusArbiter lock, long queued)
+  {
+    lock.unlock();
+    Timer timer = latency.get(Lane.currentPriority());
+    if (queued >= 0 && timer != null) {
+      timer.record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private boolean isRouteReady(int bus)
+  {
+    Multiplexer mux = routes.get(bus);
+    return mux == null || mux.isSelected(bus);
+  }
+
+  /**
+   * Selects the channel of a virtual bus unless the multiplexer is known to have it selected. Other multiplexers on
+   * the parent bus are disabled first, otherwise the devices behind their enabled channel would share the bus with
+   * the selected ones. Must be called with the parent bus held. A simulated bus neither switches the multiplexers nor
+   * changes the cached selection.
+   *
+   * @param mux the multiplexer, or null for a physical bus
+   * @param bus the virtual bus
+   * @return null if the channel is selected, or the failure response
+   * @throws IOException if i2cset cannot be executed
+   */
+  private I2CResponse selectChannel(Multiplexer mux, int bus) throws IOException
+  {
+    if (mux == null || mux.isSelected(bus) || isSimulated()) {
+      return null;
+    }
+    for (Multiplexer other : muxes) {
+      if (other != mux && other.getParentBus() == mux.getParentBus() && !other.isDisabled()) {
+        I2CResponse failure = writeControlRegister(other, 0, "disable the channels of");
+        if (failure != null) {
+          return failure;
+        }
+        other.disable();
+      }
+    }
+    I2CResponse failure = writeControlRegister(mux, 1 << mux.channel(bus),
+                                               "select channel " + mux.channel(bus) + " of");
+    if (failure == null) {
+      mux.select(bus);
+    }
+    return failure;
+  }
+
+  /**
+   * Writes the control register of a multiplexer. On failure its cached selection is forgotten.
+   *
+   * @param mux the multiplexer
+   * @param value the enabled channels as bit mask
+   * @param action the action for the error message
+   * @return null on success, or the failure response
+   * @throws IOException if i2cset cannot be executed
+   */
+  private I2CResponse writeControlRegister(Multiplexer mux, int value, String action) throws IOException
+  {
+    // a write without data address is an SMBus send byte, which sets the control register
+    List<String> cmdList = List.of(i2csetPath, "-y", "-a", String.valueOf(mux.getParentBus()),
+                                   String.format("0x%02x", mux.getAddress()), String.format("0x%02x", value));
+    String cmdString = String.join(" ", cmdList);
+    LOG.debugf("Writing multiplexer control register: %s", cmdString);
+    ProcessBuilder pb = new ProcessBuilder(cmdList);
+    pb.redirectErrorStream(true);
+    Process process = pb.start();
+    String output = readProcessOutput(process);
+    try {
+      if (process.waitFor() != 0) {
+        mux.invalidate();
+        return I2CResponse.failure(I2CErrorCode.classify(output), String.format(
+                "Cannot %s multiplexer 0x%02x on bus %d: %s", action, mux.getAddress(), mux.getParentBus(),
+                output.trim()), cmdString);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      mux.invalidate();
+      throw new IOException("Command interrupted", e);
+    }
+    channelSwitches.increment();
+    return null;
+  }
+
+  /**
+   * Forgets the selected channels of the multiplexers on a bus after one of them was written to directly, e.g. by a
+   * client switching it manually. All of them are forgotten, so the next selection disables the written one again.
+   */
+  private void invalidateMux(int bus, int address)
+  {
+    if (muxes.stream().anyMatch(mux -> mux.getParentBus() == bus && mux.getAddress() == address)) {
+      muxes.stream().filter(mux -> mux.getParentBus() == bus).forEach(Multiplexer::invalidate);
+    }
+  }
+
+  /**
+   * Copies a command for execution on another bus.
+   */
+  private static I2CCommand onBus(I2CCommand command, int bus)
+  {
+    I2CCommand copy = new I2CCommand(bus, command.getAddress(), command.getRegister(), command.getValue(),
+                                     command.getOperation(), command.getMode());
+    copy.setForce(command.isForce());
+    return copy;
+  }
+
   /**
    * Validates the I2C command parameters for security.
    *
@@ -127,7 +945,7 @@ public class I2CService {
       throw new IllegalArgumentException("Command cannot be null");
     }
 
-    if (command.getBus() < 0 || command.getBus() > MAX_BUS_NUMBER) {
+    if (command.getBus() < 0 || (command.getBus() > MAX_BUS_NUMBER && !routes.containsKey(command.getBus()))) {
       throw new IllegalArgumentException("Invalid bus number: " + command.getBus());
     }
 
@@ -180,7 +998,13 @@ public class I2CService {
       cmdList.add(command.getMode());
     }
     String cmdString = String.join(" ", cmdList);
-    LOG.infof("Executing read command: %s", cmdString);
+    LOG.logf(commandLogLevel(), "Executing read command: %s", cmdString);
+    if (isSimulated()) {
+      simulateBusTime();
+      I2CResponse response = new I2CResponse(true, simulatedOutput(command.getMode()), null, cmdString);
+      response.setBytes(parseReadOutput(response.getData(), command.getMode()));
+      return response;
+    }
 
     ProcessBuilder pb = new ProcessBuilder(cmdList);
     pb.redirectErrorStream(true);
@@ -192,10 +1016,12 @@ public class I2CService {
       int exitCode = process.waitFor();
       if (exitCode == 0) {
         LOG.infof("Read command successful, data: %s", output.trim());
-        return new I2CResponse(true, output.trim(), null, cmdString);
+        I2CResponse response = new I2CResponse(true, output.trim(), null, cmdString);
+        response.setBytes(parseReadOutput(output, command.getMode()));
+        return response;
       } else {
         LOG.errorf("Read command failed with exit code %d: %s", exitCode, output);
-        return new I2CResponse(false, null, "Command failed: " + output, cmdString);
+        return I2CResponse.failure(I2CErrorCode.classify(output), "Command failed: " + output, cmdString);
       }
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
@@ -230,7 +1056,11 @@ public class I2CService {
     }
 
     String cmdString = String.join(" ", cmdList);
-    LOG.infof("Executing write command: %s", cmdString);
+    LOG.logf(commandLogLevel(), "Executing write command: %s", cmdString);
+    if (isSimulated()) {
+      simulateBusTime();
+      return new I2CResponse(true, "Write successful", null, cmdString);
+    }
 
     ProcessBuilder pb = new ProcessBuilder(cmdList);
     pb.redirectErrorStream(true);
@@ -245,7 +1075,7 @@ public class I2CService {
         return new I2CResponse(true, "Write successful", null, cmdString);
       } else {
         LOG.errorf("Write command failed with exit code %d: %s", exitCode, output);
-        return new I2CResponse(false, null, "Command failed: " + output, cmdString);
+        return I2CResponse.failure(I2CErrorCode.classify(output), "Command failed: " + output, cmdString);
       }
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
@@ -253,6 +1083,54 @@ public class I2CService {
     }
   }
 
+  /**
+   * Gets the output of a simulated read in the format of i2cget.
+   *
+   * @param mode the data mode of the read
+   * @return the output
+   */
+  private static String simulatedOutput(String mode)
+  {
+    String trimmed = mode == null ? "" : mode.trim();
+    if ("w".equals(trimmed)) {
+      return "0x4242";
+    }
+    if (trimmed.startsWith("i")) {
+      return String.join(" ", Collections.nCopies(Integer.parseInt(trimmed.substring(1).trim()), "0x42"));
+    }
+    return "0x42";
+  }
+
+  /**
+   * Parses the output of i2cget into the raw bytes in bus order. In word mode i2cget prints the 16 bit value, which
+   * SMBus transfers low byte first; block mode prints one token per byte.
+   *
+   * @param output the trimmed or untrimmed output of i2cget
+   * @param mode the data mode used for the read
+   * @return the bytes, or null if the output cannot be parsed
+   */
+  byte[] parseReadOutput(String output, String mode)
+  {
+    String[] tokens = output.trim().split("\\s+");
+    try {
+      if (mode != null && "w".equals(mode.trim())) {
+        if (tokens.length != 1) {
+          return null;
+        }
+        int word = Integer.decode(tokens[0]);
+        return new byte[]{(byte) word, (byte) (word >> 8)};
+      }
+      byte[] result = new byte[tokens.length];
+      for (int i = 0; i < tokens.length; i++) {
+        result[i] = (byte) (Integer.decode(tokens[i]) & 0xff);
+      }
+      return result;
+    } catch (NumberFormatException e) {
+      LOG.warnf("Cannot parse read output: %s", output);
+      return null;
+    }
+  }
+
   /**
    * Reads the output from a process.
    *
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import java.time.Duration;
+
+/**
+ * Scheduling lane of the calling thread: the priority class of the work it is doing and the deadline of its bus
+ * transactions. A lane is entered for the duration of a tool call or a monitor sample; all transactions issued inside
+ * share the deadline, measured from entering the lane. Threads outside a lane are treated as interactive with a
+ * deadline measured from each transaction.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public final class Lane {
+
+  private static final ThreadLocal<Lane> CURRENT = new ThreadLocal<>();
+
+  private final Priority priority;
+
+  private final long start;
+
+  private final long budget;
+
+  /**
+   * Work done in a lane.
+   *
+   * @param <T> the result type
+   * @param <E> the checked exception thrown by the work
+   */
+  @FunctionalInterface
+  public interface Work<T, E extends Exception> {
+
+    /**
+     * Does the work.
+     *
+     * @return the result
+     * @throws E if the work fails
+     */
+    T get() throws E;
+  }
+
+  private Lane(Priority priority, long start, long budget)
+  {
+    this.priority = priority;
+    this.start = start;
+    this.budget = budget;
+  }
+
+  /**
+   * Runs an action in a lane.
+   *
+   * @param <T> the result type
+   * @param <E> the checked exception thrown by the action
+   * @param priority the priority class
+   * @param deadline the time the work should be done in, or null for the default of the class
+   * @param action the action
+   * @return the result of the action
+   * @throws E if the action fails
+   */
+  public static <T, E extends Exception> T call(Priority priority, Duration deadline, Work<T, E> action) throws E
+  {
+    Lane previous = CURRENT.get();
+    CURRENT.set(new Lane(priority, System.nanoTime(), deadline == null ? 0 : deadline.toNanos()));
+    try {
+      return action.get();
+    } finally {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+  /**
+   * Runs an action without result in a lane.
+   *
+   * @param priority the priority class
+   * @param deadline the time the work should be done in, or null for the default of the class
+   * @param action the action
+   */
+  public static void run(Priority priority, Duration deadline, Runnable action)
+  {
+    call(priority, deadline, () -> {
+      action.run();
+      return null;
+    });
+  }
+
+  /**
+   * Gets the lane of the calling thread.
+   *
+   * @return the lane, or null outside a lane
+   */
+  public static Lane current()
+  {
+    return CURRENT.get();
+  }
+
+  /**
+   * Gets the priority of the calling thread.
+   *
+   * @return the priority of its lane, interactive outside a lane
+   */
+  public static Priority currentPriority()
+  {
+    Lane lane = CURRENT.get();
+    return lane == null ? Priority.INTERACTIVE : lane.priority;
+  }
+
+  /**
+   * Gets the priority class.
+   *
+   * @return the priority
+   */
+  public Priority getPriority()
+  {
+    return priority;
+  }
+
+  /**
+   * Gets the absolute deadline of the lane.
+   *
+   * @param defaultBudget the default deadline of the priority class in nanoseconds
+   * @return the deadline in {@link System#nanoTime()} units
+   */
+  long deadline(long defaultBudget)
+  {
+    return start + (budget > 0 ? budget : defaultBudget);
+  }
+}
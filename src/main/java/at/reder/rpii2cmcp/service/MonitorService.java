@@ -0,0 +1,282 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.ServerEvent;
+import at.reder.rpii2cmcp.model.profile.RegisterDefinition;
+import at.reder.rpii2cmcp.store.HistoryStore;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Evaluates threshold monitors on the server. Each monitor samples its register at a fixed rate on a single scheduler
+ * thread, so monitors never compete with each other for the bus, and publishes an event on the {@link EventStream}
+ * only when the value crosses a trip point or the device starts or stops failing. Every sample is also appended to
+ * the off-heap history of the monitor and, if enabled, to the persistent {@link HistoryStore}. Samples are taken in
+ * the {@link Priority#MONITORING} lane.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class MonitorService {
+
+  private static final Logger LOG = Logger.getLogger(MonitorService.class);
+
+  /**
+   * Event type of monitor events.
+   */
+  public static final String EVENT_TYPE = "monitor";
+
+  private static final Pattern ID_PATTERN = Pattern.compile("^[A-Za-z0-9_-][A-Za-z0-9_.-]{0,63}$");
+
+  /**
+   * Maximum number of monitors.
+   */
+  @ConfigProperty(name = "i2c.monitor.max-monitors", defaultValue = "64")
+  int maxMonitors;
+
+  /**
+   * Shortest allowed sampling interval in milliseconds.
+   */
+  @ConfigProperty(name = "i2c.monitor.min-interval-ms", defaultValue = "100")
+  long minIntervalMs;
+
+  /**
+   * Number of samples kept per monitor.
+   */
+  @ConfigProperty(name = "i2c.monitor.history-size", defaultValue = "3600")
+  int historySize;
+
+  @Inject
+  DeviceProfileService deviceProfileService;
+
+  @Inject
+  EventStream eventStream;
+
+  @Inject
+  HistoryStore historyStore;
+
+  private final Map<String, ThresholdMonitor> monitors = new ConcurrentHashMap<>();
+
+  private final AtomicInteger nextId = new AtomicInteger(1);
+
+  private ScheduledExecutorService scheduler;
+
+  @PreDestroy
+  void shutdown()
+  {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  /**
+   * Adds a monitor. The register is sampled once immediately to validate the definition and to set the initial state;
+   * afterwards it is sampled at the given interval.
+   *
+   * @param id the monitor id, or null to generate one
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param register the register and its decode rule
+   * @param threshold the upper trip point
+   * @param hysteresis distance of the lower trip point below the threshold
+   * @param intervalMs the sampling interval in milliseconds
+   * @return the new monitor in its initial state
+   * @throws IllegalArgumentException if the definition is invalid, the id is in use or the limit is reached
+   * @throws IOException if the initial sample fails
+   */
+  public ThresholdMonitor add(String id, int bus, String address, RegisterDefinition register, double threshold,
+                              double hysteresis, long intervalMs) throws IOException
+  {
+    String monitorId = id != null ? id : generateId();
+    if (!ID_PATTERN.matcher(monitorId).matches()) {
+      throw new IllegalArgumentException("Invalid monitor id: " + monitorId);
+    }
+    DeviceProfileRegistry.validateRegister("monitor " + monitorId, register);
+    if (hysteresis < 0 || Double.isNaN(hysteresis)) {
+      throw new IllegalArgumentException("Hysteresis must not be negative: " + hysteresis);
+    }
+    if (intervalMs < minIntervalMs) {
+      throw new IllegalArgumentException("Interval must be at least " + minIntervalMs + " ms: " + intervalMs);
+    }
+    // checked before the bus is read to fail fast, and again with the insert since other adds may have finished
+    checkLimit();
+    ThresholdMonitor monitor = new ThresholdMonitor(monitorId, bus, address, register, threshold, hysteresis,
+                                                    intervalMs, historySize);
+    double value = deviceProfileService.readRegister(bus, address, register).doubleValue();
+    long now = System.currentTimeMillis();
+    monitor.getHistory().record(now, value);
+    monitor.evaluate(value, now);
+    // scheduled before the monitor is published, so a concurrent remove always finds the future to cancel
+    monitor.future = scheduler().scheduleAtFixedRate(
+            () -> Lane.run(Priority.MONITORING, null, () -> sample(monitor)), intervalMs, intervalMs,
+            TimeUnit.MILLISECONDS);
+    synchronized (monitors) {
+      try {
+        checkLimit();
+        if (monitors.putIfAbsent(monitorId, monitor) != null) {
+          throw new IllegalArgumentException("Monitor already exists: " + monitorId);
+        }
+      } catch (IllegalArgumentException e) {
+        monitor.future.cancel(false);
+        throw e;
+      }
+    }
+    historyStore.append(monitorId, now, value);
+    LOG.infof("Added monitor %s: %s at %s on bus %d, threshold %s, hysteresis %s, every %d ms",
+              monitorId, register.getRegister(), address, bus, threshold, hysteresis, intervalMs);
+    return monitor;
+  }
+
+  private void checkLimit()
+  {
+    if (monitors.size() >= maxMonitors) {
+      throw new IllegalArgumentException("Too many monitors, the limit is " + maxMonitors);
+    }
+  }
+
+  /**
+   * Generates a monitor id. The counter starts at 1 again after a restart, so ids of series persisted by earlier runs
+   * are skipped; otherwise a new monitor would append its samples to the history of an unrelated one.
+   */
+  private String generateId()
+  {
+    Set<String> stored = Set.copyOf(historyStore.getSeriesNames());
+    String id;
+    do {
+      id = "m" + nextId.getAndIncrement();
+    } while (stored.contains(id) || monitors.containsKey(id));
+    return id;
+  }
+
+  /**
+   * Removes a monitor and stops its sampling.
+   *
+   * @param id the monitor id
+   * @return true if the monitor existed
+   */
+  public boolean remove(String id)
+  {
+    ThresholdMonitor monitor = id != null ? monitors.remove(id) : null;
+    if (monitor == null) {
+      return false;
+    }
+    if (monitor.future != null) {
+      monitor.future.cancel(false);
+    }
+    LOG.infof("Removed monitor %s", id);
+    return true;
+  }
+
+  /**
+   * Gets a monitor.
+   *
+   * @param id the monitor id
+   * @return the monitor, or null if there is no such monitor
+   */
+  public ThresholdMonitor getMonitor(String id)
+  {
+    return id != null ? monitors.get(id) : null;
+  }
+
+  /**
+   * Gets all monitors.
+   *
+   * @return the monitors sorted by id
+   */
+  public List<ThresholdMonitor> getMonitors()
+  {
+    List<ThresholdMonitor> result = new ArrayList<>(monitors.values());
+    result.sort((a, b) -> a.getId().compareTo(b.getId()));
+    return result;
+  }
+
+  /**
+   * Takes one sample of a monitor and publishes an event on edges.
+   *
+   * @param monitor the monitor
+   */
+  void sample(ThresholdMonitor monitor)
+  {
+    long now = System.currentTimeMillis();
+    double value;
+    try {
+      value = deviceProfileService.readRegister(monitor.getBus(), monitor.getAddress(), monitor.getRegister())
+              .doubleValue();
+    } catch (IOException | RuntimeException e) {
+      if (monitor.recordError(e.getMessage())) {
+        LOG.warnf("Monitor %s failed: %s", monitor.getId(), e.getMessage());
+        publish(monitor, "error", now, Map.of("error", String.valueOf(e.getMessage())));
+      }
+      return;
+    }
+    monitor.getHistory().record(now, value);
+    historyStore.append(monitor.getId(), now, value);
+    if (monitor.clearError()) {
+      LOG.infof("Monitor %s recovered", monitor.getId());
+      publish(monitor, "recovered", now, Map.of());
+    }
+    String edge = monitor.evaluate(value, now);
+    if (edge != null) {
+      LOG.infof("Monitor %s %s: %s (threshold %s)", monitor.getId(), edge, value, monitor.getThreshold());
+      publish(monitor, edge, now, Map.of("value", value));
+    }
+  }
+
+  private void publish(ThresholdMonitor monitor, String edge, long time, Map<String, Object> details)
+  {
+    Map<String, Object> data = new LinkedHashMap<>();
+    data.put("edge", edge);
+    data.putAll(details);
+    data.put("threshold", monitor.getThreshold());
+    data.put("hysteresis", monitor.getHysteresis());
+    if (monitor.getRegister().getUnit() != null) {
+      data.put("unit", monitor.getRegister().getUnit());
+    }
+    data.put("bus", monitor.getBus());
+    data.put("address", monitor.getAddress());
+    data.put("register", monitor.getRegister().getRegister());
+    eventStream.publish(new ServerEvent(EVENT_TYPE, monitor.getId(), time, data));
+  }
+
+  private synchronized ScheduledExecutorService scheduler()
+  {
+    if (scheduler == null) {
+      scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "i2c-monitor");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return scheduler;
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+/**
+ * A TCA9548A style I2C multiplexer. Each downstream channel is addressed as a virtual bus; a command on a virtual bus
+ * is executed on the parent bus after the channel has been selected by writing its bit to the control register. The
+ * selected channel is cached, so the control register is only written when a command targets another channel. The
+ * cache is only valid as long as nothing but the server switches the multiplexer. Several multiplexers on one parent
+ * bus have at most one channel enabled between them, the others are disabled before a channel is selected.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+final class Multiplexer {
+
+  /**
+   * Maximum number of channels, the width of the control register.
+   */
+  static final int MAX_CHANNELS = 8;
+
+  private final int parentBus;
+
+  private final int address;
+
+  private final int firstBus;
+
+  private final int channels;
+
+  private static final int UNKNOWN = -1;
+
+  private static final int DISABLED = -2;
+
+  private volatile int selected = UNKNOWN;
+
+  /**
+   * Creates a multiplexer with unknown channel selection.
+   *
+   * @param parentBus the bus the multiplexer is connected to
+   * @param address the 7 bit address of the multiplexer
+   * @param firstBus the virtual bus number of channel 0
+   * @param channels the number of channels
+   */
+  Multiplexer(int parentBus, int address, int firstBus, int channels)
+  {
+    this.parentBus = parentBus;
+    this.address = address;
+    this.firstBus = firstBus;
+    this.channels = channels;
+  }
+
+  /**
+   * Parses a multiplexer definition of the form <code>bus:address=first-last</code>, e.g. <code>1:0x70=20-27</code>
+   * for a TCA9548A on bus 1 whose channels 0 to 7 become the virtual buses 20 to 27.
+   *
+   * @param text the definition
+   * @return the multiplexer
+   * @throws IllegalArgumentException if the definition is malformed
+   */
+  static Multiplexer parse(String text)
+  {
+    int colon = text.indexOf(':');
+    int equals = text.indexOf('=');
+    int dash = text.indexOf('-', equals + 1);
+    if (colon <= 0 || equals <= colon + 1 || dash <= equals + 1 || dash == text.length() - 1) {
+      throw new IllegalArgumentException("Invalid multiplexer " + text + ", expected bus:address=first-last");
+    }
+    try {
+      int parentBus = Integer.parseInt(text.substring(0, colon).trim());
+      int address = Integer.decode(text.substring(colon + 1, equals).trim());
+      int firstBus = Integer.parseInt(text.substring(equals + 1, dash).trim());
+      int lastBus = Integer.parseInt(text.substring(dash + 1).trim());
+      if (address < 0 || address > 0x7f) {
+        throw new IllegalArgumentException(String.format("Invalid address 0x%x in multiplexer %s", address, text));
+      }
+      if (lastBus < firstBus || lastBus - firstBus >= MAX_CHANNELS) {
+        throw new IllegalArgumentException("A multiplexer has 1 to " + MAX_CHANNELS + " channels: " + text);
+      }
+      return new Multiplexer(parentBus, address, firstBus, lastBus - firstBus + 1);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid multiplexer " + text + ", expected bus:address=first-last");
+    }
+  }
+
+  /**
+   * Gets the parent bus.
+   *
+   * @return the bus number
+   */
+  int getParentBus()
+  {
+    return parentBus;
+  }
+
+  /**
+   * Gets the address of the multiplexer.
+   *
+   * @return the 7 bit address
+   */
+  int getAddress()
+  {
+    return address;
+  }
+
+  /**
+   * Gets the virtual bus number of channel 0.
+   *
+   * @return the bus number
+   */
+  int getFirstBus()
+  {
+    return firstBus;
+  }
+
+  /**
+   * Gets the number of channels.
+   *
+   * @return the number of channels
+   */
+  int getChannels()
+  {
+    return channels;
+  }
+
+  /**
+   * Gets the channel of a virtual bus.
+   *
+   * @param bus the virtual bus number
+   * @return the channel
+   */
+  int channel(int bus)
+  {
+    return bus - firstBus;
+  }
+
+  /**
+   * Checks whether a virtual bus can be accessed without writing the control register.
+   *
+   * @param bus the virtual bus number
+   * @return true if its channel is the selected one
+   */
+  boolean isSelected(int bus)
+  {
+    return selected == channel(bus);
+  }
+
+  /**
+   * Records a successful write of the control register.
+   *
+   * @param bus the virtual bus whose channel was selected
+   */
+  void select(int bus)
+  {
+    selected = channel(bus);
+  }
+
+  /**
+   * Checks whether all channels are known to be disabled.
+   *
+   * @return true if the control register was last written with 0
+   */
+  boolean isDisabled()
+  {
+    return selected == DISABLED;
+  }
+
+  /**
+   * Records a successful write of 0 to the control register, which disables all channels.
+   */
+  void disable()
+  {
+    selected = DISABLED;
+  }
+
+  /**
+   * Forgets the selected channel, e.g. after a failed write or a direct access to the control register.
+   */
+  void invalidate()
+  {
+    selected = UNKNOWN;
+  }
+}
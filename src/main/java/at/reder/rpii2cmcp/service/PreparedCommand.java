@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import java.nio.ByteOrder;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A read or write validated once and bound to a short handle. Invocations pass only the handle and, for writes
+ * without a bound value, the value.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public final class PreparedCommand {
+
+  private final String handle;
+
+  private final I2CCommand command;
+
+  private final List<String> formats;
+
+  private final ByteOrder order;
+
+  private final LongAdder invocations = new LongAdder();
+
+  PreparedCommand(String handle, I2CCommand command, List<String> formats, ByteOrder order)
+  {
+    this.handle = handle;
+    this.command = command;
+    this.formats = List.copyOf(formats);
+    this.order = order;
+  }
+
+  /**
+   * Gets the handle.
+   *
+   * @return the handle
+   */
+  public String getHandle()
+  {
+    return handle;
+  }
+
+  /**
+   * Checks whether the command is a read.
+   *
+   * @return true for a read, false for a write
+   */
+  public boolean isRead()
+  {
+    return "read".equals(command.getOperation());
+  }
+
+  /**
+   * Checks whether the value of a write is bound.
+   *
+   * @return true if invocations must not pass a value
+   */
+  public boolean isValueBound()
+  {
+    return command.getValue() != null;
+  }
+
+  /**
+   * Gets the decoded views of a read.
+   *
+   * @return the views, empty for the plain i2cget output
+   */
+  public List<String> getFormats()
+  {
+    return formats;
+  }
+
+  /**
+   * Gets the byte order of the decoded views.
+   *
+   * @return the byte order
+   */
+  public ByteOrder getOrder()
+  {
+    return order;
+  }
+
+  I2CCommand getCommand()
+  {
+    return command;
+  }
+
+  void recordInvocation()
+  {
+    invocations.increment();
+  }
+
+  /**
+   * Gets the state as map for tool results.
+   *
+   * @return the state
+   */
+  public Map<String, Object> toMap()
+  {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("handle", handle);
+    result.put("operation", command.getOperation());
+    result.put("bus", command.getBus());
+    result.put("address", command.getAddress());
+    result.put("register", command.getRegister());
+    if (command.getMode() != null) {
+      result.put("mode", command.getMode());
+    }
+    if (command.getValue() != null) {
+      result.put("value", command.getValue());
+    }
+    if (!formats.isEmpty()) {
+      result.put("format", formats);
+    }
+    result.put("invocations", invocations.sum());
+    return result;
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.nio.ByteOrder;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Registry of prepared commands. A command is validated once when it is prepared; invocations by handle skip the
+ * argument binding and validation of the full tool call and only check the value of writes.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class PreparedCommandService {
+
+  private static final Logger LOG = Logger.getLogger(PreparedCommandService.class);
+
+  private static final Pattern HEX_PATTERN = Pattern.compile("^0[xX][0-9A-Fa-f]+$");
+
+  /**
+   * Maximum number of prepared commands.
+   */
+  @ConfigProperty(name = "i2c.prepared.max-commands", defaultValue = "256")
+  int maxCommands;
+
+  @Inject
+  I2CService i2cService;
+
+  private final Map<String, PreparedCommand> commands = new ConcurrentHashMap<>();
+
+  private final AtomicInteger nextHandle = new AtomicInteger(1);
+
+  /**
+   * Validates a command and binds it to a new handle.
+   *
+   * @param command the read or write; the value of a write may be null to pass it with each invocation
+   * @param formats the decoded views of a read, see {@link DataDecoder#VIEWS}
+   * @param order the byte order of the decoded views
+   * @return the prepared command
+   * @throws IllegalArgumentException if the command is invalid or the limit is reached
+   */
+  public PreparedCommand prepare(I2CCommand command, List<String> formats, ByteOrder order)
+  {
+    boolean write = "write".equals(command.getOperation());
+    if (!write && !"read".equals(command.getOperation())) {
+      throw new IllegalArgumentException("Invalid operation: " + command.getOperation()
+              + ". Valid operations are 'read' or 'write'");
+    }
+    if (write && !formats.isEmpty()) {
+      throw new IllegalArgumentException("Formats are only supported for reads");
+    }
+    DataDecoder.validateViews(formats);
+    i2cService.validateCommand(write && command.getValue() == null
+            ? new I2CCommand(command.getBus(), command.getAddress(), command.getRegister(), "0x00", "write",
+                             command.getMode())
+            : command);
+    PreparedCommand prepared;
+    synchronized (commands) {
+      if (commands.size() >= maxCommands) {
+        throw new IllegalArgumentException("Too many prepared commands, the limit is " + maxCommands);
+      }
+      prepared = new PreparedCommand("p" + nextHandle.getAndIncrement(), command, formats, order);
+      commands.put(prepared.getHandle(), prepared);
+    }
+    LOG.infof("Prepared %s of register %s of %s on bus %d as %s", command.getOperation(), command.getRegister(),
+              command.getAddress(), command.getBus(), prepared.getHandle());
+    return prepared;
+  }
+
+  /**
+   * Gets a prepared command.
+   *
+   * @param handle the handle
+   * @return the command
+   * @throws IllegalArgumentException if there is no command with this handle
+   */
+  public PreparedCommand getCommand(String handle)
+  {
+    PreparedCommand prepared = handle != null ? commands.get(handle) : null;
+    if (prepared == null) {
+      throw new IllegalArgumentException("Unknown prepared command: " + handle);
+    }
+    return prepared;
+  }
+
+  /**
+   * Gets all prepared commands.
+   *
+   * @return the commands
+   */
+  public Collection<PreparedCommand> getCommands()
+  {
+    return List.copyOf(commands.values());
+  }
+
+  /**
+   * Releases a prepared command.
+   *
+   * @param handle the handle
+   * @return true if the command existed
+   */
+  public boolean release(String handle)
+  {
+    return commands.remove(handle) != null;
+  }
+
+  /**
+   * Executes a prepared command.
+   *
+   * @param prepared the prepared command
+   * @param value the value of a write without bound value, otherwise null
+   * @return the response
+   * @throws IllegalArgumentException if the value is missing, invalid or not allowed
+   */
+  public I2CResponse execute(PreparedCommand prepared, String value)
+  {
+    I2CCommand command = prepared.getCommand();
+    if (prepared.isRead() || prepared.isValueBound()) {
+      if (value != null) {
+        throw new IllegalArgumentException("Prepared command " + prepared.getHandle() + " takes no value");
+      }
+    } else {
+      if (value == null) {
+        throw new IllegalArgumentException("Missing required argument: value");
+      }
+      if (!HEX_PATTERN.matcher(value).matches()) {
+        throw new IllegalArgumentException("Invalid value format: " + value);
+      }
+      command = new I2CCommand(command.getBus(), command.getAddress(), command.getRegister(), value, "write",
+                               command.getMode());
+    }
+    prepared.recordInvocation();
+    return i2cService.executeValidated(command);
+  }
+}
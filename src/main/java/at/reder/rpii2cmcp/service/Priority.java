@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import java.util.Locale;
+
+/**
+ * Priority class of bus work. Each class has its own default deadline; the bus arbiter grants the bus to the waiting
+ * transaction with the earliest deadline, so interactive calls do not queue behind background work.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public enum Priority {
+
+  /**
+   * Calls an agent or user waits for.
+   */
+  INTERACTIVE,
+  /**
+   * Periodic sampling, e.g. threshold monitors.
+   */
+  MONITORING,
+  /**
+   * Long running transfers such as EEPROM images and snapshots.
+   */
+  BULK;
+
+  /**
+   * Gets the name used in tool arguments and metric tags.
+   *
+   * @return the lower case name
+   */
+  public String getName()
+  {
+    return name().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Parses a priority name.
+   *
+   * @param name the name, case insensitive
+   * @return the priority
+   * @throws IllegalArgumentException if the name is unknown
+   */
+  public static Priority parse(String name)
+  {
+    for (Priority priority : values()) {
+      if (priority.getName().equalsIgnoreCase(name.trim())) {
+        return priority;
+      }
+    }
+    throw new IllegalArgumentException("Invalid priority " + name + ", expected interactive, monitoring or bulk");
+  }
+}
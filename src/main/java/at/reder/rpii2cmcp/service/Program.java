@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A transaction program compiled into a flat instruction list. Nested conditionals and loops of the source are
+ * resolved into jumps and loop counters once, so a run only walks the array. Instances are immutable and can be
+ * executed concurrently.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public final class Program {
+
+  static final int READ = 0;
+
+  static final int WRITE = 1;
+
+  static final int DELAY = 2;
+
+  static final int JUMP = 3;
+
+  static final int JUMP_UNLESS = 4;
+
+  static final int JUMP_IF = 5;
+
+  static final int COUNTER = 6;
+
+  static final int LOOP = 7;
+
+  static final int FAIL = 8;
+
+  /**
+   * One compiled instruction. Unused fields are null or 0.
+   *
+   * @param op the operation code
+   * @param step the path of the source step, e.g. steps[2].then[0], used in results and errors
+   * @param address the device address of a read or write, or null for the address of the run
+   * @param register the register of a read or write
+   * @param value the value of a write or the message of a fail
+   * @param word true for a 16 bit read
+   * @param slot the variable of a read or condition, or the counter of a loop
+   * @param mask the mask of a condition
+   * @param operand the expected value of a condition, the delay or the loop count
+   * @param target the instruction a jump continues at
+   */
+  record Instruction(int op, String step, String address, String register, String value, boolean word, int slot,
+                     int mask, int operand, int target) {
+
+  }
+
+  private final String name;
+
+  private final List<Instruction> instructions;
+
+  private final List<String> variables;
+
+  private final int counters;
+
+  Program(String name, List<Instruction> instructions, List<String> variables, int counters)
+  {
+    this.name = name;
+    this.instructions = List.copyOf(instructions);
+    this.variables = Collections.unmodifiableList(new ArrayList<>(variables));
+    this.counters = counters;
+  }
+
+  /**
+   * Gets the name the program is stored under.
+   *
+   * @return the name, or null for an inline program
+   */
+  public String getName()
+  {
+    return name;
+  }
+
+  /**
+   * Gets the number of compiled instructions.
+   *
+   * @return the size
+   */
+  public int getSize()
+  {
+    return instructions.size();
+  }
+
+  /**
+   * Gets the names of the variables assigned by reads. Slot 0 holds the value of the last read and has no name.
+   *
+   * @return the variable names, index is the slot
+   */
+  public List<String> getVariables()
+  {
+    return variables;
+  }
+
+  List<Instruction> getInstructions()
+  {
+    return instructions;
+  }
+
+  int getCounters()
+  {
+    return counters;
+  }
+
+  /**
+   * Gets the state as map for tool results.
+   *
+   * @return the state
+   */
+  public Map<String, Object> toMap()
+  {
+    Map<String, Object> result = new LinkedHashMap<>();
+    if (name != null) {
+      result.put("name", name);
+    }
+    result.put("instructions", instructions.size());
+    result.put("variables", variables.subList(1, variables.size()));
+    return result;
+  }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles the JSON form of a transaction program into a {@link Program}. A program is a list of steps, each a map
+ * with an <code>op</code>:
+ * <ul>
+ * <li><code>read</code>: register, optional mode (b or w), address and variable name (as)</li>
+ * <li><code>write</code>: register and value, optional address</li>
+ * <li><code>delay</code>: ms</li>
+ * <li><code>if</code>: condition, then steps and optional else steps</li>
+ * <li><code>loop</code>: count, body steps and an optional until condition ending the loop early</li>
+ * <li><code>fail</code>: message, aborts the run</li>
+ * </ul>
+ * A condition is true if <code>(var &amp; mask) == equals</code>; without var it tests the last value read.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+final class ProgramCompiler {
+
+  static final int MAX_DEPTH = 8;
+
+  static final int MAX_LOOP_COUNT = 10000;
+
+  private static final Pattern HEX_PATTERN = Pattern.compile("^0[xX][0-9A-Fa-f]+$");
+
+  private static final Pattern VARIABLE_PATTERN = Pattern.compile("^[A-Za-z_][A-Za-z0-9_]{0,31}$");
+
+  private final int maxSize;
+
+  private final long maxDelay;
+
+  private final List<Program.Instruction> code = new ArrayList<>();
+
+  private final List<String> variables = new ArrayList<>();
+
+  private int counters;
+
+  /**
+   * Creates a compiler.
+   *
+   * @param maxSize the maximum number of instructions
+   * @param maxDelay the maximum delay of a single step in milliseconds
+   */
+  ProgramCompiler(int maxSize, long maxDelay)
+  {
+    this.maxSize = maxSize;
+    this.maxDelay = maxDelay;
+    variables.add(null);
+  }
+
+  /**
+   * Compiles a program. A compiler instance compiles one program only.
+   *
+   * @param name the program name, or null for an inline program
+   * @param steps the steps
+   * @return the compiled program
+   * @throws IllegalArgumentException if the program is invalid or too large
+   */
+  Program compile(String name, Object steps)
+  {
+    block(steps, "steps", 0);
+    if (code.isEmpty()) {
+      throw new IllegalArgumentException("Program has no steps");
+    }
+    return new Program(name, code, variables, counters);
+  }
+
+  private void block(Object steps, String path, int depth)
+  {
+    if (!(steps instanceof List<?> list)) {
+      throw new IllegalArgumentException(path + ": expected an array of steps");
+    }
+    if (depth >= MAX_DEPTH) {
+      throw new IllegalArgumentException(path + ": steps nested deeper than " + MAX_DEPTH + " levels");
+    }
+    for (int i = 0; i < list.size(); i++) {
+      step(list.get(i), path + "[" + i + "]", depth);
+    }
+  }
+
+  private void step(Object item, String path, int depth)
+  {
+    if (!(item instanceof Map<?, ?> step)) {
+      throw new IllegalArgumentException(path + ": expected an object");
+    }
+    String op = string(step, "op", path);
+    switch (op) {
+      case "read": {
+        String as = optional(step, "as");
+        int slot = 0;
+        if (as != null) {
+          if (!VARIABLE_PATTERN.matcher(as).matches()) {
+            throw new IllegalArgumentException(path + ": invalid variable name: " + as);
+          }
+          slot = variables.indexOf(as);
+          if (slot < 0) {
+            slot = variables.size();
+            variables.add(as);
+          }
+        }
+        String mode = optional(step, "mode");
+        if (mode != null && !"b".equals(mode) && !"w".equals(mode)) {
+          throw new IllegalArgumentException(path + ": invalid mode: " + mode + ". Valid modes are 'b' or 'w'");
+        }
+        emit(new Program.Instruction(Program.READ, path, address(step, path), hex(step, "register", path), null,
+                                     "w".equals(mode), slot, 0, 0, 0));
+        break;
+      }
+      case "write":
+        emit(new Program.Instruction(Program.WRITE, path, address(step, path), hex(step, "register", path),
+                                     hex(step, "value", path), false, 0, 0, 0, 0));
+        break;
+      case "delay": {
+        long ms = number(step, "ms", path);
+        if (ms < 0 || ms > maxDelay) {
+          throw new IllegalArgumentException(path + ": delay must be between 0 and " + maxDelay + " ms: " + ms);
+        }
+        emit(new Program.Instruction(Program.DELAY, path, null, null, null, false, 0, 0, (int) ms, 0));
+        break;
+      }
+      case "if": {
+        int branch = emit(condition(Program.JUMP_UNLESS, step, path));
+        block(step.get("then"), path + ".then", depth + 1);
+        if (step.get("else") != null) {
+          int skip = emit(new Program.Instruction(Program.JUMP, path, null, null, null, false, 0, 0, 0, 0));
+          patch(branch, code.size());
+          block(step.get("else"), path + ".else", depth + 1);
+          patch(skip, code.size());
+        } else {
+          patch(branch, code.size());
+        }
+        break;
+      }
+      case "loop": {
+        long count = number(step, "count", path);
+        if (count < 1 || count > MAX_LOOP_COUNT) {
+          throw new IllegalArgumentException(path + ": count must be between 1 and " + MAX_LOOP_COUNT + ": " + count);
+        }
+        int counter = counters++;
+        emit(new Program.Instruction(Program.COUNTER, path, null, null, null, false, counter, 0, (int) count, 0));
+        int start = code.size();
+        block(step.get("body"), path + ".body", depth + 1);
+        int exit = -1;
+        if (step.get("until") != null) {
+          if (!(step.get("until") instanceof Map<?, ?> until)) {
+            throw new IllegalArgumentException(path + ".until: expected an object");
+          }
+          exit = emit(condition(Program.JUMP_IF, until, path + ".until"));
+        }
+        emit(new Program.Instruction(Program.LOOP, path, null, null, null, false, counter, 0, 0, start));
+        if (exit >= 0) {
+          patch(exit, code.size());
+        }
+        break;
+      }
+      case "fail":
+        emit(new Program.Instruction(Program.FAIL, path, null, null, string(step, "message", path), false, 0, 0, 0,
+                                     0));
+        break;
+      default:
+        throw new IllegalArgumentException(path + ": invalid op: " + op
+                + ". Valid ops are: read, write, delay, if, loop, fail");
+    }
+  }
+
+  private Program.Instruction condition(int op, Map<?, ?> step, String path)
+  {
+    String var = optional(step, "var");
+    int slot = 0;
+    if (var != null) {
+      slot = variables.indexOf(var);
+      if (slot < 1) {
+        throw new IllegalArgumentException(path + ": unknown variable: " + var);
+      }
+    }
+    int mask = step.get("mask") != null ? hexInt(step, "mask", path) : 0xffff;
+    int equals = hexInt(step, "equals", path);
+    if ((equals & ~mask) != 0) {
+      throw new IllegalArgumentException(String.format("%s: value 0x%x has bits outside mask 0x%x", path, equals, mask));
+    }
+    return new Program.Instruction(op, path, null, null, null, false, slot, mask, equals, 0);
+  }
+
+  private int emit(Program.Instruction instruction)
+  {
+    if (code.size() >= maxSize) {
+      throw new IllegalArgumentException("Program exceeds " + maxSize + " instructions");
+    }
+    code.add(instruction);
+    return code.size() - 1;
+  }
+
+  private void patch(int index, int target)
+  {
+    Program.Instruction i = code.get(index);
+    code.set(index, new Program.Instruction(i.op(), i.step(), i.address(), i.register(), i.value(), i.word(),
+                                            i.slot(), i.mask(), i.operand(), target));
+  }
+
+  private static String address(Map<?, ?> step, String path)
+  {
+    return step.get("address") != null ? hex(step, "address", path) : null;
+  }
+
+  private static String string(Map<?, ?> step, String key, String path)
+  {
+    Object value = step.get(key);
+    if (value == null) {
+      throw new IllegalArgumentException(path + ": missing " + key);
+    }
+    return value.toString();
+  }
+
+  private static String optional(Map<?, ?> step, String key)
+  {
+    Object value = step.get(key);
+    return value != null ? value.toString() : null;
+  }
+
+  private static String hex(Map<?, ?> step, String key, String path)
+  {
+    String value = string(step, key, path);
+    if (!HEX_PATTERN.matcher(value).matches()) {
+      throw new IllegalArgumentException(path + ": invalid " + key + " format: " + value);
+    }
+    return value;
+  }
+
+  private static int hexInt(Map<?, ?> step, String key, String path)
+  {
+    Object value = step.get(key);
+    if (value instanceof Number number) {
+      return number.intValue();
+    }
+    try {
+      return Integer.decode(string(step, key, path).trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(path + ": invalid " + key + ": " + value);
+    }
+  }
+
+  private static long number(Map<?, ?> step, String key, String path)
+  {
+    Object value = step.get(key);
+    if (value instanceof Number number) {
+      return number.longValue();
+    }
+    try {
+      return Long.parseLong(string(step, key, path).trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(path + ": invalid " + key + ": " + value);
+    }
+  }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Compiles, stores and runs transaction programs (see {@link ProgramCompiler} for the step syntax). Stored programs
+ * are compiled once when they are stored; inline programs are kept in a small cache keyed by their steps, so
+ * repeated submissions of the same steps are not compiled again. A run is bounded by the number of executed
+ * instructions and by its duration, so loops cannot occupy the bus forever. Each bus operation takes the bus lock on
+ * its own, operations of other clients may run between two steps.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class ProgramService {
+
+  private static final Logger LOG = Logger.getLogger(ProgramService.class);
+
+  private static final Pattern NAME_PATTERN = Pattern.compile("^[A-Za-z0-9_-][A-Za-z0-9_.-]{0,63}$");
+
+  /**
+   * Maximum number of compiled instructions of a program.
+   */
+  @ConfigProperty(name = "i2c.program.max-size", defaultValue = "256")
+  int maxSize;
+
+  /**
+   * Maximum number of instructions executed by one run.
+   */
+  @ConfigProperty(name = "i2c.program.max-steps", defaultValue = "10000")
+  int maxSteps;
+
+  /**
+   * Maximum duration of one run.
+   */
+  @ConfigProperty(name = "i2c.program.max-duration", defaultValue = "10s")
+  Duration maxDuration;
+
+  /**
+   * Maximum number of stored programs.
+   */
+  @ConfigProperty(name = "i2c.program.max-programs", defaultValue = "32")
+  int maxPrograms;
+
+  /**
+   * Number of compiled inline programs kept.
+   */
+  @ConfigProperty(name = "i2c.program.cache-size", defaultValue = "32")
+  int cacheSize;
+
+  @Inject
+  I2CService i2cService;
+
+  private final Map<String, Program> programs = new ConcurrentHashMap<>();
+
+  private final Map<Object, Program> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * Outcome of a run.
+   *
+   * @param reads one entry per executed read with step, address, register and value
+   * @param variables the final values of the named variables
+   * @param steps the number of executed instructions
+   * @param elapsed the duration of the run in milliseconds
+   * @param error the error that aborted the run, or null if it completed
+   * @param step the step that failed, or null
+   */
+  public record Result(List<Map<String, Object>> reads, Map<String, String> variables, int steps, long elapsed,
+                       String error, String step) {
+
+    /**
+     * Checks whether the run completed.
+     *
+     * @return true if no step failed
+     */
+    public boolean isSuccess()
+    {
+      return error == null;
+    }
+
+    /**
+     * Gets the result as map for tool results.
+     *
+     * @return the result
+     */
+    public Map<String, Object> toMap()
+    {
+      Map<String, Object> result = new LinkedHashMap<>();
+      result.put("results", reads);
+      result.put("variables", variables);
+      result.put("steps", steps);
+      result.put("elapsed", elapsed);
+      if (error != null) {
+        result.put("error", error);
+        result.put("step", step);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Compiles a program.
+   *
+   * @param steps the steps
+   * @return the compiled program
+   * @throws IllegalArgumentException if the program is invalid
+   */
+  public Program compile(Object steps)
+  {
+    synchronized (cache) {
+      Program program = cache.get(steps);
+      if (program != null) {
+        return program;
+      }
+    }
+    Program program = new ProgramCompiler(maxSize, maxDuration.toMillis()).compile(null, steps);
+    synchronized (cache) {
+      cache.put(steps, program);
+      if (cache.size() > cacheSize) {
+        cache.remove(cache.keySet().iterator().next());
+      }
+    }
+    return program;
+  }
+
+  /**
+   * Compiles and stores a program, replacing a program with the same name.
+   *
+   * @param name the program name
+   * @param steps the steps
+   * @return the compiled program
+   * @throws IllegalArgumentException if the name or the program is invalid or the limit is reached
+   */
+  public Program store(String name, Object steps)
+  {
+    if (name == null || !NAME_PATTERN.matcher(name).matches()) {
+      throw new IllegalArgumentException("Invalid program name: " + name);
+    }
+    Program program = new ProgramCompiler(maxSize, maxDuration.toMillis()).compile(name, steps);
+    synchronized (programs) {
+      if (!programs.containsKey(name) && programs.size() >= maxPrograms) {
+        throw new IllegalArgumentException("Too many programs, the limit is " + maxPrograms);
+      }
+      programs.put(name, program);
+    }
+    LOG.infof("Program %s stored with %d instructions", name, program.getSize());
+    return program;
+  }
+
+  /**
+   * Removes a stored program.
+   *
+   * @param name the program name
+   * @return true if the program existed
+   */
+  public boolean remove(String name)
+  {
+    return programs.remove(name) != null;
+  }
+
+  /**
+   * Gets a stored program.
+   *
+   * @param name the program name
+   * @return the program, or null if there is none with this name
+   */
+  public Program getProgram(String name)
+  {
+    return programs.get(name);
+  }
+
+  /**
+   * Gets all stored programs.
+   *
+   * @return the programs
+   */
+  public Collection<Program> getPrograms()
+  {
+    return List.copyOf(programs.values());
+  }
+
+  /**
+   * Runs a program against a device. Reads and writes without an address of their own use the given address.
+   *
+   * @param program the compiled program
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @return the outcome, including the reads executed before a failure
+   */
+  public Result run(Program program, int bus, String address)
+  {
+    List<Program.Instruction> code = program.getInstructions();
+    List<String> names = program.getVariables();
+    int[] values = new int[names.size()];
+    boolean[] assigned = new boolean[names.size()];
+    boolean[] words = new boolean[names.size()];
+    int[] counters = new int[program.getCounters()];
+    List<Map<String, Object>> reads = new ArrayList<>();
+    long start = System.nanoTime();
+    long deadline = start + maxDuration.toNanos();
+    int steps = 0;
+    int pc = 0;
+    String error = null;
+    Program.Instruction current = null;
+    while (pc < code.size()) {
+      current = code.get(pc);
+      if (steps == maxSteps) {
+        error = "Step limit of " + maxSteps + " exceeded";
+        break;
+      }
+      steps++;
+      pc++;
+      switch (current.op()) {
+        case Program.READ: {
+          String device = current.address() != null ? current.address() : address;
+          I2CResponse response = i2cService.executeCommand(
+                  new I2CCommand(bus, device, current.register(), null, "read", current.word() ? "w" : "b"));
+          if (!response.isSuccess()) {
+            error = response.getError();
+            break;
+          }
+          int value;
+          try {
+            value = Integer.decode(response.getData().trim()) & (current.word() ? 0xffff : 0xff);
+          } catch (NumberFormatException e) {
+            error = "Cannot parse read output: " + response.getData();
+            break;
+          }
+          values[0] = value;
+          values[current.slot()] = value;
+          assigned[0] = true;
+          assigned[current.slot()] = true;
+          words[current.slot()] = current.word();
+          Map<String, Object> read = new LinkedHashMap<>();
+          read.put("step", current.step());
+          read.put("address", device);
+          read.put("register", current.register());
+          read.put("value", format(value, current.word()));
+          reads.add(read);
+          break;
+        }
+        case Program.WRITE: {
+          String device = current.address() != null ? current.address() : address;
+          I2CResponse response = i2cService.executeCommand(
+                  new I2CCommand(bus, device, current.register(), current.value(), "write"));
+          if (!response.isSuccess()) {
+            error = response.getError();
+          }
+          break;
+        }
+        case Program.DELAY:
+          if (System.nanoTime() + current.operand() * 1_000_000L > deadline) {
+            error = "Program exceeds the maximum duration of " + maxDuration.toMillis() + " ms";
+            break;
+          }
+          try {
+            Thread.sleep(current.operand());
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Program interrupted";
+          }
+          break;
+        case Program.JUMP:
+          pc = current.target();
+          break;
+        case Program.JUMP_UNLESS:
+        case Program.JUMP_IF: {
+          if (!assigned[current.slot()]) {
+            error = current.slot() == 0 ? "No value read yet"
+                    : "Variable " + names.get(current.slot()) + " is not set";
+            break;
+          }
+          boolean matches = (values[current.slot()] & current.mask()) == current.operand();
+          if (matches == (current.op() == Program.JUMP_IF)) {
+            pc = current.target();
+          }
+          break;
+        }
+        case Program.COUNTER:
+          counters[current.slot()] = current.operand();
+          break;
+        case Program.LOOP:
+          if (--counters[current.slot()] > 0) {
+            pc = current.target();
+          }
+          break;
+        case Program.FAIL:
+          error = current.value();
+          break;
+        default:
+          throw new IllegalStateException("Invalid instruction: " + current.op());
+      }
+      if (error == null && System.nanoTime() > deadline) {
+        error = "Program exceeds the maximum duration of " + maxDuration.toMillis() + " ms";
+      }
+      if (error != null) {
+        break;
+      }
+    }
+    Map<String, String> variables = new LinkedHashMap<>();
+    for (int i = 1; i < names.size(); i++) {
+      if (assigned[i]) {
+        variables.put(names.get(i), format(values[i], words[i]));
+      }
+    }
+    long elapsed = (System.nanoTime() - start) / 1_000_000L;
+    if (error != null) {
+      LOG.warnf("Program %s failed at %s: %s", program.getName() != null ? program.getName() : "(inline)",
+                current.step(), error);
+      return new Result(reads, variables, steps, elapsed, error, current.step());
+    }
+    return new Result(reads, variables, steps, elapsed, null, null);
+  }
+
+  private static String format(int value, boolean word)
+  {
+    return String.format(word ? "0x%04x" : "0x%02x", value);
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The register state of a device at one point in time. A snapshot either covers the registers of a device profile or
+ * a contiguous range of 8 bit registers. Its content hash covers register names, widths and values, so snapshots with
+ * equal hashes have equal content regardless of when and from which device they were taken.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public final class RegisterSnapshot {
+
+  /**
+   * The value of one register.
+   *
+   * @param name the register name, the hex address for register ranges
+   * @param address the register address
+   * @param width the register width in bytes
+   * @param raw the unsigned raw value
+   */
+  public record Value(String name, int address, int width, long raw) {
+
+    /**
+     * Formats the raw value as hex string with two digits per byte.
+     *
+     * @return the hex value, e.g. 0x00a5
+     */
+    public String hex()
+    {
+      return String.format("0x%0" + (width * 2) + "x", raw);
+    }
+  }
+
+  private final String id;
+
+  private final int bus;
+
+  private final String address;
+
+  private final String profile;
+
+  private final int start;
+
+  private final int end;
+
+  private final long timestamp;
+
+  private final int transactions;
+
+  private final List<Value> values;
+
+  private final String hash;
+
+  RegisterSnapshot(String id, int bus, String address, String profile, int start, int end, long timestamp,
+                   int transactions, List<Value> values)
+  {
+    this.id = id;
+    this.bus = bus;
+    this.address = address;
+    this.profile = profile;
+    this.start = start;
+    this.end = end;
+    this.timestamp = timestamp;
+    this.transactions = transactions;
+    this.values = List.copyOf(values);
+    this.hash = hash(this.values);
+  }
+
+  /**
+   * Computes the SHA-256 content hash of register values.
+   *
+   * @param values the values in address order
+   * @return the hash as hex string
+   */
+  static String hash(List<Value> values)
+  {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (Value value : values) {
+        digest.update((value.name() + ':' + value.width() + ':' + value.raw() + '\n')
+                .getBytes(StandardCharsets.UTF_8));
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  /**
+   * Gets the id.
+   *
+   * @return the id, null for the live state of a diff
+   */
+  public String getId()
+  {
+    return id;
+  }
+
+  /**
+   * Gets the I2C bus number.
+   *
+   * @return the bus number
+   */
+  public int getBus()
+  {
+    return bus;
+  }
+
+  /**
+   * Gets the device address.
+   *
+   * @return the address in hex format
+   */
+  public String getAddress()
+  {
+    return address;
+  }
+
+  /**
+   * Gets the device profile.
+   *
+   * @return the profile name, or null for a register range
+   */
+  public String getProfile()
+  {
+    return profile;
+  }
+
+  /**
+   * Gets the first register of a register range.
+   *
+   * @return the first register address
+   */
+  public int getStart()
+  {
+    return start;
+  }
+
+  /**
+   * Gets the last register of a register range.
+   *
+   * @return the last register address, inclusive
+   */
+  public int getEnd()
+  {
+    return end;
+  }
+
+  /**
+   * Gets the capture time.
+   *
+   * @return the time in milliseconds since the epoch
+   */
+  public long getTimestamp()
+  {
+    return timestamp;
+  }
+
+  /**
+   * Gets the number of bus transactions used to capture the snapshot.
+   *
+   * @return the transaction count
+   */
+  public int getTransactions()
+  {
+    return transactions;
+  }
+
+  /**
+   * Gets the register values.
+   *
+   * @return the values in address order
+   */
+  public List<Value> getValues()
+  {
+    return values;
+  }
+
+  /**
+   * Gets the content hash.
+   *
+   * @return the SHA-256 hash of the register values as hex string
+   */
+  public String getHash()
+  {
+    return hash;
+  }
+
+  /**
+   * Gets the summary as map for tool results.
+   *
+   * @return the summary without register values
+   */
+  public Map<String, Object> toMap()
+  {
+    Map<String, Object> result = new LinkedHashMap<>();
+    if (id != null) {
+      result.put("id", id);
+    }
+    result.put("bus", bus);
+    result.put("address", address);
+    if (profile != null) {
+      result.put("profile", profile);
+    } else {
+      result.put("start", String.format("0x%02x", start));
+      result.put("end", String.format("0x%02x", end));
+    }
+    result.put("timestamp", timestamp);
+    result.put("transactions", transactions);
+    result.put("registers", values.size());
+    result.put("hash", hash);
+    return result;
+  }
+
+  /**
+   * Gets the register values as map for tool results.
+   *
+   * @return the hex values by register name, in address order
+   */
+  public Map<String, Object> valuesToMap()
+  {
+    Map<String, Object> result = new LinkedHashMap<>();
+    for (Value value : values) {
+      result.put(value.name(), value.hex());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+/**
+ * Shadow copy of one register. The value is known after a successful write of the full register width and unknown
+ * again after a failed or partial write, so a shadow never answers with a value the device might not hold.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+final class ShadowRegister {
+
+  private final int width;
+
+  private volatile Integer value;
+
+  /**
+   * Creates a shadow with unknown value.
+   *
+   * @param width the register width in bytes, 1 or 2
+   */
+  ShadowRegister(int width)
+  {
+    this.width = width;
+  }
+
+  /**
+   * Gets the register width.
+   *
+   * @return the width in bytes
+   */
+  int getWidth()
+  {
+    return width;
+  }
+
+  /**
+   * Gets the last value written.
+   *
+   * @return the value, or null if it is unknown
+   */
+  Integer getValue()
+  {
+    return value;
+  }
+
+  /**
+   * Records a successful write of the register.
+   *
+   * @param value the value written
+   */
+  void set(int value)
+  {
+    this.value = value;
+  }
+
+  /**
+   * Forgets the value, e.g. after a failed write.
+   */
+  void invalidate()
+  {
+    value = null;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Edge source without hardware. Edges are injected with {@link #trigger(String, int, boolean)} and delivered
+ * synchronously on the calling thread, which makes trigger behaviour deterministic in tests and allows trying
+ * triggers on a development machine.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class SimulatedGpioEventSource implements GpioEventSource {
+
+  /**
+   * Name of this source.
+   */
+  public static final String NAME = "simulated";
+
+  private record Watch(String chip, int line, Consumer<Edge> listener) {
+
+  }
+
+  private final List<Watch> watches = new CopyOnWriteArrayList<>();
+
+  @Override
+  public String name()
+  {
+    return NAME;
+  }
+
+  @Override
+  public Closeable watch(String chip, int line, Consumer<Edge> listener)
+  {
+    Watch watch = new Watch(chip, line, listener);
+    watches.add(watch);
+    return () -> watches.remove(watch);
+  }
+
+  /**
+   * Simulates an edge.
+   *
+   * @param chip the GPIO chip
+   * @param line the line offset
+   * @param rising true for a rising edge, false for a falling edge
+   * @return the number of listeners that received the edge
+   */
+  public int trigger(String chip, int line, boolean rising)
+  {
+    Edge edge = new Edge(chip, line, rising, System.currentTimeMillis());
+    int count = 0;
+    for (Watch watch : watches) {
+      if (watch.chip().equals(chip) && watch.line() == line) {
+        watch.listener().accept(edge);
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.profile.DeviceProfile;
+import at.reder.rpii2cmcp.model.profile.RegisterDefinition;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Captures, stores and compares register snapshots of devices. Snapshots are read with block reads of up to
+ * {@link DeviceProfileService#MAX_BLOCK_LENGTH} bytes, so a full 256 register device takes 8 transactions. Register
+ * caches are bypassed, every capture reads the device.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class SnapshotService {
+
+  private static final Logger LOG = Logger.getLogger(SnapshotService.class);
+
+  /**
+   * Maximum number of stored snapshots.
+   */
+  @ConfigProperty(name = "i2c.snapshot.max-snapshots", defaultValue = "64")
+  int maxSnapshots;
+
+  @Inject
+  DeviceProfileService deviceProfileService;
+
+  @Inject
+  I2CService i2cService;
+
+  private final Map<String, RegisterSnapshot> snapshots = new ConcurrentHashMap<>();
+
+  private final AtomicInteger nextId = new AtomicInteger(1);
+
+  /**
+   * A register whose value differs between two snapshots.
+   *
+   * @param name the register name
+   * @param register the register address in hex format
+   * @param before the value in the first snapshot, null if the register is missing there
+   * @param after the value in the second snapshot, null if the register is missing there
+   * @param changedBits the bits that differ, 0 if the register is missing in one snapshot
+   */
+  public record Change(String name, String register, String before, String after, long changedBits) {
+
+    Map<String, Object> toMap()
+    {
+      Map<String, Object> result = new LinkedHashMap<>();
+      result.put("name", name);
+      result.put("register", register);
+      result.put("before", before);
+      result.put("after", after);
+      result.put("changedBits", changedBits);
+      return result;
+    }
+  }
+
+  /**
+   * The registers that differ between two snapshots.
+   *
+   * @param from the first snapshot
+   * @param to the second snapshot or the live state
+   * @param changes the changed registers in address order
+   */
+  public record Diff(RegisterSnapshot from, RegisterSnapshot to, List<Change> changes) {
+
+    /**
+     * Gets the diff as map for tool results.
+     *
+     * @return the hashes and changed registers
+     */
+    public Map<String, Object> toMap()
+    {
+      Map<String, Object> result = new LinkedHashMap<>();
+      result.put("from", from.getId());
+      result.put("to", to.getId() != null ? to.getId() : "live");
+      result.put("fromHash", from.getHash());
+      result.put("toHash", to.getHash());
+      result.put("changed", changes.stream().map(Change::toMap).toList());
+      return result;
+    }
+  }
+
+  /**
+   * Captures the registers of a device and stores them as new snapshot.
+   *
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param profileName the device profile whose registers are captured, or null for a register range
+   * @param start the first register of the range, ignored with a profile
+   * @param end the last register of the range, inclusive, ignored with a profile
+   * @return the stored snapshot
+   * @throws IllegalArgumentException if an argument is invalid or the limit is reached
+   * @throws IOException if a bus transaction fails
+   */
+  public RegisterSnapshot capture(int bus, String address, String profileName, int start, int end) throws IOException
+  {
+    // checked before the bus is read to fail fast, and again with the insert since other captures may have finished
+    checkLimit();
+    RegisterSnapshot snapshot = read("s" + nextId.getAndIncrement(), bus, address, profileName, start, end);
+    synchronized (snapshots) {
+      checkLimit();
+      snapshots.put(snapshot.getId(), snapshot);
+    }
+    LOG.infof("Captured snapshot %s of %d registers of %s on bus %d with %d transactions", snapshot.getId(),
+              snapshot.getValues().size(), address, bus, snapshot.getTransactions());
+    return snapshot;
+  }
+
+  private void checkLimit()
+  {
+    if (snapshots.size() >= maxSnapshots) {
+      throw new IllegalArgumentException("Too many snapshots, the limit is " + maxSnapshots);
+    }
+  }
+
+  /**
+   * Gets a stored snapshot.
+   *
+   * @param id the snapshot id
+   * @return the snapshot
+   * @throws IllegalArgumentException if there is no snapshot with this id
+   */
+  public RegisterSnapshot getSnapshot(String id)
+  {
+    RegisterSnapshot snapshot = id != null ? snapshots.get(id) : null;
+    if (snapshot == null) {
+      throw new IllegalArgumentException("Unknown snapshot: " + id);
+    }
+    return snapshot;
+  }
+
+  /**
+   * Gets all stored snapshots.
+   *
+   * @return the snapshots in capture order
+   */
+  public Collection<RegisterSnapshot> getSnapshots()
+  {
+    List<RegisterSnapshot> result = new ArrayList<>(snapshots.values());
+    result.sort(Comparator.comparingInt(snapshot -> Integer.parseInt(snapshot.getId().substring(1))));
+    return result;
+  }
+
+  /**
+   * Removes a stored snapshot.
+   *
+   * @param id the snapshot id
+   * @return true if the snapshot existed
+   */
+  public boolean remove(String id)
+  {
+    return snapshots.remove(id) != null;
+  }
+
+  /**
+   * Compares a snapshot with another snapshot or with the current state of its device.
+   *
+   * @param id the id of the first snapshot
+   * @param otherId the id of the second snapshot, or null to read the registers of the first snapshot again
+   * @return the changed registers
+   * @throws IllegalArgumentException if a snapshot is unknown
+   * @throws IOException if reading the live state fails
+   */
+  public Diff diff(String id, String otherId) throws IOException
+  {
+    RegisterSnapshot from = getSnapshot(id);
+    RegisterSnapshot to = otherId != null
+            ? getSnapshot(otherId)
+            : read(null, from.getBus(), from.getAddress(), from.getProfile(), from.getStart(), from.getEnd());
+    return new Diff(from, to, compare(from, to));
+  }
+
+  /**
+   * Compares the values of two snapshots by register name. Snapshots with equal content hashes are not compared
+   * register by register.
+   *
+   * @param from the first snapshot
+   * @param to the second snapshot
+   * @return the changed registers, in the address order of the first snapshot followed by registers only in the second
+   */
+  static List<Change> compare(RegisterSnapshot from, RegisterSnapshot to)
+  {
+    if (from.getHash().equals(to.getHash())) {
+      return List.of();
+    }
+    Map<String, RegisterSnapshot.Value> remaining = new LinkedHashMap<>();
+    for (RegisterSnapshot.Value value : to.getValues()) {
+      remaining.put(value.name(), value);
+    }
+    List<Change> changes = new ArrayList<>();
+    for (RegisterSnapshot.Value before : from.getValues()) {
+      RegisterSnapshot.Value after = remaining.remove(before.name());
+      if (after == null) {
+        changes.add(new Change(before.name(), register(before), before.hex(), null, 0));
+      } else if (after.raw() != before.raw() || after.width() != before.width()) {
+        changes.add(new Change(before.name(), register(before), before.hex(), after.hex(), before.raw() ^ after.raw()));
+      }
+    }
+    for (RegisterSnapshot.Value after : remaining.values()) {
+      changes.add(new Change(after.name(), register(after), null, after.hex(), 0));
+    }
+    return changes;
+  }
+
+  private static String register(RegisterSnapshot.Value value)
+  {
+    return String.format("0x%02x", value.address());
+  }
+
+  RegisterSnapshot read(String id, int bus, String address, String profileName, int start, int end)
+          throws IOException
+  {
+    i2cService.validateCommand(new I2CCommand(bus, address, "0x00", null, "read"));
+    List<DeviceProfileService.ReadBlock> blocks;
+    if (profileName != null) {
+      DeviceProfile profile = deviceProfileService.getProfile(profileName);
+      if (profile.getRegisters().isEmpty()) {
+        throw new IllegalArgumentException("Device profile " + profileName + " has no registers");
+      }
+      blocks = deviceProfileService.planReads(profile.getRegisters(), profile.isAutoIncrement());
+    } else {
+      if (start < 0 || end > 0xff || start > end) {
+        throw new IllegalArgumentException(String.format("Invalid register range: 0x%02x-0x%02x", start, end));
+      }
+      blocks = new ArrayList<>();
+      for (int block = start; block <= end; block += DeviceProfileService.MAX_BLOCK_LENGTH) {
+        int length = Math.min(DeviceProfileService.MAX_BLOCK_LENGTH, end + 1 - block);
+        blocks.add(new DeviceProfileService.ReadBlock(block, length, List.of()));
+      }
+    }
+    List<RegisterSnapshot.Value> values = new ArrayList<>();
+    for (DeviceProfileService.ReadBlock block : blocks) {
+      byte[] data = deviceProfileService.readBlock(bus, address, block);
+      if (profileName != null) {
+        for (RegisterDefinition register : block.registers()) {
+          long raw = DeviceProfileService.extractRaw(register, data, register.getAddress() - block.start());
+          values.add(new RegisterSnapshot.Value(register.getName(), register.getAddress(), register.getWidth(), raw));
+        }
+      } else {
+        for (int i = 0; i < block.length(); i++) {
+          values.add(new RegisterSnapshot.Value(String.format("0x%02x", block.start() + i), block.start() + i, 1,
+                                                data[i] & 0xff));
+        }
+      }
+    }
+    return new RegisterSnapshot(id, bus, address, profileName, start, end, System.currentTimeMillis(), blocks.size(),
+                                values);
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.profile.RegisterDefinition;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * A register sampled periodically and compared against a threshold with hysteresis. The monitor switches to "above"
+ * when a sample reaches the threshold and back to "below" only when a sample drops below threshold minus hysteresis, so
+ * noise around the threshold does not produce a stream of edges.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public final class ThresholdMonitor {
+
+  /**
+   * Edge raised when the value reaches the threshold.
+   */
+  public static final String RISING = "rising";
+
+  /**
+   * Edge raised when the value drops below threshold minus hysteresis.
+   */
+  public static final String FALLING = "falling";
+
+  private final String id;
+
+  private final int bus;
+
+  private final String address;
+
+  private final RegisterDefinition register;
+
+  private final double threshold;
+
+  private final double hysteresis;
+
+  private final long intervalMs;
+
+  private final TimeSeriesBuffer history;
+
+  private Boolean above;
+
+  private double lastValue = Double.NaN;
+
+  private long lastSampleTime;
+
+  private String lastError;
+
+  private long samples;
+
+  private long edges;
+
+  ScheduledFuture<?> future;
+
+  /**
+   * Creates a monitor.
+   *
+   * @param id the monitor id
+   * @param bus the I2C bus number
+   * @param address the device address in hex format
+   * @param register the register to sample and its decode rule
+   * @param threshold the upper trip point
+   * @param hysteresis distance of the lower trip point below the threshold
+   * @param intervalMs the sampling interval in milliseconds
+   * @param historySize the number of samples kept in the history
+   */
+  public ThresholdMonitor(String id, int bus, String address, RegisterDefinition register, double threshold,
+                          double hysteresis, long intervalMs, int historySize)
+  {
+    this.id = id;
+    this.bus = bus;
+    this.address = address;
+    this.register = register;
+    this.threshold = threshold;
+    this.hysteresis = hysteresis;
+    this.intervalMs = intervalMs;
+    this.history = new TimeSeriesBuffer(historySize);
+  }
+
+  public String getId()
+  {
+    return id;
+  }
+
+  public int getBus()
+  {
+    return bus;
+  }
+
+  public String getAddress()
+  {
+    return address;
+  }
+
+  public RegisterDefinition getRegister()
+  {
+    return register;
+  }
+
+  public double getThreshold()
+  {
+    return threshold;
+  }
+
+  public double getHysteresis()
+  {
+    return hysteresis;
+  }
+
+  public long getIntervalMs()
+  {
+    return intervalMs;
+  }
+
+  /**
+   * Gets the history of the sampled values.
+   *
+   * @return the ring buffer holding the most recent samples
+   */
+  public TimeSeriesBuffer getHistory()
+  {
+    return history;
+  }
+
+  /**
+   * Checks whether the last sample was above the threshold.
+   *
+   * @return true if above, false if below, null before the first sample
+   */
+  public synchronized Boolean isAbove()
+  {
+    return above;
+  }
+
+  public synchronized double getLastValue()
+  {
+    return lastValue;
+  }
+
+  /**
+   * Evaluates a sample. The first sample only sets the initial state.
+   *
+   * @param value the sampled value
+   * @param time the sample time in milliseconds since the epoch
+   * @return {@link #RISING} or {@link #FALLING} if the sample crossed a trip point, otherwise null
+   */
+  public synchronized String evaluate(double value, long time)
+  {
+    samples++;
+    lastValue = value;
+    lastSampleTime = time;
+    String edge = null;
+    if (above == null) {
+      above = value >= threshold;
+    } else if (!above && value >= threshold) {
+      above = true;
+      edge = RISING;
+    } else if (above && value < threshold - hysteresis) {
+      above = false;
+      edge = FALLING;
+    }
+    if (edge != null) {
+      edges++;
+    }
+    return edge;
+  }
+
+  /**
+   * Records a failed sample.
+   *
+   * @param error the error message
+   * @return true if the previous sample succeeded, i.e. the monitor just became faulty
+   */
+  public synchronized boolean recordError(String error)
+  {
+    boolean edge = lastError == null;
+    lastError = error;
+    return edge;
+  }
+
+  /**
+   * Clears the error state after a successful sample.
+   *
+   * @return true if the monitor was faulty before
+   */
+  public synchronized boolean clearError()
+  {
+    boolean edge = lastError != null;
+    lastError = null;
+    return edge;
+  }
+
+  /**
+   * Describes the monitor and its current state.
+   *
+   * @return definition and state as map
+   */
+  public synchronized Map<String, Object> toMap()
+  {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("id", id);
+    result.put("bus", bus);
+    result.put("address", address);
+    result.put("register", register.getRegister());
+    result.put("name", register.getName());
+    result.put("threshold", threshold);
+    result.put("hysteresis", hysteresis);
+    result.put("interval", intervalMs);
+    if (register.getUnit() != null) {
+      result.put("unit", register.getUnit());
+    }
+    result.put("state", above == null ? "unknown" : above ? "above" : "below");
+    if (!Double.isNaN(lastValue)) {
+      result.put("value", lastValue);
+      result.put("sampled", lastSampleTime);
+    }
+    if (lastError != null) {
+      result.put("error", lastError);
+    }
+    result.put("samples", samples);
+    result.put("edges", edges);
+    result.put("history", history.size());
+    return result;
+  }
+}
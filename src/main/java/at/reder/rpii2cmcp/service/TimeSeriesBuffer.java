@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed size ring buffer of timestamp/value pairs kept outside the Java heap. Each entry takes
+ * {@value #ENTRY_BYTES} bytes of a direct buffer allocated once, so the memory use is known up front and recording a
+ * sample neither allocates nor creates garbage; when the buffer is full the oldest entry is overwritten. Timestamps
+ * are expected in ascending order, which lets queries locate the start of a window by binary search.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public final class TimeSeriesBuffer {
+
+  /**
+   * Bytes per entry: a long timestamp followed by a double value.
+   */
+  public static final int ENTRY_BYTES = 16;
+
+  /**
+   * Maximum number of buckets a query may produce.
+   */
+  static final int MAX_BUCKETS = 10000;
+
+  /**
+   * Points of a window in time order.
+   *
+   * @param times the timestamps in milliseconds since the epoch
+   * @param values the values
+   */
+  public record Points(long[] times, double[] values) {
+
+  }
+
+  /**
+   * Aggregate of the points within one bucket.
+   *
+   * @param start the start of the bucket in milliseconds since the epoch
+   * @param count the number of points
+   * @param min the smallest value
+   * @param max the largest value
+   * @param avg the mean value
+   */
+  public record Bucket(long start, int count, double min, double max, double avg) {
+
+  }
+
+  private final ByteBuffer buffer;
+
+  private final int capacity;
+
+  private int head;
+
+  private int size;
+
+  /**
+   * Creates a buffer.
+   *
+   * @param capacity the number of entries
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public TimeSeriesBuffer(int capacity)
+  {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.buffer = ByteBuffer.allocateDirect(capacity * ENTRY_BYTES).order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * Appends an entry, overwriting the oldest entry if the buffer is full.
+   *
+   * @param time the timestamp in milliseconds since the epoch
+   * @param value the value
+   */
+  public synchronized void record(long time, double value)
+  {
+    int offset = head * ENTRY_BYTES;
+    buffer.putLong(offset, time);
+    buffer.putDouble(offset + Long.BYTES, value);
+    head = head + 1 == capacity ? 0 : head + 1;
+    if (size < capacity) {
+      size++;
+    }
+  }
+
+  /**
+   * Gets the number of entries.
+   *
+   * @return the number of entries recorded, at most the capacity
+   */
+  public synchronized int size()
+  {
+    return size;
+  }
+
+  /**
+   * Gets the capacity.
+   *
+   * @return the maximum number of entries
+   */
+  public int capacity()
+  {
+    return capacity;
+  }
+
+  /**
+   * Gets the off-heap memory used by this buffer.
+   *
+   * @return the size of the direct buffer in bytes
+   */
+  public long memoryBytes()
+  {
+    return (long) capacity * ENTRY_BYTES;
+  }
+
+  /**
+   * Gets the points within a time window. If the window holds more than <code>limit</code> points, the most recent
+   * ones are returned.
+   *
+   * @param from the start of the window in milliseconds since the epoch (inclusive)
+   * @param to the end of the window in milliseconds since the epoch (inclusive)
+   * @param limit the maximum number of points
+   * @return the points in time order
+   */
+  public synchronized Points points(long from, long to, int limit)
+  {
+    int first = lowerBound(from);
+    int end = upperBound(to);
+    first = Math.max(first, end - Math.max(limit, 0));
+    int count = end - first;
+    long[] times = new long[count];
+    double[] values = new double[count];
+    for (int i = 0; i < count; i++) {
+      times[i] = time(first + i);
+      values[i] = value(first + i);
+    }
+    return new Points(times, values);
+  }
+
+  /**
+   * Aggregates the points within a time window into buckets of equal length starting at <code>from</code>. Buckets
+   * without points are omitted.
+   *
+   * @param from the start of the window in milliseconds since the epoch (inclusive)
+   * @param to the end of the window in milliseconds since the epoch (inclusive)
+   * @param bucketMs the bucket length in milliseconds
+   * @return the non-empty buckets in time order
+   * @throws IllegalArgumentException if the bucket length is not positive or the window needs too many buckets
+   */
+  public synchronized List<Bucket> buckets(long from, long to, long bucketMs)
+  {
+    if (bucketMs < 1) {
+      throw new IllegalArgumentException("Bucket length must be positive: " + bucketMs);
+    }
+    if ((to - from) / bucketMs >= MAX_BUCKETS) {
+      throw new IllegalArgumentException("Too many buckets, at most " + MAX_BUCKETS + " are allowed");
+    }
+    List<Bucket> result = new ArrayList<>();
+    int end = upperBound(to);
+    int i = lowerBound(from);
+    while (i < end) {
+      long start = from + (time(i) - from) / bucketMs * bucketMs;
+      long bucketEnd = start + bucketMs;
+      int count = 0;
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      double sum = 0;
+      while (i < end && time(i) < bucketEnd) {
+        double value = value(i);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+        count++;
+        i++;
+      }
+      result.add(new Bucket(start, count, min, max, sum / count));
+    }
+    return result;
+  }
+
+  /**
+   * Finds the first entry with a timestamp not before the given time.
+   *
+   * @param time the time
+   * @return the logical index (0 = oldest entry), or size if all entries are older
+   */
+  private int lowerBound(long time)
+  {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (time(mid) < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private int upperBound(long time)
+  {
+    return time == Long.MAX_VALUE ? size : lowerBound(time + 1);
+  }
+
+  private int physical(int index)
+  {
+    int position = head - size + index;
+    return position < 0 ? position + capacity : position;
+  }
+
+  private long time(int index)
+  {
+    return buffer.getLong(physical(index) * ENTRY_BYTES);
+  }
+
+  private double value(int index)
+  {
+    return buffer.getDouble(physical(index) * ENTRY_BYTES + Long.BYTES);
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads values bit by bit, most significant bit first, from a region of a buffer. Only absolute reads are used, so a
+ * shared buffer can be read by several threads at the same time.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+final class BitReader {
+
+  private final ByteBuffer buffer;
+
+  private final int start;
+
+  private final long limit;
+
+  private long position;
+
+  /**
+   * Creates a reader.
+   *
+   * @param buffer the buffer
+   * @param start the offset of the first byte
+   * @param length the number of bytes
+   */
+  BitReader(ByteBuffer buffer, int start, int length)
+  {
+    this.buffer = buffer;
+    this.start = start;
+    this.limit = (long) length * 8;
+  }
+
+  /**
+   * Reads a single bit.
+   *
+   * @return the bit
+   * @throws IllegalStateException if the region is exhausted
+   */
+  boolean readBit()
+  {
+    if (position >= limit) {
+      throw new IllegalStateException("Read beyond end of block");
+    }
+    int value = buffer.get(start + (int) (position >>> 3));
+    boolean bit = (value & (0x80 >>> (position & 7))) != 0;
+    position++;
+    return bit;
+  }
+
+  /**
+   * Reads an unsigned value.
+   *
+   * @param bits the number of bits, 0-64
+   * @return the value
+   */
+  long read(int bits)
+  {
+    long value = 0;
+    for (int i = 0; i < bits; i++) {
+      value = (value << 1) | (readBit() ? 1 : 0);
+    }
+    return value;
+  }
+
+  /**
+   * Reads a two's complement value.
+   *
+   * @param bits the number of bits, 1-64
+   * @return the sign extended value
+   */
+  long readSigned(int bits)
+  {
+    long value = read(bits);
+    return (value << (64 - bits)) >> (64 - bits);
+  }
+}
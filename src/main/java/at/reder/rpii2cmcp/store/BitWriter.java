@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.store;
+
+import java.util.Arrays;
+
+/**
+ * Writes values bit by bit, most significant bit first.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+final class BitWriter {
+
+  private byte[] data = new byte[256];
+
+  private long bitCount;
+
+  /**
+   * Writes the lowest bits of a value.
+   *
+   * @param value the value
+   * @param bits the number of bits, 0-64
+   */
+  void write(long value, int bits)
+  {
+    for (int i = bits - 1; i >= 0; i--) {
+      writeBit(((value >>> i) & 1) != 0);
+    }
+  }
+
+  /**
+   * Writes a single bit.
+   *
+   * @param bit the bit
+   */
+  void writeBit(boolean bit)
+  {
+    int index = (int) (bitCount >>> 3);
+    if (index == data.length) {
+      data = Arrays.copyOf(data, data.length * 2);
+    }
+    if (bit) {
+      data[index] |= (byte) (0x80 >>> (bitCount & 7));
+    }
+    bitCount++;
+  }
+
+  /**
+   * Gets the bits written so far, padded with zero bits to a full byte.
+   *
+   * @return the bytes
+   */
+  byte[] toByteArray()
+  {
+    return Arrays.copyOf(data, (int) ((bitCount + 7) >>> 3));
+  }
+}
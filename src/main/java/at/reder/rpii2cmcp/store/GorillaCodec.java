@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compresses blocks of timestamp/value pairs as described for Facebook's Gorilla time series database. Timestamps are
+ * stored as delta of deltas, which is zero for a fixed sampling interval and costs a single bit; values are stored as
+ * XOR with the previous value, so repeated and slowly changing sensor readings take one bit or only their few
+ * meaningful bits.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+final class GorillaCodec {
+
+  /**
+   * Receives decoded samples.
+   */
+  @FunctionalInterface
+  interface SampleConsumer {
+
+    /**
+     * Accepts one sample.
+     *
+     * @param time the timestamp in milliseconds since the epoch
+     * @param value the value
+     */
+    void accept(long time, double value);
+  }
+
+  private GorillaCodec()
+  {
+  }
+
+  /**
+   * Encodes samples.
+   *
+   * @param times the timestamps
+   * @param values the values
+   * @param count the number of samples to encode, at least 1
+   * @return the compressed block
+   */
+  static byte[] encode(long[] times, double[] values, int count)
+  {
+    BitWriter out = new BitWriter();
+    out.write(times[0], 64);
+    long previousBits = Double.doubleToRawLongBits(values[0]);
+    out.write(previousBits, 64);
+    long previousTime = times[0];
+    long previousDelta = 0;
+    int previousLeading = -1;
+    int previousTrailing = 0;
+    for (int i = 1; i < count; i++) {
+      long delta = times[i] - previousTime;
+      writeDeltaOfDelta(out, delta - previousDelta);
+      previousTime = times[i];
+      previousDelta = delta;
+
+      long bits = Double.doubleToRawLongBits(values[i]);
+      long xor = bits ^ previousBits;
+      previousBits = bits;
+      if (xor == 0) {
+        out.writeBit(false);
+        continue;
+      }
+      out.writeBit(true);
+      int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+      int trailing = Long.numberOfTrailingZeros(xor);
+      if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+        out.writeBit(false);
+        out.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+      } else {
+        int significant = 64 - leading - trailing;
+        out.writeBit(true);
+        out.write(leading, 5);
+        out.write(significant == 64 ? 0 : significant, 6);
+        out.write(xor >>> trailing, significant);
+        previousLeading = leading;
+        previousTrailing = trailing;
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeDeltaOfDelta(BitWriter out, long dod)
+  {
+    if (dod == 0) {
+      out.writeBit(false);
+    } else if (dod >= -64 && dod <= 63) {
+      out.write(0b10, 2);
+      out.write(dod, 7);
+    } else if (dod >= -256 && dod <= 255) {
+      out.write(0b110, 3);
+      out.write(dod, 9);
+    } else if (dod >= -2048 && dod <= 2047) {
+      out.write(0b1110, 4);
+      out.write(dod, 12);
+    } else if (dod >= Integer.MIN_VALUE && dod <= Integer.MAX_VALUE) {
+      out.write(0b11110, 5);
+      out.write(dod, 32);
+    } else {
+      out.write(0b11111, 5);
+      out.write(dod, 64);
+    }
+  }
+
+  /**
+   * Decodes a block.
+   *
+   * @param buffer the buffer holding the block
+   * @param offset the offset of the block in the buffer
+   * @param length the length of the block in bytes
+   * @param count the number of samples in the block
+   * @param consumer receives the samples in order
+   */
+  static void decode(ByteBuffer buffer, int offset, int length, int count, SampleConsumer consumer)
+  {
+    BitReader in = new BitReader(buffer, offset, length);
+    long time = in.read(64);
+    long bits = in.read(64);
+    consumer.accept(time, Double.longBitsToDouble(bits));
+    long delta = 0;
+    int leading = 0;
+    int trailing = 0;
+    for (int i = 1; i < count; i++) {
+      delta += readDeltaOfDelta(in);
+      time += delta;
+      if (in.readBit()) {
+        if (in.readBit()) {
+          leading = (int) in.read(5);
+          int significant = (int) in.read(6);
+          if (significant == 0) {
+            significant = 64;
+          }
+          trailing = 64 - leading - significant;
+        }
+        bits ^= in.read(64 - leading - trailing) << trailing;
+      }
+      consumer.accept(time, Double.longBitsToDouble(bits));
+    }
+  }
+
+  private static long readDeltaOfDelta(BitReader in)
+  {
+    if (!in.readBit()) {
+      return 0;
+    }
+    if (!in.readBit()) {
+      return in.readSigned(7);
+    }
+    if (!in.readBit()) {
+      return in.readSigned(9);
+    }
+    if (!in.readBit()) {
+      return in.readSigned(12);
+    }
+    return in.readBit() ? in.readSigned(64) : in.readSigned(32);
+  }
+}
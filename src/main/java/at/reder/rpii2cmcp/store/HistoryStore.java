@@ -0,0 +1,431 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.store;
+
+import at.reder.rpii2cmcp.service.TimeSeriesBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Persistent, compressed history of sampled values. Each series (one per monitor) lives in its own directory of
+ * append-only segment files holding Gorilla compressed blocks, see {@link Segment}. Samples are buffered in memory
+ * and written block-wise, when a block is full or at the flush interval, so the SD card sees a few larger appends
+ * instead of one write per sample. At most the samples of one flush interval are lost on power failure; a torn block
+ * is discarded on the next start.
+ *
+ * <p>
+ * Queries run over the segments of a series in parallel. Range queries decode only the blocks overlapping the window;
+ * aggregate queries use the min/max/sum stored in the block headers for blocks that fall into a single bucket and
+ * decode only the others.
+ * </p>
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class HistoryStore {
+
+  private static final Logger LOG = Logger.getLogger(HistoryStore.class);
+
+  /**
+   * Maximum number of buckets a query may produce.
+   */
+  static final int MAX_BUCKETS = 10000;
+
+  private static final Pattern NAME_PATTERN = Pattern.compile("^[A-Za-z0-9_-][A-Za-z0-9_.-]{0,63}$");
+
+  /**
+   * Whether samples are persisted.
+   */
+  @ConfigProperty(name = "i2c.history.enabled", defaultValue = "false")
+  boolean enabled;
+
+  /**
+   * Directory holding one subdirectory per series.
+   */
+  @ConfigProperty(name = "i2c.history.dir", defaultValue = "data/history")
+  String dir;
+
+  /**
+   * Number of samples per compressed block.
+   */
+  @ConfigProperty(name = "i2c.history.block-size", defaultValue = "256")
+  int blockSize;
+
+  /**
+   * Interval at which partially filled blocks are written.
+   */
+  @ConfigProperty(name = "i2c.history.flush-interval", defaultValue = "60s")
+  Duration flushInterval;
+
+  /**
+   * Size in bytes after which a new segment file is started.
+   */
+  @ConfigProperty(name = "i2c.history.segment-size", defaultValue = "4194304")
+  long segmentSize;
+
+  /**
+   * Age after which whole segments are deleted.
+   */
+  @ConfigProperty(name = "i2c.history.retention", defaultValue = "30d")
+  Duration retention;
+
+  private final Map<String, SeriesStore> series = new ConcurrentHashMap<>();
+
+  private Path root;
+
+  private ScheduledExecutorService scheduler;
+
+  @PostConstruct
+  void init()
+  {
+    if (enabled) {
+      try {
+        open();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot open history store " + dir, e);
+      }
+    }
+  }
+
+  /**
+   * Opens the store directory, loads the existing series and starts the periodic flush.
+   *
+   * @throws IOException if the directory or a segment cannot be read
+   */
+  void open() throws IOException
+  {
+    root = Path.of(dir);
+    Files.createDirectories(root);
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, Files::isDirectory)) {
+      for (Path directory : stream) {
+        String name = directory.getFileName().toString();
+        if (NAME_PATTERN.matcher(name).matches()) {
+          series.put(name, new SeriesStore(name, directory, blockSize, segmentSize));
+        }
+      }
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "i2c-history");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long period = Math.max(flushInterval.toMillis(), 1);
+    scheduler.scheduleWithFixedDelay(this::maintain, period, period, TimeUnit.MILLISECONDS);
+    LOG.infof("History store %s opened with %d series", root.toAbsolutePath(), series.size());
+  }
+
+  @PreDestroy
+  void close()
+  {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      flush();
+    }
+  }
+
+  /**
+   * Writes pending samples and deletes expired segments. Runs at the flush interval.
+   */
+  void maintain()
+  {
+    flush();
+    long cutoff = System.currentTimeMillis() - retention.toMillis();
+    for (SeriesStore store : series.values()) {
+      try {
+        int deleted = store.deleteBefore(cutoff);
+        if (deleted > 0) {
+          LOG.infof("Deleted %d expired segments of series %s", deleted, store.getName());
+        }
+      } catch (IOException e) {
+        LOG.warnf("Cannot delete expired segments of series %s: %s", store.getName(), e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Checks whether the store is enabled.
+   *
+   * @return true if samples are persisted
+   */
+  public boolean isEnabled()
+  {
+    return enabled;
+  }
+
+  /**
+   * Appends a sample to a series, creating the series on first use. Does nothing if the store is disabled. Write
+   * errors are logged and do not propagate, so a full or failing card never stops sampling.
+   *
+   * @param name the series name
+   * @param time the timestamp in milliseconds since the epoch
+   * @param value the value
+   */
+  public void append(String name, long time, double value)
+  {
+    if (!enabled || !NAME_PATTERN.matcher(name).matches()) {
+      return;
+    }
+    try {
+      SeriesStore store = series.get(name);
+      if (store == null) {
+        store = series.computeIfAbsent(name, this::createSeries);
+      }
+      store.append(time, value);
+    } catch (IOException | UncheckedIOException e) {
+      LOG.warnf("Cannot store sample of series %s: %s", name, e.getMessage());
+    }
+  }
+
+  private SeriesStore createSeries(String name)
+  {
+    try {
+      return new SeriesStore(name, root.resolve(name), blockSize, segmentSize);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Writes the pending samples of all series.
+   */
+  public void flush()
+  {
+    for (SeriesStore store : series.values()) {
+      try {
+        store.flush();
+      } catch (IOException e) {
+        LOG.warnf("Cannot flush series %s: %s", store.getName(), e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Gets the names of all stored series.
+   *
+   * @return the names in alphabetical order
+   */
+  public List<String> getSeriesNames()
+  {
+    return List.copyOf(new TreeSet<>(series.keySet()));
+  }
+
+  /**
+   * Gets statistics of a series.
+   *
+   * @param name the series name
+   * @return a map with "samples", "segments" and "diskBytes"
+   * @throws IllegalArgumentException if there is no such series
+   */
+  public Map<String, Object> getStatistics(String name)
+  {
+    SeriesStore store = require(name);
+    return Map.of("samples", store.getSampleCount(),
+                  "segments", store.snapshot().segments().size(),
+                  "diskBytes", store.getDiskBytes());
+  }
+
+  /**
+   * Gets the stored points within a time window. If the window holds more than <code>limit</code> points, the most
+   * recent ones are returned.
+   *
+   * @param name the series name
+   * @param from the start of the window in milliseconds since the epoch (inclusive)
+   * @param to the end of the window in milliseconds since the epoch (inclusive)
+   * @param limit the maximum number of points
+   * @return the points in time order
+   * @throws IllegalArgumentException if there is no such series
+   * @throws IOException if a segment cannot be read
+   */
+  public TimeSeriesBuffer.Points points(String name, long from, long to, int limit) throws IOException
+  {
+    SeriesStore.Snapshot snapshot = require(name).snapshot();
+    List<PointCollector> parts;
+    try {
+      parts = snapshot.segments().parallelStream()
+              .filter(view -> view.overlaps(from, to))
+              .map(view -> {
+                PointCollector collector = new PointCollector();
+                try {
+                  view.scan(from, to, collector);
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+                return collector;
+              })
+              .toList();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    PointCollector result = new PointCollector();
+    parts.forEach(result::addAll);
+    snapshot.scanPending(from, to, result);
+    return result.toPoints(limit);
+  }
+
+  /**
+   * Aggregates the stored points within a time window into buckets of equal length starting at <code>from</code>.
+   * Buckets without points are omitted.
+   *
+   * @param name the series name
+   * @param from the start of the window in milliseconds since the epoch (inclusive)
+   * @param to the end of the window in milliseconds since the epoch (inclusive)
+   * @param bucketMs the bucket length in milliseconds
+   * @return the non-empty buckets in time order
+   * @throws IllegalArgumentException if there is no such series, the bucket length is not positive or the window
+   * needs too many buckets
+   * @throws IOException if a segment cannot be read
+   */
+  public List<TimeSeriesBuffer.Bucket> buckets(String name, long from, long to, long bucketMs) throws IOException
+  {
+    if (bucketMs < 1) {
+      throw new IllegalArgumentException("Bucket length must be positive: " + bucketMs);
+    }
+    if ((to - from) / bucketMs >= MAX_BUCKETS) {
+      throw new IllegalArgumentException("Too many buckets, at most " + MAX_BUCKETS + " are allowed");
+    }
+    SeriesStore.Snapshot snapshot = require(name).snapshot();
+    List<Aggregation> parts;
+    try {
+      parts = snapshot.segments().parallelStream()
+              .filter(view -> view.overlaps(from, to))
+              .map(view -> aggregate(view, from, to, bucketMs))
+              .toList();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    Aggregation result = new Aggregation(from, bucketMs);
+    parts.forEach(result::merge);
+    snapshot.scanPending(from, to, result);
+    return result.toBuckets();
+  }
+
+  private static Aggregation aggregate(Segment.View view, long from, long to, long bucketMs)
+  {
+    Aggregation aggregation = new Aggregation(from, bucketMs);
+    try {
+      ByteBuffer buffer = null;
+      for (Segment.Block block : view.blocks()) {
+        if (block.minTime() > to || block.maxTime() < from) {
+          continue;
+        }
+        long start = aggregation.bucketOf(block.minTime());
+        if (block.minTime() >= from && block.maxTime() <= to && start == aggregation.bucketOf(block.maxTime())) {
+          aggregation.add(start, block.count(), block.min(), block.max(), block.sum());
+          continue;
+        }
+        if (buffer == null) {
+          buffer = view.segment().map();
+        }
+        Segment.decode(buffer, block, (time, value) -> {
+          if (time >= from && time <= to) {
+            aggregation.accept(time, value);
+          }
+        });
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return aggregation;
+  }
+
+  private SeriesStore require(String name)
+  {
+    if (!enabled) {
+      throw new IllegalArgumentException("History store is disabled, set i2c.history.enabled to true");
+    }
+    SeriesStore store = name != null ? series.get(name) : null;
+    if (store == null) {
+      throw new IllegalArgumentException("No stored history for " + name);
+    }
+    return store;
+  }
+
+  /**
+   * Bucket aggregates of a query, merged across segments.
+   */
+  private static final class Aggregation implements GorillaCodec.SampleConsumer {
+
+    private final long from;
+
+    private final long bucketMs;
+
+    private final TreeMap<Long, double[]> buckets = new TreeMap<>();
+
+    Aggregation(long from, long bucketMs)
+    {
+      this.from = from;
+      this.bucketMs = bucketMs;
+    }
+
+    long bucketOf(long time)
+    {
+      return from + Math.floorDiv(time - from, bucketMs) * bucketMs;
+    }
+
+    @Override
+    public void accept(long time, double value)
+    {
+      add(bucketOf(time), 1, value, value, value);
+    }
+
+    void add(long start, long count, double min, double max, double sum)
+    {
+      double[] bucket = buckets.get(start);
+      if (bucket == null) {
+        buckets.put(start, new double[]{count, min, max, sum});
+      } else {
+        bucket[0] += count;
+        bucket[1] = Math.min(bucket[1], min);
+        bucket[2] = Math.max(bucket[2], max);
+        bucket[3] += sum;
+      }
+    }
+
+    void merge(Aggregation other)
+    {
+      other.buckets.forEach((start, b) -> add(start, (long) b[0], b[1], b[2], b[3]));
+    }
+
+    List<TimeSeriesBuffer.Bucket> toBuckets()
+    {
+      List<TimeSeriesBuffer.Bucket> result = new ArrayList<>(buckets.size());
+      buckets.forEach((start, b) -> result.add(new TimeSeriesBuffer.Bucket(start, (int) b[0], b[1], b[2],
+                                                                             b[3] / b[0])));
+      return result;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.store;
+
+import at.reder.rpii2cmcp.service.TimeSeriesBuffer;
+import java.util.Arrays;
+
+/**
+ * Collects decoded samples into growing primitive arrays.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+final class PointCollector implements GorillaCodec.SampleConsumer {
+
+  private long[] times = new long[256];
+
+  private double[] values = new double[256];
+
+  private int size;
+
+  @Override
+  public void accept(long time, double value)
+  {
+    if (size == times.length) {
+      times = Arrays.copyOf(times, size * 2);
+      values = Arrays.copyOf(values, size * 2);
+    }
+    times[size] = time;
+    values[size] = value;
+    size++;
+  }
+
+  /**
+   * Appends all samples of another collector.
+   *
+   * @param other the other collector
+   */
+  void addAll(PointCollector other)
+  {
+    for (int i = 0; i < other.size; i++) {
+      accept(other.times[i], other.values[i]);
+    }
+  }
+
+  /**
+   * Gets the most recent samples.
+   *
+   * @param limit the maximum number of samples
+   * @return the last <code>limit</code> samples in collection order
+   */
+  TimeSeriesBuffer.Points toPoints(int limit)
+  {
+    int first = Math.max(0, size - Math.max(limit, 0));
+    return new TimeSeriesBuffer.Points(Arrays.copyOfRange(times, first, size), Arrays.copyOfRange(values, first, size));
+  }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.jboss.logging.Logger;
+
+/**
+ * One append-only segment file of a series. The file is a sequence of blocks, each made of a fixed size header and a
+ * {@link GorillaCodec} payload. The header holds the time range, the sample count and min/max/sum of the block, so the
+ * in-memory block index built when the segment is opened answers time-range lookups and many aggregate queries
+ * without touching the payloads. Reads go through a read-only memory mapping of the file.
+ *
+ * <p>
+ * A block is written with a single append and forced to the device. A crash during the write leaves a torn block at
+ * the end of the file, which is detected by its length or checksum and cut off when the segment is opened again.
+ * </p>
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+final class Segment {
+
+  private static final Logger LOG = Logger.getLogger(Segment.class);
+
+  /**
+   * Magic number at the start of every block header ("I2CB").
+   */
+  static final int MAGIC = 0x49324342;
+
+  /**
+   * Size of a block header: magic, payload length, count, CRC32, min/max time, min/max value and sum.
+   */
+  static final int HEADER_BYTES = 4 * 4 + 8 * 5;
+
+  /**
+   * Index entry of one block.
+   *
+   * @param offset the offset of the payload in the file
+   * @param length the payload length in bytes
+   * @param count the number of samples
+   * @param minTime the earliest timestamp
+   * @param maxTime the latest timestamp
+   * @param min the smallest value
+   * @param max the largest value
+   * @param sum the sum of all values
+   */
+  record Block(long offset, int length, int count, long minTime, long maxTime, double min, double max, double sum) {
+
+  }
+
+  private final Path path;
+
+  private final List<Block> blocks = new ArrayList<>();
+
+  private long size;
+
+  private MappedByteBuffer mapped;
+
+  private Segment(Path path)
+  {
+    this.path = path;
+  }
+
+  /**
+   * Creates an empty segment. The file is created with the first block.
+   *
+   * @param path the segment file
+   * @return the segment
+   */
+  static Segment create(Path path)
+  {
+    return new Segment(path);
+  }
+
+  /**
+   * Opens an existing segment and builds its block index. A damaged tail is truncated.
+   *
+   * @param path the segment file
+   * @return the segment
+   * @throws IOException if the file cannot be read
+   */
+  static Segment open(Path path) throws IOException
+  {
+    Segment segment = new Segment(path);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      long fileSize = channel.size();
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize).order(ByteOrder.LITTLE_ENDIAN);
+      int position = 0;
+      while (position < fileSize) {
+        Block block = readBlock(buffer, position);
+        if (block == null) {
+          LOG.warnf("Truncating damaged segment %s at %d of %d bytes", path, position, fileSize);
+          channel.truncate(position);
+          break;
+        }
+        segment.blocks.add(block);
+        position = (int) block.offset() + block.length();
+      }
+      segment.size = position;
+    }
+    return segment;
+  }
+
+  private static Block readBlock(ByteBuffer buffer, int position)
+  {
+    if (buffer.limit() - position < HEADER_BYTES || buffer.getInt(position) != MAGIC) {
+      return null;
+    }
+    int length = buffer.getInt(position + 4);
+    int payload = position + HEADER_BYTES;
+    if (length <= 0 || length > buffer.limit() - payload) {
+      return null;
+    }
+    CRC32 crc = new CRC32();
+    crc.update(buffer.slice(payload, length));
+    if ((int) crc.getValue() != buffer.getInt(position + 12)) {
+      return null;
+    }
+    return new Block(payload, length, buffer.getInt(position + 8),
+                     buffer.getLong(position + 16), buffer.getLong(position + 24),
+                     buffer.getDouble(position + 32), buffer.getDouble(position + 40), buffer.getDouble(position + 48));
+  }
+
+  /**
+   * Appends a block.
+   *
+   * @param payload the compressed samples
+   * @param count the number of samples
+   * @param minTime the earliest timestamp
+   * @param maxTime the latest timestamp
+   * @param min the smallest value
+   * @param max the largest value
+   * @param sum the sum of all values
+   * @throws IOException if the block cannot be written
+   */
+  synchronized void append(byte[] payload, int count, long minTime, long maxTime, double min, double max, double sum)
+          throws IOException
+  {
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC).putInt(payload.length).putInt(count).putInt((int) crc.getValue())
+            .putLong(minTime).putLong(maxTime).putDouble(min).putDouble(max).putDouble(sum)
+            .put(payload).flip();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                StandardOpenOption.APPEND)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(false);
+    }
+    blocks.add(new Block(size + HEADER_BYTES, payload.length, count, minTime, maxTime, min, max, sum));
+    size += HEADER_BYTES + payload.length;
+    mapped = null;
+  }
+
+  /**
+   * Gets the segment file.
+   *
+   * @return the path
+   */
+  Path getPath()
+  {
+    return path;
+  }
+
+  /**
+   * Gets the number of bytes written.
+   *
+   * @return the size
+   */
+  synchronized long getSize()
+  {
+    return size;
+  }
+
+  /**
+   * Gets the block index.
+   *
+   * @return a snapshot of the blocks in file order
+   */
+  synchronized List<Block> getBlocks()
+  {
+    return List.copyOf(blocks);
+  }
+
+  /**
+   * Gets the latest timestamp of the segment.
+   *
+   * @return the latest timestamp, or Long.MIN_VALUE if the segment is empty
+   */
+  synchronized long getMaxTime()
+  {
+    long max = Long.MIN_VALUE;
+    for (Block block : blocks) {
+      max = Math.max(max, block.maxTime());
+    }
+    return max;
+  }
+
+  /**
+   * Takes a consistent view of the segment for a query. Blocks appended later are not part of the view.
+   *
+   * @return the view
+   */
+  synchronized View view()
+  {
+    return new View(this, List.copyOf(blocks));
+  }
+
+  /**
+   * The blocks of a segment at one point in time.
+   *
+   * @param segment the segment
+   * @param blocks the blocks in file order
+   */
+  record View(Segment segment, List<Block> blocks) {
+
+    /**
+     * Checks whether any block overlaps a time range.
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, inclusive
+     * @return true if a block overlaps
+     */
+    boolean overlaps(long from, long to)
+    {
+      for (Block block : blocks) {
+        if (block.minTime() <= to && block.maxTime() >= from) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Decodes the samples within a time range.
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, inclusive
+     * @param consumer receives the samples in file order
+     * @throws IOException if the file cannot be mapped
+     */
+    void scan(long from, long to, GorillaCodec.SampleConsumer consumer) throws IOException
+    {
+      ByteBuffer buffer = segment.map();
+      for (Block block : blocks) {
+        if (block.minTime() <= to && block.maxTime() >= from) {
+          decode(buffer, block, (time, value) -> {
+            if (time >= from && time <= to) {
+              consumer.accept(time, value);
+            }
+          });
+        }
+      }
+    }
+  }
+
+  /**
+   * Decodes all samples of a block.
+   *
+   * @param buffer the mapped segment
+   * @param block the block
+   * @param consumer receives the samples
+   */
+  static void decode(ByteBuffer buffer, Block block, GorillaCodec.SampleConsumer consumer)
+  {
+    GorillaCodec.decode(buffer, (int) block.offset(), block.length(), block.count(), consumer);
+  }
+
+  /**
+   * Maps the written part of the file read-only. The mapping is shared by all readers and replaced after appends. It
+   * stays valid after the file is deleted, until the segment is no longer referenced.
+   *
+   * @return the mapped buffer
+   * @throws IOException if the file cannot be mapped
+   */
+  synchronized ByteBuffer map() throws IOException
+  {
+    if (mapped == null) {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+    }
+    return mapped;
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.store;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The segments of one series plus the samples not yet written. Samples are collected in memory and written as one
+ * compressed block when the block is full or the store flushes, which turns many tiny writes into few larger appends
+ * and keeps flash wear on SD cards low. Segment files are named after the first timestamp they contain and are never
+ * rewritten; a new segment is started when the current one reaches the configured size.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+final class SeriesStore {
+
+  /**
+   * File name extension of segment files.
+   */
+  static final String EXTENSION = ".seg";
+
+  private final String name;
+
+  private final Path directory;
+
+  private final long segmentSize;
+
+  private final List<Segment> segments = new ArrayList<>();
+
+  private final long[] pendingTimes;
+
+  private final double[] pendingValues;
+
+  private int pendingCount;
+
+  /**
+   * Opens or creates a series.
+   *
+   * @param name the series name
+   * @param directory the directory holding the segment files
+   * @param blockSize the number of samples per block
+   * @param segmentSize the size in bytes after which a new segment is started
+   * @throws IOException if the directory or a segment cannot be read
+   */
+  SeriesStore(String name, Path directory, int blockSize, long segmentSize) throws IOException
+  {
+    this.name = name;
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.pendingTimes = new long[blockSize];
+    this.pendingValues = new double[blockSize];
+    Files.createDirectories(directory);
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+      stream.forEach(files::add);
+    }
+    files.sort(Comparator.comparingLong(SeriesStore::startOf));
+    for (Path file : files) {
+      segments.add(Segment.open(file));
+    }
+  }
+
+  private static long startOf(Path file)
+  {
+    String fileName = file.getFileName().toString();
+    try {
+      return Long.parseLong(fileName.substring(0, fileName.length() - EXTENSION.length()));
+    } catch (NumberFormatException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+
+  /**
+   * Gets the series name.
+   *
+   * @return the name
+   */
+  String getName()
+  {
+    return name;
+  }
+
+  /**
+   * Appends a sample. A full block is written immediately.
+   *
+   * @param time the timestamp in milliseconds since the epoch
+   * @param value the value
+   * @throws IOException if a full block cannot be written
+   */
+  synchronized void append(long time, double value) throws IOException
+  {
+    pendingTimes[pendingCount] = time;
+    pendingValues[pendingCount] = value;
+    pendingCount++;
+    if (pendingCount == pendingTimes.length) {
+      flush();
+    }
+  }
+
+  /**
+   * Writes the pending samples as one block.
+   *
+   * @throws IOException if the block cannot be written
+   */
+  synchronized void flush() throws IOException
+  {
+    if (pendingCount == 0) {
+      return;
+    }
+    long minTime = Long.MAX_VALUE;
+    long maxTime = Long.MIN_VALUE;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    double sum = 0;
+    for (int i = 0; i < pendingCount; i++) {
+      minTime = Math.min(minTime, pendingTimes[i]);
+      maxTime = Math.max(maxTime, pendingTimes[i]);
+      min = Math.min(min, pendingValues[i]);
+      max = Math.max(max, pendingValues[i]);
+      sum += pendingValues[i];
+    }
+    byte[] payload = GorillaCodec.encode(pendingTimes, pendingValues, pendingCount);
+    Segment current = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    if (current == null || current.getSize() >= segmentSize) {
+      current = Segment.create(directory.resolve(pendingTimes[0] + EXTENSION));
+      segments.add(current);
+    }
+    current.append(payload, pendingCount, minTime, maxTime, min, max, sum);
+    pendingCount = 0;
+  }
+
+  /**
+   * Takes a consistent snapshot for a query: every sample is either in one of the segment views or pending, never in
+   * both and never in neither.
+   *
+   * @return the snapshot
+   */
+  synchronized Snapshot snapshot()
+  {
+    List<Segment.View> views = new ArrayList<>(segments.size());
+    for (Segment segment : segments) {
+      views.add(segment.view());
+    }
+    return new Snapshot(views, Arrays.copyOf(pendingTimes, pendingCount), Arrays.copyOf(pendingValues, pendingCount));
+  }
+
+  /**
+   * The state of a series at one point in time.
+   *
+   * @param segments the segment views, oldest first
+   * @param pendingTimes the timestamps of the samples not yet written
+   * @param pendingValues the values of the samples not yet written
+   */
+  record Snapshot(List<Segment.View> segments, long[] pendingTimes, double[] pendingValues) {
+
+    /**
+     * Passes the pending samples within a time range to a consumer.
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, inclusive
+     * @param consumer receives the samples
+     */
+    void scanPending(long from, long to, GorillaCodec.SampleConsumer consumer)
+    {
+      for (int i = 0; i < pendingTimes.length; i++) {
+        if (pendingTimes[i] >= from && pendingTimes[i] <= to) {
+          consumer.accept(pendingTimes[i], pendingValues[i]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the number of stored samples, including the pending ones.
+   *
+   * @return the sample count
+   */
+  synchronized long getSampleCount()
+  {
+    long count = pendingCount;
+    for (Segment segment : segments) {
+      for (Segment.Block block : segment.getBlocks()) {
+        count += block.count();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Gets the number of bytes on disk.
+   *
+   * @return the total size of all segments
+   */
+  synchronized long getDiskBytes()
+  {
+    long bytes = 0;
+    for (Segment segment : segments) {
+      bytes += segment.getSize();
+    }
+    return bytes;
+  }
+
+  /**
+   * Deletes segments whose samples are all older than the given time. The current segment is always kept. A segment
+   * is mapped before its file is deleted, so views of snapshots taken earlier can still read it.
+   *
+   * @param time the cut-off timestamp
+   * @return the number of deleted segments
+   * @throws IOException if a file cannot be mapped or deleted
+   */
+  synchronized int deleteBefore(long time) throws IOException
+  {
+    int deleted = 0;
+    while (segments.size() > 1 && segments.get(0).getMaxTime() < time) {
+      Segment segment = segments.get(0);
+      segment.map();
+      Files.deleteIfExists(segment.getPath());
+      segments.remove(0);
+      deleted++;
+    }
+    return deleted;
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.model.profile.DeviceProfile;
+import at.reder.rpii2cmcp.model.profile.EepromDefinition;
+import at.reder.rpii2cmcp.service.DeviceProfileRegistry;
+import at.reder.rpii2cmcp.service.EepromService;
+import at.reder.rpii2cmcp.service.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool reading and writing serial EEPROMs. Large images are better transferred as binary body with the
+ * <code>/eeprom</code> endpoint.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class EepromTool implements ToolHandler {
+
+  static final String NAME = "eeprom";
+
+  @Inject
+  EepromService eepromService;
+
+  @Inject
+  DeviceProfileRegistry deviceProfileRegistry;
+
+  @Override
+  public int order()
+  {
+    return 32;
+  }
+
+  @Override
+  public Priority priority()
+  {
+    return Priority.BULK;
+  }
+
+  @Override
+  public McpTool definition()
+  {
+    List<String> profiles = deviceProfileRegistry.getProfiles().stream()
+            .filter(profile -> profile.getEeprom() != null)
+            .map(DeviceProfile::getName)
+            .toList();
+    return new McpTool(
+            NAME,
+            "Read or write a serial EEPROM (24Cxx). Reads use sequential block reads, writes are split into page "
+            + "writes and poll the device until its write cycle ends. The memory layout is taken from the profile "
+            + "or from size, pageSize and addressWidth.",
+            ToolSchema.object()
+                    .busAndAddress()
+                    .property("action", Map.of(
+                              "type", "string",
+                              "enum", List.of("read", "write"),
+                              "description", "read or write"), true)
+                    .property("profile", Map.of(
+                              "type", "string",
+                              "enum", profiles,
+                              "description", "EEPROM device profile"), false)
+                    .optional("size", "integer", "Memory size in bytes (overrides the profile)")
+                    .optional("pageSize", "integer", "Write page size in bytes (overrides the profile)")
+                    .optional("addressWidth", "integer", "Number of memory address bytes, 1 or 2 (overrides the "
+                              + "profile)")
+                    .optional("offset", "integer", "First memory address (default 0)")
+                    .optional("length", "integer", "Number of bytes to read (default: up to the end of the memory)")
+                    .optional("data", "string", "Data to write as hex string, whitespace is ignored (write)")
+                    .optional("base64", "string", "Data to write base64 encoded, instead of data (write)")
+                    .optional("verify", "boolean", "Read the data back and compare it (write, default false)")
+                    .scheduling()
+                    .build()
+    );
+  }
+
+  @Override
+  public McpToolResult call(ToolArguments arguments)
+  {
+    int bus = arguments.getInt("bus");
+    String address = arguments.getString("address");
+    int device = EepromService.parseAddress(address);
+    String action = arguments.getString("action");
+    EepromDefinition eeprom = eepromService.resolve(arguments.getOptionalString("profile"),
+                                                    optionalInt(arguments, "size"),
+                                                    optionalInt(arguments, "pageSize"),
+                                                    optionalInt(arguments, "addressWidth"));
+    int offset = arguments.getInt("offset", 0);
+    try {
+      switch (action) {
+        case "read": {
+          int length = arguments.getInt("length", eeprom.getSize() - offset);
+          byte[] data = eepromService.read(bus, device, eeprom, offset, length);
+          Map<String, Object> result = new LinkedHashMap<>();
+          result.put("offset", offset);
+          result.put("length", data.length);
+          result.put("hex", HexFormat.of().formatHex(data));
+          result.put("base64", Base64.getEncoder().encodeToString(data));
+          return McpToolResult.success(HexFormat.of().formatHex(data), result);
+        }
+        case "write": {
+          EepromService.WriteResult result = eepromService.write(bus, device, eeprom, offset, data(arguments),
+                                                                 arguments.getBoolean("verify", false));
+          return McpToolResult.success(String.format("Wrote %d bytes at 0x%04x with %d page writes in %d ms",
+                                                     result.bytes(), offset, result.pages(), result.elapsed()),
+                                       result.toMap());
+        }
+        default:
+          throw new IllegalArgumentException("Invalid action: " + action + ". Valid actions are: read, write");
+      }
+    } catch (IOException e) {
+      return McpToolResult.error(e.getMessage());
+    }
+  }
+
+  private static Integer optionalInt(ToolArguments arguments, String name)
+  {
+    return arguments.has(name) ? arguments.getInt(name) : null;
+  }
+
+  private static byte[] data(ToolArguments arguments)
+  {
+    String base64 = arguments.getOptionalString("base64");
+    if (base64 != null) {
+      try {
+        return Base64.getDecoder().decode(base64);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Invalid base64 data: " + e.getMessage());
+      }
+    }
+    String hex = arguments.getString("data").replaceAll("\\s+", "");
+    try {
+      return HexFormat.of().parseHex(hex);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid hex data: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.DataDecoder;
+import at.reder.rpii2cmcp.service.PreparedCommand;
+import at.reder.rpii2cmcp.service.PreparedCommandService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Tool executing a command prepared with the {@link PrepareTool}. The result has the same form as the result of
+ * i2cget or i2cset.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class ExecTool implements ToolHandler {
+
+  static final String NAME = "exec";
+
+  @Inject
+  PreparedCommandService preparedCommandService;
+
+  @Override
+  public int order()
+  {
+    return 28;
+  }
+
+  @Override
+  public McpTool definition()
+  {
+    return new McpTool(
+            NAME,
+            "Execute a prepared command by its handle.",
+            ToolSchema.object()
+                    .required("handle", "string", "Handle returned by the prepare tool (e.g., p1)")
+                    .optional("value", "string", "Value in hex format for writes prepared without value")
+                    .scheduling()
+                    .build()
+    );
+  }
+
+  @Override
+  public McpToolResult call(ToolArguments arguments)
+  {
+    PreparedCommand prepared = preparedCommandService.getCommand(arguments.getString("handle"));
+    I2CResponse response = preparedCommandService.execute(prepared, arguments.getOptionalString("value"));
+    if (!response.isSuccess()) {
+      return ToolHandler.busError(response);
+    }
+    if (prepared.getFormats().isEmpty()) {
+      return McpToolResult.success(response.getData());
+    }
+    if (response.getBytes() == null) {
+      return McpToolResult.error("Cannot decode device response: " + response.getData());
+    }
+    return McpToolResult.success(response.getData(),
+                                 DataDecoder.decode(response.getBytes(), prepared.getFormats(), prepared.getOrder()));
+  }
+}
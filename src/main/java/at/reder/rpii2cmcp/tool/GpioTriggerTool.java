@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.GpioTrigger;
+import at.reder.rpii2cmcp.service.GpioTriggerService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool binding I2C reads to GPIO line edges. Results are delivered on the <code>/events</code> stream.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class GpioTriggerTool implements ToolHandler {
+
+  static final String NAME = "gpio_trigger";
+
+  @Inject
+  GpioTriggerService gpioTriggerService;
+
+  @Override
+  public int order()
+  {
+    return 50;
+  }
+
+  @Override
+  public McpTool definition()
+  {
+    return new McpTool(
+            NAME,
+            "Manage reads triggered by GPIO interrupts. A trigger watches a GPIO line, e.g. the data ready output of "
+            + "a sensor, and reads the device only when the line changes instead of polling its status register. "
+            + "Each read is published as event of type 'gpio' on the /events stream (server-sent events).",
+            ToolSchema.object()
+                    .property("action", Map.of(
+                              "type", "string",
+                              "enum", List.of("add", "remove", "list"),
+                              "description", "add a trigger, remove a trigger by id or list all triggers"), true)
+                    .optional("id", "string", "Trigger id (add: optional, generated if missing; remove: required)")
+                    .optional("chip", "string", "GPIO chip (add, default: gpiochip0)")
+                    .optional("line", "integer", "GPIO line offset on the chip (add)")
+                    .property("edge", Map.of(
+                              "type", "string",
+                              "enum", List.of(GpioTrigger.RISING, GpioTrigger.FALLING, GpioTrigger.BOTH),
+                              "description", "Edges that fire the read (add, default: falling, the active edge of "
+                              + "open drain interrupt outputs)"), false)
+                    .optional("debounce", "integer", "Minimum time between two reads in milliseconds (add, default: 0)")
+                    .optional("bus", "integer", "I2C bus number (add)")
+                    .optional("address", "string", "I2C device address in hex format, e.g. 0x48 (add)")
+                    .optional("profile", "string", "Device profile to read (add, instead of register)")
+                    .property("registers", Map.of(
+                              "type", "array",
+                              "items", Map.of("type", "string"),
+                              "description", "Profile registers to read (add with profile, default: all)"), false)
+                    .optional("register", "string", "First register of a raw read in hex format (add without profile)")
+                    .optional("length", "integer", "Number of bytes of a raw read, 1-32 (add without profile, default: 1)")
+                    .build()
+    );
+  }
+
+  @Override
+  public McpToolResult call(ToolArguments arguments)
+  {
+    String action = arguments.getString("action");
+    switch (action) {
+      case "add":
+        return add(arguments);
+      case "remove": {
+        String id = arguments.getString("id");
+        if (!gpioTriggerService.remove(id)) {
+          return McpToolResult.error("Unknown trigger: " + id);
+        }
+        return McpToolResult.success("Trigger " + id + " removed");
+      }
+      case "list": {
+        List<Map<String, Object>> triggers = gpioTriggerService.getTriggers().stream().map(GpioTrigger::toMap).toList();
+        StringBuilder text = new StringBuilder(triggers.size() + " triggers");
+        for (Map<String, Object> trigger : triggers) {
+          text.append('\n').append(describe(trigger));
+        }
+        return McpToolResult.success(text.toString(), Map.of("triggers", triggers));
+      }
+      default:
+        throw new IllegalArgumentException("Invalid action: " + action + ". Valid actions are: add, remove, list");
+    }
+  }
+
+  private McpToolResult add(ToolArguments arguments)
+  {
+    String profile = arguments.getOptionalString("profile");
+    GpioTrigger.Read read = new GpioTrigger.Read(
+            arguments.getInt("bus"),
+            arguments.getString("address"),
+            profile,
+            arguments.getStringList("registers"),
+            profile == null ? arguments.getString("register") : null,
+            arguments.getInt("length", 1));
+    String chip = arguments.getOptionalString("chip");
+    try {
+      GpioTrigger trigger = gpioTriggerService.add(arguments.getOptionalString("id"),
+                                                   chip != null ? chip : "gpiochip0",
+                                                   arguments.getInt("line"),
+                                                   arguments.has("edge") ? arguments.getString("edge")
+                                                   : GpioTrigger.FALLING,
+                                                   arguments.getLong("debounce", 0),
+                                                   read);
+      Map<String, Object> state = trigger.toMap();
+      return McpToolResult.success("Trigger added: " + describe(state), state);
+    } catch (IOException e) {
+      return McpToolResult.error(e.getMessage());
+    }
+  }
+
+  static String describe(Map<String, Object> trigger)
+  {
+    StringBuilder text = new StringBuilder();
+    text.append(trigger.get("id")).append(": ").append(trigger.get("edge")).append(" edges of ")
+            .append(trigger.get("chip")).append(" line ").append(trigger.get("line")).append(" read ");
+    if (trigger.containsKey("profile")) {
+      text.append(trigger.get("profile"));
+    } else {
+      text.append(trigger.get("length")).append(" bytes at ").append(trigger.get("register"));
+    }
+    text.append(" of ").append(trigger.get("address")).append(" on bus ").append(trigger.get("bus"))
+            .append(", ").append(trigger.get("reads")).append(" reads, ").append(trigger.get("skipped"))
+            .append(" skipped");
+    if (trigger.containsKey("error")) {
+      text.append(", error: ").append(trigger.get("error"));
+    }
+    return text.toString();
+  }
+}
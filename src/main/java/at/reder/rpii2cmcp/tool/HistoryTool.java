@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.MonitorService;
+import at.reder.rpii2cmcp.service.ThresholdMonitor;
+import at.reder.rpii2cmcp.service.TimeSeriesBuffer;
+import at.reder.rpii2cmcp.store.HistoryStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool querying the recorded samples of a monitor, either as raw points or aggregated into min/max/avg buckets. The
+ * samples come from the in-memory history of the monitor, or from the persistent {@link HistoryStore}, which also
+ * covers monitors that have been removed or existed before a restart.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class HistoryTool implements ToolHandler {
+
+  static final String NAME = "monitor_history";
+
+  /**
+   * Default maximum number of raw points returned.
+   */
+  static final int DEFAULT_LIMIT = 500;
+
+  @Inject
+  MonitorService monitorService;
+
+  @Inject
+  HistoryStore historyStore;
+
+  @Override
+  public int order()
+  {
+    return 41;
+  }
+
+  @Override
+  public McpTool definition()
+  {
+    return new McpTool(
+            NAME,
+            "Query the recent samples of a monitor. Returns raw [timestamp, value] points, or min/max/avg buckets if "
+            + "a bucket length is given, over a time window ending now or at 'to'. With 'store' the persistent "
+            + "history is queried, which reaches further back and survives restarts.",
+            ToolSchema.object()
+                    .required("id", "string", "Monitor id")
+                    .optional("window", "integer", "Length of the time window in milliseconds (default: all samples)")
+                    .optional("to", "integer", "End of the window in milliseconds since the epoch (default: now)")
+                    .optional("bucket", "integer", "Bucket length in milliseconds for min/max/avg aggregation")
+                    .optional("limit", "integer", "Maximum number of raw points, the most recent are returned "
+                              + "(default: " + DEFAULT_LIMIT + ")")
+                    .optional("store", "boolean", "Query the persistent history store instead of memory "
+                              + "(default: false)")
+                    .build()
+    );
+  }
+
+  @Override
+  public McpToolResult call(ToolArguments arguments)
+  {
+    String id = arguments.getString("id");
+    boolean store = arguments.getBoolean("store", false);
+    ThresholdMonitor monitor = monitorService.getMonitor(id);
+    if (monitor == null && !store) {
+      return McpToolResult.error("Unknown monitor: " + id);
+    }
+    long to = arguments.getLong("to", System.currentTimeMillis());
+    long window = arguments.getLong("window", -1);
+    long from = window >= 0 ? to - window : Long.MIN_VALUE;
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("id", id);
+    if (monitor != null) {
+      result.put("name", monitor.getRegister().getName());
+      if (monitor.getRegister().getUnit() != null) {
+        result.put("unit", monitor.getRegister().getUnit());
+      }
+    }
+    result.put("source", store ? "store" : "memory");
+    try {
+      if (arguments.has("bucket")) {
+        long bucket = arguments.getLong("bucket", 0);
+        if (window < 0) {
+          throw new IllegalArgumentException("Argument window is required for bucket aggregation");
+        }
+        List<Map<String, Object>> buckets = new ArrayList<>();
+        for (TimeSeriesBuffer.Bucket b : store
+                ? historyStore.buckets(id, from, to, bucket)
+                : monitor.getHistory().buckets(from, to, bucket)) {
+          Map<String, Object> entry = new LinkedHashMap<>();
+          entry.put("start", b.start());
+          entry.put("count", b.count());
+          entry.put("min", b.min());
+          entry.put("max", b.max());
+          entry.put("avg", b.avg());
+          buckets.add(entry);
+        }
+        result.put("bucket", bucket);
+        result.put("buckets", buckets);
+        return McpToolResult.success(String.format("%s: %d buckets of %d ms", id, buckets.size(), bucket), result);
+      }
+      int limit = arguments.getInt("limit", DEFAULT_LIMIT);
+      TimeSeriesBuffer.Points points = store
+              ? historyStore.points(id, from, to, limit)
+              : monitor.getHistory().points(from, to, limit);
+      List<List<Number>> list = new ArrayList<>(points.times().length);
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < points.times().length; i++) {
+        list.add(List.of(points.times()[i], points.values()[i]));
+        min = Math.min(min, points.values()[i]);
+        max = Math.max(max, points.values()[i]);
+      }
+      result.put("points", list);
+      String text = list.isEmpty()
+              ? id + ": no samples in window"
+              : String.format("%s: %d points, min %s, max %s", id, list.size(), min, max);
+      return McpToolResult.success(text, result);
+    } catch (IOException e) {
+      return McpToolResult.error(e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.I2CService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool changing selected bits of a register in one atomic read-modify-write on the server.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class I2cUpdateBitsTool implements ToolHandler {
+
+  static final String NAME = "i2c_update_bits";
+
+  @Inject
+  I2CService i2cService;
+
+  @Override
+  public int order()
+  {
+    return 25;
+  }
+
+  @Override
+  public McpTool definition()
+  {
+    return new McpTool(
+            NAME,
+            "Change selected bits of a register: reads the register, replaces the bits in 'mask' with 'value' and "
+            + "writes it back while holding the bus lock, so no other client can interleave. The write is skipped if "
+            + "the bits already match. Returns the old and new register value.",
+            ToolSchema.object()
+                    .busAndAddress()
+                    .required("register", "string", "Register address in hex format (e.g., 0x01)")
+                    .required("mask", "string", "Bits to change, in hex format (e.g., 0x80)")
+                    .required("value", "string", "New value of the masked bits in hex format (e.g., 0x80 to set, "
+                              + "0x00 to clear)")
+                    .property("mode", Map.of(
+                              "type", "string",
+                              "enum", List.of("b", "w"),
+                              "description", "Register width: 'b' for 8 bit, 'w' for 16 bit (default: b)"), false)
+                    .scheduling()
+                    .build()
+    );
+  }
+
+  @Override
+  public McpToolResult call(ToolArguments arguments)
+  {
+    int bus = arguments.getInt("bus");
+    String address = arguments.getString("address");
+    String register = arguments.getString("register");
+    int mask = arguments.getHexInt("mask");
+    int value = arguments.getHexInt("value");
+    String mode = arguments.getOptionalString("mode");
+    if (mode != null && !"b".equals(mode) && !"w".equals(mode)) {
+      throw new IllegalArgumentException("Invalid mode: " + mode + ". Valid modes are 'b' or 'w'");
+    }
+    boolean word = "w".equals(mode);
+
+    try {
+      I2CService.BitUpdate update = i2cService.updateBits(bus, address, register, mask, value, word);
+      String format = word ? "0x%04x" : "0x%02x";
+      Map<String, Object> result = new LinkedHashMap<>();
+      result.put("bus", bus);
+      result.put("address", address);
+      result.put("register", register);
+      result.put("mask", String.format(format, mask));
+      result.put("old", String.format(format, update.oldValue()));
+      result.put("new", String.format(format, update.newValue()));
+      result.put("written", update.written());
+      String text = String.format("%s: " + format + " -> " + format + "%s", register, update.oldValue(),
+                                  update.newValue(), update.written() ? "" : " (unchanged, not written)");
+      return McpToolResult.success(text, result);
+    } catch (IOException e) {
+      return McpToolResult.error(e.getMessage());
+    }
+  }
+}
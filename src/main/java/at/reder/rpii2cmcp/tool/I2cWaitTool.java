@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.I2CService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Tool polling a register on the server until masked bits have an expected value, e.g. until a conversion ready or
+ * busy flag changes. Each poll is a separate bus transaction, so other clients can use the bus between polls.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class I2cWaitTool implements ToolHandler {
+
+  static final String NAME = "i2c_wait";
+
+  /**
+   * Default timeout in milliseconds.
+   */
+  static final long DEFAULT_TIMEOUT = 1000;
+
+  /**
+   * Default poll interval in milliseconds.
+   */
+  static final long DEFAULT_INTERVAL = 10;
+
+  /**
+   * Longest wait a single call may request.
+   */
+  @ConfigProperty(name = "i2c.wait.max-timeout", defaultValue = "30s")
+  Duration maxTimeout;
+
+  @Inject
+  I2CService i2cService;
+
+  @Override
+  public int order()
+  {
+    return 26;
+  }
+
+  @Override
+  public McpTool definition()
+  {
+    return new McpTool(
+            NAME,
+            "Poll a register on the server until (register & mask) == value or the timeout expires, instead of "
+            + "polling with repeated i2cget calls. Returns the last value read, the number of polls and the elapsed "
+            + "time; a timeout is reported as error with the same details.",
+            ToolSchema.object()
+                    .busAndAddress()
+                    .required("register", "string", "Register address in hex format (e.g., 0x00)")
+                    .optional("mask", "string", "Bits to test in hex format (default: all bits)")
+                    .required("value", "string", "Expected value of the masked bits in hex format (e.g., 0x80)")
+                    .property("mode", Map.of(
+                              "type", "string",
+                              "enum", List.of("b", "w"),
+                              "description", "Register width: 'b' for 8 bit, 'w' for 16 bit (default: b)"), false)
+                    .optional("timeout", "integer", "Timeout in milliseconds (default: " + DEFAULT_TIMEOUT + ")")
+                    .optional("interval", "integer", "Delay between polls in milliseconds (default: "
+                              + DEFAULT_INTERVAL + ")")
+                    .optional("backoff", "number", "Factor applied to the delay after each poll for exponential "
+                              + "backoff, e.g. 2 (default: 1, fixed interval)")
+                    .optional("maxInterval", "integer", "Upper limit of the delay with backoff in milliseconds "
+                              + "(default: 1000)")
+                    .optional("ignoreErrors", "boolean", "Keep polling when a read fails, e.g. while the device "
+                              + "does not acknowledge during an operation (default: false)")
+                    .scheduling()
+                    .build()
+    );
+  }
+
+  @Override
+  public McpToolResult call(ToolArguments arguments)
+  {
+    int bus = arguments.getInt("bus");
+    String address = arguments.getString("address");
+    String register = arguments.getString("register");
+    String mode = arguments.getOptionalString("mode");
+    if (mode != null && !"b".equals(mode) && !"w".equals(mode)) {
+      throw new IllegalArgumentException("Invalid mode: " + mode + ". Valid modes are 'b' or 'w'");
+    }
+    boolean word = "w".equals(mode);
+    int limit = word ? 0xffff : 0xff;
+    int mask = arguments.has("mask") ? arguments.getHexInt("mask") : limit;
+    int expected = arguments.getHexInt("value");
+    if (mask < 1 || mask > limit) {
+      throw new IllegalArgumentException(String.format("Mask must be between 0x1 and 0x%x: 0x%x", limit, mask));
+    }
+    if ((expected & ~mask) != 0) {
+      throw new IllegalArgumentException(String.format("Value 0x%x has bits outside mask 0x%x", expected, mask));
+    }
+    long timeout = arguments.getLong("timeout", DEFAULT_TIMEOUT);
+    if (timeout < 0 || timeout > maxTimeout.toMillis()) {
+      throw new IllegalArgumentException("Timeout must be between 0 and " + maxTimeout.toMillis() + " ms: " + timeout);
+    }
+    long interval = arguments.getLong("interval", DEFAULT_INTERVAL);
+    double backoff = arguments.getDouble("backoff", 1.0);
+    long maxInterval = arguments.getLong("maxInterval", Math.max(1000, interval));
+    if (interval < 1 || maxInterval < interval) {
+      throw new IllegalArgumentException("Interval must be at least 1 ms and not above maxInterval: " + interval);
+    }
+    if (!(backoff >= 1.0)) {
+      throw new IllegalArgumentException("Backoff must be at least 1: " + backoff);
+    }
+    boolean ignoreErrors = arguments.getBoolean("ignoreErrors", false);
+
+    I2CCommand command = new I2CCommand(bus, address, register, null, "read", word ? "w" : "b");
+    String format = word ? "0x%04x" : "0x%02x";
+    long start = System.nanoTime();
+    long deadline = start + timeout * 1_000_000L;
+    double delay = interval;
+    int polls = 0;
+    Integer value = null;
+    String lastError = null;
+    while (true) {
+      I2CResponse response = i2cService.executeCommand(command);
+      polls++;
+      if (response.isSuccess()) {
+        try {
+          value = Integer.decode(response.getData().trim()) & limit;
+          lastError = null;
+        } catch (NumberFormatException e) {
+          return McpToolResult.error("Cannot parse read output: " + response.getData());
+        }
+        if ((value & mask) == expected) {
+          long elapsed = elapsedMs(start);
+          return McpToolResult.success(String.format("%s = " + format + " after %d polls in %d ms", register, value,
+                                                     polls, elapsed),
+                                       result(bus, address, register, format, mask, expected, value, true, polls,
+                                              elapsed, null));
+        }
+      } else if (!ignoreErrors) {
+        return ToolHandler.busError(response);
+      } else {
+        lastError = response.getError();
+      }
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        break;
+      }
+      try {
+        Thread.sleep(Math.min((long) delay, Math.max(1, remaining / 1_000_000L)));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return McpToolResult.error("Wait interrupted after " + polls + " polls");
+      }
+      delay = Math.min(delay * backoff, maxInterval);
+    }
+    long elapsed = elapsedMs(start);
+    String last = value != null ? String.format(format, value) : "none";
+    McpToolResult result = McpToolResult.error(String.format("Timeout after %d polls in %d ms: %s & " + format
+                                                             + " != " + format + ", last value %s", polls, elapsed,
+                                                             register, mask, expected, last)
+                                               + (lastError != null ? ", last error: " + lastError : ""));
+    result.setStructuredContent(result(bus, address, register, format, mask, expected, value, false, polls, elapsed,
+                                       lastError));
+    return result;
+  }
+
+  private static long elapsedMs(long start)
+  {
+    return (System.nanoTime() - start) / 1_000_000L;
+  }
+
+  private static Map<String, Object> result(int bus, String address, String register, String format, int mask,
+                                            int expected, Integer value, boolean matched, int polls, long elapsed,
+                                            String error)
+  {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("bus", bus);
+    result.put("address", address);
+    result.put("register", register);
+    result.put("mask", String.format(format, mask));
+    result.put("expected", String.format(format, expected));
+    if (value != null) {
+      result.put("value", String.format(format, value));
+    }
+    result.put("matched", matched);
+    result.put("polls", polls);
+    result.put("elapsed", elapsed);
+    if (error != null) {
+      result.put("error", error);
+    }
+    return result;
+  }
+}
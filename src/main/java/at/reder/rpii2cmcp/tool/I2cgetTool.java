@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.DataDecoder;
+import at.reder.rpii2cmcp.service.I2CService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool reading a register of an I2C device.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class I2cgetTool implements ToolHandler {
+
+  static final String NAME = "i2cget";
+
+  @Inject
+  I2CService i2cService;
+
+  @Override
+  public int order()
+  {
+    return 10;
+  }
+
+  @Override
+  public McpTool definition()
+  {
+    return new McpTool(
+            NAME,
+            "Read a byte from an I2C device register. Returns the value in hex format.",
+            ToolSchema.object()
+                    .busAndAddress()
+                    .required("register", "string", "Register address to read from in hex format (e.g., 0x00)")
+                    .optional("mode", "string",
+                              "Data Mode: b for one byte (default can be omitted), w for word and i <number> for reading/writing <number> bytes (e.g. i 4 for 32bit double word)")
+                    .property("format", Map.of(
+                              "type", "array",
+                              "items", Map.of("type", "string", "enum", DataDecoder.VIEWS),
+                              "description",
+                              "Optional decoded views returned as structured content: u8, s8, u16, s16, u32, s32, hex, base64 "
+                              + "or bytes (raw bytes, native byte string in CBOR responses)"), false)
+                    .property("endian", Map.of(
+                              "type", "string",
+                              "enum", List.of("little", "big"),
+                              "description", "Byte order for 16 and 32 bit views (default: little, the SMBus word order)"), false)
+                    .scheduling()
+                    .build()
+    );
+  }
+
+  @Override
+  public McpToolResult call(ToolArguments arguments)
+  {
+    int bus = arguments.getInt("bus");
+    String address = arguments.getString("address");
+    String register = arguments.getString("register");
+    String mode = arguments.getOptionalString("mode");
+    List<String> formats = arguments.getStringList("format");
+    DataDecoder.validateViews(formats);
+    ByteOrder order = DataDecoder.parseByteOrder(arguments.getOptionalString("endian"));
+
+    I2CCommand command = new I2CCommand(bus, address, register, null, "read", mode);
+    I2CResponse response = i2cService.executeCommand(command);
+
+    if (response.isSuccess()) {
+      if (formats.isEmpty()) {
+        return McpToolResult.success(response.getData());
+      }
+      if (response.getBytes() == null) {
+        return McpToolResult.error("Cannot decode device response: " + response.getData());
+      }
+      return McpToolResult.success(response.getData(), DataDecoder.decode(response.getBytes(), formats, order));
+    } else {
+      return ToolHandler.busError(response);
+    }
+  }
+}
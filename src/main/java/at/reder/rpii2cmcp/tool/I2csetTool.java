@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.I2CService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Tool writing a register of an I2C device.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class I2csetTool implements ToolHandler {
+
+  static final String NAME = "i2cset";
+
+  @Inject
+  I2CService i2cService;
+
+  @Override
+  public int order()
+  {
+    return 20;
+  }
+
+  @Override
+  public McpTool definition()
+  {
+    return new McpTool(
+            NAME,
+            "Write a byte to an I2C device register.",
+            ToolSchema.object()
+                    .busAndAddress()
+                    .required("register", "string", "Register address to write to in hex format (e.g., 0x00)")
+                    .required("value", "string", "Value to write in hex format (e.g., 0xFF)")
+                    .optional("force", "boolean", "Write even if the shadow copy of the register already holds the "
+                              + "value (default: false)")
+                    .scheduling()
+                    .build()
+    );
+  }
+
+  @Override
+  public McpToolResult call(ToolArguments arguments)
+  {
+    int bus = arguments.getInt("bus");
+    String address = arguments.getString("address");
+    String register = arguments.getString("register");
+    String value = arguments.getString("value");
+    String mode = arguments.getOptionalString("mode");
+
+    I2CCommand command = new I2CCommand(bus, address, register, value, "write", mode);
+    command.setForce(arguments.getBoolean("force", false));
+    I2CResponse response = i2cService.executeCommand(command);
+
+    if (response.isSuccess()) {
+      return McpToolResult.success(response.getData());
+    } else {
+      return ToolHandler.busError(response);
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.model.profile.DeviceProfile;
+import at.reder.rpii2cmcp.model.profile.RegisterDefinition;
+import at.reder.rpii2cmcp.service.DeviceProfileService;
+import at.reder.rpii2cmcp.service.MonitorService;
+import at.reder.rpii2cmcp.service.ThresholdMonitor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool managing server side threshold monitors. Edges are delivered on the <code>/events</code> stream.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class MonitorTool implements ToolHandler {
+
+  static final String NAME = "monitor";
+
+  @Inject
+  MonitorService monitorService;
+
+  @Inject
+  DeviceProfileService deviceProfileService;
+
+  @Override
+  public int order()
+  {
+    return 40;
+  }
+
+  @Override
+  public McpTool definition()
+  {
+    return new McpTool(
+            NAME,
+            "Manage server side threshold monitors. A monitor samples a register at a fixed interval and publishes an "
+            + "event on the /events stream (server-sent events) only when the value rises to the threshold or falls "
+            + "below threshold minus hysteresis, instead of the client polling i2cget.",
+            ToolSchema.object()
+                    .property("action", Map.of(
+                              "type", "string",
+                              "enum", List.of("add", "remove", "list"),
+                              "description", "add a monitor, remove a monitor by id or list all monitors"), true)
+                    .optional("id", "string", "Monitor id (add: optional, generated if missing; remove: required)")
+                    .optional("bus", "integer", "I2C bus number (add)")
+                    .optional("address", "string", "I2C device address in hex format, e.g. 0x48 (add)")
+                    .optional("register", "string",
+                              "Register address in hex format, or the register name if a profile is given (add)")
+                    .optional("profile", "string", "Device profile providing the decode rule of the register (add)")
+                    .optional("width", "integer", "Register width in bytes, 1-4 (add without profile, default: 1)")
+                    .optional("endian", "string", "Byte order 'big' or 'little' (add without profile, default: big)")
+                    .optional("signed", "boolean", "Two's complement value (add without profile, default: false)")
+                    .optional("shift", "integer", "Right shift before scaling (add without profile, default: 0)")
+                    .optional("scale", "number", "Scale factor (add without profile)")
+                    .optional("offset", "number", "Offset added after scaling (add without profile)")
+                    .optional("unit", "string", "Unit of the scaled value (add without profile)")
+                    .optional("threshold", "number", "Upper trip point in scaled units (add)")
+                    .optional("hysteresis", "number", "Lower trip point distance below the threshold (add, default: 0)")
+                    .optional("interval", "integer", "Sampling interval in milliseconds (add, default: 1000)")
+                    .build()
+    );
+  }
+
+  @Override
+  public McpToolResult call(ToolArguments arguments)
+  {
+    String action = arguments.getString("action");
+    switch (action) {
+      case "add":
+        return add(arguments);
+      case "remove": {
+        String id = arguments.getString("id");
+        if (!monitorService.remove(id)) {
+          return McpToolResult.error("Unknown monitor: " + id);
+        }
+        return McpToolResult.success("Monitor " + id + " removed");
+      }
+      case "list": {
+        List<Map<String, Object>> monitors = monitorService.getMonitors().stream().map(ThresholdMonitor::toMap).toList();
+        StringBuilder text = new StringBuilder(monitors.size() + " monitors");
+        for (Map<String, Object> monitor : monitors) {
+          text.append('\n').append(describe(monitor));
+        }
+        return McpToolResult.success(text.toString(), Map.of("monitors", monitors));
+      }
+      default:
+        throw new IllegalArgumentException("Invalid action: " + action + ". Valid actions are: add, remove, list");
+    }
+  }
+
+  private McpToolResult add(ToolArguments arguments)
+  {
+    int bus = arguments.getInt("bus");
+    String address = arguments.getString("address");
+    if (!arguments.has("threshold")) {
+      throw new IllegalArgumentException("Missing required argument: threshold");
+    }
+    double threshold = arguments.getDouble("threshold", 0);
+    double hysteresis = arguments.getDouble("hysteresis", 0);
+    long interval = arguments.getLong("interval", 1000);
+    RegisterDefinition register = registerDefinition(arguments);
+
+    try {
+      ThresholdMonitor monitor = monitorService.add(arguments.getOptionalString("id"), bus, address, register,
+                                                    threshold, hysteresis, interval);
+      Map<String, Object> state = monitor.toMap();
+      return McpToolResult.success("Monitor added: " + describe(state), state);
+    } catch (IOException e) {
+      return McpToolResult.error(e.getMessage());
+    }
+  }
+
+  private RegisterDefinition registerDefinition(ToolArguments arguments)
+  {
+    String register = arguments.getString("register");
+    String profileName = arguments.getOptionalString("profile");
+    if (profileName != null) {
+      DeviceProfile profile = deviceProfileService.getProfile(profileName);
+      RegisterDefinition definition = profile.getRegister(register);
+      if (definition == null) {
+        throw new IllegalArgumentException("Unknown register " + register + " in profile " + profileName);
+      }
+      return definition;
+    }
+    RegisterDefinition definition = new RegisterDefinition(register, register, arguments.getInt("width", 1));
+    if (arguments.has("endian")) {
+      definition.setEndian(arguments.getString("endian"));
+    }
+    definition.setSigned(arguments.getBoolean("signed", false));
+    definition.setShift(arguments.getInt("shift", 0));
+    if (arguments.has("scale")) {
+      definition.setScale(arguments.getDouble("scale", 1.0));
+    }
+    if (arguments.has("offset")) {
+      definition.setOffset(arguments.getDouble("offset", 0.0));
+    }
+    definition.setUnit(arguments.getOptionalString("unit"));
+    return definition;
+  }
+
+  static String describe(Map<String, Object> monitor)
+  {
+    StringBuilder text = new StringBuilder();
+    text.append(monitor.get("id")).append(": ").append(monitor.get("name"))
+            .append(" at ").append(monitor.get("address")).append(" on bus ").append(monitor.get("bus"));
+    if (monitor.containsKey("value")) {
+      text.append(" = ").append(monitor.get("value"));
+      if (monitor.containsKey("unit")) {
+        text.append(' ').append(monitor.get("unit"));
+      }
+    }
+    text.append(", ").append(monitor.get("state")).append(" threshold ").append(monitor.get("threshold"))
+            .append(" (hysteresis ").append(monitor.get("hysteresis")).append("), every ")
+            .append(monitor.get("interval")).append(" ms");
+    if (monitor.containsKey("error")) {
+      text.append(", error: ").append(monitor.get("error"));
+    }
+    return text.toString();
+  }
+}
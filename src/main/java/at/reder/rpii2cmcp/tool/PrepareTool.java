@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.DataDecoder;
+import at.reder.rpii2cmcp.service.PreparedCommand;
+import at.reder.rpii2cmcp.service.PreparedCommandService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool managing prepared commands, which are invoked by handle with the {@link ExecTool}.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class PrepareTool implements ToolHandler {
+
+  static final String NAME = "prepare";
+
+  @Inject
+  PreparedCommandService preparedCommandService;
+
+  @Override
+  public int order()
+  {
+    return 27;
+  }
+
+  @Override
+  public McpTool definition()
+  {
+    return new McpTool(
+            NAME,
+            "Prepare a read or write that is executed often. The command is validated once and bound to a short "
+            + "handle; the exec tool then only needs the handle (and the value of writes without a bound value).",
+            ToolSchema.object()
+                    .property("action", Map.of(
+                              "type", "string",
+                              "enum", List.of("add", "remove", "list"),
+                              "description", "add a prepared command, remove one by handle or list all"), true)
+                    .property("operation", Map.of(
+                              "type", "string",
+                              "enum", List.of("read", "write"),
+                              "description", "Operation of the command (add)"), false)
+                    .optional("bus", "integer", "I2C bus number (add)")
+                    .optional("address", "string", "I2C device address in hex format, e.g. 0x48 (add)")
+                    .optional("register", "string", "Register address in hex format (add)")
+                    .optional("mode", "string", "Data mode of a read: b, w or i <number> (add)")
+                    .optional("value", "string", "Value of a write in hex format (add, optional: without value each "
+                              + "exec passes the value)")
+                    .property("format", Map.of(
+                              "type", "array",
+                              "items", Map.of("type", "string", "enum", DataDecoder.VIEWS),
+                              "description", "Decoded views of a read, as for i2cget (add)"), false)
+                    .property("endian", Map.of(
+                              "type", "string",
+                              "enum", List.of("little", "big"),
+                              "description", "Byte order for 16 and 32 bit views (add, default: little)"), false)
+                    .optional("handle", "string", "Handle of the command (remove)")
+                    .build()
+    );
+  }
+
+  @Override
+  public McpToolResult call(ToolArguments arguments)
+  {
+    String action = arguments.getString("action");
+    switch (action) {
+      case "add": {
+        I2CCommand command = new I2CCommand(arguments.getInt("bus"),
+                                            arguments.getString("address"),
+                                            arguments.getString("register"),
+                                            arguments.getOptionalString("value"),
+                                            arguments.getString("operation"),
+                                            arguments.getOptionalString("mode"));
+        PreparedCommand prepared = preparedCommandService.prepare(
+                command,
+                arguments.getStringList("format"),
+                DataDecoder.parseByteOrder(arguments.getOptionalString("endian")));
+        return McpToolResult.success(prepared.getHandle(), prepared.toMap());
+      }
+      case "remove": {
+        String handle = arguments.getString("handle");
+        if (!preparedCommandService.release(handle)) {
+          return McpToolResult.error("Unknown prepared command: " + handle);
+        }
+        return McpToolResult.success("Prepared command " + handle + " removed");
+      }
+      case "list": {
+        List<Map<String, Object>> commands = preparedCommandService.getCommands().stream()
+                .map(PreparedCommand::toMap)
+                .toList();
+        StringBuilder text = new StringBuilder(commands.size() + " prepared commands");
+        for (Map<String, Object> command : commands) {
+          text.append('\n').append(command.get("handle")).append(": ").append(command.get("operation"))
+                  .append(' ').append(command.get("register")).append(" of ").append(command.get("address"))
+                  .append(" on bus ").append(command.get("bus"));
+        }
+        return McpToolResult.success(text.toString(), Map.of("commands", commands));
+      }
+      default:
+        throw new IllegalArgumentException("Invalid action: " + action + ". Valid actions are: add, remove, list");
+    }
+  }
+}
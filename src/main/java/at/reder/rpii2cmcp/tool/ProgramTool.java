@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.Program;
+import at.reder.rpii2cmcp.service.ProgramService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool running transaction programs on the server: sequences of reads, writes and delays with conditionals and
+ * loops, e.g. a device bring-up, executed in one call instead of one tool call per bus operation.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class ProgramTool implements ToolHandler {
+
+  static final String NAME = "program";
+
+  @Inject
+  ProgramService programService;
+
+  @Override
+  public int order()
+  {
+    return 35;
+  }
+
+  @Override
+  public McpTool definition()
+  {
+    return new McpTool(
+            NAME,
+            "Run a program of bus operations on the server in one call, or store it by name for repeated runs. "
+            + "Steps are objects with an 'op': read (register, mode b|w, as: variable name), write (register, value), "
+            + "delay (ms), if (var, mask, equals, then: steps, else: steps), loop (count, body: steps, until: "
+            + "{var, mask, equals}) and fail (message). Conditions test (var & mask) == equals, without var the last "
+            + "value read. Reads and writes may name another address. Returns the values read in order.",
+            ToolSchema.object()
+                    .property("action", Map.of(
+                              "type", "string",
+                              "enum", List.of("run", "store", "remove", "list"),
+                              "description", "run a program, store a program by name, remove a stored program or "
+                              + "list the stored programs"), true)
+                    .optional("name", "string", "Program name (store, remove; run: instead of steps)")
+                    .property("steps", Map.of(
+                              "type", "array",
+                              "items", Map.of("type", "object"),
+                              "description", "Program steps (store; run: instead of name)"), false)
+                    .optional("bus", "integer", "I2C bus number (run)")
+                    .optional("address", "string", "I2C device address in hex format, e.g. 0x48 (run)")
+                    .scheduling()
+                    .build()
+    );
+  }
+
+  @Override
+  public McpToolResult call(ToolArguments arguments)
+  {
+    String action = arguments.getString("action");
+    switch (action) {
+      case "run":
+        return run(arguments);
+      case "store": {
+        Program program = programService.store(arguments.getString("name"), arguments.asMap().get("steps"));
+        return McpToolResult.success("Program " + program.getName() + " stored with " + program.getSize()
+                                     + " instructions", program.toMap());
+      }
+      case "remove": {
+        String name = arguments.getString("name");
+        if (!programService.remove(name)) {
+          return McpToolResult.error("Unknown program: " + name);
+        }
+        return McpToolResult.success("Program " + name + " removed");
+      }
+      case "list": {
+        List<Map<String, Object>> programs = programService.getPrograms().stream().map(Program::toMap).toList();
+        StringBuilder text = new StringBuilder(programs.size() + " programs");
+        for (Map<String, Object> program : programs) {
+          text.append('\n').append(program.get("name")).append(": ").append(program.get("instructions"))
+                  .append(" instructions");
+        }
+        return McpToolResult.success(text.toString(), Map.of("programs", programs));
+      }
+      default:
+        throw new IllegalArgumentException("Invalid action: " + action + ". Valid actions are: run, store, remove, list");
+    }
+  }
+
+  private McpToolResult run(ToolArguments arguments)
+  {
+    int bus = arguments.getInt("bus");
+    String address = arguments.getString("address");
+    Program program;
+    if (arguments.has("name")) {
+      String name = arguments.getString("name");
+      program = programService.getProgram(name);
+      if (program == null) {
+        return McpToolResult.error("Unknown program: " + name);
+      }
+    } else if (arguments.has("steps")) {
+      program = programService.compile(arguments.asMap().get("steps"));
+    } else {
+      throw new IllegalArgumentException("Missing required argument: name or steps");
+    }
+    ProgramService.Result result = programService.run(program, bus, address);
+    Map<String, Object> content = result.toMap();
+    if (!result.isSuccess()) {
+      McpToolResult error = McpToolResult.error("Program failed at " + result.step() + ": " + result.error());
+      error.setStructuredContent(content);
+      return error;
+    }
+    StringBuilder text = new StringBuilder();
+    text.append(result.reads().size()).append(" reads in ").append(result.steps()).append(" steps, ")
+            .append(result.elapsed()).append(" ms");
+    for (Map<String, Object> read : result.reads()) {
+      text.append('\n').append(read.get("register")).append(": ").append(read.get("value"));
+    }
+    return McpToolResult.success(text.toString(), content);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.model.profile.DeviceProfile;
+import at.reder.rpii2cmcp.service.DeviceProfileRegistry;
+import at.reder.rpii2cmcp.service.DeviceProfileService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool reading all registers of a device described by a device profile.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class ReadDeviceTool implements ToolHandler {
+
+  static final String NAME = "read_device";
+
+  @Inject
+  DeviceProfileService deviceProfileService;
+
+  @Inject
+  DeviceProfileRegistry deviceProfileRegistry;
+
+  @Override
+  public int order()
+  {
+    return 30;
+  }
+
+  @Override
+  public McpTool definition()
+  {
+    List<String> profiles = deviceProfileRegistry.getProfiles().stream()
+            .filter(profile -> !profile.getRegisters().isEmpty())
+            .map(DeviceProfile::getName)
+            .toList();
+    return new McpTool(
+            NAME,
+            "Read all registers of a device described by a device profile with as few bus transactions as possible. "
+            + "Returns decoded values in engineering units and bit fields as structured content.",
+            ToolSchema.object()
+                    .busAndAddress()
+                    .property("profile", Map.of(
+                              "type", "string",
+                              "enum", profiles,
+                              "description", "Name of the device profile describing the register layout"), true)
+                    .property("registers", Map.of(
+                              "type", "array",
+                              "items", Map.of("type", "string"),
+                              "description", "Names of the registers to read (default: all registers of the profile)"), false)
+                    .scheduling()
+                    .build()
+    );
+  }
+
+  @Override
+  public McpToolResult call(ToolArguments arguments)
+  {
+    int bus = arguments.getInt("bus");
+    String address = arguments.getString("address");
+    String profile = arguments.getString("profile");
+    List<String> registers = arguments.getStringList("registers");
+
+    try {
+      Map<String, Object> reading = deviceProfileService.readDevice(bus, address, profile, registers);
+      return McpToolResult.success(formatReading(reading), reading);
+    } catch (IOException e) {
+      return McpToolResult.error(e.getMessage());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  static String formatReading(Map<String, Object> reading)
+  {
+    StringBuilder text = new StringBuilder();
+    Map<String, Object> registers = (Map<String, Object>) reading.get("registers");
+    for (Map.Entry<String, Object> entry : registers.entrySet()) {
+      Map<String, Object> register = (Map<String, Object>) entry.getValue();
+      text.append(entry.getKey()).append(" = ").append(register.get("value"));
+      if (register.containsKey("unit")) {
+        text.append(' ').append(register.get("unit"));
+      }
+      text.append('\n');
+    }
+    return text.toString().trim();
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.Priority;
+import at.reder.rpii2cmcp.service.RegisterSnapshot;
+import at.reder.rpii2cmcp.service.SnapshotService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool capturing register snapshots of devices and comparing them with each other or with the live state.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class SnapshotTool implements ToolHandler {
+
+  static final String NAME = "snapshot";
+
+  @Inject
+  SnapshotService snapshotService;
+
+  @Override
+  public int order()
+  {
+    return 31;
+  }
+
+  @Override
+  public Priority priority()
+  {
+    return Priority.BULK;
+  }
+
+  @Override
+  public McpTool definition()
+  {
+    return new McpTool(
+            NAME,
+            "Capture the full register state of a device with block reads and store it under an id, then diff two "
+            + "snapshots or a snapshot against the live device. Diffs return only the changed registers.",
+            ToolSchema.object()
+                    .property("action", Map.of(
+                              "type", "string",
+                              "enum", List.of("capture", "diff", "list", "remove"),
+                              "description", "capture a snapshot, diff snapshots, list or remove snapshots"), true)
+                    .optional("bus", "integer", "I2C bus number (capture)")
+                    .optional("address", "string", "I2C device address in hex format, e.g. 0x48 (capture)")
+                    .optional("profile", "string", "Device profile whose registers are captured (capture, default: "
+                              + "the register range)")
+                    .optional("start", "string", "First register of the range in hex format (capture, default: 0x00)")
+                    .optional("end", "string", "Last register of the range in hex format (capture, default: 0xff)")
+                    .optional("values", "boolean", "Return the register values of the snapshot (capture, default: "
+                              + "false)")
+                    .optional("id", "string", "Snapshot id (diff, remove)")
+                    .optional("other", "string", "Snapshot id to compare with (diff, default: the live state)")
+                    .scheduling()
+                    .build()
+    );
+  }
+
+  @Override
+  public McpToolResult call(ToolArguments arguments)
+  {
+    String action = arguments.getString("action");
+    try {
+      switch (action) {
+        case "capture": {
+          RegisterSnapshot snapshot = snapshotService.capture(
+                  arguments.getInt("bus"),
+                  arguments.getString("address"),
+                  arguments.getOptionalString("profile"),
+                  arguments.has("start") ? arguments.getHexInt("start") : 0x00,
+                  arguments.has("end") ? arguments.getHexInt("end") : 0xff);
+          Map<String, Object> result = new LinkedHashMap<>(snapshot.toMap());
+          if (arguments.getBoolean("values", false)) {
+            result.put("values", snapshot.valuesToMap());
+          }
+          return McpToolResult.success(String.format("Snapshot %s of %d registers with %d transactions, hash %s",
+                                                     snapshot.getId(), snapshot.getValues().size(),
+                                                     snapshot.getTransactions(), snapshot.getHash()), result);
+        }
+        case "diff": {
+          SnapshotService.Diff diff = snapshotService.diff(arguments.getString("id"),
+                                                           arguments.getOptionalString("other"));
+          return McpToolResult.success(formatDiff(diff), diff.toMap());
+        }
+        case "list": {
+          List<Map<String, Object>> snapshots = snapshotService.getSnapshots().stream()
+                  .map(RegisterSnapshot::toMap)
+                  .toList();
+          StringBuilder text = new StringBuilder(snapshots.size() + " snapshots");
+          for (Map<String, Object> snapshot : snapshots) {
+            text.append('\n').append(snapshot.get("id")).append(": ").append(snapshot.get("registers"))
+                    .append(" registers of ").append(snapshot.get("address")).append(" on bus ")
+                    .append(snapshot.get("bus"));
+          }
+          return McpToolResult.success(text.toString(), Map.of("snapshots", snapshots));
+        }
+        case "remove": {
+          String id = arguments.getString("id");
+          if (!snapshotService.remove(id)) {
+            return McpToolResult.error("Unknown snapshot: " + id);
+          }
+          return McpToolResult.success("Snapshot " + id + " removed");
+        }
+        default:
+          throw new IllegalArgumentException("Invalid action: " + action
+                  + ". Valid actions are: capture, diff, list, remove");
+      }
+    } catch (IOException e) {
+      return McpToolResult.error(e.getMessage());
+    }
+  }
+
+  static String formatDiff(SnapshotService.Diff diff)
+  {
+    String to = diff.to().getId() != null ? diff.to().getId() : "live state";
+    if (diff.changes().isEmpty()) {
+      return "No changes between " + diff.from().getId() + " and " + to;
+    }
+    StringBuilder text = new StringBuilder();
+    text.append(diff.changes().size()).append(" registers changed between ").append(diff.from().getId())
+            .append(" and ").append(to);
+    for (SnapshotService.Change change : diff.changes()) {
+      text.append('\n').append(change.name());
+      if (!change.name().equals(change.register())) {
+        text.append(" (").append(change.register()).append(')');
+      }
+      text.append(": ").append(change.before() != null ? change.before() : "-")
+              .append(" -> ").append(change.after() != null ? change.after() : "-");
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed access to the arguments of a tool call.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public final class ToolArguments {
+
+  private final Map<String, Object> arguments;
+
+  /**
+   * Creates a new argument binder.
+   *
+   * @param arguments the raw arguments, may be null
+   */
+  public ToolArguments(Map<String, Object> arguments)
+  {
+    this.arguments = arguments != null ? arguments : Map.of();
+  }
+
+  /**
+   * Gets the raw arguments.
+   *
+   * @return the arguments
+   */
+  public Map<String, Object> asMap()
+  {
+    return arguments;
+  }
+
+  /**
+   * Checks whether an argument is present.
+   *
+   * @param name the argument name
+   * @return true if the argument is present and not null
+   */
+  public boolean has(String name)
+  {
+    return arguments.get(name) != null;
+  }
+
+  /**
+   * Gets a required integer argument.
+   *
+   * @param name the argument name
+   * @return the value
+   * @throws IllegalArgumentException if the argument is missing or not a number
+   */
+  public int getInt(String name)
+  {
+    Object value = require(name);
+    if (value instanceof Number number) {
+      return number.intValue();
+    }
+    return Integer.parseInt(value.toString());
+  }
+
+  /**
+   * Gets a required integer argument that may also be given as hex string, e.g. a bit mask like "0x0f".
+   *
+   * @param name the argument name
+   * @return the value
+   * @throws IllegalArgumentException if the argument is missing or not a number
+   */
+  public int getHexInt(String name)
+  {
+    Object value = require(name);
+    if (value instanceof Number number) {
+      return number.intValue();
+    }
+    return Integer.decode(value.toString().trim());
+  }
+
+  /**
+   * Gets an optional integer argument.
+   *
+   * @param name the argument name
+   * @param defaultValue the value returned if the argument is missing
+   * @return the value
+   * @throws IllegalArgumentException if the argument is not a number
+   */
+  public int getInt(String name, int defaultValue)
+  {
+    return has(name) ? getInt(name) : defaultValue;
+  }
+
+  /**
+   * Gets an optional long argument.
+   *
+   * @param name the argument name
+   * @param defaultValue the value returned if the argument is missing
+   * @return the value
+   * @throws IllegalArgumentException if the argument is not a number
+   */
+  public long getLong(String name, long defaultValue)
+  {
+    Object value = arguments.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    if (value instanceof Number number) {
+      return number.longValue();
+    }
+    return Long.parseLong(value.toString());
+  }
+
+  /**
+   * Gets an optional floating point argument.
+   *
+   * @param name the argument name
+   * @param defaultValue the value returned if the argument is missing
+   * @return the value
+   * @throws IllegalArgumentException if the argument is not a number
+   */
+  public double getDouble(String name, double defaultValue)
+  {
+    Object value = arguments.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    if (value instanceof Number number) {
+      return number.doubleValue();
+    }
+    return Double.parseDouble(value.toString());
+  }
+
+  /**
+   * Gets an optional boolean argument.
+   *
+   * @param name the argument name
+   * @param defaultValue the value returned if the argument is missing
+   * @return the value
+   */
+  public boolean getBoolean(String name, boolean defaultValue)
+  {
+    Object value = arguments.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    if (value instanceof Boolean bool) {
+      return bool;
+    }
+    return Boolean.parseBoolean(value.toString());
+  }
+
+  /**
+   * Gets a required string argument.
+   *
+   * @param name the argument name
+   * @return the value
+   * @throws IllegalArgumentException if the argument is missing
+   */
+  public String getString(String name)
+  {
+    return require(name).toString();
+  }
+
+  /**
+   * Gets an optional string argument.
+   *
+   * @param name the argument name
+   * @return the value, or null if the argument is missing
+   */
+  public String getOptionalString(String name)
+  {
+    Object value = arguments.get(name);
+    if (value == null) {
+      return null;
+    }
+    return value.toString();
+  }
+
+  /**
+   * Gets an optional list of strings. The argument may be a JSON array or a comma separated string.
+   *
+   * @param name the argument name
+   * @return the values, empty if the argument is missing
+   */
+  public List<String> getStringList(String name)
+  {
+    Object value = arguments.get(name);
+    List<String> result = new ArrayList<>();
+    if (value instanceof List<?> list) {
+      for (Object item : list) {
+        result.add(item.toString().trim());
+      }
+    } else if (value != null) {
+      for (String item : value.toString().split(",")) {
+        if (!item.isBlank()) {
+          result.add(item.trim());
+        }
+      }
+    }
+    return result;
+  }
+
+  private Object require(String name)
+  {
+    Object value = arguments.get(name);
+    if (value == null) {
+      throw new IllegalArgumentException("Missing required argument: " + name);
+    }
+    return value;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.Priority;
+import java.util.Map;
+
+/**
+ * An MCP tool. Implementations are CDI beans; they are discovered by the {@link ToolRegistry} and dispatched by name.
+ * Adding a tool only requires a new bean implementing this interface.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public interface ToolHandler {
+
+  /**
+   * Gets the tool definition with its input schema. Called once when the registry is built.
+   *
+   * @return the tool definition
+   */
+  McpTool definition();
+
+  /**
+   * Executes the tool.
+   *
+   * @param arguments the bound tool arguments
+   * @return the tool result
+   * @throws IllegalArgumentException if an argument is missing or invalid
+   */
+  McpToolResult call(ToolArguments arguments);
+
+  /**
+   * Gets the position of the tool in the tool list. Tools with lower values are listed first.
+   *
+   * @return the sort order
+   */
+  default int order()
+  {
+    return 100;
+  }
+
+  /**
+   * Gets the priority of calls that do not pass a <code>priority</code> argument, see {@link ToolSchema#scheduling()}.
+   *
+   * @return the default priority
+   */
+  default Priority priority()
+  {
+    return Priority.INTERACTIVE;
+  }
+
+  /**
+   * Converts a failed bus command into an error result. The classified cause is passed as structured content
+   * {@code {"code": "NACK"}}, so clients can react to it without parsing the message.
+   *
+   * @param response the failed response
+   * @return the error result
+   */
+  static McpToolResult busError(I2CResponse response)
+  {
+    if (response.getErrorCode() == null) {
+      return McpToolResult.error(response.getError());
+    }
+    return McpToolResult.error(response.getError(), Map.of("code", response.getErrorCode().name()));
+  }
+}
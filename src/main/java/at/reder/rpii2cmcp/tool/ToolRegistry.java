@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.Lane;
+import at.reder.rpii2cmcp.service.Priority;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jboss.logging.Logger;
+
+/**
+ * Registry of all MCP tools. The tool beans are resolved by ArC at build time; at startup the registry builds the tool
+ * definitions once and a hash based dispatch table, so a tool call costs a single map lookup. Each call runs in a
+ * {@link Lane} with the priority and deadline passed by the client or the default priority of the tool.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+@ApplicationScoped
+public class ToolRegistry {
+
+  private static final Logger LOG = Logger.getLogger(ToolRegistry.class);
+
+  @Inject
+  @Any
+  Instance<ToolHandler> handlers;
+
+  private Map<String, ToolHandler> dispatch;
+
+  private List<McpTool> definitions;
+
+  @PostConstruct
+  void init()
+  {
+    List<ToolHandler> sorted = new ArrayList<>();
+    handlers.forEach(sorted::add);
+    register(sorted);
+  }
+
+  /**
+   * Builds definitions and dispatch table from the given handlers.
+   *
+   * @param toolHandlers the tool handlers
+   * @throws IllegalStateException if two handlers use the same tool name
+   */
+  void register(List<ToolHandler> toolHandlers)
+  {
+    List<ToolHandler> sorted = new ArrayList<>(toolHandlers);
+    sorted.sort(Comparator.comparingInt(ToolHandler::order));
+    Map<String, ToolHandler> table = new HashMap<>();
+    List<McpTool> tools = new ArrayList<>();
+    for (ToolHandler handler : sorted) {
+      McpTool tool = handler.definition();
+      if (table.putIfAbsent(tool.getName(), handler) != null) {
+        throw new IllegalStateException("Duplicate tool name: " + tool.getName());
+      }
+      tools.add(tool);
+    }
+    dispatch = table;
+    definitions = List.copyOf(tools);
+    LOG.infof("Registered %d MCP tools", definitions.size());
+  }
+
+  /**
+   * Gets the definitions of all tools in list order.
+   *
+   * @return the tool definitions
+   */
+  public List<McpTool> getDefinitions()
+  {
+    return definitions;
+  }
+
+  /**
+   * Looks up a tool.
+   *
+   * @param name the tool name
+   * @return the handler, or null if there is no such tool
+   */
+  public ToolHandler getHandler(String name)
+  {
+    return name != null ? dispatch.get(name) : null;
+  }
+
+  /**
+   * Dispatches a tool call. The optional arguments <code>priority</code> and <code>deadline_ms</code> select the lane
+   * the bus transactions of the call are scheduled in.
+   *
+   * @param name the tool name
+   * @param arguments the raw tool arguments
+   * @return the tool result, or an error result for unknown tools
+   * @throws IllegalArgumentException if an argument is missing or invalid
+   */
+  public McpToolResult call(String name, Map<String, Object> arguments)
+  {
+    ToolHandler handler = getHandler(name);
+    if (handler == null) {
+      return McpToolResult.error("Unknown tool: " + name);
+    }
+    ToolArguments toolArguments = new ToolArguments(arguments);
+    Priority priority = toolArguments.has("priority") ? Priority.parse(toolArguments.getString("priority"))
+            : handler.priority();
+    long deadline = toolArguments.getLong("deadline_ms", 0);
+    if (deadline < 0) {
+      throw new IllegalArgumentException("deadline_ms must not be negative: " + deadline);
+    }
+    return Lane.call(priority, deadline > 0 ? Duration.ofMillis(deadline) : null, () -> handler.call(toolArguments));
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builder for the JSON schema of tool inputs.
+ *
+ * @author Wolfgang Reder
+ * @version 1.0.0
+ */
+public final class ToolSchema {
+
+  private final Map<String, Object> properties = new LinkedHashMap<>();
+  private final List<String> required = new ArrayList<>();
+
+  private ToolSchema()
+  {
+  }
+
+  /**
+   * Starts a new object schema.
+   *
+   * @return the builder
+   */
+  public static ToolSchema object()
+  {
+    return new ToolSchema();
+  }
+
+  /**
+   * Adds the bus number and device address properties shared by all device tools.
+   *
+   * @return the builder
+   */
+  public ToolSchema busAndAddress()
+  {
+    return required("bus", "integer",
+                    "I2C bus number (typically 0 or 1 on Raspberry Pi, or the virtual bus of a multiplexer channel)")
+            .required("address", "string", "I2C device address in hex format (e.g., 0x48)");
+  }
+
+  /**
+   * Adds the optional priority class and deadline of the bus transactions of a call, see {@link ToolRegistry#call}.
+   *
+   * @return the builder
+   */
+  public ToolSchema scheduling()
+  {
+    return property("priority", Map.of("type", "string", "enum", List.of("interactive", "monitoring", "bulk"),
+                                       "description", "Priority class of the bus transactions of this call"), false)
+            .optional("deadline_ms", "integer",
+                      "Time in milliseconds the call should complete in (default depends on the priority)");
+  }
+
+  /**
+   * Adds a required property.
+   *
+   * @param name the property name
+   * @param type the JSON type
+   * @param description the description
+   * @return the builder
+   */
+  public ToolSchema required(String name, String type, String description)
+  {
+    return property(name, Map.of("type", type, "description", description), true);
+  }
+
+  /**
+   * Adds an optional property.
+   *
+   * @param name the property name
+   * @param type the JSON type
+   * @param description the description
+   * @return the builder
+   */
+  public ToolSchema optional(String name, String type, String description)
+  {
+    return property(name, Map.of("type", type, "description", description), false);
+  }
+
+  /**
+   * Adds a property with a custom definition.
+   *
+   * @param name the property name
+   * @param definition the schema of the property
+   * @param isRequired whether the property is required
+   * @return the builder
+   */
+  public ToolSchema property(String name, Map<String, Object> definition, boolean isRequired)
+  {
+    properties.put(name, definition);
+    if (isRequired) {
+      required.add(name);
+    }
+    return this;
+  }
+
+  /**
+   * Builds the schema.
+   *
+   * @return the schema as map
+   */
+  public Map<String, Object> build()
+  {
+    Map<String, Object> schema = new LinkedHashMap<>();
+    schema.put("type", "object");
+    schema.put("properties", properties);
+    schema.put("required", List.copyOf(required));
+    return schema;
+  }
+}
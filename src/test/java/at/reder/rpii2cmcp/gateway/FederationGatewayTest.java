@@ -0,0 +1,298 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.gateway;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolCall;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.resource.ToolCatalog;
+import at.reder.rpii2cmcp.tool.ToolSchema;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for FederationGateway. Each node is simulated by a local HTTP server on its own port.
+ */
+@QuarkusTest
+class FederationGatewayTest {
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  @Inject
+  FederationGateway injected;
+
+  private final List<HttpServer> servers = new ArrayList<>();
+
+  private FederationGateway gateway;
+
+  private CountDownLatch bothNodesCalled;
+
+  @BeforeEach
+  void setUp() throws IOException
+  {
+    bothNodesCalled = new CountDownLatch(2);
+    HttpServer pi1 = startNode("pi1", List.of(tool("i2cget", true), tool("status", false)));
+    HttpServer pi2 = startNode("pi2", List.of(tool("i2cget", true), tool("i2cset", true)));
+    gateway = new FederationGateway();
+    gateway.objectMapper = objectMapper;
+    gateway.toolCatalog = mock(ToolCatalog.class);
+    gateway.timeout = Duration.ofSeconds(5);
+    gateway.catalogRefresh = Duration.ofSeconds(60);
+    gateway.enabled = true;
+    gateway.configure(List.of(
+            "pi1=http://localhost:" + pi1.getAddress().getPort(),
+            "pi2=http://localhost:" + pi2.getAddress().getPort()));
+  }
+
+  @AfterEach
+  void tearDown()
+  {
+    gateway.close();
+    servers.forEach(server -> server.stop(0));
+  }
+
+  private static McpTool tool(String name, boolean withBus)
+  {
+    ToolSchema schema = ToolSchema.object();
+    if (withBus) {
+      schema.busAndAddress();
+    }
+    return new McpTool(name, "Tool " + name, schema.build());
+  }
+
+  private HttpServer startNode(String name, List<McpTool> tools) throws IOException
+  {
+    return startNode(name, "", tools);
+  }
+
+  private HttpServer startNode(String name, String prefix, List<McpTool> tools) throws IOException
+  {
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(prefix + "/tools/list", exchange -> respond(exchange, objectMapper.writeValueAsBytes(tools)));
+    server.createContext(prefix + "/tools/call", exchange -> {
+      McpToolCall call = objectMapper.readValue(exchange.getRequestBody(), McpToolCall.class);
+      if ("empty".equals(call.getName())) {
+        respond(exchange, "null".getBytes(StandardCharsets.UTF_8));
+        return;
+      }
+      if ("parallel".equals(call.getName())) {
+        bothNodesCalled.countDown();
+        try {
+          if (!bothNodesCalled.await(5, TimeUnit.SECONDS)) {
+            respond(exchange, objectMapper.writeValueAsBytes(McpToolResult.error("not parallel")));
+            return;
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      McpToolResult result = McpToolResult.success(name + " " + call.getName() + " " + call.getArguments(),
+              Map.of("node", name));
+      respond(exchange, objectMapper.writeValueAsBytes(result));
+    });
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    servers.add(server);
+    return server;
+  }
+
+  private static void respond(HttpExchange exchange, byte[] body) throws IOException
+  {
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, body.length);
+    exchange.getResponseBody().write(body);
+    exchange.close();
+  }
+
+  @Test
+  void testDisabledByDefault()
+  {
+    assertFalse(injected.isEnabled());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testCatalogueIsMergedAndQualified()
+  {
+    List<McpTool> tools = gateway.getDefinitions();
+
+    assertEquals(List.of("i2cget", "status", "i2cset", "batch"), tools.stream().map(McpTool::getName).toList());
+    Map<String, Object> properties = (Map<String, Object>) tools.get(0).getInputSchema().get("properties");
+    assertEquals("string", ((Map<String, Object>) properties.get("bus")).get("type"));
+    Map<String, Object> status = tools.get(1).getInputSchema();
+    assertTrue(((Map<String, Object>) status.get("properties")).containsKey("node"));
+    assertTrue(((List<Object>) status.get("required")).contains("node"));
+  }
+
+  @Test
+  void testCatalogueRefresh()
+  {
+    gateway.getDefinitions();
+    gateway.refreshIfStale();
+    verify(gateway.toolCatalog, never()).invalidate();
+
+    gateway.catalogRefresh = Duration.ZERO;
+    gateway.getDefinitions();
+    gateway.refreshIfStale();
+    verify(gateway.toolCatalog).invalidate();
+  }
+
+  @Test
+  void testCallIsRoutedByQualifiedBus()
+  {
+    McpToolResult result = gateway.call("i2cget", Map.of("bus", "pi2:1", "address", "0x48"));
+
+    assertFalse(result.isError());
+    String text = result.getContent().get(0).getText();
+    assertTrue(text.startsWith("pi2 i2cget {"));
+    assertTrue(text.contains("bus=1"));
+    assertTrue(text.contains("address=0x48"));
+  }
+
+  @Test
+  void testCallIsRoutedByNode()
+  {
+    McpToolResult result = gateway.call("status", Map.of("node", "pi1"));
+
+    assertEquals("pi1 status {}", result.getContent().get(0).getText());
+  }
+
+  @Test
+  void testNodeBehindPathPrefix() throws IOException
+  {
+    HttpServer proxied = startNode("pi3", "/nodes/pi3", List.of(tool("i2cget", true)));
+    FederationGateway local = new FederationGateway();
+    local.objectMapper = objectMapper;
+    local.toolCatalog = mock(ToolCatalog.class);
+    local.timeout = Duration.ofSeconds(5);
+    local.catalogRefresh = Duration.ofSeconds(60);
+    local.enabled = true;
+    local.configure(List.of("pi3=http://localhost:" + proxied.getAddress().getPort() + "/nodes/pi3"));
+    try {
+      assertEquals(List.of("i2cget", "batch"), local.getDefinitions().stream().map(McpTool::getName).toList());
+      assertTrue(local.call("i2cget", Map.of("bus", "pi3:1")).getContent().get(0).getText().startsWith("pi3 i2cget"));
+    } finally {
+      local.close();
+    }
+  }
+
+  @Test
+  void testUnqualifiedBus()
+  {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> gateway.call("i2cget", Map.of("bus", 1)));
+
+    assertTrue(e.getMessage().startsWith("Bus must be node qualified"));
+  }
+
+  @Test
+  void testInvalidAndUnknownNode()
+  {
+    assertThrows(IllegalArgumentException.class, () -> gateway.call("i2cget", Map.of("bus", "pi1:x")));
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> gateway.call("i2cget", Map.of("bus", "pi9:1")));
+    assertEquals("Unknown node: pi9. Known nodes are: pi1, pi2", e.getMessage());
+    assertThrows(IllegalArgumentException.class, () -> gateway.call("status", Map.of()));
+  }
+
+  @Test
+  void testUnreachableNode()
+  {
+    servers.get(0).stop(0);
+
+    McpToolResult result = gateway.call("i2cget", Map.of("bus", "pi1:1"));
+
+    assertTrue(result.isError());
+    assertTrue(result.getContent().get(0).getText().startsWith("Node pi1 failed"));
+    assertEquals(List.of("i2cget", "i2cset", "batch"),
+            gateway.getDefinitions().stream().map(McpTool::getName).toList());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testBatchRunsNodesInParallel()
+  {
+    McpToolResult result = gateway.call("batch", Map.of("calls", List.of(
+            Map.of("name", "parallel", "arguments", Map.of("bus", "pi1:1")),
+            Map.of("name", "parallel", "arguments", Map.of("bus", "pi2:1")),
+            Map.of("name", "i2cget", "arguments", Map.of("bus", "pi1:0")))));
+
+    assertFalse(result.isError());
+    assertEquals("Executed 3 calls on 2 nodes, 0 failed", result.getContent().get(0).getText());
+    List<Map<String, Object>> results = (List<Map<String, Object>>) result.getStructuredContent().get("results");
+    assertEquals("pi1", results.get(0).get("node"));
+    assertEquals("pi2 parallel {bus=1}", results.get(1).get("text"));
+    assertEquals("pi1 i2cget {bus=0}", results.get(2).get("text"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testBatchWithEmptyNodeResponse()
+  {
+    McpToolResult result = gateway.call("batch", Map.of("calls", List.of(
+            Map.of("name", "empty", "arguments", Map.of("bus", "pi1:1")),
+            Map.of("name", "i2cget", "arguments", Map.of("bus", "pi2:1")))));
+
+    assertEquals("Executed 2 calls on 2 nodes, 1 failed", result.getContent().get(0).getText());
+    List<Map<String, Object>> results = (List<Map<String, Object>>) result.getStructuredContent().get("results");
+    assertEquals(true, results.get(0).get("isError"));
+    assertEquals("Node pi1 returned no result", results.get(0).get("text"));
+    assertEquals("pi2 i2cget {bus=1}", results.get(1).get("text"));
+    assertTrue(gateway.call("empty", Map.of("bus", "pi1:1")).isError());
+  }
+
+  @Test
+  void testBatchValidation()
+  {
+    assertThrows(IllegalArgumentException.class, () -> gateway.call("batch", Map.of()));
+    assertThrows(IllegalArgumentException.class, () -> gateway.call("batch", Map.of("calls", List.of("x"))));
+    assertThrows(IllegalArgumentException.class,
+            () -> gateway.call("batch", Map.of("calls", List.of(Map.of("name", "batch")))));
+  }
+
+  @Test
+  void testInvalidNodeConfiguration()
+  {
+    FederationGateway local = new FederationGateway();
+    local.timeout = Duration.ofSeconds(1);
+
+    assertThrows(IllegalArgumentException.class, () -> local.configure(List.of("pi1")));
+    assertThrows(IllegalArgumentException.class, () -> local.configure(List.of("a:b=http://x")));
+    assertThrows(IllegalArgumentException.class,
+            () -> local.configure(List.of("pi1=http://a", "pi1=http://b")));
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.junit.QuarkusTest;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for CallMix.
+ */
+@QuarkusTest
+class CallMixTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void testParse() throws IOException
+  {
+    CallMix mix = CallMix.parse(" i2cget = 70 , eeprom@bulk=30", 3, objectMapper);
+    List<CallMix.Entry> entries = mix.getEntries();
+    assertEquals(2, entries.size());
+    assertEquals("i2cget", entries.get(0).label());
+    assertEquals(70, entries.get(0).weight());
+    assertEquals("eeprom@bulk", entries.get(1).label());
+    assertEquals(30, entries.get(1).weight());
+
+    JsonNode call = objectMapper.readTree(entries.get(1).body());
+    assertEquals("eeprom", call.path("name").asText());
+    assertEquals(3, call.path("arguments").path("bus").asInt());
+    assertEquals("0x50", call.path("arguments").path("address").asText());
+    assertEquals("bulk", call.path("arguments").path("priority").asText());
+    assertTrue(objectMapper.readTree(entries.get(0).body()).path("arguments").path("priority").isMissingNode());
+  }
+
+  @Test
+  void testWriteEntries()
+  {
+    CallMix mix = CallMix.parse("i2cset=1,i2c_update_bits@interactive=1,i2cget=1,read_device=1,eeprom=1", 1,
+            objectMapper);
+    assertEquals(List.of(true, true, false, false, false),
+            mix.getEntries().stream().map(CallMix.Entry::write).toList());
+  }
+
+  @Test
+  void testDefaultMixes()
+  {
+    assertTrue(CallMix.parse(CallMix.DEFAULT, 1, objectMapper).getEntries().stream().anyMatch(CallMix.Entry::write));
+    assertTrue(CallMix.parse(CallMix.READ_ONLY, 1, objectMapper).getEntries().stream().noneMatch(CallMix.Entry::write));
+  }
+
+  @Test
+  void testInvalidMix()
+  {
+    for (String spec : List.of("", "i2cget", "=5", "i2cget=", "i2cget=x", "i2cget=0", "i2cget=-1", "i2cget=1,i2cget=2",
+            "i2cdetect=1")) {
+      assertThrows(IllegalArgumentException.class, () -> CallMix.parse(spec, 1, objectMapper), spec);
+    }
+  }
+
+  @Test
+  void testNextFollowsWeights()
+  {
+    CallMix mix = CallMix.parse("i2cget=3,read_device=1,eeprom=2", 1, objectMapper);
+    // returns 0, 1, 2, ... so every value below the total weight is drawn once
+    Random sequence = new Random() {
+      private int value;
+
+      @Override
+      public int nextInt(int bound)
+      {
+        assertEquals(6, bound);
+        return value++ % bound;
+      }
+    };
+    int[] picks = new int[6];
+    for (int i = 0; i < picks.length; i++) {
+      picks[i] = mix.next(sequence);
+    }
+    assertArrayEquals(new int[]{0, 0, 0, 1, 2, 2}, picks);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.loadtest;
+
+import io.quarkus.test.junit.QuarkusTest;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for Samples.
+ */
+@QuarkusTest
+class SamplesTest {
+
+  private static final long MS = 1_000_000L;
+
+  @Test
+  void testPercentile()
+  {
+    long[] sorted = new long[100];
+    for (int i = 0; i < sorted.length; i++) {
+      sorted[i] = i + 1;
+    }
+    assertEquals(1, Samples.percentile(sorted, 0));
+    assertEquals(50, Samples.percentile(sorted, 0.5));
+    assertEquals(95, Samples.percentile(sorted, 0.95));
+    assertEquals(99, Samples.percentile(sorted, 0.99));
+    assertEquals(100, Samples.percentile(sorted, 0.999));
+    assertEquals(100, Samples.percentile(sorted, 1));
+  }
+
+  @Test
+  void testPercentileOfFewSamples()
+  {
+    assertEquals(0, Samples.percentile(new long[0], 0.5));
+    assertEquals(7, Samples.percentile(new long[]{7}, 0.5));
+    assertEquals(7, Samples.percentile(new long[]{7}, 0.999));
+    assertEquals(1, Samples.percentile(new long[]{1, 2}, 0.5));
+    assertEquals(2, Samples.percentile(new long[]{1, 2}, 0.51));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testSummarize()
+  {
+    Samples samples = new Samples();
+    // recorded out of order, summarize sorts
+    for (int i = 1000; i > 0; i--) {
+      samples.record(i * MS, i == 1);
+    }
+    samples.fail();
+    Map<String, Object> summary = samples.summarize(2.0);
+    assertEquals(1000, summary.get("requests"));
+    assertEquals(2L, summary.get("errors"));
+    assertEquals(500.0, summary.get("throughput_rps"));
+    Map<String, Object> latency = (Map<String, Object>) summary.get("latency_ms");
+    assertEquals(500.0, latency.get("p50"));
+    assertEquals(950.0, latency.get("p95"));
+    assertEquals(990.0, latency.get("p99"));
+    assertEquals(999.0, latency.get("p999"));
+    assertEquals(1000.0, latency.get("max"));
+    assertEquals(500.5, latency.get("mean"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testSummarizeWithoutSamples()
+  {
+    Map<String, Object> summary = new Samples().summarize(1.0);
+    assertEquals(0, summary.get("requests"));
+    Map<String, Object> latency = (Map<String, Object>) summary.get("latency_ms");
+    assertEquals(0.0, latency.get("p50"));
+    assertEquals(0.0, latency.get("max"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testMerge()
+  {
+    Samples first = new Samples();
+    Samples second = new Samples();
+    for (int i = 1; i <= 1500; i++) {
+      first.record(i * MS, false);
+    }
+    for (int i = 1501; i <= 2000; i++) {
+      second.record(i * MS, i == 2000);
+    }
+    second.fail();
+    first.merge(second);
+    assertEquals(2000, first.getCount());
+    assertEquals(500, second.getCount());
+    Map<String, Object> summary = first.summarize(1.0);
+    assertEquals(2L, summary.get("errors"));
+    Map<String, Object> latency = (Map<String, Object>) summary.get("latency_ms");
+    assertEquals(1000.0, latency.get("p50"));
+    assertEquals(2000.0, latency.get("max"));
+  }
+}
@@ -98,4 +98,30 @@ class I2CResponseTest {
         assertNull(response.getError());
         assertNull(response.getCommand());
     }
+
+    @Test
+    void testFailure() {
+        I2CResponse response = I2CResponse.failure(I2CErrorCode.NACK, "Command failed: Error: Read failed", "cmd");
+
+        assertFalse(response.isSuccess());
+        assertEquals(I2CErrorCode.NACK, response.getErrorCode());
+        assertEquals("Command failed: Error: Read failed", response.getError());
+        assertNull(new I2CResponse("0x42", "cmd").getErrorCode());
+    }
+
+    @Test
+    void testClassifyErrorOutput() {
+        assertEquals(I2CErrorCode.NACK, I2CErrorCode.classify("Error: Read failed\n"));
+        assertEquals(I2CErrorCode.NACK, I2CErrorCode.classify("Error: Write failed\n"));
+        assertEquals(I2CErrorCode.NACK, I2CErrorCode.classify("Error: Remote I/O error"));
+        assertEquals(I2CErrorCode.TIMEOUT, I2CErrorCode.classify("Error: Connection timed out"));
+        assertEquals(I2CErrorCode.BUSY, I2CErrorCode.classify(
+                "Error: Could not set address to 0x48: Device or resource busy"));
+        assertEquals(I2CErrorCode.PERMISSION, I2CErrorCode.classify(
+                "Error: Could not open file `/dev/i2c-1': Permission denied"));
+        assertEquals(I2CErrorCode.NO_BUS, I2CErrorCode.classify(
+                "Error: Could not open file `/dev/i2c-9' or `/dev/i2c/9': No such file or directory"));
+        assertEquals(I2CErrorCode.UNKNOWN, I2CErrorCode.classify(""));
+        assertEquals(I2CErrorCode.UNKNOWN, I2CErrorCode.classify(null));
+    }
 }
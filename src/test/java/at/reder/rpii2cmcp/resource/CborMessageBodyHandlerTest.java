@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.resource;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.model.mcp.McpToolCall;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.DataDecoder;
+import at.reder.rpii2cmcp.service.I2CService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import static io.restassured.RestAssured.given;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for CBOR content negotiation on the tool endpoints.
+ */
+@QuarkusTest
+class CborMessageBodyHandlerTest {
+
+    private static final String CBOR = CborMessageBodyHandler.APPLICATION_CBOR;
+
+    private final CBORMapper cborMapper = new CBORMapper();
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    @InjectMock
+    I2CService i2cService;
+
+    private static byte[] dump(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    @Test
+    void testCallToolWithCbor() throws IOException {
+        I2CResponse mockResponse = new I2CResponse(true, "0x12 0x34", null, "i2cget -y -a 1 0x48 0x00 i 2");
+        mockResponse.setBytes(new byte[]{0x12, 0x34});
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(mockResponse);
+
+        byte[] request = cborMapper.writeValueAsBytes(new McpToolCall("i2cget", Map.of(
+                "bus", 1, "address", "0x48", "register", "0x00", "mode", "i 2", "format", List.of("bytes", "u16"))));
+
+        byte[] response = given()
+            .contentType(CBOR)
+            .accept(CBOR)
+            .body(request)
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .contentType(CBOR)
+            .extract().response().asByteArray();
+
+        JsonNode result = cborMapper.readTree(response);
+        assertFalse(result.get("isError").asBoolean());
+        assertTrue(result.at("/structuredContent/bytes").isBinary());
+        assertArrayEquals(new byte[]{0x12, 0x34}, result.at("/structuredContent/bytes").binaryValue());
+        assertEquals(0x3412, result.at("/structuredContent/u16/0").asInt());
+    }
+
+    @Test
+    void testCallToolIgnoresUnknownFields() throws IOException {
+        I2CResponse mockResponse = new I2CResponse(true, "0x19", null, "i2cget -y -a 1 0x48 0x00");
+        mockResponse.setBytes(new byte[]{0x19});
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(mockResponse);
+
+        // accepted as JSON, so it must be accepted as CBOR as well
+        byte[] request = cborMapper.writeValueAsBytes(Map.of(
+                "name", "i2cget",
+                "arguments", Map.of("bus", 1, "address", "0x48", "register", "0x00"),
+                "_meta", Map.of("progressToken", "t1")));
+
+        byte[] response = given()
+            .contentType(CBOR)
+            .accept(CBOR)
+            .body(request)
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .contentType(CBOR)
+            .extract().response().asByteArray();
+
+        assertFalse(cborMapper.readTree(response).get("isError").asBoolean());
+        assertEquals("i2cget", CborMessageBodyHandler.createMapper().readValue(request, McpToolCall.class).getName());
+    }
+
+    @Test
+    void testListToolsWithCbor() throws IOException {
+        byte[] response = given()
+            .accept(CBOR)
+        .when()
+            .get("/tools/list")
+        .then()
+            .statusCode(200)
+            .contentType(CBOR)
+            .extract().response().asByteArray();
+
+        JsonNode tools = cborMapper.readTree(response);
+        assertTrue(tools.isArray());
+        assertEquals("i2cget", tools.get(0).get("name").asText());
+    }
+
+    @Test
+    void testJsonRemainsDefault() {
+        given()
+        .when()
+            .get("/tools/list")
+        .then()
+            .statusCode(200)
+            .contentType("application/json");
+    }
+
+    @Test
+    void testPayloadSizeComparison() throws IOException {
+        // Single register read and a 256 byte dump, both with numeric and raw views
+        for (int length : new int[]{1, 2, 256}) {
+            byte[] data = dump(length);
+            McpToolResult result = McpToolResult.success("dump",
+                    DataDecoder.decode(data, List.of("u8", "bytes"), ByteOrder.LITTLE_ENDIAN));
+
+            int jsonSize = jsonMapper.writeValueAsBytes(result).length;
+            int cborSize = cborMapper.writeValueAsBytes(result).length;
+
+            assertTrue(cborSize < jsonSize, "CBOR " + cborSize + " bytes, JSON " + jsonSize + " bytes");
+        }
+    }
+}
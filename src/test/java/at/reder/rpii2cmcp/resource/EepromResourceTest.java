@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.resource;
+
+import at.reder.rpii2cmcp.model.profile.EepromDefinition;
+import at.reder.rpii2cmcp.service.EepromService;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import static io.restassured.RestAssured.given;
+import java.io.IOException;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the binary EEPROM endpoints.
+ */
+@QuarkusTest
+class EepromResourceTest {
+
+    private static final EepromDefinition EEPROM = new EepromDefinition(4096, 32, 2);
+
+    @InjectMock
+    EepromService eepromService;
+
+    @Test
+    void testRead() throws IOException {
+        when(eepromService.resolve(eq("24c32"), isNull(), isNull(), isNull())).thenReturn(EEPROM);
+        when(eepromService.read(1, 0x50, EEPROM, 16, 4)).thenReturn(new byte[]{1, 2, 3, 4});
+
+        byte[] body = given()
+            .queryParam("profile", "24c32")
+            .queryParam("offset", 16)
+            .queryParam("length", 4)
+        .when()
+            .get("/eeprom/1/0x50")
+        .then()
+            .statusCode(200)
+            .contentType("application/octet-stream")
+            .extract().response().asByteArray();
+
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, body);
+    }
+
+    @Test
+    void testReadToEndOfMemory() throws IOException {
+        when(eepromService.resolve(eq("24c32"), isNull(), isNull(), isNull())).thenReturn(EEPROM);
+        when(eepromService.read(1, 0x50, EEPROM, 4000, 96)).thenReturn(new byte[96]);
+
+        given()
+            .queryParam("profile", "24c32")
+            .queryParam("offset", 4000)
+        .when()
+            .get("/eeprom/1/0x50")
+        .then()
+            .statusCode(200);
+
+        verify(eepromService).read(1, 0x50, EEPROM, 4000, 96);
+    }
+
+    @Test
+    void testWrite() throws IOException {
+        when(eepromService.resolve(isNull(), eq(4096), eq(32), eq(2))).thenReturn(EEPROM);
+        when(eepromService.write(eq(1), eq(0x50), eq(EEPROM), eq(0), any(byte[].class), eq(true)))
+                .thenReturn(new EepromService.WriteResult(3, 1, 2, 5, true));
+
+        given()
+            .contentType("application/octet-stream")
+            .queryParam("size", 4096)
+            .queryParam("pageSize", 32)
+            .queryParam("addressWidth", 2)
+            .queryParam("verify", true)
+            .body(new byte[]{1, 2, 3})
+        .when()
+            .put("/eeprom/1/0x50")
+        .then()
+            .statusCode(200)
+            .body("bytes", is(3))
+            .body("pages", is(1))
+            .body("verified", is(true));
+
+        verify(eepromService).write(1, 0x50, EEPROM, 0, new byte[]{1, 2, 3}, true);
+    }
+
+    @Test
+    void testWriteBeyondEnd() throws IOException {
+        when(eepromService.resolve(eq("24c32"), isNull(), isNull(), isNull())).thenReturn(EEPROM);
+
+        given()
+            .contentType("application/octet-stream")
+            .queryParam("profile", "24c32")
+            .queryParam("offset", 4094)
+            .body(new byte[]{1, 2, 3})
+        .when()
+            .put("/eeprom/1/0x50")
+        .then()
+            .statusCode(400)
+            .body("error", is("Data exceeds the EEPROM, 2 bytes available"));
+    }
+
+    @Test
+    void testInvalidAddress() {
+        when(eepromService.resolve(eq("24c32"), isNull(), isNull(), isNull())).thenReturn(EEPROM);
+
+        given()
+            .queryParam("profile", "24c32")
+        .when()
+            .get("/eeprom/1/80")
+        .then()
+            .statusCode(400)
+            .body("error", startsWith("Invalid address format"));
+    }
+
+    @Test
+    void testDeviceFailure() throws IOException {
+        when(eepromService.resolve(eq("24c32"), isNull(), isNull(), isNull())).thenReturn(EEPROM);
+        when(eepromService.read(anyInt(), anyInt(), any(EepromDefinition.class), anyInt(), anyInt()))
+                .thenThrow(new IOException("Read at 0x0000 failed: Remote I/O error"));
+
+        given()
+            .queryParam("profile", "24c32")
+        .when()
+            .get("/eeprom/1/0x50")
+        .then()
+            .statusCode(502)
+            .body("error", is("Read at 0x0000 failed: Remote I/O error"));
+    }
+}
@@ -16,17 +16,30 @@
 package at.reder.rpii2cmcp.resource;
 
 import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CErrorCode;
 import at.reder.rpii2cmcp.model.I2CResponse;
 import at.reder.rpii2cmcp.service.I2CService;
+import at.reder.rpii2cmcp.service.SimulatedGpioEventSource;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import static io.restassured.RestAssured.given;
 import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.UUID;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.Matchers.hasSize;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -38,6 +51,9 @@ class I2CResourceTest {
     @InjectMock
     I2CService i2cService;
 
+    @Inject
+    SimulatedGpioEventSource gpioSource;
+
     @Test
     void testListTools() {
         given()
@@ -46,13 +62,26 @@ class I2CResourceTest {
             .get("/tools/list")
         .then()
             .statusCode(200)
-            .body("$", hasSize(2))
+            .body("$", hasSize(13))
             .body("[0].name", is("i2cget"))
             .body("[0].description", notNullValue())
             .body("[0].inputSchema", notNullValue())
             .body("[1].name", is("i2cset"))
             .body("[1].description", notNullValue())
-            .body("[1].inputSchema", notNullValue());
+            .body("[1].inputSchema", notNullValue())
+            .body("[2].name", is("i2c_update_bits"))
+            .body("[3].name", is("i2c_wait"))
+            .body("[4].name", is("prepare"))
+            .body("[5].name", is("exec"))
+            .body("[6].name", is("read_device"))
+            .body("[6].inputSchema.properties.profile.enum", hasItem("tmp102"))
+            .body("[7].name", is("snapshot"))
+            .body("[8].name", is("eeprom"))
+            .body("[8].inputSchema.properties.profile.enum", hasItem("24c32"))
+            .body("[9].name", is("program"))
+            .body("[10].name", is("monitor"))
+            .body("[11].name", is("monitor_history"))
+            .body("[12].name", is("gpio_trigger"));
     }
 
     @Test
@@ -90,6 +119,24 @@ class I2CResourceTest {
             .body("content[0].text", is("Write successful"));
     }
 
+    @Test
+    void testCallI2csetForced() {
+        I2CResponse mockResponse = new I2CResponse(true, "Write successful", null, "i2cset -y 1 0x76 0xf5 0x10");
+        when(i2cService.executeCommand(argThat(command -> command != null && command.isForce())))
+                .thenReturn(mockResponse);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2cset\",\"arguments\":{\"bus\":1,\"address\":\"0x76\",\"register\":\"0xf5\","
+                    + "\"value\":\"0x10\",\"force\":true}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("content[0].text", is("Write successful"));
+    }
+
     @Test
     void testCallI2cgetFailure() {
         I2CResponse mockResponse = new I2CResponse(false, null, "Device not found", "");
@@ -106,6 +153,22 @@ class I2CResourceTest {
             .body("content[0].text", is("Device not found"));
     }
 
+    @Test
+    void testCallI2cgetFailureCode() {
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(I2CResponse.failure(
+                I2CErrorCode.CIRCUIT_OPEN, "Device 0x48 on bus 1 does not respond, circuit open for 4000 ms", ""));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2cget\",\"arguments\":{\"bus\":1,\"address\":\"0x48\",\"register\":\"0x00\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(true))
+            .body("structuredContent.code", is("CIRCUIT_OPEN"));
+    }
+
     @Test
     void testCallUnknownTool() {
         given()
@@ -132,6 +195,19 @@ class I2CResourceTest {
             .body("content[0].text", is("Missing required argument: address"));
     }
 
+    @Test
+    void testCallI2cgetWithoutArguments() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2cget\"}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(true))
+            .body("content[0].text", is("Missing required argument: bus"));
+    }
+
     @Test
     void testCallI2csetMissingValue() {
         given()
@@ -261,4 +337,814 @@ class I2CResourceTest {
             .body("isError", is(false))
             .body("content[0].text", is("0x42"));
     }
+
+    // Tests for typed binary results
+
+    @Test
+    void testCallI2cgetWithFormat() {
+        I2CResponse mockResponse = new I2CResponse(true, "0x12 0x34 0xfe 0xff", null, "i2cget -y -a 1 0x48 0x00 i 4");
+        mockResponse.setBytes(new byte[]{0x12, 0x34, (byte) 0xFE, (byte) 0xFF});
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(mockResponse);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2cget\",\"arguments\":{\"bus\":1,\"address\":\"0x48\",\"register\":\"0x00\","
+                    + "\"mode\":\"i 4\",\"format\":[\"u16\",\"base64\"],\"endian\":\"big\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("content[0].text", is("0x12 0x34 0xfe 0xff"))
+            .body("structuredContent.length", is(4))
+            .body("structuredContent.endian", is("big"))
+            .body("structuredContent.u16[0]", is(0x1234))
+            .body("structuredContent.u16[1]", is(0xFEFF))
+            .body("structuredContent.base64", is("EjT+/w=="));
+    }
+
+    @Test
+    void testCallI2cgetWithFormatString() {
+        I2CResponse mockResponse = new I2CResponse(true, "0xff", null, "i2cget -y -a 1 0x48 0x00");
+        mockResponse.setBytes(new byte[]{(byte) 0xFF});
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(mockResponse);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2cget\",\"arguments\":{\"bus\":1,\"address\":\"0x48\",\"register\":\"0x00\","
+                    + "\"format\":\"u8,s8\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("structuredContent.u8[0]", is(255))
+            .body("structuredContent.s8[0]", is(-1));
+    }
+
+    @Test
+    void testCallI2cgetWithInvalidFormat() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2cget\",\"arguments\":{\"bus\":1,\"address\":\"0x48\",\"register\":\"0x00\","
+                    + "\"format\":[\"f32\"]}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(true))
+            .body("structuredContent", nullValue());
+    }
+
+    @Test
+    void testCallI2cgetWithFormatUndecodable() {
+        I2CResponse mockResponse = new I2CResponse(true, "garbage", null, "i2cget -y -a 1 0x48 0x00");
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(mockResponse);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2cget\",\"arguments\":{\"bus\":1,\"address\":\"0x48\",\"register\":\"0x00\","
+                    + "\"format\":[\"u8\"]}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(true))
+            .body("content[0].text", is("Cannot decode device response: garbage"));
+    }
+
+    // Tests for device profile reads
+
+    @Test
+    void testCallReadDevice() {
+        I2CResponse temperature = new I2CResponse(true, "0x19 0x00", null, "i2cget -y -a 1 0x48 0x00 i 2");
+        temperature.setBytes(new byte[]{0x19, 0x00});
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(temperature);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"read_device\",\"arguments\":{\"bus\":1,\"address\":\"0x48\",\"profile\":\"tmp102\","
+                    + "\"registers\":[\"temperature\"]}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("content[0].text", is("temperature = 25.0 °C"))
+            .body("structuredContent.profile", is("tmp102"))
+            .body("structuredContent.transactions", is(1))
+            .body("structuredContent.registers.temperature.raw", is(0x1900))
+            .body("structuredContent.registers.temperature.value", is(25.0f));
+    }
+
+    @Test
+    void testCallReadDeviceUnknownProfile() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"read_device\",\"arguments\":{\"bus\":1,\"address\":\"0x48\",\"profile\":\"nope\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(true))
+            .body("content[0].text", is("Unknown device profile: nope"));
+    }
+
+    @Test
+    void testCallReadDeviceBusFailure() {
+        I2CResponse mockResponse = new I2CResponse(false, null, "Device not found", "");
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(mockResponse);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"read_device\",\"arguments\":{\"bus\":1,\"address\":\"0x48\",\"profile\":\"lm75\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(true))
+            .body("content[0].text", is("Block read at 0x00 failed: Device not found"));
+    }
+
+    @Test
+    void testSnapshotDiff() {
+        I2CResponse before = new I2CResponse(true, "0x19 0x00", null, "i2cget -y -a 1 0x48 0x00 i 2");
+        before.setBytes(new byte[]{0x19, 0x00});
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(before);
+
+        String id = given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"snapshot\",\"arguments\":{\"action\":\"capture\",\"bus\":1,\"address\":\"0x48\","
+                    + "\"start\":\"0x00\",\"end\":\"0x01\",\"values\":true}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("structuredContent.registers", is(2))
+            .body("structuredContent.transactions", is(1))
+            .body("structuredContent.values['0x01']", is("0x00"))
+            .extract().path("structuredContent.id");
+
+        I2CResponse after = new I2CResponse(true, "0x19 0x80", null, "i2cget -y -a 1 0x48 0x00 i 2");
+        after.setBytes(new byte[]{0x19, (byte) 0x80});
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(after);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"snapshot\",\"arguments\":{\"action\":\"diff\",\"id\":\"" + id + "\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("content[0].text", is("1 registers changed between " + id + " and live state\n0x01: 0x00 -> 0x80"))
+            .body("structuredContent.to", is("live"))
+            .body("structuredContent.changed", hasSize(1))
+            .body("structuredContent.changed[0].changedBits", is(0x80));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"snapshot\",\"arguments\":{\"action\":\"remove\",\"id\":\"" + id + "\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(false));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"snapshot\",\"arguments\":{\"action\":\"diff\",\"id\":\"" + id + "\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Unknown snapshot: " + id));
+    }
+
+    // Tests for threshold monitors
+
+    @Test
+    void testMonitorLifecycle() {
+        I2CResponse temperature = new I2CResponse(true, "0x19 0x00", null, "i2cget -y -a 1 0x48 0x00 i 2");
+        temperature.setBytes(new byte[]{0x19, 0x00});
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(temperature);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"monitor\",\"arguments\":{\"action\":\"add\",\"id\":\"board\",\"bus\":1,"
+                    + "\"address\":\"0x48\",\"profile\":\"tmp102\",\"register\":\"temperature\","
+                    + "\"threshold\":30,\"hysteresis\":1,\"interval\":60000}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("structuredContent.id", is("board"))
+            .body("structuredContent.state", is("below"))
+            .body("structuredContent.value", is(25.0f));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"monitor\",\"arguments\":{\"action\":\"list\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("structuredContent.monitors", hasSize(1))
+            .body("structuredContent.monitors[0].threshold", is(30.0f));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"monitor_history\",\"arguments\":{\"id\":\"board\",\"window\":60000}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("structuredContent.unit", is("°C"))
+            .body("structuredContent.points", hasSize(1))
+            .body("structuredContent.points[0][1]", is(25.0f));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"monitor_history\",\"arguments\":{\"id\":\"board\",\"window\":60000,"
+                    + "\"bucket\":10000}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("structuredContent.buckets", hasSize(1))
+            .body("structuredContent.buckets[0].count", is(1))
+            .body("structuredContent.buckets[0].max", is(25.0f));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"monitor\",\"arguments\":{\"action\":\"remove\",\"id\":\"board\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("content[0].text", is("Monitor board removed"));
+    }
+
+    @Test
+    void testMonitorWithInlineDecodeRule() {
+        I2CResponse raw = new I2CResponse(true, "0x80", null, "i2cget -y -a 1 0x48 0x10");
+        raw.setBytes(new byte[]{(byte) 0x80});
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(raw);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"monitor\",\"arguments\":{\"action\":\"add\",\"id\":\"inline\",\"bus\":1,"
+                    + "\"address\":\"0x48\",\"register\":\"0x10\",\"signed\":true,\"scale\":0.5,"
+                    + "\"threshold\":0,\"interval\":60000}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("structuredContent.value", is(-64.0f))
+            .body("structuredContent.state", is("below"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"monitor\",\"arguments\":{\"action\":\"remove\",\"id\":\"inline\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(false));
+    }
+
+    @Test
+    void testMonitorErrors() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"monitor_history\",\"arguments\":{\"id\":\"missing\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Unknown monitor: missing"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"monitor_history\",\"arguments\":{\"id\":\"missing\",\"store\":true}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("History store is disabled, set i2c.history.enabled to true"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"monitor\",\"arguments\":{\"action\":\"remove\",\"id\":\"missing\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Unknown monitor: missing"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"monitor\",\"arguments\":{\"action\":\"add\",\"bus\":1,\"address\":\"0x48\","
+                    + "\"register\":\"0x00\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Missing required argument: threshold"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"monitor\",\"arguments\":{\"action\":\"pause\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true));
+    }
+
+    // Tests for tool catalogue revalidation
+
+    @Test
+    void testListToolsEtag() {
+        String etag = given()
+        .when()
+            .get("/tools/list")
+        .then()
+            .statusCode(200)
+            .header("ETag", notNullValue())
+            .header("Cache-Control", "no-cache")
+            .extract().header("ETag");
+
+        given()
+            .header("If-None-Match", etag)
+        .when()
+            .get("/tools/list")
+        .then()
+            .statusCode(304)
+            .header("ETag", etag);
+    }
+
+    @Test
+    void testListToolsStaleEtag() {
+        given()
+            .header("If-None-Match", "\"stale\"")
+        .when()
+            .get("/tools/list")
+        .then()
+            .statusCode(200)
+            .body("[0].name", is("i2cget"));
+    }
+
+    // Tests for GPIO triggered reads
+
+    @Test
+    void testGpioTriggerLifecycle() {
+        I2CResponse status = new I2CResponse(true, "0x80", null, "i2cget -y -a 1 0x48 0x01");
+        status.setBytes(new byte[]{(byte) 0x80});
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(status);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"gpio_trigger\",\"arguments\":{\"action\":\"add\",\"id\":\"drdy\",\"line\":17,"
+                    + "\"bus\":1,\"address\":\"0x48\",\"register\":\"0x01\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("structuredContent.chip", is("gpiochip0"))
+            .body("structuredContent.edge", is("falling"));
+
+        gpioSource.trigger("gpiochip0", 17, false);
+        gpioSource.trigger("gpiochip0", 17, true);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"gpio_trigger\",\"arguments\":{\"action\":\"list\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("structuredContent.triggers", hasSize(1))
+            .body("structuredContent.triggers[0].reads", is(1))
+            .body("structuredContent.triggers[0].skipped", is(1));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"gpio_trigger\",\"arguments\":{\"action\":\"remove\",\"id\":\"drdy\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(false));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"gpio_trigger\",\"arguments\":{\"action\":\"remove\",\"id\":\"drdy\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Unknown trigger: drdy"));
+    }
+
+    @Test
+    void testGpioTriggerErrors() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"gpio_trigger\",\"arguments\":{\"action\":\"add\",\"line\":17,\"edge\":\"up\","
+                    + "\"bus\":1,\"address\":\"0x48\",\"register\":\"0x01\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Invalid edge: up. Valid edges are: rising, falling, both"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"gpio_trigger\",\"arguments\":{\"action\":\"stop\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true));
+    }
+
+    // Tests for read-modify-write
+
+    @Test
+    void testUpdateBits() throws IOException {
+        when(i2cService.updateBits(1, "0x48", "0x01", 0x0f, 0x03, false))
+                .thenReturn(new I2CService.BitUpdate(0xa5, 0xa3, true));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2c_update_bits\",\"arguments\":{\"bus\":1,\"address\":\"0x48\","
+                    + "\"register\":\"0x01\",\"mask\":\"0x0f\",\"value\":\"0x03\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("content[0].text", is("0x01: 0xa5 -> 0xa3"))
+            .body("structuredContent.old", is("0xa5"))
+            .body("structuredContent.new", is("0xa3"))
+            .body("structuredContent.written", is(true));
+    }
+
+    @Test
+    void testUpdateBitsErrors() throws IOException {
+        when(i2cService.updateBits(1, "0x48", "0x01", 0x8000, 0x8000, true))
+                .thenThrow(new IOException("Read of 0x01 failed: Device not found"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2c_update_bits\",\"arguments\":{\"bus\":1,\"address\":\"0x48\","
+                    + "\"register\":\"0x01\",\"mask\":\"0x8000\",\"value\":\"0x8000\",\"mode\":\"w\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Read of 0x01 failed: Device not found"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2c_update_bits\",\"arguments\":{\"bus\":1,\"address\":\"0x48\","
+                    + "\"register\":\"0x01\",\"mask\":\"0x0f\",\"value\":\"0x01\",\"mode\":\"i\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Invalid mode: i. Valid modes are 'b' or 'w'"));
+    }
+
+    @Test
+    void testWait() {
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(
+                new I2CResponse(true, "0x01", null, "i2cget -y 1 0x48 0x00 b"),
+                new I2CResponse(false, null, "Device not found", "i2cget -y 1 0x48 0x00 b"),
+                new I2CResponse(true, "0x81", null, "i2cget -y 1 0x48 0x00 b"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2c_wait\",\"arguments\":{\"bus\":1,\"address\":\"0x48\","
+                    + "\"register\":\"0x00\",\"mask\":\"0x80\",\"value\":\"0x80\",\"interval\":1,"
+                    + "\"backoff\":2,\"ignoreErrors\":true}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("structuredContent.value", is("0x81"))
+            .body("structuredContent.matched", is(true))
+            .body("structuredContent.polls", is(3))
+            .body("structuredContent.elapsed", notNullValue());
+    }
+
+    @Test
+    void testWaitTimeout() {
+        when(i2cService.executeCommand(any(I2CCommand.class)))
+                .thenReturn(new I2CResponse(true, "0x0001", null, "i2cget -y 1 0x48 0x00 w"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2c_wait\",\"arguments\":{\"bus\":1,\"address\":\"0x48\","
+                    + "\"register\":\"0x00\",\"mask\":\"0x0100\",\"value\":\"0x0100\",\"mode\":\"w\","
+                    + "\"timeout\":30,\"interval\":5}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(true))
+            .body("structuredContent.value", is("0x0001"))
+            .body("structuredContent.expected", is("0x0100"))
+            .body("structuredContent.matched", is(false));
+    }
+
+    @Test
+    void testWaitErrors() {
+        when(i2cService.executeCommand(any(I2CCommand.class)))
+                .thenReturn(new I2CResponse(false, null, "Device not found", "i2cget -y 1 0x48 0x00 b"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2c_wait\",\"arguments\":{\"bus\":1,\"address\":\"0x48\","
+                    + "\"register\":\"0x00\",\"value\":\"0x80\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Device not found"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2c_wait\",\"arguments\":{\"bus\":1,\"address\":\"0x48\","
+                    + "\"register\":\"0x00\",\"mask\":\"0x0f\",\"value\":\"0x80\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Value 0x80 has bits outside mask 0xf"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2c_wait\",\"arguments\":{\"bus\":1,\"address\":\"0x48\","
+                    + "\"register\":\"0x00\",\"value\":\"0x80\",\"timeout\":60000}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Timeout must be between 0 and 30000 ms: 60000"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"i2c_wait\",\"arguments\":{\"bus\":1,\"address\":\"0x48\","
+                    + "\"register\":\"0x00\",\"value\":\"0x80\",\"backoff\":0.5}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Backoff must be at least 1: 0.5"));
+    }
+
+    @Test
+    void testProgramLifecycle() {
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(
+                new I2CResponse(true, "Write successful", null, "i2cset -y 1 0x68 0x6b 0x00"),
+                new I2CResponse(true, "0x71", null, "i2cget -y 1 0x68 0x75 b"));
+        String steps = "[{\"op\":\"write\",\"register\":\"0x6b\",\"value\":\"0x00\"},"
+                + "{\"op\":\"read\",\"register\":\"0x75\",\"as\":\"id\"},"
+                + "{\"op\":\"if\",\"var\":\"id\",\"equals\":\"0x68\",\"then\":[],"
+                + "\"else\":[{\"op\":\"fail\",\"message\":\"unexpected id\"}]}]";
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"program\",\"arguments\":{\"action\":\"store\",\"name\":\"mpu\","
+                    + "\"steps\":" + steps + "}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("structuredContent.name", is("mpu"))
+            .body("structuredContent.variables[0]", is("id"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"program\",\"arguments\":{\"action\":\"run\",\"name\":\"mpu\","
+                    + "\"bus\":1,\"address\":\"0x68\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(true))
+            .body("content[0].text", is("Program failed at steps[2].else[0]: unexpected id"))
+            .body("structuredContent.results", hasSize(1))
+            .body("structuredContent.results[0].value", is("0x71"))
+            .body("structuredContent.variables.id", is("0x71"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"program\",\"arguments\":{\"action\":\"list\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("structuredContent.programs[0].name", is("mpu"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"program\",\"arguments\":{\"action\":\"remove\",\"name\":\"mpu\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(false));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"program\",\"arguments\":{\"action\":\"run\",\"name\":\"mpu\","
+                    + "\"bus\":1,\"address\":\"0x68\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Unknown program: mpu"));
+    }
+
+    @Test
+    void testProgramInline() {
+        when(i2cService.executeCommand(any(I2CCommand.class)))
+                .thenReturn(new I2CResponse(true, "0x1234", null, "i2cget -y 1 0x48 0x00 w"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"program\",\"arguments\":{\"action\":\"run\",\"bus\":1,\"address\":\"0x48\","
+                    + "\"steps\":[{\"op\":\"loop\",\"count\":2,\"body\":[{\"op\":\"read\",\"register\":\"0x00\","
+                    + "\"mode\":\"w\"}]}]}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("content[0].text", startsWith("2 reads in 5 steps"))
+            .body("content[0].text", endsWith("\n0x00: 0x1234\n0x00: 0x1234"))
+            .body("structuredContent.results[1].step", is("steps[0].body[0]"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"program\",\"arguments\":{\"action\":\"run\",\"bus\":1,\"address\":\"0x48\","
+                    + "\"steps\":[{\"op\":\"sleep\"}]}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("steps[0]: invalid op: sleep. Valid ops are: read, write, delay, if, loop, fail"));
+    }
+
+    @Test
+    void testPreparedCommands() {
+        I2CResponse mockResponse = new I2CResponse(true, "0x1234", null, "i2cget -y -a 1 0x48 0x00 w");
+        mockResponse.setBytes(new byte[]{0x34, 0x12});
+        when(i2cService.executeValidated(any(I2CCommand.class))).thenReturn(mockResponse);
+
+        String handle = given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"prepare\",\"arguments\":{\"action\":\"add\",\"operation\":\"read\","
+                    + "\"bus\":1,\"address\":\"0x48\",\"register\":\"0x00\",\"mode\":\"w\",\"format\":[\"u16\"]}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("structuredContent.operation", is("read"))
+            .extract().path("content[0].text");
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"exec\",\"arguments\":{\"handle\":\"" + handle + "\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .statusCode(200)
+            .body("isError", is(false))
+            .body("content[0].text", is("0x1234"))
+            .body("structuredContent.u16[0]", is(0x1234));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"exec\",\"arguments\":{\"handle\":\"" + handle + "\",\"value\":\"0x01\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Prepared command " + handle + " takes no value"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"prepare\",\"arguments\":{\"action\":\"remove\",\"handle\":\"" + handle + "\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(false));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"exec\",\"arguments\":{\"handle\":\"" + handle + "\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Unknown prepared command: " + handle));
+    }
+
+    @Test
+    void testPreparedWrite() {
+        when(i2cService.executeValidated(any(I2CCommand.class)))
+                .thenReturn(new I2CResponse(true, "Write successful", null, "i2cset -y -a 1 0x20 0x09 0xff"));
+
+        String handle = given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"prepare\",\"arguments\":{\"action\":\"add\",\"operation\":\"write\","
+                    + "\"bus\":1,\"address\":\"0x20\",\"register\":\"0x09\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(false))
+            .extract().path("content[0].text");
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"exec\",\"arguments\":{\"handle\":\"" + handle + "\",\"value\":\"0xff\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(false))
+            .body("content[0].text", is("Write successful"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"prepare\",\"arguments\":{\"action\":\"list\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(false))
+            .body("structuredContent.commands.find { it.handle == '" + handle + "' }.invocations", is(1));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"prepare\",\"arguments\":{\"action\":\"add\","
+                    + "\"bus\":1,\"address\":\"0x20\",\"register\":\"0x09\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Missing required argument: operation"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"prepare\",\"arguments\":{\"action\":\"remove\",\"handle\":\"" + handle + "\"}}")
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(false));
+    }
+
+    @Test
+    void testIdempotentRetry() {
+        I2CResponse mockResponse = new I2CResponse(true, "Write successful", null, "i2cset -y 1 0x48 0x00 0x01");
+        when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(mockResponse);
+        String key = UUID.randomUUID().toString();
+        String body = "{\"name\":\"i2cset\",\"arguments\":{\"bus\":1,\"address\":\"0x48\","
+                + "\"register\":\"0x00\",\"value\":\"0x01\"}}";
+
+        for (int i = 0; i < 2; i++) {
+            given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", key)
+                .body(body)
+            .when()
+                .post("/tools/call")
+            .then()
+                .statusCode(200)
+                .body("isError", is(false))
+                .body("content[0].text", is("Write successful"));
+        }
+        verify(i2cService, times(1)).executeCommand(any(I2CCommand.class));
+
+        given()
+            .contentType(ContentType.JSON)
+            .header("Idempotency-Key", key)
+            .body(body.replace("0x01", "0x02"))
+        .when()
+            .post("/tools/call")
+        .then()
+            .body("isError", is(true))
+            .body("content[0].text", is("Idempotency key " + key + " was already used for a different call"));
+
+        given()
+        .when()
+            .get("/q/metrics")
+        .then()
+            .statusCode(200)
+            .body(containsString("i2c_idempotency_calls_total{result=\"replayed\""));
+    }
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.resource;
+
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for IdempotencyCache.
+ */
+@QuarkusTest
+class IdempotencyCacheTest {
+
+  private IdempotencyCache cache;
+
+  private MeterRegistry registry;
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  @BeforeEach
+  void setUp()
+  {
+    registry = new SimpleMeterRegistry();
+    cache = new IdempotencyCache();
+    cache.registry = registry;
+    cache.maxEntries = 2;
+    cache.ttl = Duration.ofMinutes(1);
+    cache.init();
+  }
+
+  private McpToolResult write()
+  {
+    return McpToolResult.success("Write " + calls.incrementAndGet());
+  }
+
+  private double count(String result)
+  {
+    return registry.find("i2c.idempotency.calls").tag("result", result).counter().count();
+  }
+
+  @Test
+  void testRetryIsReplayed()
+  {
+    Map<String, Object> arguments = Map.of("bus", 1, "address", "0x48", "register", "0x00", "value", "0x01");
+
+    McpToolResult first = cache.execute("k1", "i2cset", arguments, this::write);
+    McpToolResult retry = cache.execute("k1", "i2cset", Map.copyOf(arguments), this::write);
+
+    assertSame(first, retry);
+    assertEquals(1, calls.get());
+    assertEquals(1.0, count("executed"));
+    assertEquals(1.0, count("replayed"));
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void testKeyReusedForDifferentCall()
+  {
+    cache.execute("k1", "i2cset", Map.of("value", "0x01"), this::write);
+
+    McpToolResult result = cache.execute("k1", "i2cset", Map.of("value", "0x02"), this::write);
+
+    assertTrue(result.isError());
+    assertEquals("Idempotency key k1 was already used for a different call", result.getContent().get(0).getText());
+    assertEquals(1, calls.get());
+    assertEquals(1.0, count("conflict"));
+  }
+
+  @Test
+  void testEviction()
+  {
+    cache.execute("k1", "i2cset", Map.of(), this::write);
+    cache.execute("k2", "i2cset", Map.of(), this::write);
+    cache.execute("k3", "i2cset", Map.of(), this::write);
+
+    assertEquals(2, cache.size());
+    cache.execute("k1", "i2cset", Map.of(), this::write);
+    assertEquals(4, calls.get());
+
+    cache.ttl = Duration.ZERO;
+    cache.execute("k4", "i2cset", Map.of(), this::write);
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void testConcurrentRetryWaitsForFirstCall() throws Exception
+  {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<McpToolResult> first = executor.submit(() -> cache.execute("k1", "i2cset", Map.of(), () -> {
+        started.countDown();
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return write();
+      }));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      Future<McpToolResult> retry = executor.submit(() -> cache.execute("k1", "i2cset", Map.of(), this::write));
+      Thread.sleep(50);
+      assertFalse(retry.isDone());
+      release.countDown();
+
+      assertSame(first.get(5, TimeUnit.SECONDS), retry.get(5, TimeUnit.SECONDS));
+      assertEquals(1, calls.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testFailedCallIsNotRemembered()
+  {
+    assertThrows(IllegalStateException.class, () -> cache.execute("k1", "i2cset", Map.of(), () -> {
+      throw new IllegalStateException("failed");
+    }));
+
+    assertEquals(0, cache.size());
+    assertEquals("Write 1", cache.execute("k1", "i2cset", Map.of(), this::write).getContent().get(0).getText());
+  }
+
+  @Test
+  void testInvalidKey()
+  {
+    assertThrows(IllegalArgumentException.class, () -> cache.execute(" ", "i2cset", Map.of(), this::write));
+    assertThrows(IllegalArgumentException.class,
+            () -> cache.execute("k".repeat(256), "i2cset", Map.of(), this::write));
+    assertEquals(0, calls.get());
+  }
+}
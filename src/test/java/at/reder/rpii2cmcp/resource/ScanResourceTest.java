@@ -22,6 +22,7 @@ import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import static io.restassured.RestAssured.given;
 import io.restassured.http.ContentType;
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.Matchers.hasSize;
@@ -46,13 +47,26 @@ class ScanResourceTest {
             .get("/api/scan/tools")
         .then()
             .statusCode(200)
-            .body("$", hasSize(2))
+            .body("$", hasSize(13))
             .body("[0].name", is("i2cget"))
             .body("[0].description", notNullValue())
             .body("[0].inputSchema", notNullValue())
             .body("[1].name", is("i2cset"))
             .body("[1].description", notNullValue())
-            .body("[1].inputSchema", notNullValue());
+            .body("[1].inputSchema", notNullValue())
+            .body("[2].name", is("i2c_update_bits"))
+            .body("[3].name", is("i2c_wait"))
+            .body("[4].name", is("prepare"))
+            .body("[5].name", is("exec"))
+            .body("[6].name", is("read_device"))
+            .body("[6].inputSchema.properties.profile.enum", hasItem("tmp102"))
+            .body("[7].name", is("snapshot"))
+            .body("[8].name", is("eeprom"))
+            .body("[8].inputSchema.properties.profile.enum", hasItem("24c32"))
+            .body("[9].name", is("program"))
+            .body("[10].name", is("monitor"))
+            .body("[11].name", is("monitor_history"))
+            .body("[12].name", is("gpio_trigger"));
     }
 
     @Test
@@ -205,4 +219,37 @@ class ScanResourceTest {
             .body("isError", is(true))
             .body("content[0].text", notNullValue());
     }
+
+    // Tests for tool catalogue revalidation
+
+    @Test
+    void testListToolsEtag() {
+        String etag = given()
+        .when()
+            .get("/api/scan/tools")
+        .then()
+            .statusCode(200)
+            .header("ETag", notNullValue())
+            .header("Cache-Control", "no-cache")
+            .extract().header("ETag");
+
+        given()
+            .header("If-None-Match", etag)
+        .when()
+            .get("/api/scan/tools")
+        .then()
+            .statusCode(304)
+            .header("ETag", etag);
+    }
+
+    @Test
+    void testListToolsStaleEtag() {
+        given()
+            .header("If-None-Match", "\"stale\"")
+        .when()
+            .get("/api/scan/tools")
+        .then()
+            .statusCode(200)
+            .body("[0].name", is("i2cget"));
+    }
 }
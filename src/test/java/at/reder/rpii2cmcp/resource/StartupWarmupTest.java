@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.resource;
+
+import at.reder.rpii2cmcp.gateway.FederationGateway;
+import at.reder.rpii2cmcp.model.mcp.McpToolCall;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.DeviceProfileService;
+import at.reder.rpii2cmcp.service.I2CService;
+import at.reder.rpii2cmcp.tool.ToolRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.junit.QuarkusTest;
+import static io.restassured.RestAssured.given;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StartupWarmup.
+ */
+@QuarkusTest
+class StartupWarmupTest {
+
+  private StartupWarmup warmup;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp()
+  {
+    warmup = new StartupWarmup();
+    warmup.enabled = true;
+    warmup.iterations = 3;
+    warmup.devices = Optional.empty();
+    warmup.resource = mock(I2CResource.class);
+    warmup.toolRegistry = mock(ToolRegistry.class);
+    warmup.gateway = mock(FederationGateway.class);
+    warmup.i2cService = mock(I2CService.class);
+    warmup.deviceProfileService = mock(DeviceProfileService.class);
+    warmup.objectMapper = new ObjectMapper();
+    when(warmup.i2cService.simulate(any())).thenAnswer(invocation -> ((Supplier<Object>) invocation.getArgument(0)).get());
+    when(warmup.resource.callTool(any(McpToolCall.class), isNull())).thenReturn(McpToolResult.success("0x42"));
+  }
+
+  @Test
+  void testReadinessIsUpInTests()
+  {
+    given()
+        .when()
+            .get("/q/health/ready")
+        .then()
+            .statusCode(200)
+            .body("status", is("UP"));
+  }
+
+  @Test
+  void testNotReadyBeforeWarmup()
+  {
+    assertFalse(warmup.isReady());
+    assertEquals(HealthCheckResponse.Status.DOWN, warmup.call().getStatus());
+  }
+
+  @Test
+  void testDisabledIsReadyImmediately()
+  {
+    warmup.enabled = false;
+
+    warmup.onStart(null);
+
+    assertTrue(warmup.isReady());
+    assertEquals(HealthCheckResponse.Status.UP, warmup.call().getStatus());
+    verifyNoInteractions(warmup.resource);
+  }
+
+  @Test
+  void testRunExercisesCallsOnSimulatedBus()
+  {
+    warmup.run();
+
+    assertTrue(warmup.isReady());
+    assertEquals(HealthCheckResponse.Status.UP, warmup.call().getStatus());
+    verify(warmup.i2cService).simulate(any());
+    verify(warmup.resource, times(3 * StartupWarmup.CALLS.size())).callTool(any(McpToolCall.class), isNull());
+    verify(warmup.toolRegistry, times(3)).getDefinitions();
+  }
+
+  @Test
+  void testGatewayModeCallsLocalTools()
+  {
+    when(warmup.gateway.isEnabled()).thenReturn(true);
+
+    warmup.run();
+
+    verify(warmup.resource, never()).callTool(any(McpToolCall.class), any());
+    verify(warmup.toolRegistry, times(3 * StartupWarmup.CALLS.size())).call(anyString(), anyMap());
+  }
+
+  @Test
+  void testFailureStillBecomesReady()
+  {
+    when(warmup.resource.callTool(any(McpToolCall.class), isNull())).thenThrow(new IllegalStateException("boom"));
+
+    warmup.run();
+
+    assertTrue(warmup.isReady());
+  }
+
+  @Test
+  void testPrimeDevices() throws IOException
+  {
+    warmup.devices = Optional.of(List.of("1:0x76=bmp280", "invalid", "2:0x77=missing", "1:0x48=tmp102"));
+    when(warmup.deviceProfileService.primeConstants(1, "0x76", "bmp280")).thenReturn(1);
+    when(warmup.deviceProfileService.primeConstants(2, "0x77", "missing"))
+            .thenThrow(new IllegalArgumentException("Unknown device profile: missing"));
+    when(warmup.deviceProfileService.primeConstants(1, "0x48", "tmp102")).thenThrow(new IOException("NACK"));
+
+    assertEquals(1, warmup.primeDevices());
+    verify(warmup.deviceProfileService, times(3)).primeConstants(anyInt(), anyString(), anyString());
+  }
+}
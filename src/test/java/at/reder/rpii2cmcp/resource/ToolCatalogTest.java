@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.resource;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import io.quarkus.test.junit.QuarkusTest;
+import static io.restassured.RestAssured.given;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ToolCatalog.
+ */
+@QuarkusTest
+class ToolCatalogTest {
+
+    @Inject
+    ToolCatalog toolCatalog;
+
+    @AfterEach
+    void tearDown() {
+        toolCatalog.invalidate();
+    }
+
+    private static List<McpTool> tools(String name) {
+        return List.of(new McpTool(name, "Test tool", Map.of("type", "object")));
+    }
+
+    @Test
+    void testSnapshotIsCached() {
+        toolCatalog.invalidate();
+        AtomicInteger builds = new AtomicInteger();
+
+        ToolCatalog.Snapshot first = toolCatalog.get(() -> {
+            builds.incrementAndGet();
+            return tools("a");
+        });
+        ToolCatalog.Snapshot second = toolCatalog.get(() -> {
+            builds.incrementAndGet();
+            return tools("b");
+        });
+
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+        assertEquals("a", second.tools().get(0).getName());
+    }
+
+    @Test
+    void testInvalidateRebuilds() {
+        toolCatalog.invalidate();
+        ToolCatalog.Snapshot first = toolCatalog.get(() -> tools("a"));
+
+        toolCatalog.invalidate();
+        ToolCatalog.Snapshot second = toolCatalog.get(() -> tools("b"));
+
+        assertEquals("b", second.tools().get(0).getName());
+        assertNotEquals(first.jsonTag(), second.jsonTag());
+    }
+
+    @Test
+    void testRepresentationsHaveDistinctTags() {
+        toolCatalog.invalidate();
+        ToolCatalog.Snapshot snapshot = toolCatalog.get(() -> tools("a"));
+
+        assertNotEquals(snapshot.jsonTag(), snapshot.cborTag());
+        assertTrue(snapshot.json().length > 0);
+        assertTrue(snapshot.cbor().length > 0);
+    }
+
+    @Test
+    void testCborEtagDiffersFromJson() {
+        String jsonTag = given()
+        .when()
+            .get("/tools/list")
+        .then()
+            .statusCode(200)
+            .extract().header("ETag");
+
+        given()
+            .accept(CborMessageBodyHandler.APPLICATION_CBOR)
+        .when()
+            .get("/tools/list")
+        .then()
+            .statusCode(200)
+            .contentType(CborMessageBodyHandler.APPLICATION_CBOR)
+            .header("ETag", not(jsonTag));
+
+        // A JSON tag must not validate the CBOR representation
+        given()
+            .accept(CborMessageBodyHandler.APPLICATION_CBOR)
+            .header("If-None-Match", jsonTag)
+        .when()
+            .get("/tools/list")
+        .then()
+            .statusCode(200);
+    }
+}
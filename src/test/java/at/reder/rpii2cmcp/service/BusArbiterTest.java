@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import io.quarkus.test.junit.QuarkusTest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for BusArbiter.
+ */
+@QuarkusTest
+class BusArbiterTest {
+
+  private static final long MS = 1_000_000L;
+
+  private final List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+  private volatile int selected;
+
+  /**
+   * A queued transaction.
+   */
+  private record Request(int bus, Priority priority, long deadline) {
+
+  }
+
+  /**
+   * Creates interactive requests with deadlines in arrival order.
+   */
+  private static Request[] interactive(int... buses)
+  {
+    long now = System.nanoTime();
+    Request[] requests = new Request[buses.length];
+    for (int i = 0; i < buses.length; i++) {
+      requests[i] = new Request(buses[i], Priority.INTERACTIVE, now + 100 * MS + i);
+    }
+    return requests;
+  }
+
+  /**
+   * Queues one thread per request while the calling thread holds the arbiter, then releases it and returns the order
+   * in which the threads were granted the bus. Each thread selects its bus like a multiplexer switch.
+   */
+  private List<Integer> grantOrder(BusArbiter arbiter, Request... requests) throws InterruptedException
+  {
+    List<Thread> threads = new ArrayList<>();
+    arbiter.lock(selected, Priority.INTERACTIVE, System.nanoTime());
+    for (Request request : requests) {
+      int waiting = arbiter.getWaiting();
+      Thread thread = new Thread(() -> {
+        arbiter.lock(request.bus(), request.priority(), request.deadline());
+        order.add(request.bus());
+        selected = request.bus();
+        arbiter.unlock();
+      });
+      thread.start();
+      threads.add(thread);
+      while (arbiter.getWaiting() == waiting) {
+        Thread.sleep(1);
+      }
+    }
+    arbiter.unlock();
+    for (Thread thread : threads) {
+      thread.join(5000);
+    }
+    return order;
+  }
+
+  @Test
+  void testArrivalOrderWithoutMultiplexer() throws InterruptedException
+  {
+    BusArbiter arbiter = new BusArbiter(bus -> true, 4);
+
+    assertEquals(List.of(20, 21, 20, 21), grantOrder(arbiter, interactive(20, 21, 20, 21)));
+  }
+
+  @Test
+  void testWaitersGroupedBySelectedChannel() throws InterruptedException
+  {
+    selected = 21;
+    BusArbiter arbiter = new BusArbiter(bus -> bus == selected, 4);
+
+    assertEquals(List.of(21, 21, 20, 20), grantOrder(arbiter, interactive(20, 21, 20, 21)));
+  }
+
+  @Test
+  void testOvertakingIsBounded() throws InterruptedException
+  {
+    selected = 21;
+    BusArbiter arbiter = new BusArbiter(bus -> bus == selected, 1);
+
+    assertEquals(List.of(21, 20, 20, 21), grantOrder(arbiter, interactive(20, 21, 20, 21)));
+  }
+
+  @Test
+  void testEarliestDeadlineFirst() throws InterruptedException
+  {
+    BusArbiter arbiter = new BusArbiter(bus -> true, 4);
+    long now = System.nanoTime();
+
+    assertEquals(List.of(1, 2, 3), grantOrder(arbiter,
+            new Request(3, Priority.BULK, now + 10_000 * MS),
+            new Request(2, Priority.MONITORING, now + 1000 * MS),
+            new Request(1, Priority.INTERACTIVE, now + 100 * MS)));
+  }
+
+  @Test
+  void testDueBackgroundWorkIsNotStarved() throws InterruptedException
+  {
+    BusArbiter arbiter = new BusArbiter(bus -> true, 4);
+    long now = System.nanoTime();
+
+    assertEquals(List.of(3, 1), grantOrder(arbiter,
+            new Request(3, Priority.BULK, now - MS),
+            new Request(1, Priority.INTERACTIVE, now + 100 * MS)));
+  }
+
+  @Test
+  void testBackgroundWorkDoesNotOvertakeForSelectedChannel() throws InterruptedException
+  {
+    selected = 21;
+    BusArbiter arbiter = new BusArbiter(bus -> bus == selected, 4);
+    long now = System.nanoTime();
+
+    assertEquals(List.of(20, 21), grantOrder(arbiter,
+            new Request(20, Priority.INTERACTIVE, now + 100 * MS),
+            new Request(21, Priority.BULK, now + 10_000 * MS)));
+  }
+
+  @Test
+  void testReentrantLock() throws InterruptedException
+  {
+    BusArbiter arbiter = new BusArbiter(bus -> true, 0);
+    arbiter.lock(1, Priority.INTERACTIVE, System.nanoTime());
+    arbiter.lock(1, Priority.INTERACTIVE, System.nanoTime());
+    assertTrue(arbiter.isHeldByCurrentThread());
+    arbiter.unlock();
+    Thread other = new Thread(() -> {
+      arbiter.lock(1, Priority.BULK, System.nanoTime());
+      order.add(1);
+      arbiter.unlock();
+    });
+    other.start();
+    other.join(100);
+    assertTrue(order.isEmpty());
+
+    arbiter.unlock();
+    other.join(5000);
+    assertEquals(List.of(1), order);
+    assertFalse(arbiter.isHeldByCurrentThread());
+    assertThrows(IllegalMonitorStateException.class, arbiter::unlock);
+  }
+}
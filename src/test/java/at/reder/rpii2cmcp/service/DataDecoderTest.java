@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import io.quarkus.test.junit.QuarkusTest;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for DataDecoder.
+ */
+@QuarkusTest
+class DataDecoderTest {
+
+  private static final byte[] DATA = {(byte) 0x12, (byte) 0x34, (byte) 0xFE, (byte) 0xFF};
+
+  @Test
+  void testParseByteOrderDefault()
+  {
+    assertEquals(ByteOrder.LITTLE_ENDIAN, DataDecoder.parseByteOrder(null));
+    assertEquals(ByteOrder.LITTLE_ENDIAN, DataDecoder.parseByteOrder(""));
+    assertEquals(ByteOrder.LITTLE_ENDIAN, DataDecoder.parseByteOrder("LITTLE"));
+    assertEquals(ByteOrder.BIG_ENDIAN, DataDecoder.parseByteOrder("big"));
+  }
+
+  @Test
+  void testParseByteOrderInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> DataDecoder.parseByteOrder("middle"));
+  }
+
+  @Test
+  void testValidateViews()
+  {
+    assertDoesNotThrow(() -> DataDecoder.validateViews(DataDecoder.VIEWS));
+    assertThrows(IllegalArgumentException.class, () -> DataDecoder.validateViews(List.of("u64")));
+  }
+
+  @Test
+  void testDecodeByteViews()
+  {
+    Map<String, Object> result = DataDecoder.decode(DATA, List.of("u8", "s8"), ByteOrder.LITTLE_ENDIAN);
+
+    assertEquals(4, result.get("length"));
+    assertEquals("little", result.get("endian"));
+    assertArrayEquals(new int[]{0x12, 0x34, 0xFE, 0xFF}, (int[]) result.get("u8"));
+    assertArrayEquals(new int[]{0x12, 0x34, -2, -1}, (int[]) result.get("s8"));
+  }
+
+  @Test
+  void testDecodeWordViewsLittleEndian()
+  {
+    Map<String, Object> result = DataDecoder.decode(DATA, List.of("u16", "s16"), ByteOrder.LITTLE_ENDIAN);
+
+    assertArrayEquals(new int[]{0x3412, 0xFFFE}, (int[]) result.get("u16"));
+    assertArrayEquals(new int[]{0x3412, -2}, (int[]) result.get("s16"));
+  }
+
+  @Test
+  void testDecodeWordViewsBigEndian()
+  {
+    Map<String, Object> result = DataDecoder.decode(DATA, List.of("u16"), ByteOrder.BIG_ENDIAN);
+
+    assertEquals("big", result.get("endian"));
+    assertArrayEquals(new int[]{0x1234, 0xFEFF}, (int[]) result.get("u16"));
+  }
+
+  @Test
+  void testDecodeDoubleWordViews()
+  {
+    Map<String, Object> result = DataDecoder.decode(DATA, List.of("u32", "s32"), ByteOrder.BIG_ENDIAN);
+
+    assertArrayEquals(new long[]{0x1234FEFFL}, (long[]) result.get("u32"));
+    assertArrayEquals(new int[]{0x1234FEFF}, (int[]) result.get("s32"));
+
+    result = DataDecoder.decode(DATA, List.of("u32"), ByteOrder.LITTLE_ENDIAN);
+    assertArrayEquals(new long[]{0xFFFE3412L}, (long[]) result.get("u32"));
+  }
+
+  @Test
+  void testDecodeIgnoresIncompleteTrailingValue()
+  {
+    byte[] data = {1, 2, 3};
+    Map<String, Object> result = DataDecoder.decode(data, List.of("u16", "u32"), ByteOrder.LITTLE_ENDIAN);
+
+    assertArrayEquals(new int[]{0x0201}, (int[]) result.get("u16"));
+    assertArrayEquals(new long[0], (long[]) result.get("u32"));
+  }
+
+  @Test
+  void testDecodeTextViews()
+  {
+    Map<String, Object> result = DataDecoder.decode(DATA, List.of("hex", "base64"), ByteOrder.LITTLE_ENDIAN);
+
+    assertEquals("1234feff", result.get("hex"));
+    assertEquals("EjT+/w==", result.get("base64"));
+  }
+
+  @Test
+  void testDecodeBytesView()
+  {
+    Map<String, Object> result = DataDecoder.decode(DATA, List.of("bytes"), ByteOrder.LITTLE_ENDIAN);
+
+    assertArrayEquals(DATA, (byte[]) result.get("bytes"));
+    assertNotSame(DATA, result.get("bytes"));
+  }
+
+  @Test
+  void testDecodeInvalidView()
+  {
+    assertThrows(IllegalArgumentException.class,
+                 () -> DataDecoder.decode(DATA, List.of("f32"), ByteOrder.LITTLE_ENDIAN));
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.profile.DeviceProfile;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for DeviceProfileRegistry.
+ */
+@QuarkusTest
+class DeviceProfileRegistryTest {
+
+  @Inject
+  DeviceProfileRegistry registry;
+
+  private Map<String, DeviceProfile> load(String yaml) throws IOException
+  {
+    return registry.load(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  void testBundledProfilesLoaded()
+  {
+    assertTrue(registry.getProfileNames().contains("tmp102"));
+    assertTrue(registry.getProfileNames().contains("lm75"));
+    assertTrue(registry.getProfileNames().contains("bmp280"));
+    assertNull(registry.getProfile("missing"));
+    assertFalse(registry.getProfiles().isEmpty());
+  }
+
+  @Test
+  void testBundledProfileContent()
+  {
+    DeviceProfile tmp102 = registry.getProfile("tmp102");
+
+    assertEquals("tmp102", tmp102.getName());
+    assertFalse(tmp102.isAutoIncrement());
+    assertEquals(0.0625, tmp102.getRegister("temperature").getScale().doubleValue());
+    assertEquals(9, tmp102.getRegister("config").getBitfields().size());
+    assertNull(tmp102.getEeprom());
+    assertTrue(registry.getProfile("bmp280").getRegister("config").isShadow());
+    assertFalse(registry.getProfile("bmp280").getRegister("ctrl_meas").isShadow());
+  }
+
+  @Test
+  void testBundledEepromProfile()
+  {
+    DeviceProfile eeprom = registry.getProfile("24c32");
+
+    assertTrue(eeprom.getRegisters().isEmpty());
+    assertEquals(4096, eeprom.getEeprom().getSize());
+    assertEquals(32, eeprom.getEeprom().getPageSize());
+    assertEquals(2, eeprom.getEeprom().getAddressWidth());
+  }
+
+  @Test
+  void testLoadProfile() throws IOException
+  {
+    Map<String, DeviceProfile> profiles = load("""
+            profiles:
+              dev:
+                registers:
+                  - name: id
+                    register: "0x0F"
+                  - name: value
+                    register: "0x10"
+                    width: 2
+                    endian: little
+            """);
+
+    DeviceProfile dev = profiles.get("dev");
+    assertEquals("dev", dev.getName());
+    assertTrue(dev.isAutoIncrement());
+    assertEquals(0x0F, dev.getRegister("id").getAddress());
+    assertEquals(1, dev.getRegister("id").getWidth());
+    assertEquals("little", dev.getRegister("value").getEndian());
+  }
+
+  @Test
+  void testLoadEmptyDocument() throws IOException
+  {
+    assertTrue(load("other: 1\n").isEmpty());
+  }
+
+  @Test
+  void testLoadInvalidWidth()
+  {
+    assertThrows(IllegalArgumentException.class, () -> load("""
+            profiles:
+              dev:
+                registers:
+                  - { name: v, register: "0x00", width: 5 }
+            """));
+  }
+
+  @Test
+  void testLoadInvalidAddress()
+  {
+    assertThrows(IllegalArgumentException.class, () -> load("""
+            profiles:
+              dev:
+                registers:
+                  - { name: v, register: "zero" }
+            """));
+  }
+
+  @Test
+  void testLoadInvalidBitField()
+  {
+    assertThrows(IllegalArgumentException.class, () -> load("""
+            profiles:
+              dev:
+                registers:
+                  - name: v
+                    register: "0x00"
+                    bitfields:
+                      - { name: f, lsb: 6, bits: 3 }
+            """));
+  }
+
+  @Test
+  void testLoadMissingRegisterName()
+  {
+    assertThrows(IllegalArgumentException.class, () -> load("""
+            profiles:
+              dev:
+                registers:
+                  - { register: "0x00" }
+            """));
+  }
+
+  @Test
+  void testLoadInvalidShadow()
+  {
+    assertThrows(IllegalArgumentException.class, () -> load("""
+            profiles:
+              dev:
+                registers:
+                  - { name: v, register: "0x00", width: 3, shadow: true }
+            """));
+    assertThrows(IllegalArgumentException.class, () -> load("""
+            profiles:
+              dev:
+                registers:
+                  - { name: v, register: "0x00", constant: true, shadow: true }
+            """));
+  }
+
+  @Test
+  void testLoadInvalidEeprom()
+  {
+    assertThrows(IllegalArgumentException.class, () -> load("""
+            profiles:
+              dev:
+                eeprom: { size: 256, pageSize: 24 }
+            """));
+    assertThrows(IllegalArgumentException.class, () -> load("""
+            profiles:
+              dev:
+                eeprom: { size: 4096, pageSize: 32, addressWidth: 1 }
+            """));
+    assertThrows(IllegalArgumentException.class, () -> load("""
+            profiles:
+              dev:
+                eeprom: { size: 4096, pageSize: 32, addressWidth: 3 }
+            """));
+  }
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.model.profile.BitField;
+import at.reder.rpii2cmcp.model.profile.DeviceProfile;
+import at.reder.rpii2cmcp.model.profile.RegisterDefinition;
+import io.quarkus.test.junit.QuarkusTest;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DeviceProfileService.
+ */
+@QuarkusTest
+class DeviceProfileServiceTest {
+
+  private DeviceProfileService service;
+  private I2CService i2cService;
+  private DeviceProfileRegistry registry;
+
+  @BeforeEach
+  void setUp()
+  {
+    i2cService = mock(I2CService.class);
+    registry = mock(DeviceProfileRegistry.class);
+    service = new DeviceProfileService();
+    service.i2cService = i2cService;
+    service.registry = registry;
+  }
+
+  private static RegisterDefinition register(String name, String address, int width)
+  {
+    return new RegisterDefinition(name, address, width);
+  }
+
+  private static I2CResponse bytes(int... values)
+  {
+    byte[] data = new byte[values.length];
+    for (int i = 0; i < values.length; i++) {
+      data[i] = (byte) values[i];
+    }
+    I2CResponse response = new I2CResponse(true, "", null, "");
+    response.setBytes(data);
+    return response;
+  }
+
+  @Test
+  void testPlanReadsMergesAdjacentRegisters()
+  {
+    List<DeviceProfileService.ReadBlock> blocks = service.planReads(List.of(
+            register("c", "0x04", 2),
+            register("a", "0x00", 1),
+            register("b", "0x01", 2)), true);
+
+    assertEquals(1, blocks.size());
+    assertEquals(0, blocks.get(0).start());
+    assertEquals(6, blocks.get(0).length());
+    assertEquals(3, blocks.get(0).registers().size());
+  }
+
+  @Test
+  void testPlanReadsSplitsAtMaximumBlockLength()
+  {
+    List<DeviceProfileService.ReadBlock> blocks = service.planReads(List.of(
+            register("a", "0x00", 1),
+            register("b", "0x1E", 2),
+            register("c", "0x1F", 2),
+            register("d", "0x30", 4)), true);
+
+    assertEquals(2, blocks.size());
+    assertEquals(32, blocks.get(0).length());
+    assertEquals(2, blocks.get(0).registers().size());
+    assertEquals(0x1F, blocks.get(1).start());
+    assertEquals(0x34 - 0x1F, blocks.get(1).length());
+    assertEquals(2, blocks.get(1).registers().size());
+  }
+
+  @Test
+  void testPlanReadsWithoutAutoIncrement()
+  {
+    List<DeviceProfileService.ReadBlock> blocks = service.planReads(List.of(
+            register("a", "0x00", 2),
+            register("b", "0x01", 2)), false);
+
+    assertEquals(2, blocks.size());
+    assertEquals(2, blocks.get(0).length());
+    assertEquals(2, blocks.get(1).length());
+  }
+
+  @Test
+  void testPlanReadsEmpty()
+  {
+    assertTrue(service.planReads(List.of(), true).isEmpty());
+  }
+
+  @Test
+  void testScaleSignedShifted()
+  {
+    RegisterDefinition temperature = register("t", "0x00", 2);
+    temperature.setSigned(true);
+    temperature.setShift(4);
+    temperature.setScale(0.0625);
+
+    assertEquals(25.0, DeviceProfileService.scale(temperature, 0x1900));
+    assertEquals(-0.25, DeviceProfileService.scale(temperature, 0xFFC0));
+  }
+
+  @Test
+  void testScaleRawAndOffset()
+  {
+    RegisterDefinition raw = register("r", "0x00", 1);
+    assertEquals(200L, DeviceProfileService.scale(raw, 200));
+
+    raw.setOffset(-100.0);
+    assertEquals(100.0, DeviceProfileService.scale(raw, 200));
+  }
+
+  @Test
+  void testExtractRawEndianness()
+  {
+    byte[] data = {0x00, 0x12, 0x34, 0x56};
+    RegisterDefinition big = register("b", "0x01", 3);
+    RegisterDefinition little = register("l", "0x01", 3);
+    little.setEndian("little");
+
+    assertEquals(0x123456L, DeviceProfileService.extractRaw(big, data, 1));
+    assertEquals(0x563412L, DeviceProfileService.extractRaw(little, data, 1));
+  }
+
+  @Test
+  void testDecodeRegisterWithBitFields()
+  {
+    RegisterDefinition config = register("config", "0x01", 1);
+    config.setUnit("flags");
+    config.setBitfields(List.of(new BitField("mode", 0, 2), new BitField("enable", 7, 1)));
+
+    Map<String, Object> result = service.decodeRegister(config, new byte[]{(byte) 0x83}, 0);
+
+    assertEquals("0x01", result.get("register"));
+    assertEquals(0x83L, result.get("raw"));
+    assertEquals("flags", result.get("unit"));
+    assertEquals(Map.of("mode", 3L, "enable", 1L), result.get("bitfields"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testReadDeviceUsesBlockReads() throws IOException
+  {
+    DeviceProfile profile = new DeviceProfile("test", "Test device", List.of(
+            register("id", "0x00", 1),
+            register("value", "0x02", 2)));
+    when(registry.getProfile("test")).thenReturn(profile);
+    when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(bytes(0x60, 0xAA, 0x01, 0x02));
+
+    Map<String, Object> result = service.readDevice(1, "0x76", "test", List.of());
+
+    assertEquals(1, result.get("transactions"));
+    Map<String, Object> registers = (Map<String, Object>) result.get("registers");
+    assertEquals(0x60L, ((Map<String, Object>) registers.get("id")).get("value"));
+    assertEquals(0x0102L, ((Map<String, Object>) registers.get("value")).get("value"));
+    verify(i2cService).executeCommand(argThat(c -> "0x00".equals(c.getRegister()) && "i 4".equals(c.getMode())));
+  }
+
+  @Test
+  void testReadDeviceSingleByteUsesByteMode() throws IOException
+  {
+    DeviceProfile profile = new DeviceProfile("test", "Test device", List.of(register("id", "0xD0", 1)));
+    when(registry.getProfile("test")).thenReturn(profile);
+    when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(bytes(0x58));
+
+    service.readDevice(1, "0x76", "test", List.of("id"));
+
+    verify(i2cService).executeCommand(argThat(c -> "0xd0".equals(c.getRegister()) && c.getMode() == null));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testConstantRegistersAreCached() throws IOException
+  {
+    RegisterDefinition id = register("id", "0xD0", 1);
+    id.setConstant(true);
+    DeviceProfile profile = new DeviceProfile("test", "Test device", List.of(id, register("status", "0xF3", 1)));
+    when(registry.getProfile("test")).thenReturn(profile);
+    when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(bytes(0x58));
+
+    service.readDevice(1, "0x76", "test", List.of());
+    Map<String, Object> result = service.readDevice(1, "0x76", "test", List.of());
+
+    assertEquals(1, result.get("transactions"));
+    Map<String, Object> registers = (Map<String, Object>) result.get("registers");
+    assertEquals(List.of("id", "status"), List.copyOf(registers.keySet()));
+    assertEquals(0x58L, ((Map<String, Object>) registers.get("id")).get("value"));
+    verify(i2cService, times(1)).executeCommand(argThat(c -> "0xd0".equals(c.getRegister())));
+    verify(i2cService, times(2)).executeCommand(argThat(c -> "0xf3".equals(c.getRegister())));
+    // the cache is per device
+    service.readDevice(1, "0x77", "test", List.of("id"));
+    verify(i2cService, times(2)).executeCommand(argThat(c -> "0xd0".equals(c.getRegister())));
+  }
+
+  @Test
+  void testPrimeConstants() throws IOException
+  {
+    RegisterDefinition id = register("id", "0xD0", 1);
+    id.setConstant(true);
+    when(registry.getProfile("test")).thenReturn(
+            new DeviceProfile("test", null, List.of(id, register("status", "0xF3", 1))));
+    when(registry.getProfile("plain")).thenReturn(
+            new DeviceProfile("plain", null, List.of(register("status", "0xF3", 1))));
+    when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(bytes(0x58));
+
+    assertEquals(1, service.primeConstants(1, "0x76", "test"));
+    assertEquals(0, service.primeConstants(1, "0x76", "plain"));
+    service.readDevice(1, "0x76", "test", List.of("id"));
+
+    verify(i2cService, times(1)).executeCommand(any(I2CCommand.class));
+  }
+
+  @Test
+  void testDeclareShadows()
+  {
+    RegisterDefinition config = register("config", "0xF5", 1);
+    config.setShadow(true);
+    RegisterDefinition threshold = register("threshold", "0x02", 2);
+    threshold.setShadow(true);
+    when(registry.getProfile("test")).thenReturn(
+            new DeviceProfile("test", null, List.of(register("status", "0xF3", 1), config, threshold)));
+
+    assertEquals(2, service.declareShadows(1, "0x76", "test"));
+
+    verify(i2cService).declareShadow(1, "0x76", 0xF5, 1);
+    verify(i2cService).declareShadow(1, "0x76", 0x02, 2);
+    verify(i2cService, never()).declareShadow(1, "0x76", 0xF3, 1);
+  }
+
+  @Test
+  void testParseDeviceBinding()
+  {
+    DeviceProfileService.DeviceBinding binding = DeviceProfileService.DeviceBinding.parse("1:0x76=bmp280");
+
+    assertEquals(new DeviceProfileService.DeviceBinding(1, "0x76", "bmp280"), binding);
+    assertThrows(IllegalArgumentException.class, () -> DeviceProfileService.DeviceBinding.parse("0x76=bmp280"));
+    assertThrows(IllegalArgumentException.class, () -> DeviceProfileService.DeviceBinding.parse("x:0x76=bmp280"));
+    assertThrows(IllegalArgumentException.class, () -> DeviceProfileService.DeviceBinding.parse("1:0x76"));
+  }
+
+  @Test
+  void testReadDeviceUnknownProfile()
+  {
+    assertThrows(IllegalArgumentException.class, () -> service.readDevice(1, "0x76", "missing", List.of()));
+  }
+
+  @Test
+  void testReadDeviceUnknownRegister()
+  {
+    when(registry.getProfile("test")).thenReturn(new DeviceProfile("test", null, List.of(register("id", "0x00", 1))));
+
+    assertThrows(IllegalArgumentException.class, () -> service.readDevice(1, "0x76", "test", List.of("nope")));
+  }
+
+  @Test
+  void testReadDeviceFailedRead()
+  {
+    when(registry.getProfile("test")).thenReturn(new DeviceProfile("test", null, List.of(register("id", "0x00", 1))));
+    when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(new I2CResponse(false, null, "NACK", ""));
+
+    IOException e = assertThrows(IOException.class, () -> service.readDevice(1, "0x76", "test", List.of()));
+    assertEquals("Block read at 0x00 failed: NACK", e.getMessage());
+  }
+
+  @Test
+  void testReadDeviceShortRead()
+  {
+    when(registry.getProfile("test")).thenReturn(new DeviceProfile("test", null, List.of(register("v", "0x00", 2))));
+    when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(bytes(0x01));
+
+    assertThrows(IOException.class, () -> service.readDevice(1, "0x76", "test", List.of()));
+  }
+
+  @Test
+  void testReadRegister() throws IOException
+  {
+    RegisterDefinition temperature = register("temperature", "0x00", 2);
+    temperature.setSigned(true);
+    temperature.setShift(4);
+    temperature.setScale(0.0625);
+    when(i2cService.executeCommand(any(I2CCommand.class))).thenReturn(bytes(0xE7, 0x00));
+
+    Number value = service.readRegister(1, "0x48", temperature);
+
+    assertEquals(-25.0, value.doubleValue());
+    verify(i2cService).executeCommand(argThat(c -> "0x00".equals(c.getRegister()) && "i 2".equals(c.getMode())));
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.I2CErrorCode;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.model.ServerEvent;
+import at.reder.rpii2cmcp.model.profile.DeviceProfile;
+import at.reder.rpii2cmcp.model.profile.EepromDefinition;
+import io.quarkus.test.junit.QuarkusTest;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for EepromService. The device is simulated like a real EEPROM: a page write wraps around within the
+ * page, and after a write the device does not acknowledge for a number of polls.
+ */
+@QuarkusTest
+class EepromServiceTest {
+
+  private EepromService service;
+
+  private final List<ServerEvent> events = new ArrayList<>();
+
+  private final List<String> transfers = new ArrayList<>();
+
+  private byte[] memory;
+
+  private int pageSize;
+
+  private int addressWidth;
+
+  private int pointer;
+
+  private int busyPolls;
+
+  private int writeCycle = 2;
+
+  @BeforeEach
+  void setUp()
+  {
+    service = new EepromService();
+    service.eventStream = new EventStream() {
+      @Override
+      public synchronized void publish(ServerEvent event)
+      {
+        events.add(event);
+      }
+    };
+    service.writeTimeout = Duration.ofSeconds(1);
+    service.maxRead = 8192;
+    service.backgroundRead = 256;
+    service.progressInterval = Duration.ZERO;
+    service.i2cService = new I2CService() {
+      @Override
+      public I2CResponse transfer(int bus, int address, byte[] write, int readLength)
+      {
+        transfers.add(String.format("0x%02x w%d r%d", address, write.length, readLength));
+        if (busyPolls > 0) {
+          busyPolls--;
+          return I2CResponse.failure(I2CErrorCode.NACK, "Command failed: Error: Sending messages failed: "
+                                     + "Remote I/O error", "");
+        }
+        if (write.length > 0) {
+          pointer = addressWidth == 1 ? ((address - 0x50) << 8) | (write[0] & 0xff)
+                  : ((write[0] & 0xff) << 8) | (write[1] & 0xff);
+          int page = pointer - pointer % pageSize;
+          for (int i = addressWidth; i < write.length; i++) {
+            memory[page + (pointer - page + i - addressWidth) % pageSize] = write[i];
+          }
+          if (write.length > addressWidth) {
+            busyPolls = writeCycle;
+          }
+        }
+        I2CResponse response = new I2CResponse(true, "", null, "");
+        if (readLength > 0) {
+          byte[] data = new byte[readLength];
+          for (int i = 0; i < readLength; i++) {
+            data[i] = memory[(pointer + i) % memory.length];
+          }
+          response.setBytes(data);
+        }
+        return response;
+      }
+    };
+    service.registry = new DeviceProfileRegistry() {
+      @Override
+      public DeviceProfile getProfile(String name)
+      {
+        DeviceProfile profile = new DeviceProfile(name, null, List.of());
+        if ("24c32".equals(name)) {
+          profile.setEeprom(new EepromDefinition(4096, 32, 2));
+          return profile;
+        }
+        return "lm75".equals(name) ? profile : null;
+      }
+    };
+  }
+
+  private EepromDefinition simulate(int size, int page, int width)
+  {
+    memory = new byte[size];
+    pageSize = page;
+    addressWidth = width;
+    return new EepromDefinition(size, page, width);
+  }
+
+  private static byte[] pattern(int length)
+  {
+    byte[] data = new byte[length];
+    for (int i = 0; i < length; i++) {
+      data[i] = (byte) (i * 7 + 3);
+    }
+    return data;
+  }
+
+  @Test
+  void testWriteIsSplitAtPageBoundaries() throws IOException
+  {
+    EepromDefinition eeprom = simulate(4096, 32, 2);
+    byte[] data = pattern(100);
+
+    EepromService.WriteResult result = service.write(1, 0x50, eeprom, 0x10, data, false);
+
+    // 0x10-0x1f, 0x20-0x3f, 0x40-0x5f, 0x60-0x73
+    assertEquals(4, result.pages());
+    assertEquals(100, result.bytes());
+    assertEquals(4 * 3, result.polls());
+    assertEquals("0x50 w18 r0", transfers.get(0));
+    assertEquals("0x50 w0 r1", transfers.get(1));
+    assertEquals("0x50 w34 r0", transfers.get(4));
+    byte[] stored = new byte[100];
+    System.arraycopy(memory, 0x10, stored, 0, 100);
+    assertArrayEquals(data, stored);
+  }
+
+  @Test
+  void testWriteWithVerify() throws IOException
+  {
+    EepromDefinition eeprom = simulate(4096, 32, 2);
+
+    EepromService.WriteResult result = service.write(1, 0x50, eeprom, 0, pattern(64), true);
+
+    assertTrue(result.verified());
+    assertEquals("0x50 w2 r64", transfers.get(transfers.size() - 1));
+  }
+
+  @Test
+  void testVerifyDetectsMismatch()
+  {
+    EepromDefinition eeprom = simulate(4096, 32, 2);
+    // the device has smaller pages than configured, so the second half wraps around
+    pageSize = 16;
+
+    IOException e = assertThrows(IOException.class, () -> service.write(1, 0x50, eeprom, 0, pattern(32), true));
+
+    assertTrue(e.getMessage().startsWith("Verification failed at 0x0000"));
+  }
+
+  @Test
+  void testWriteTimesOutWithoutAcknowledge()
+  {
+    EepromDefinition eeprom = simulate(4096, 32, 2);
+    writeCycle = Integer.MAX_VALUE;
+    service.writeTimeout = Duration.ofMillis(20);
+
+    IOException e = assertThrows(IOException.class, () -> service.write(1, 0x50, eeprom, 0, pattern(8), false));
+
+    assertEquals("EEPROM 0x50 did not acknowledge within 20 ms after write at 0x0000", e.getMessage());
+  }
+
+  @Test
+  void testReadUsesSequentialReads() throws IOException
+  {
+    EepromDefinition eeprom = simulate(4096, 32, 2);
+    System.arraycopy(pattern(4096), 0, memory, 0, 4096);
+    service.maxRead = 1024;
+
+    byte[] data = service.read(1, 0x50, eeprom, 0x100, 3000);
+
+    assertEquals(List.of("0x50 w2 r1024", "0x50 w2 r1024", "0x50 w2 r952"), transfers);
+    byte[] expected = new byte[3000];
+    System.arraycopy(pattern(4096), 0x100, expected, 0, 3000);
+    assertArrayEquals(expected, data);
+  }
+
+  @Test
+  void testBulkReadIsSplitForPreemption() throws IOException
+  {
+    EepromDefinition eeprom = simulate(4096, 32, 2);
+    System.arraycopy(pattern(4096), 0, memory, 0, 4096);
+
+    byte[] data = Lane.call(Priority.BULK, null, () -> service.read(1, 0x50, eeprom, 0, 600));
+
+    assertEquals(List.of("0x50 w2 r256", "0x50 w2 r256", "0x50 w2 r88"), transfers);
+    assertArrayEquals(Arrays.copyOf(pattern(4096), 600), data);
+  }
+
+  @Test
+  void testSingleAddressByteUsesBlockAddresses() throws IOException
+  {
+    EepromDefinition eeprom = simulate(2048, 16, 1);
+    byte[] data = pattern(40);
+
+    service.write(1, 0x50, eeprom, 0x1f0, data, false);
+    transfers.clear();
+    byte[] read = service.read(1, 0x50, eeprom, 0x1f0, 40);
+
+    assertArrayEquals(data, read);
+    assertEquals(List.of("0x51 w1 r16", "0x52 w1 r24"), transfers);
+  }
+
+  @Test
+  void testProgressEvents() throws IOException
+  {
+    EepromDefinition eeprom = simulate(4096, 32, 2);
+
+    service.write(1, 0x50, eeprom, 0, pattern(96), false);
+    service.read(1, 0x50, eeprom, 0, 96);
+
+    assertEquals(3 + 1, events.size());
+    assertEquals("eeprom", events.get(0).getType());
+    assertEquals("1:0x50", events.get(0).getSource());
+    assertEquals(Map.of("operation", "write", "done", 32, "total", 96), events.get(0).getData());
+    assertEquals(Map.of("operation", "read", "done", 96, "total", 96), events.get(3).getData());
+  }
+
+  @Test
+  void testRangeValidation()
+  {
+    EepromDefinition eeprom = simulate(256, 8, 1);
+
+    assertThrows(IllegalArgumentException.class, () -> service.read(1, 0x50, eeprom, 200, 57));
+    assertThrows(IllegalArgumentException.class, () -> service.read(1, 0x50, eeprom, -1, 1));
+    assertThrows(IllegalArgumentException.class, () -> service.write(1, 0x50, eeprom, 0, new byte[0], false));
+    assertTrue(transfers.isEmpty());
+  }
+
+  @Test
+  void testResolve()
+  {
+    EepromDefinition profile = service.resolve("24c32", null, null, null);
+    assertEquals(4096, profile.getSize());
+    assertEquals(32, profile.getPageSize());
+    assertEquals(2, profile.getAddressWidth());
+
+    EepromDefinition overridden = service.resolve("24c32", 8192, null, null);
+    assertEquals(8192, overridden.getSize());
+
+    EepromDefinition explicit = service.resolve(null, 256, 8, 1);
+    assertEquals(8, explicit.getPageSize());
+
+    assertThrows(IllegalArgumentException.class, () -> service.resolve("lm75", null, null, null));
+    assertThrows(IllegalArgumentException.class, () -> service.resolve("missing", null, null, null));
+    assertThrows(IllegalArgumentException.class, () -> service.resolve(null, 256, null, 1));
+    assertThrows(IllegalArgumentException.class, () -> service.resolve(null, 4096, 32, 1));
+    assertThrows(IllegalArgumentException.class, () -> service.resolve(null, 256, 12, 1));
+  }
+
+  @Test
+  void testReadPayload() throws IOException
+  {
+    assertArrayEquals(new byte[]{1, 2}, EepromService.readPayload(new ByteArrayInputStream(new byte[]{1, 2}), 2));
+    assertThrows(IllegalArgumentException.class,
+            () -> EepromService.readPayload(new ByteArrayInputStream(new byte[]{1, 2, 3}), 2));
+    assertThrows(IllegalArgumentException.class,
+            () -> EepromService.readPayload(new ByteArrayInputStream(new byte[0]), 2));
+  }
+
+  @Test
+  void testParseAddress()
+  {
+    assertEquals(0x50, EepromService.parseAddress("0x50"));
+    assertThrows(IllegalArgumentException.class, () -> EepromService.parseAddress("80"));
+    assertThrows(IllegalArgumentException.class, () -> EepromService.parseAddress("0x80"));
+    assertThrows(IllegalArgumentException.class, () -> EepromService.parseAddress(null));
+  }
+}
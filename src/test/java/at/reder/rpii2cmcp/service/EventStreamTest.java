@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.ServerEvent;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.subscription.Cancellable;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for EventStream.
+ */
+@QuarkusTest
+class EventStreamTest {
+
+  @Inject
+  EventStream eventStream;
+
+  @Test
+  void testSubscribersReceiveFilteredEvents()
+  {
+    List<ServerEvent> all = new CopyOnWriteArrayList<>();
+    List<ServerEvent> filtered = new CopyOnWriteArrayList<>();
+    Cancellable allSubscription = eventStream.subscribe(null, null).subscribe().with(all::add);
+    Cancellable filteredSubscription = eventStream.subscribe("monitor", "a").subscribe().with(filtered::add);
+    long before = eventStream.getPublishedCount();
+
+    eventStream.publish(new ServerEvent("monitor", "a", 1, Map.of("edge", "rising")));
+    eventStream.publish(new ServerEvent("monitor", "b", 2, Map.of("edge", "rising")));
+    eventStream.publish(new ServerEvent("other", "a", 3, Map.of()));
+
+    assertEquals(3, all.size());
+    assertEquals(1, filtered.size());
+    assertEquals(1, filtered.get(0).getTimestamp());
+    assertEquals(before + 3, eventStream.getPublishedCount());
+    allSubscription.cancel();
+    filteredSubscription.cancel();
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.model.ServerEvent;
+import at.reder.rpii2cmcp.model.profile.DeviceProfile;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.enterprise.inject.Instance;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GpioTriggerService and GpioTrigger with the simulated edge source.
+ */
+@QuarkusTest
+class GpioTriggerServiceTest {
+
+  private GpioTriggerService service;
+  private SimulatedGpioEventSource source;
+  private final List<ServerEvent> events = new ArrayList<>();
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp()
+  {
+    source = new SimulatedGpioEventSource();
+    Instance<GpioEventSource> sources = mock(Instance.class);
+    when(sources.iterator()).thenAnswer(invocation -> List.<GpioEventSource>of(source).iterator());
+    service = new GpioTriggerService();
+    service.sources = sources;
+    service.sourceName = SimulatedGpioEventSource.NAME;
+    service.maxTriggers = 2;
+    service.i2cService = mock(I2CService.class);
+    service.deviceProfileService = mock(DeviceProfileService.class);
+    service.eventStream = new EventStream() {
+      @Override
+      public synchronized void publish(ServerEvent event)
+      {
+        events.add(event);
+      }
+    };
+  }
+
+  @AfterEach
+  void tearDown()
+  {
+    service.shutdown();
+  }
+
+  private static GpioTrigger.Read raw(int length)
+  {
+    return new GpioTrigger.Read(1, "0x48", null, List.of(), "0x00", length);
+  }
+
+  private void response(boolean success, String data, byte[] bytes)
+  {
+    I2CResponse response = new I2CResponse(success, data, success ? null : "Device not found", "i2cget");
+    response.setBytes(bytes);
+    when(service.i2cService.executeCommand(any(I2CCommand.class))).thenReturn(response);
+  }
+
+  @Test
+  void testReadFiresOnlyOnMatchingEdges() throws IOException
+  {
+    response(true, "0x19 0x00", new byte[]{0x19, 0x00});
+    GpioTrigger trigger = service.add("drdy", "gpiochip0", 17, "falling", 0, raw(2));
+
+    source.trigger("gpiochip0", 17, true);
+    source.trigger("gpiochip0", 17, false);
+    source.trigger("gpiochip0", 18, false);
+
+    assertEquals(1, events.size());
+    ServerEvent event = events.get(0);
+    assertEquals("gpio", event.getType());
+    assertEquals("drdy", event.getSource());
+    assertEquals("falling", event.getData().get("edge"));
+    assertEquals(17, event.getData().get("line"));
+    assertEquals("1900", event.getData().get("hex"));
+    Map<String, Object> state = trigger.toMap();
+    assertEquals(2L, state.get("edges"));
+    assertEquals(1L, state.get("reads"));
+    assertEquals(1L, state.get("skipped"));
+    verify(service.i2cService).executeCommand(argThat(command -> "i 2".equals(command.getMode())));
+  }
+
+  @Test
+  void testReadRunsInMonitoringLane() throws IOException
+  {
+    List<Priority> priorities = new ArrayList<>();
+    when(service.i2cService.executeCommand(any(I2CCommand.class))).thenAnswer(invocation -> {
+      priorities.add(Lane.currentPriority());
+      return new I2CResponse(true, "0x01", null, "i2cget");
+    });
+    service.add("drdy", "gpiochip0", 17, "falling", 0, raw(1));
+
+    source.trigger("gpiochip0", 17, false);
+
+    assertEquals(List.of(Priority.MONITORING), priorities);
+  }
+
+  @Test
+  void testDebounce() throws IOException
+  {
+    response(true, "0x01", new byte[]{0x01});
+    GpioTrigger trigger = service.add(null, "gpiochip0", 4, "both", 60_000, raw(1));
+
+    source.trigger("gpiochip0", 4, true);
+    source.trigger("gpiochip0", 4, false);
+
+    assertEquals("g1", trigger.getId());
+    assertEquals(1, events.size());
+    assertEquals(1L, trigger.toMap().get("skipped"));
+    verify(service.i2cService).executeCommand(argThat(command -> command.getMode() == null));
+  }
+
+  @Test
+  void testProfileRead() throws IOException
+  {
+    when(service.deviceProfileService.getProfile("tmp102")).thenReturn(new DeviceProfile());
+    when(service.deviceProfileService.readDevice(1, "0x48", "tmp102", List.of("temperature")))
+            .thenReturn(Map.of("registers", Map.of("temperature", Map.of("value", 25.0))));
+    service.add("t", "gpiochip0", 5, "rising", 0,
+                new GpioTrigger.Read(1, "0x48", "tmp102", List.of("temperature"), null, 1));
+
+    source.trigger("gpiochip0", 5, true);
+
+    assertEquals(1, events.size());
+    assertTrue(events.get(0).getData().containsKey("registers"));
+  }
+
+  @Test
+  void testReadErrorIsPublished() throws IOException
+  {
+    response(false, null, null);
+    GpioTrigger trigger = service.add("drdy", "gpiochip0", 17, "rising", 0, raw(1));
+
+    source.trigger("gpiochip0", 17, true);
+
+    assertEquals("Read at 0x00 failed: Device not found", events.get(0).getData().get("error"));
+    assertEquals(1L, trigger.toMap().get("errors"));
+    assertEquals("Read at 0x00 failed: Device not found", trigger.toMap().get("error"));
+  }
+
+  @Test
+  void testAddValidation() throws IOException
+  {
+    assertThrows(IllegalArgumentException.class, () -> service.add("..", "gpiochip0", 1, "rising", 0, raw(1)));
+    assertThrows(IllegalArgumentException.class, () -> service.add(null, "/dev/mem", 1, "rising", 0, raw(1)));
+    assertThrows(IllegalArgumentException.class, () -> service.add(null, "gpiochip0", -1, "rising", 0, raw(1)));
+    assertThrows(IllegalArgumentException.class, () -> service.add(null, "gpiochip0", 1, "up", 0, raw(1)));
+    assertThrows(IllegalArgumentException.class, () -> service.add(null, "gpiochip0", 1, "rising", -1, raw(1)));
+    assertThrows(IllegalArgumentException.class, () -> service.add(null, "gpiochip0", 1, "rising", 0, raw(33)));
+    assertThrows(IllegalArgumentException.class, () -> service.add(null, "gpiochip0", 1, "rising", 0,
+            new GpioTrigger.Read(1, "48", null, List.of(), "0x00", 1)));
+    assertThrows(IllegalArgumentException.class, () -> service.add(null, "gpiochip0", 1, "rising", 0,
+            new GpioTrigger.Read(1, "0x48", null, List.of(), null, 1)));
+
+    service.add("a", "gpiochip0", 1, "rising", 0, raw(1));
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> service.add("b", "gpiochip0", 1, "rising", 0, raw(1)));
+    assertEquals("Line 1 of gpiochip0 is used by trigger a", e.getMessage());
+    assertThrows(IllegalArgumentException.class, () -> service.add("a", "gpiochip0", 2, "rising", 0, raw(1)));
+    service.add("b", "gpiochip0", 2, "rising", 0, raw(1));
+    e = assertThrows(IllegalArgumentException.class, () -> service.add("c", "gpiochip0", 3, "rising", 0, raw(1)));
+    assertEquals("Too many triggers, the limit is 2", e.getMessage());
+  }
+
+  @Test
+  void testConcurrentAddsWatchLineOnce() throws InterruptedException
+  {
+    response(true, "0x01", new byte[]{0x01});
+    service.maxTriggers = 32;
+    AtomicInteger rejected = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 16; i++) {
+      String id = "t" + i;
+      executor.submit(() -> {
+        start.await();
+        try {
+          service.add(id, "gpiochip0", 5, "rising", 0, raw(1));
+        } catch (IllegalArgumentException e) {
+          rejected.incrementAndGet();
+        }
+        return null;
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(1, service.getTriggers().size());
+    assertEquals(15, rejected.get());
+    assertEquals(1, source.trigger("gpiochip0", 5, true));
+  }
+
+  @Test
+  void testUnknownSource()
+  {
+    service.sourceName = "sysfs";
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> service.add("a", "gpiochip0", 1, "rising", 0, raw(1)));
+
+    assertEquals("Unknown GPIO source: sysfs. Available sources are: simulated", e.getMessage());
+    assertTrue(service.getTriggers().isEmpty());
+  }
+
+  @Test
+  void testRemoveStopsWatching() throws IOException
+  {
+    response(true, "0x01", new byte[]{0x01});
+    service.add("a", "gpiochip0", 1, "rising", 0, raw(1));
+
+    assertTrue(service.remove("a"));
+    assertFalse(service.remove("a"));
+    assertFalse(service.remove(null));
+    assertEquals(0, source.trigger("gpiochip0", 1, true));
+    assertNull(service.getTrigger("a"));
+    assertTrue(events.isEmpty());
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import io.quarkus.test.junit.QuarkusTest;
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for GpiomonEventSource.
+ */
+@QuarkusTest
+class GpiomonEventSourceTest {
+
+  @Test
+  void testParseEdge()
+  {
+    // libgpiod 1.x
+    assertEquals(Boolean.TRUE, GpiomonEventSource.parseEdge("event:  RISING EDGE offset: 17 timestamp: [1.5]"));
+    assertEquals(Boolean.FALSE, GpiomonEventSource.parseEdge("event: FALLING EDGE offset: 17 timestamp: [1.5]"));
+    // libgpiod 2.x
+    assertEquals(Boolean.TRUE, GpiomonEventSource.parseEdge("1234.567890123\trising\tgpiochip0 17"));
+    assertEquals(Boolean.FALSE, GpiomonEventSource.parseEdge("1234.567890123\tfalling\tgpiochip0 17"));
+    assertNull(GpiomonEventSource.parseEdge("gpiomon: unable to request lines"));
+  }
+
+  @Test
+  void testCommand()
+  {
+    GpiomonEventSource source = new GpiomonEventSource();
+    source.monitorCommand = "gpiomon -c {chip}  {line}";
+
+    assertEquals(List.of("gpiomon", "-c", "gpiochip4", "17"), source.command("gpiochip4", 17));
+  }
+
+  @Test
+  void testWatchParsesProcessOutput() throws Exception
+  {
+    GpiomonEventSource source = new GpiomonEventSource();
+    source.monitorCommand = "echo {chip} {line} falling";
+    BlockingQueue<GpioEventSource.Edge> edges = new ArrayBlockingQueue<>(4);
+
+    try (Closeable watch = source.watch("gpiochip0", 17, edges::add)) {
+      GpioEventSource.Edge edge = edges.poll(10, TimeUnit.SECONDS);
+
+      assertNotNull(edge);
+      assertEquals("gpiochip0", edge.chip());
+      assertEquals(17, edge.line());
+      assertFalse(edge.rising());
+    }
+  }
+}
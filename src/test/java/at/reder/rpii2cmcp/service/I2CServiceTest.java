@@ -16,16 +16,28 @@
 package at.reder.rpii2cmcp.service;
 
 import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CErrorCode;
 import at.reder.rpii2cmcp.model.I2CResponse;
 import io.quarkus.test.junit.QuarkusTest;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledOnOs;
 import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
 import static org.mockito.Mockito.*;
 
 /**
@@ -445,4 +457,615 @@ class I2CServiceTest {
     I2CCommand cmd = new I2CCommand(1, "0x48", "0x00", "0xFF", "write", "w");
     assertDoesNotThrow(() -> service.validateCommand(cmd));
   }
+
+  // Raw byte parsing tests
+
+  @Test
+  void testParseReadOutputByte()
+  {
+    assertArrayEquals(new byte[]{0x42}, service.parseReadOutput("0x42\n", null));
+    assertArrayEquals(new byte[]{0x42}, service.parseReadOutput("0x42", "b"));
+  }
+
+  @Test
+  void testParseReadOutputWord()
+  {
+    // SMBus transfers the low byte first
+    assertArrayEquals(new byte[]{0x34, 0x12}, service.parseReadOutput("0x1234\n", "w"));
+  }
+
+  @Test
+  void testParseReadOutputBlock()
+  {
+    assertArrayEquals(new byte[]{0x12, 0x34, 0x56, (byte) 0xFF},
+                      service.parseReadOutput("0x12 0x34 0x56 0xff\n", "i 4"));
+  }
+
+  @Test
+  void testParseReadOutputInvalid()
+  {
+    assertNull(service.parseReadOutput("Error: Read failed\n", null));
+    assertNull(service.parseReadOutput("", null));
+    assertNull(service.parseReadOutput("0x12 0x34", "w"));
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testExecuteReadCommandSetsBytes()
+  {
+    service.i2cgetPath = "/bin/echo";
+    I2CCommand cmd = new I2CCommand(1, "0x48", "0x00", null, "read");
+
+    I2CResponse response = service.executeCommand(cmd);
+
+    // echo prints the arguments, which are not a valid i2cget output
+    assertTrue(response.isSuccess());
+    assertNull(response.getBytes());
+  }
+
+  /**
+   * Replaces i2cget and i2cset by scripts simulating one register stored in a file.
+   */
+  private Path simulateRegister(Path directory, String initial) throws IOException
+  {
+    Path register = directory.resolve("register");
+    Files.writeString(register, initial + "\n");
+    Path get = directory.resolve("i2cget");
+    Files.writeString(get, "#!/bin/sh\ncat " + register + "\n");
+    Path set = directory.resolve("i2cset");
+    // arguments: -y -a bus address register value [mode]
+    Files.writeString(set, "#!/bin/sh\nsleep 0.01\necho $6 > " + register + "\n");
+    Files.setPosixFilePermissions(get, PosixFilePermissions.fromString("rwx------"));
+    Files.setPosixFilePermissions(set, PosixFilePermissions.fromString("rwx------"));
+    service.i2cgetPath = get.toString();
+    service.i2csetPath = set.toString();
+    return register;
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testUpdateBits(@TempDir Path directory) throws IOException
+  {
+    Path register = simulateRegister(directory, "0xa5");
+
+    I2CService.BitUpdate update = service.updateBits(1, "0x48", "0x01", 0x0f, 0x03, false);
+
+    assertEquals(0xa5, update.oldValue());
+    assertEquals(0xa3, update.newValue());
+    assertTrue(update.written());
+    assertEquals("0xa3", Files.readString(register).trim());
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testUpdateBitsWord(@TempDir Path directory) throws IOException
+  {
+    Path register = simulateRegister(directory, "0x1234");
+
+    I2CService.BitUpdate update = service.updateBits(1, "0x48", "0x01", 0x8000, 0x8000, true);
+
+    assertEquals(0x9234, update.newValue());
+    assertEquals("0x9234", Files.readString(register).trim());
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testUpdateBitsSkipsUnchangedValue(@TempDir Path directory) throws IOException
+  {
+    Path register = simulateRegister(directory, "0x80");
+    service.i2csetPath = "/bin/false";
+
+    I2CService.BitUpdate update = service.updateBits(1, "0x48", "0x01", 0x80, 0x80, false);
+
+    assertFalse(update.written());
+    assertEquals(0x80, update.newValue());
+    assertEquals("0x80", Files.readString(register).trim());
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testConcurrentUpdateBitsDoNotLoseUpdates(@TempDir Path directory) throws Exception
+  {
+    Path register = simulateRegister(directory, "0x00");
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<I2CService.BitUpdate>> futures = new ArrayList<>();
+      for (int bit = 0; bit < 8; bit++) {
+        int mask = 1 << bit;
+        futures.add(executor.submit(() -> service.updateBits(1, "0x48", "0x01", mask, mask, false)));
+      }
+      for (Future<I2CService.BitUpdate> future : futures) {
+        assertTrue(future.get().written());
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals("0xff", Files.readString(register).trim());
+  }
+
+  @Test
+  void testUpdateBitsValidation()
+  {
+    assertThrows(IllegalArgumentException.class, () -> service.updateBits(1, "0x48", "0x01", 0, 0, false));
+    assertThrows(IllegalArgumentException.class, () -> service.updateBits(1, "0x48", "0x01", 0x100, 0, false));
+    assertThrows(IllegalArgumentException.class, () -> service.updateBits(1, "0x48", "0x01", 0x0f, 0x10, false));
+    assertThrows(IllegalArgumentException.class, () -> service.updateBits(99, "0x48", "0x01", 0x0f, 0x01, false));
+    assertThrows(IllegalArgumentException.class, () -> service.updateBits(1, "48", "0x01", 0x0f, 0x01, false));
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testUpdateBitsReadAndWriteErrors(@TempDir Path directory) throws IOException
+  {
+    service.i2cgetPath = "/bin/false";
+    IOException e = assertThrows(IOException.class,
+            () -> service.updateBits(1, "0x48", "0x01", 0x0f, 0x01, false));
+    assertTrue(e.getMessage().startsWith("Read of 0x01 failed"));
+
+    service.i2cgetPath = "/bin/echo";
+    e = assertThrows(IOException.class, () -> service.updateBits(1, "0x48", "0x01", 0x0f, 0x01, false));
+    assertTrue(e.getMessage().startsWith("Cannot parse read output"));
+
+    simulateRegister(directory, "0x00");
+    service.i2csetPath = "/bin/false";
+    e = assertThrows(IOException.class, () -> service.updateBits(1, "0x48", "0x01", 0x0f, 0x01, false));
+    assertTrue(e.getMessage().startsWith("Write of 0x01 failed"));
+  }
+
+  // Error classification and circuit breaker tests
+
+  /**
+   * Replaces i2cget by a script that fails like i2cget on a missing device as long as the marker file exists and
+   * counts its invocations in a second file.
+   */
+  private Path simulateAbsentDevice(Path directory) throws IOException
+  {
+    Path absent = directory.resolve("absent");
+    Files.writeString(absent, "");
+    Path calls = directory.resolve("calls");
+    Path get = directory.resolve("i2cget");
+    Files.writeString(get, "#!/bin/sh\necho x >> " + calls + "\nif [ -f " + absent
+            + " ]; then echo 'Error: Read failed'; exit 2; fi\necho 0x42\n");
+    Files.setPosixFilePermissions(get, PosixFilePermissions.fromString("rwx------"));
+    service.i2cgetPath = get.toString();
+    service.breakerEnabled = true;
+    service.breakerThreshold = 3;
+    service.breakerCooldown = Duration.ofMillis(200);
+    return absent;
+  }
+
+  private static int countCalls(Path directory) throws IOException
+  {
+    Path calls = directory.resolve("calls");
+    return Files.exists(calls) ? Files.readAllLines(calls).size() : 0;
+  }
+
+  @Test
+  void testErrorCodes()
+  {
+    assertEquals(I2CErrorCode.INVALID, service.executeCommand(null).getErrorCode());
+    assertEquals(I2CErrorCode.INVALID,
+                 service.executeCommand(new I2CCommand(99, "0x48", "0x00", null, "read")).getErrorCode());
+    service.i2cEnabled = false;
+    assertEquals(I2CErrorCode.DISABLED,
+                 service.executeCommand(new I2CCommand(1, "0x48", "0x00", null, "read")).getErrorCode());
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testCircuitOpensAfterRepeatedNacks(@TempDir Path directory) throws IOException
+  {
+    simulateAbsentDevice(directory);
+    I2CCommand cmd = new I2CCommand(1, "0x48", "0x00", null, "read");
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(I2CErrorCode.NACK, service.executeCommand(cmd).getErrorCode());
+    }
+    I2CResponse response = service.executeCommand(cmd);
+
+    assertEquals(I2CErrorCode.CIRCUIT_OPEN, response.getErrorCode());
+    assertTrue(response.getError().startsWith("Device 0x48 on bus 1 does not respond"));
+    assertEquals(3, countCalls(directory));
+    assertEquals(CircuitBreaker.State.OPEN, service.getCircuitState(1, "0x48"));
+    // other devices on the bus are not affected
+    assertEquals(I2CErrorCode.NACK,
+                 service.executeCommand(new I2CCommand(1, "0x49", "0x00", null, "read")).getErrorCode());
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testHalfOpenProbe(@TempDir Path directory) throws Exception
+  {
+    Path absent = simulateAbsentDevice(directory);
+    I2CCommand cmd = new I2CCommand(1, "0x48", "0x00", null, "read");
+    for (int i = 0; i < 3; i++) {
+      service.executeCommand(cmd);
+    }
+
+    // a failed probe opens the circuit again
+    Thread.sleep(250);
+    assertEquals(I2CErrorCode.NACK, service.executeCommand(cmd).getErrorCode());
+    assertEquals(I2CErrorCode.CIRCUIT_OPEN, service.executeCommand(cmd).getErrorCode());
+    assertEquals(4, countCalls(directory));
+
+    // a successful probe closes it
+    Files.delete(absent);
+    Thread.sleep(250);
+    assertTrue(service.executeCommand(cmd).isSuccess());
+    assertEquals(CircuitBreaker.State.CLOSED, service.getCircuitState(1, "0x48"));
+    assertTrue(service.executeCommand(cmd).isSuccess());
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testSuccessResetsFailureCount(@TempDir Path directory) throws IOException
+  {
+    Path absent = simulateAbsentDevice(directory);
+    I2CCommand cmd = new I2CCommand(1, "0x48", "0x00", null, "read");
+
+    service.executeCommand(cmd);
+    service.executeCommand(cmd);
+    Files.delete(absent);
+    assertTrue(service.executeCommand(cmd).isSuccess());
+    Files.writeString(absent, "");
+    service.executeCommand(cmd);
+    service.executeCommand(cmd);
+
+    assertEquals(CircuitBreaker.State.CLOSED, service.getCircuitState(1, "0x48"));
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testUnrelatedErrorsDoNotOpenCircuit(@TempDir Path directory) throws IOException
+  {
+    simulateAbsentDevice(directory);
+    service.i2cgetPath = "/bin/false";
+    I2CCommand cmd = new I2CCommand(1, "0x48", "0x00", null, "read");
+
+    for (int i = 0; i < 5; i++) {
+      assertEquals(I2CErrorCode.UNKNOWN, service.executeCommand(cmd).getErrorCode());
+    }
+
+    assertEquals(CircuitBreaker.State.CLOSED, service.getCircuitState(1, "0x48"));
+  }
+
+  @Test
+  void testSimulatedBusStartsNoProcess()
+  {
+    service.i2cgetPath = "/nonexistent/i2cget";
+    service.i2csetPath = "/nonexistent/i2cset";
+    service.breakerEnabled = true;
+    service.breakerThreshold = 1;
+    service.breakerCooldown = Duration.ofMinutes(1);
+
+    I2CResponse read = service.simulate(
+            () -> service.executeCommand(new I2CCommand(1, "0x48", "0x00", null, "read", "i 3")));
+    I2CResponse word = service.simulate(
+            () -> service.executeCommand(new I2CCommand(1, "0x48", "0x00", null, "read", "w")));
+    I2CResponse write = service.simulate(
+            () -> service.executeCommand(new I2CCommand(1, "0x48", "0x00", "0x01", "write")));
+
+    assertTrue(read.isSuccess());
+    assertArrayEquals(new byte[]{0x42, 0x42, 0x42}, read.getBytes());
+    assertEquals("0x4242", word.getData());
+    assertTrue(write.isSuccess());
+    assertFalse(service.isSimulated());
+    // outside the simulation the real command runs
+    assertFalse(service.executeCommand(new I2CCommand(1, "0x48", "0x00", null, "read")).isSuccess());
+  }
+
+  @Test
+  void testSimulationEnabledHoldsBus()
+  {
+    service.i2cgetPath = "/nonexistent/i2cget";
+    service.i2ctransferPath = "/nonexistent/i2ctransfer";
+    service.simulationEnabled = true;
+    service.simulatedTransactionUs = 20_000;
+
+    long start = System.nanoTime();
+    I2CResponse read = service.executeCommand(new I2CCommand(1, "0x48", "0x00", null, "read"));
+    I2CResponse transfer = service.transfer(1, 0x50, new byte[]{0x00, 0x00}, 4);
+
+    assertTrue(service.isSimulated());
+    assertEquals("0x42", read.getData());
+    assertArrayEquals(new byte[]{0x42, 0x42, 0x42, 0x42}, transfer.getBytes());
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40));
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testTransfer(@TempDir Path directory) throws IOException
+  {
+    Path script = directory.resolve("i2ctransfer");
+    Path arguments = directory.resolve("arguments");
+    Files.writeString(script, "#!/bin/sh\necho \"$@\" > " + arguments + "\necho 0x01 0x02 0xff\n");
+    Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwx------"));
+    service.i2ctransferPath = script.toString();
+
+    I2CResponse response = service.transfer(1, 0x50, new byte[]{0x01, (byte) 0x80}, 3);
+
+    assertTrue(response.isSuccess());
+    assertArrayEquals(new byte[]{0x01, 0x02, (byte) 0xff}, response.getBytes());
+    assertEquals("-y -a 1 w2@0x50 0x01 0x80 r3@0x50", Files.readString(arguments).trim());
+    // a short read is reported instead of returning truncated data
+    assertEquals(I2CErrorCode.UNKNOWN, service.transfer(1, 0x50, new byte[0], 4).getErrorCode());
+  }
+
+  @Test
+  void testTransferValidation()
+  {
+    assertThrows(IllegalArgumentException.class, () -> service.transfer(-1, 0x50, new byte[0], 1));
+    assertThrows(IllegalArgumentException.class, () -> service.transfer(1, 0x80, new byte[0], 1));
+    assertThrows(IllegalArgumentException.class, () -> service.transfer(1, 0x50, new byte[0], 0));
+    assertThrows(IllegalArgumentException.class,
+            () -> service.transfer(1, 0x50, new byte[0], I2CService.MAX_TRANSFER_LENGTH + 1));
+
+    service.i2cEnabled = false;
+    assertEquals(I2CErrorCode.DISABLED, service.transfer(1, 0x50, new byte[]{0x00}, 0).getErrorCode());
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testShadowSkipsUnchangedWrites(@TempDir Path directory) throws IOException
+  {
+    Path register = simulateRegister(directory, "0x00");
+    service.shadowEnabled = true;
+    assertTrue(service.declareShadow(1, "0x48", 0x01, 1));
+    assertFalse(service.declareShadow(1, "0x48", 0x01, 1));
+
+    assertFalse(service.executeCommand(new I2CCommand(1, "0x48", "0x01", "0x05", "write")).isShadow());
+    assertEquals(Integer.valueOf(0x05), service.getShadowValue(1, "0x48", 0x01));
+    // a write reaching the device would overwrite the marker
+    Files.writeString(register, "0x77\n");
+    I2CResponse skipped = service.executeCommand(new I2CCommand(1, "0x48", "0x01", "0x5", "write"));
+
+    assertTrue(skipped.isSuccess());
+    assertTrue(skipped.isShadow());
+    assertEquals("0x77", Files.readString(register).trim());
+    assertEquals(1, service.getElidedWrites());
+
+    I2CCommand forced = new I2CCommand(1, "0x48", "0x01", "0x05", "write");
+    forced.setForce(true);
+    assertFalse(service.executeCommand(forced).isShadow());
+    assertEquals("0x05", Files.readString(register).trim());
+    service.executeCommand(new I2CCommand(1, "0x48", "0x01", "0x06", "write"));
+    assertEquals("0x06", Files.readString(register).trim());
+    assertEquals(1, service.getElidedWrites());
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testShadowServesReads(@TempDir Path directory) throws IOException
+  {
+    Path register = simulateRegister(directory, "0x00");
+    service.shadowEnabled = true;
+    service.declareShadow(1, "0x48", 0x01, 1);
+    service.declareShadow(1, "0x48", 0x02, 2);
+
+    // unknown until written
+    assertFalse(service.executeCommand(new I2CCommand(1, "0x48", "0x01", null, "read")).isShadow());
+    service.executeCommand(new I2CCommand(1, "0x48", "0x01", "0xa5", "write"));
+    service.executeCommand(new I2CCommand(1, "0x48", "0x02", "0x1234", "write"));
+    Files.writeString(register, "0x99\n");
+
+    I2CResponse byteRead = service.executeCommand(new I2CCommand(1, "0x48", "0x01", null, "read", "b"));
+    I2CResponse wordRead = service.executeCommand(new I2CCommand(1, "0x48", "0x02", null, "read", "w"));
+    I2CResponse blockRead = service.executeCommand(new I2CCommand(1, "0x48", "0x02", null, "read", "i 2"));
+    I2CResponse wider = service.executeCommand(new I2CCommand(1, "0x48", "0x01", null, "read", "w"));
+    I2CResponse other = service.executeCommand(new I2CCommand(1, "0x48", "0x00", null, "read"));
+
+    assertTrue(byteRead.isShadow());
+    assertEquals("0xa5", byteRead.getData());
+    assertEquals("0x1234", wordRead.getData());
+    assertArrayEquals(new byte[]{0x34, 0x12}, blockRead.getBytes());
+    assertTrue(blockRead.isShadow());
+    assertFalse(wider.isShadow());
+    assertEquals("0x99", other.getData());
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testShadowInvalidatedByOverlappingOrFailedWrites(@TempDir Path directory) throws IOException
+  {
+    simulateRegister(directory, "0x00");
+    service.shadowEnabled = true;
+    service.declareShadow(1, "0x48", 0x03, 1);
+    service.declareShadow(1, "0x48", 0x04, 2);
+    service.executeCommand(new I2CCommand(1, "0x48", "0x03", "0x01", "write"));
+    service.executeCommand(new I2CCommand(1, "0x48", "0x04", "0x0102", "write"));
+
+    // a word write at 0x02 covers 0x03, a byte write at 0x05 the high byte of 0x04
+    service.executeCommand(new I2CCommand(1, "0x48", "0x02", "0xffff", "write"));
+    service.executeCommand(new I2CCommand(1, "0x48", "0x05", "0xff", "write"));
+    assertNull(service.getShadowValue(1, "0x48", 0x03));
+    assertNull(service.getShadowValue(1, "0x48", 0x04));
+
+    service.executeCommand(new I2CCommand(1, "0x48", "0x03", "0x01", "write"));
+    service.i2csetPath = "/bin/false";
+    assertFalse(service.executeCommand(new I2CCommand(1, "0x48", "0x03", "0x02", "write")).isSuccess());
+    assertNull(service.getShadowValue(1, "0x48", 0x03));
+  }
+
+  @Test
+  void testShadowBypassedWhenDisabledOrSimulated()
+  {
+    service.declareShadow(1, "0x48", 0x01, 1);
+
+    service.simulate(() -> service.executeCommand(new I2CCommand(1, "0x48", "0x01", "0x05", "write")));
+    assertNull(service.getShadowValue(1, "0x48", 0x01));
+
+    service.i2csetPath = "/bin/true";
+    service.executeCommand(new I2CCommand(1, "0x48", "0x01", "0x05", "write"));
+    assertNull(service.getShadowValue(1, "0x48", 0x01));
+  }
+
+  @Test
+  void testDeclareShadowValidation()
+  {
+    assertThrows(IllegalArgumentException.class, () -> service.declareShadow(1, "0x48", 0x01, 3));
+    assertThrows(IllegalArgumentException.class, () -> service.declareShadow(1, "48", 0x01, 1));
+    assertThrows(IllegalArgumentException.class, () -> service.declareShadow(1, "0x48", 0x100, 1));
+    assertThrows(IllegalArgumentException.class, () -> service.declareShadow(11, "0x48", 0x01, 1));
+  }
+
+  // Multiplexer tests
+
+  /**
+   * Replaces i2cget and i2cset by scripts logging their arguments to one file, i2cget answers 0x42.
+   */
+  private Path logCommands(Path directory) throws IOException
+  {
+    Path log = directory.resolve("log");
+    Path get = directory.resolve("i2cget");
+    Files.writeString(get, "#!/bin/sh\necho get \"$@\" >> " + log + "\necho 0x42\n");
+    Path set = directory.resolve("i2cset");
+    Files.writeString(set, "#!/bin/sh\necho set \"$@\" >> " + log + "\n");
+    Files.setPosixFilePermissions(get, PosixFilePermissions.fromString("rwx------"));
+    Files.setPosixFilePermissions(set, PosixFilePermissions.fromString("rwx------"));
+    service.i2cgetPath = get.toString();
+    service.i2csetPath = set.toString();
+    return log;
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testMuxSelectsChannelOnlyWhenItChanges(@TempDir Path directory) throws IOException
+  {
+    Path log = logCommands(directory);
+    service.configureMuxes(List.of("1:0x70=20-27"));
+
+    for (int bus : new int[]{20, 20, 21, 20}) {
+      I2CResponse response = service.executeCommand(new I2CCommand(bus, "0x48", "0x00", null, "read"));
+      assertTrue(response.isSuccess());
+      assertEquals("0x42", response.getData());
+    }
+
+    assertEquals(List.of(
+            "set -y -a 1 0x70 0x01",
+            "get -y -a 1 0x48 0x00",
+            "get -y -a 1 0x48 0x00",
+            "set -y -a 1 0x70 0x02",
+            "get -y -a 1 0x48 0x00",
+            "set -y -a 1 0x70 0x01",
+            "get -y -a 1 0x48 0x00"), Files.readAllLines(log));
+    assertEquals(3, service.getChannelSwitches());
+    assertEquals(1, service.physicalBus(27));
+    assertEquals(2, service.physicalBus(2));
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testMuxSelectionForgottenAfterDirectWrite(@TempDir Path directory) throws IOException
+  {
+    Path log = logCommands(directory);
+    service.configureMuxes(List.of("1:0x70=20-27"));
+
+    service.executeCommand(new I2CCommand(20, "0x48", "0x00", null, "read"));
+    // another client switches the multiplexer through the parent bus
+    service.executeCommand(new I2CCommand(1, "0x70", "0x00", "0x04", "write"));
+    service.executeCommand(new I2CCommand(20, "0x48", "0x00", null, "read"));
+
+    assertEquals("set -y -a 1 0x70 0x01", Files.readAllLines(log).get(3));
+    assertEquals(2, service.getChannelSwitches());
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testMuxSelectionFailure(@TempDir Path directory) throws IOException
+  {
+    logCommands(directory);
+    service.configureMuxes(List.of("1:0x70=20-23"));
+    service.i2csetPath = "/bin/false";
+
+    I2CResponse response = service.executeCommand(new I2CCommand(22, "0x48", "0x00", null, "read"));
+
+    assertFalse(response.isSuccess());
+    assertTrue(response.getError().startsWith("Cannot select channel 2 of multiplexer 0x70 on bus 1"));
+    assertEquals(0, service.getChannelSwitches());
+    // a simulated bus does not switch the multiplexer
+    assertTrue(service.simulate(
+            () -> service.executeCommand(new I2CCommand(22, "0x48", "0x00", null, "read"))).isSuccess());
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testMuxesOnOneBusEnableOneChannel(@TempDir Path directory) throws IOException
+  {
+    Path log = logCommands(directory);
+    service.configureMuxes(List.of("1:0x70=20-27", "1:0x71=30-37"));
+
+    for (int bus : new int[]{20, 30, 31, 20}) {
+      assertTrue(service.executeCommand(new I2CCommand(bus, "0x48", "0x00", null, "read")).isSuccess());
+    }
+
+    assertEquals(List.of(
+            "set -y -a 1 0x71 0x00",
+            "set -y -a 1 0x70 0x01",
+            "get -y -a 1 0x48 0x00",
+            "set -y -a 1 0x70 0x00",
+            "set -y -a 1 0x71 0x01",
+            "get -y -a 1 0x48 0x00",
+            "set -y -a 1 0x71 0x02",
+            "get -y -a 1 0x48 0x00",
+            "set -y -a 1 0x71 0x00",
+            "set -y -a 1 0x70 0x01",
+            "get -y -a 1 0x48 0x00"), Files.readAllLines(log));
+    assertEquals(7, service.getChannelSwitches());
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testMuxesOnOneBusAfterDirectWrite(@TempDir Path directory) throws IOException
+  {
+    Path log = logCommands(directory);
+    service.configureMuxes(List.of("1:0x70=20-27", "1:0x71=30-37"));
+
+    service.executeCommand(new I2CCommand(20, "0x48", "0x00", null, "read"));
+    // another client enables a channel of the second multiplexer through the parent bus
+    service.executeCommand(new I2CCommand(1, "0x71", "0x00", "0x04", "write"));
+    service.executeCommand(new I2CCommand(20, "0x48", "0x00", null, "read"));
+
+    assertEquals(List.of(
+            "set -y -a 1 0x71 0x00",
+            "set -y -a 1 0x70 0x01"), Files.readAllLines(log).subList(4, 6));
+    assertEquals(4, service.getChannelSwitches());
+  }
+
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testMuxDisableFailure(@TempDir Path directory) throws IOException
+  {
+    logCommands(directory);
+    service.configureMuxes(List.of("1:0x70=20-23", "1:0x71=24-27"));
+    service.i2csetPath = "/bin/false";
+
+    I2CResponse response = service.executeCommand(new I2CCommand(20, "0x48", "0x00", null, "read"));
+
+    assertFalse(response.isSuccess());
+    assertTrue(response.getError().startsWith("Cannot disable the channels of multiplexer 0x71 on bus 1"));
+    assertEquals(0, service.getChannelSwitches());
+  }
+
+  @Test
+  void testConfigureMuxesValidation()
+  {
+    I2CCommand virtual = new I2CCommand(23, "0x48", "0x00", null, "read");
+    assertThrows(IllegalArgumentException.class, () -> service.validateCommand(virtual));
+
+    service.configureMuxes(List.of("1:0x70=20-23", "1:0x71=24-27"));
+    service.validateCommand(virtual);
+    assertThrows(IllegalArgumentException.class,
+            () -> service.validateCommand(new I2CCommand(28, "0x48", "0x00", null, "read")));
+
+    assertThrows(IllegalArgumentException.class, () -> service.configureMuxes(List.of("1:0x70")));
+    assertThrows(IllegalArgumentException.class, () -> service.configureMuxes(List.of("1:0x70=20-28")));
+    assertThrows(IllegalArgumentException.class, () -> service.configureMuxes(List.of("1:0x70=5-12")));
+    assertThrows(IllegalArgumentException.class, () -> service.configureMuxes(List.of("20:0x70=30-37")));
+    assertThrows(IllegalArgumentException.class, () -> service.configureMuxes(List.of("1:0x80=20-27")));
+    assertThrows(IllegalArgumentException.class,
+            () -> service.configureMuxes(List.of("1:0x70=20-27", "1:0x70=30-37")));
+    assertThrows(IllegalArgumentException.class,
+            () -> service.configureMuxes(List.of("1:0x70=20-27", "1:0x71=27-30")));
+  }
 }
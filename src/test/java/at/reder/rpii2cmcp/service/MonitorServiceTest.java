@@ -0,0 +1,294 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.ServerEvent;
+import at.reder.rpii2cmcp.model.profile.RegisterDefinition;
+import at.reder.rpii2cmcp.store.HistoryStore;
+import at.reder.rpii2cmcp.store.HistoryStoreFixture;
+import io.quarkus.test.junit.QuarkusTest;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MonitorService and ThresholdMonitor.
+ */
+@QuarkusTest
+class MonitorServiceTest {
+
+  private MonitorService service;
+  private DeviceProfileService deviceProfileService;
+  private final List<ServerEvent> events = new ArrayList<>();
+
+  @BeforeEach
+  void setUp()
+  {
+    deviceProfileService = mock(DeviceProfileService.class);
+    service = new MonitorService();
+    service.deviceProfileService = deviceProfileService;
+    service.eventStream = new EventStream() {
+      @Override
+      public synchronized void publish(ServerEvent event)
+      {
+        events.add(event);
+      }
+    };
+    service.maxMonitors = 2;
+    service.minIntervalMs = 100;
+    service.historySize = 16;
+    service.historyStore = mock(HistoryStore.class);
+  }
+
+  @AfterEach
+  void tearDown()
+  {
+    service.shutdown();
+  }
+
+  private static RegisterDefinition temperature()
+  {
+    RegisterDefinition register = new RegisterDefinition("temperature", "0x00", 2);
+    register.setSigned(true);
+    register.setShift(4);
+    register.setScale(0.0625);
+    register.setUnit("°C");
+    return register;
+  }
+
+  private void reading(double value) throws IOException
+  {
+    when(deviceProfileService.readRegister(anyInt(), anyString(), any(RegisterDefinition.class))).thenReturn(value);
+  }
+
+  @Test
+  void testEvaluateWithHysteresis()
+  {
+    ThresholdMonitor monitor = new ThresholdMonitor("t", 1, "0x48", temperature(), 30.0, 2.0, 1000, 16);
+
+    assertNull(monitor.evaluate(25.0, 1));
+    assertFalse(monitor.isAbove());
+    assertNull(monitor.evaluate(29.9, 2));
+    assertEquals(ThresholdMonitor.RISING, monitor.evaluate(30.0, 3));
+    assertNull(monitor.evaluate(31.0, 4));
+    assertNull(monitor.evaluate(28.5, 5));
+    assertNull(monitor.evaluate(30.5, 6));
+    assertNull(monitor.evaluate(28.0, 7));
+    assertEquals(ThresholdMonitor.FALLING, monitor.evaluate(27.9, 8));
+    assertNull(monitor.evaluate(27.0, 9));
+    assertEquals(ThresholdMonitor.RISING, monitor.evaluate(35.0, 10));
+
+    Map<String, Object> state = monitor.toMap();
+    assertEquals("above", state.get("state"));
+    assertEquals(10L, state.get("samples"));
+    assertEquals(3L, state.get("edges"));
+    assertEquals(35.0, state.get("value"));
+  }
+
+  @Test
+  void testInitialStateAboveThreshold()
+  {
+    ThresholdMonitor monitor = new ThresholdMonitor("t", 1, "0x48", temperature(), 30.0, 0.0, 1000, 16);
+
+    assertEquals("unknown", monitor.toMap().get("state"));
+    assertNull(monitor.evaluate(40.0, 1));
+    assertTrue(monitor.isAbove());
+    assertNull(monitor.evaluate(30.0, 2));
+    assertEquals(ThresholdMonitor.FALLING, monitor.evaluate(29.9, 3));
+  }
+
+  @Test
+  void testAddTakesInitialSample() throws IOException
+  {
+    reading(25.0);
+
+    ThresholdMonitor monitor = service.add(null, 1, "0x48", temperature(), 30.0, 1.0, 60000);
+
+    assertEquals("m1", monitor.getId());
+    assertEquals("below", monitor.toMap().get("state"));
+    assertSame(monitor, service.getMonitor("m1"));
+    assertEquals(1, service.getMonitors().size());
+    assertTrue(events.isEmpty());
+  }
+
+  @Test
+  void testSamplePublishesOnlyEdges() throws IOException
+  {
+    reading(25.0);
+    ThresholdMonitor monitor = service.add("cpu", 1, "0x48", temperature(), 30.0, 1.0, 60000);
+
+    service.sample(monitor);
+    reading(31.0);
+    service.sample(monitor);
+    service.sample(monitor);
+    service.sample(monitor);
+    reading(29.5);
+    service.sample(monitor);
+    reading(28.0);
+    service.sample(monitor);
+
+    assertEquals(2, events.size());
+    assertEquals("monitor", events.get(0).getType());
+    assertEquals("cpu", events.get(0).getSource());
+    assertEquals("rising", events.get(0).getData().get("edge"));
+    assertEquals(31.0, events.get(0).getData().get("value"));
+    assertEquals("°C", events.get(0).getData().get("unit"));
+    assertEquals("falling", events.get(1).getData().get("edge"));
+    assertEquals(7, monitor.getHistory().size());
+    verify(service.historyStore, times(7)).append(eq("cpu"), anyLong(), anyDouble());
+    verify(service.historyStore).append(eq("cpu"), anyLong(), eq(28.0));
+  }
+
+  @Test
+  void testSampleErrorAndRecovery() throws IOException
+  {
+    reading(25.0);
+    ThresholdMonitor monitor = service.add("cpu", 1, "0x48", temperature(), 30.0, 1.0, 60000);
+    when(deviceProfileService.readRegister(anyInt(), anyString(), any(RegisterDefinition.class)))
+            .thenThrow(new IOException("Device not found"));
+
+    service.sample(monitor);
+    service.sample(monitor);
+    assertEquals("Device not found", monitor.toMap().get("error"));
+    reading(25.0);
+    service.sample(monitor);
+
+    assertEquals(2, events.size());
+    assertEquals("error", events.get(0).getData().get("edge"));
+    assertEquals("Device not found", events.get(0).getData().get("error"));
+    assertEquals("recovered", events.get(1).getData().get("edge"));
+    assertNull(monitor.toMap().get("error"));
+  }
+
+  @Test
+  void testAddValidation() throws IOException
+  {
+    reading(25.0);
+
+    assertThrows(IllegalArgumentException.class,
+            () -> service.add("bad id", 1, "0x48", temperature(), 30.0, 1.0, 1000));
+    assertThrows(IllegalArgumentException.class,
+            () -> service.add("..", 1, "0x48", temperature(), 30.0, 1.0, 1000));
+    assertThrows(IllegalArgumentException.class,
+            () -> service.add(null, 1, "0x48", temperature(), 30.0, -1.0, 1000));
+    assertThrows(IllegalArgumentException.class,
+            () -> service.add(null, 1, "0x48", temperature(), 30.0, 1.0, 10));
+    assertThrows(IllegalArgumentException.class,
+            () -> service.add(null, 1, "0x48", new RegisterDefinition("x", "0x100", 1), 30.0, 1.0, 1000));
+
+    service.add("a", 1, "0x48", temperature(), 30.0, 1.0, 60000);
+    assertThrows(IllegalArgumentException.class,
+            () -> service.add("a", 1, "0x48", temperature(), 30.0, 1.0, 60000));
+    service.add("b", 1, "0x48", temperature(), 30.0, 1.0, 60000);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> service.add("c", 1, "0x48", temperature(), 30.0, 1.0, 60000));
+    assertEquals("Too many monitors, the limit is 2", e.getMessage());
+  }
+
+  @Test
+  void testAddFailsOnInitialSample() throws IOException
+  {
+    when(deviceProfileService.readRegister(anyInt(), anyString(), any(RegisterDefinition.class)))
+            .thenThrow(new IOException("Block read at 0x00 failed"));
+
+    assertThrows(IOException.class, () -> service.add("a", 1, "0x48", temperature(), 30.0, 1.0, 60000));
+    assertTrue(service.getMonitors().isEmpty());
+  }
+
+  @Test
+  void testRemove() throws IOException
+  {
+    reading(25.0);
+    ThresholdMonitor monitor = service.add("a", 1, "0x48", temperature(), 30.0, 1.0, 60000);
+
+    assertTrue(service.remove("a"));
+    assertTrue(monitor.future.isCancelled());
+    assertFalse(service.remove("a"));
+    assertFalse(service.remove(null));
+    assertNull(service.getMonitor("a"));
+  }
+
+  @Test
+  void testLimitHoldsForConcurrentAdds() throws IOException, InterruptedException
+  {
+    reading(25.0);
+    AtomicInteger rejected = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 16; i++) {
+      String id = "c" + i;
+      executor.submit(() -> {
+        start.await();
+        try {
+          service.add(id, 1, "0x48", temperature(), 30.0, 1.0, 60000);
+        } catch (IllegalArgumentException e) {
+          rejected.incrementAndGet();
+        }
+        return null;
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(2, service.getMonitors().size());
+    assertEquals(14, rejected.get());
+  }
+
+  @Test
+  void testGeneratedIdsSkipPersistedSeries(@TempDir Path directory) throws IOException
+  {
+    reading(25.0);
+    HistoryStore store = HistoryStoreFixture.open(directory);
+    service.historyStore = store;
+    assertEquals("m1", service.add(null, 1, "0x48", temperature(), 30.0, 1.0, 60000).getId());
+    service.shutdown();
+    HistoryStoreFixture.close(store);
+
+    // restart: new service with a fresh counter on the reopened store
+    store = HistoryStoreFixture.open(directory);
+    setUp();
+    reading(21.0);
+    service.historyStore = store;
+    try {
+      assertEquals("m2", service.add(null, 1, "0x49", temperature(), 30.0, 1.0, 60000).getId());
+      assertEquals(List.of("m1", "m2"), store.getSeriesNames());
+      assertEquals(1L, store.getStatistics("m1").get("samples"));
+      assertEquals(1L, store.getStatistics("m2").get("samples"));
+    } finally {
+      HistoryStoreFixture.close(store);
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import io.quarkus.test.junit.QuarkusTest;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for PreparedCommandService. The executed commands are recorded instead of being run.
+ */
+@QuarkusTest
+class PreparedCommandServiceTest {
+
+  private PreparedCommandService service;
+
+  private final List<I2CCommand> executed = new ArrayList<>();
+
+  @BeforeEach
+  void setUp()
+  {
+    service = new PreparedCommandService();
+    service.i2cService = new I2CService() {
+      @Override
+      public I2CResponse executeValidated(I2CCommand command)
+      {
+        executed.add(command);
+        return new I2CResponse(true, "0x42", null, "");
+      }
+    };
+    service.maxCommands = 2;
+  }
+
+  @Test
+  void testPreparedRead()
+  {
+    PreparedCommand prepared = service.prepare(new I2CCommand(1, "0x48", "0x00", null, "read", "w"), List.of("s16"),
+                                               ByteOrder.BIG_ENDIAN);
+
+    assertEquals("p1", prepared.getHandle());
+    assertSame(prepared, service.getCommand("p1"));
+    assertTrue(prepared.isRead());
+    assertEquals("0x42", service.execute(prepared, null).getData());
+    service.execute(prepared, null);
+    assertSame(executed.get(0), executed.get(1));
+    assertEquals(2L, prepared.toMap().get("invocations"));
+    assertEquals(List.of("s16"), prepared.toMap().get("format"));
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.execute(prepared, "0x01"));
+    assertEquals("Prepared command p1 takes no value", e.getMessage());
+  }
+
+  @Test
+  void testPreparedWrite()
+  {
+    PreparedCommand open = service.prepare(new I2CCommand(1, "0x20", "0x09", null, "write"), List.of(),
+                                           ByteOrder.LITTLE_ENDIAN);
+    PreparedCommand bound = service.prepare(new I2CCommand(1, "0x20", "0x00", "0x00", "write"), List.of(),
+                                            ByteOrder.LITTLE_ENDIAN);
+
+    service.execute(open, "0xff");
+    service.execute(bound, null);
+    assertEquals("0xff", executed.get(0).getValue());
+    assertEquals("0x09", executed.get(0).getRegister());
+    assertEquals("0x00", executed.get(1).getValue());
+    assertEquals("Missing required argument: value",
+                 assertThrows(IllegalArgumentException.class, () -> service.execute(open, null)).getMessage());
+    assertEquals("Invalid value format: 255",
+                 assertThrows(IllegalArgumentException.class, () -> service.execute(open, "255")).getMessage());
+    assertThrows(IllegalArgumentException.class, () -> service.execute(bound, "0x01"));
+    assertEquals(2, executed.size());
+  }
+
+  @Test
+  void testValidation()
+  {
+    assertEquals("Invalid address format: 72", assertThrows(IllegalArgumentException.class,
+            () -> service.prepare(new I2CCommand(1, "72", "0x00", null, "read"), List.of(), ByteOrder.LITTLE_ENDIAN))
+            .getMessage());
+    assertThrows(IllegalArgumentException.class,
+            () -> service.prepare(new I2CCommand(11, "0x48", "0x00", null, "read"), List.of(), ByteOrder.LITTLE_ENDIAN));
+    assertThrows(IllegalArgumentException.class,
+            () -> service.prepare(new I2CCommand(1, "0x48", "0x00", "x", "write"), List.of(), ByteOrder.LITTLE_ENDIAN));
+    assertThrows(IllegalArgumentException.class,
+            () -> service.prepare(new I2CCommand(1, "0x48", "0x00", null, "scan"), List.of(), ByteOrder.LITTLE_ENDIAN));
+    assertThrows(IllegalArgumentException.class,
+            () -> service.prepare(new I2CCommand(1, "0x48", "0x00", null, "read"), List.of("f32"),
+                                  ByteOrder.LITTLE_ENDIAN));
+    assertThrows(IllegalArgumentException.class,
+            () -> service.prepare(new I2CCommand(1, "0x48", "0x00", null, "write"), List.of("u8"),
+                                  ByteOrder.LITTLE_ENDIAN));
+    assertTrue(service.getCommands().isEmpty());
+  }
+
+  @Test
+  void testLimitAndRelease()
+  {
+    I2CCommand read = new I2CCommand(1, "0x48", "0x00", null, "read");
+    service.prepare(read, List.of(), ByteOrder.LITTLE_ENDIAN);
+    service.prepare(read, List.of(), ByteOrder.LITTLE_ENDIAN);
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> service.prepare(read, List.of(), ByteOrder.LITTLE_ENDIAN));
+    assertEquals("Too many prepared commands, the limit is 2", e.getMessage());
+    assertTrue(service.release("p1"));
+    assertFalse(service.release("p1"));
+    assertEquals("p3", service.prepare(read, List.of(), ByteOrder.LITTLE_ENDIAN).getHandle());
+    assertEquals("Unknown prepared command: p1",
+                 assertThrows(IllegalArgumentException.class, () -> service.getCommand("p1")).getMessage());
+  }
+
+  @Test
+  void testLimitHoldsForConcurrentPrepares() throws InterruptedException
+  {
+    I2CCommand read = new I2CCommand(1, "0x48", "0x00", null, "read");
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger rejected = new AtomicInteger();
+    try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+      for (int i = 0; i < 32; i++) {
+        executor.execute(() -> {
+          try {
+            start.await();
+            service.prepare(read, List.of(), ByteOrder.LITTLE_ENDIAN);
+          } catch (IllegalArgumentException e) {
+            rejected.incrementAndGet();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+      }
+      start.countDown();
+    }
+
+    assertEquals(2, service.getCommands().size());
+    assertEquals(30, rejected.get());
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import io.quarkus.test.junit.QuarkusTest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for ProgramService and ProgramCompiler. The bus is simulated by a register map; a read of register 0x7f
+ * fails like a device that does not acknowledge.
+ */
+@QuarkusTest
+class ProgramServiceTest {
+
+  private ProgramService service;
+
+  private final Map<String, Integer> registers = new HashMap<>();
+
+  private final List<String> log = new ArrayList<>();
+
+  @BeforeEach
+  void setUp()
+  {
+    service = new ProgramService();
+    service.i2cService = new I2CService() {
+      @Override
+      public I2CResponse executeCommand(I2CCommand command)
+      {
+        String key = command.getAddress() + "/" + command.getRegister();
+        log.add(command.getOperation() + " " + key + (command.getValue() != null ? "=" + command.getValue() : ""));
+        if ("0x7f".equals(command.getRegister())) {
+          return new I2CResponse(false, null, "Device not found", "");
+        }
+        if ("write".equals(command.getOperation())) {
+          registers.put(key, Integer.decode(command.getValue()));
+          return new I2CResponse(true, "Write successful", null, "");
+        }
+        int value = registers.getOrDefault(key, 0);
+        if ("0x10".equals(command.getRegister())) {
+          registers.put(key, value + 1);
+        }
+        return new I2CResponse(true, String.format("w".equals(command.getMode()) ? "0x%04x" : "0x%02x", value), null,
+                               "");
+      }
+    };
+    service.maxSize = 256;
+    service.maxSteps = 10000;
+    service.maxDuration = Duration.ofSeconds(5);
+    service.maxPrograms = 2;
+    service.cacheSize = 2;
+  }
+
+  private static Map<String, Object> step(Object... keyValues)
+  {
+    Map<String, Object> step = new HashMap<>();
+    for (int i = 0; i < keyValues.length; i += 2) {
+      step.put((String) keyValues[i], keyValues[i + 1]);
+    }
+    return step;
+  }
+
+  @Test
+  void testBringUpWithBranch()
+  {
+    registers.put("0x68/0x75", 0x71);
+    List<Object> steps = List.of(
+            step("op", "write", "register", "0x6b", "value", "0x80"),
+            step("op", "delay", "ms", 1),
+            step("op", "read", "register", "0x75", "as", "id"),
+            step("op", "if", "var", "id", "equals", "0x71",
+                 "then", List.of(step("op", "write", "register", "0x1a", "value", "0x03")),
+                 "else", List.of(step("op", "fail", "message", "unexpected id"))),
+            step("op", "read", "register", "0x1a", "mode", "w"));
+
+    ProgramService.Result result = service.run(service.compile(steps), 1, "0x68");
+
+    assertTrue(result.isSuccess());
+    assertEquals(2, result.reads().size());
+    assertEquals("0x71", result.reads().get(0).get("value"));
+    assertEquals("steps[4]", result.reads().get(1).get("step"));
+    assertEquals("0x0003", result.reads().get(1).get("value"));
+    assertEquals(Map.of("id", "0x71"), result.variables());
+    assertEquals(List.of("write 0x68/0x6b=0x80", "read 0x68/0x75", "write 0x68/0x1a=0x03", "read 0x68/0x1a"), log);
+  }
+
+  @Test
+  void testElseBranchFails()
+  {
+    registers.put("0x68/0x75", 0x12);
+    List<Object> steps = List.of(
+            step("op", "read", "register", "0x75"),
+            step("op", "if", "mask", "0xf0", "equals", "0x70",
+                 "then", List.of(step("op", "write", "register", "0x1a", "value", "0x03")),
+                 "else", List.of(step("op", "fail", "message", "unexpected id"))));
+
+    ProgramService.Result result = service.run(service.compile(steps), 1, "0x68");
+
+    assertFalse(result.isSuccess());
+    assertEquals("unexpected id", result.error());
+    assertEquals("steps[1].else[0]", result.step());
+    assertEquals(1, result.reads().size());
+  }
+
+  @Test
+  void testLoopUntil()
+  {
+    List<Object> steps = List.of(
+            step("op", "loop", "count", 100,
+                 "body", List.of(step("op", "read", "register", "0x10", "as", "status")),
+                 "until", step("var", "status", "mask", "0x04", "equals", "0x04")),
+            step("op", "loop", "count", 3, "body", List.of(
+                 step("op", "loop", "count", 2, "body", List.of(step("op", "write", "register", "0x20",
+                                                                     "value", "0x01"))))));
+
+    ProgramService.Result result = service.run(service.compile(steps), 1, "0x48");
+
+    assertTrue(result.isSuccess());
+    assertEquals(5, result.reads().size());
+    assertEquals("0x04", result.variables().get("status"));
+    assertEquals(6, log.stream().filter(entry -> entry.startsWith("write")).count());
+  }
+
+  @Test
+  void testStepLimitAndDuration()
+  {
+    service.maxSteps = 50;
+    List<Object> steps = List.of(step("op", "loop", "count", 10000,
+                                      "body", List.of(step("op", "read", "register", "0x00"))));
+
+    ProgramService.Result result = service.run(service.compile(steps), 1, "0x48");
+
+    assertFalse(result.isSuccess());
+    assertEquals("Step limit of 50 exceeded", result.error());
+    assertEquals(50, result.steps());
+
+    service.maxDuration = Duration.ofMillis(20);
+    result = service.run(service.compile(List.of(step("op", "delay", "ms", 15), step("op", "delay", "ms", 15))), 1,
+                         "0x48");
+    assertEquals("Program exceeds the maximum duration of 20 ms", result.error());
+    assertEquals("steps[1]", result.step());
+  }
+
+  @Test
+  void testBusErrorAndAddressOverride()
+  {
+    List<Object> steps = List.of(
+            step("op", "write", "address", "0x49", "register", "0x01", "value", "0x60"),
+            step("op", "read", "register", "0x7f"));
+
+    ProgramService.Result result = service.run(service.compile(steps), 1, "0x48");
+
+    assertEquals("Device not found", result.error());
+    assertEquals("steps[1]", result.step());
+    assertEquals(List.of("write 0x49/0x01=0x60", "read 0x48/0x7f"), log);
+  }
+
+  @Test
+  void testUnsetVariable()
+  {
+    List<Object> steps = List.of(step("op", "if", "equals", "0x01", "then", List.of()));
+
+    assertEquals("No value read yet", service.run(service.compile(steps), 1, "0x48").error());
+  }
+
+  @Test
+  void testCompileErrors()
+  {
+    assertCompileError("steps: expected an array of steps", "x");
+    assertCompileError("Program has no steps", List.of());
+    assertCompileError("steps[0]: missing op", List.of(step("register", "0x00")));
+    assertCompileError("steps[0]: invalid op: jump. Valid ops are: read, write, delay, if, loop, fail",
+                       List.of(step("op", "jump")));
+    assertCompileError("steps[0]: invalid register format: 16", List.of(step("op", "read", "register", "16")));
+    assertCompileError("steps[0]: invalid mode: i. Valid modes are 'b' or 'w'",
+                       List.of(step("op", "read", "register", "0x00", "mode", "i")));
+    assertCompileError("steps[0]: unknown variable: id", List.of(step("op", "if", "var", "id", "equals", 1,
+                                                                      "then", List.of())));
+    assertCompileError("steps[0].then: expected an array of steps",
+                       List.of(step("op", "if", "equals", 1)));
+    assertCompileError("steps[0]: count must be between 1 and 10000: 0",
+                       List.of(step("op", "loop", "count", 0, "body", List.of())));
+    assertCompileError("steps[0]: delay must be between 0 and 5000 ms: 6000",
+                       List.of(step("op", "delay", "ms", 6000)));
+    List<Object> deep = List.of(step("op", "delay", "ms", 0));
+    for (int i = 0; i < ProgramCompiler.MAX_DEPTH; i++) {
+      deep = List.of(step("op", "loop", "count", 1, "body", deep));
+    }
+    List<Object> nested = deep;
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.compile(nested));
+    assertTrue(e.getMessage().endsWith("steps nested deeper than 8 levels"));
+
+    service.maxSize = 3;
+    assertCompileError("Program exceeds 3 instructions",
+                       List.of(step("op", "loop", "count", 2, "body", List.of(step("op", "delay", "ms", 0),
+                                                                             step("op", "delay", "ms", 0)))));
+  }
+
+  @Test
+  void testStoreAndCache()
+  {
+    List<Object> steps = List.of(step("op", "read", "register", "0x00", "as", "temp"));
+
+    Program stored = service.store("temp", steps);
+    assertEquals("temp", stored.getName());
+    assertEquals(List.of("temp"), stored.toMap().get("variables"));
+    assertSame(stored, service.getProgram("temp"));
+    service.store("other", steps);
+    assertNotSame(stored, service.store("temp", steps));
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.store("third", steps));
+    assertEquals("Too many programs, the limit is 2", e.getMessage());
+    assertThrows(IllegalArgumentException.class, () -> service.store("../x", steps));
+    assertTrue(service.remove("other"));
+    assertFalse(service.remove("other"));
+    assertEquals(1, service.getPrograms().size());
+
+    Program compiled = service.compile(steps);
+    assertSame(compiled, service.compile(List.of(step("op", "read", "register", "0x00", "as", "temp"))));
+    service.compile(List.of(step("op", "delay", "ms", 1)));
+    service.compile(List.of(step("op", "delay", "ms", 2)));
+    assertNotSame(compiled, service.compile(steps));
+  }
+
+  private void assertCompileError(String message, Object steps)
+  {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.compile(steps));
+    assertEquals(message, e.getMessage());
+  }
+}
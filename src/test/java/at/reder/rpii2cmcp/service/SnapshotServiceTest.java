@@ -0,0 +1,262 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import at.reder.rpii2cmcp.model.I2CCommand;
+import at.reder.rpii2cmcp.model.I2CErrorCode;
+import at.reder.rpii2cmcp.model.I2CResponse;
+import at.reder.rpii2cmcp.model.profile.DeviceProfile;
+import at.reder.rpii2cmcp.model.profile.RegisterDefinition;
+import io.quarkus.test.junit.QuarkusTest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for SnapshotService. The device is simulated by a register array read with block reads.
+ */
+@QuarkusTest
+class SnapshotServiceTest {
+
+  private SnapshotService service;
+
+  private final byte[] registers = new byte[256];
+
+  private final List<String> reads = Collections.synchronizedList(new ArrayList<>());
+
+  private boolean failing;
+
+  @BeforeEach
+  void setUp()
+  {
+    for (int i = 0; i < registers.length; i++) {
+      registers[i] = (byte) i;
+    }
+    I2CService i2cService = new I2CService() {
+      @Override
+      public I2CResponse executeCommand(I2CCommand command)
+      {
+        reads.add(command.getRegister() + (command.getMode() != null ? " " + command.getMode() : ""));
+        if (failing) {
+          return I2CResponse.failure(I2CErrorCode.NACK, "Remote I/O error", "");
+        }
+        int start = Integer.decode(command.getRegister());
+        int length = command.getMode() != null ? Integer.parseInt(command.getMode().substring(2)) : 1;
+        byte[] data = new byte[length];
+        System.arraycopy(registers, start, data, 0, length);
+        I2CResponse response = new I2CResponse(true, "", null, "");
+        response.setBytes(data);
+        return response;
+      }
+    };
+    DeviceProfileService deviceProfileService = new DeviceProfileService();
+    deviceProfileService.i2cService = i2cService;
+    deviceProfileService.registry = new DeviceProfileRegistry() {
+      @Override
+      public DeviceProfile getProfile(String name)
+      {
+        if ("dev".equals(name)) {
+          return new DeviceProfile("dev", null, List.of(
+                  new RegisterDefinition("status", "0x00", 1),
+                  new RegisterDefinition("value", "0x02", 2),
+                  new RegisterDefinition("config", "0x40", 1)));
+        }
+        return "24c32".equals(name) ? new DeviceProfile(name, null, List.of()) : null;
+      }
+    };
+    service = new SnapshotService();
+    service.maxSnapshots = 3;
+    service.i2cService = i2cService;
+    service.deviceProfileService = deviceProfileService;
+  }
+
+  @Test
+  void testCaptureFullRange() throws IOException
+  {
+    RegisterSnapshot snapshot = service.capture(1, "0x48", null, 0x00, 0xff);
+
+    assertEquals("s1", snapshot.getId());
+    assertEquals(256, snapshot.getValues().size());
+    assertEquals(8, snapshot.getTransactions());
+    assertEquals(List.of("0x00 i 32", "0x20 i 32", "0x40 i 32", "0x60 i 32",
+                         "0x80 i 32", "0xa0 i 32", "0xc0 i 32", "0xe0 i 32"), reads);
+    assertEquals("0x7f", snapshot.valuesToMap().get("0x7f"));
+    assertEquals(64, snapshot.getHash().length());
+    assertSame(snapshot, service.getSnapshot("s1"));
+  }
+
+  @Test
+  void testCapturePartialRange() throws IOException
+  {
+    RegisterSnapshot snapshot = service.capture(1, "0x48", null, 0x10, 0x30);
+
+    assertEquals(33, snapshot.getValues().size());
+    assertEquals(List.of("0x10 i 32", "0x30"), reads);
+    assertEquals("0x10", snapshot.getValues().get(0).name());
+  }
+
+  @Test
+  void testCaptureProfile() throws IOException
+  {
+    registers[2] = 0x12;
+    registers[3] = 0x34;
+
+    RegisterSnapshot snapshot = service.capture(1, "0x48", "dev", 0, 0);
+
+    assertEquals(2, snapshot.getTransactions());
+    assertEquals(List.of("status", "value", "config"),
+                 snapshot.getValues().stream().map(RegisterSnapshot.Value::name).toList());
+    assertEquals("0x1234", snapshot.valuesToMap().get("value"));
+  }
+
+  @Test
+  void testEqualContentHasEqualHash() throws IOException
+  {
+    RegisterSnapshot first = service.capture(1, "0x48", null, 0x00, 0xff);
+    RegisterSnapshot second = service.capture(1, "0x49", null, 0x00, 0xff);
+    registers[0x80] = 0;
+    RegisterSnapshot third = service.capture(1, "0x48", null, 0x00, 0xff);
+
+    assertEquals(first.getHash(), second.getHash());
+    assertNotEquals(first.getHash(), third.getHash());
+    assertTrue(service.diff("s1", "s2").changes().isEmpty());
+  }
+
+  @Test
+  void testDiffReturnsOnlyChangedRegisters() throws IOException
+  {
+    service.capture(1, "0x48", null, 0x00, 0xff);
+    registers[0x05] = (byte) 0x85;
+    registers[0xf0] = 0x00;
+    service.capture(1, "0x48", null, 0x00, 0xff);
+
+    SnapshotService.Diff diff = service.diff("s1", "s2");
+
+    assertEquals(2, diff.changes().size());
+    SnapshotService.Change change = diff.changes().get(0);
+    assertEquals("0x05", change.register());
+    assertEquals("0x05", change.before());
+    assertEquals("0x85", change.after());
+    assertEquals(0x80, change.changedBits());
+    assertEquals("0xf0", diff.changes().get(1).before());
+  }
+
+  @Test
+  void testDiffAgainstLiveState() throws IOException
+  {
+    service.capture(1, "0x48", "dev", 0, 0);
+    registers[0x40] = 0x01;
+    reads.clear();
+
+    SnapshotService.Diff diff = service.diff("s1", null);
+
+    assertNull(diff.to().getId());
+    assertEquals(1, diff.changes().size());
+    assertEquals("config", diff.changes().get(0).name());
+    assertEquals(2, reads.size());
+    // the live state is not stored
+    assertEquals(1, service.getSnapshots().size());
+    assertEquals("live", diff.toMap().get("to"));
+  }
+
+  @Test
+  void testDiffOfDifferentLayouts() throws IOException
+  {
+    service.capture(1, "0x48", null, 0x00, 0x03);
+    service.capture(1, "0x48", null, 0x02, 0x05);
+
+    List<SnapshotService.Change> changes = service.diff("s1", "s2").changes();
+
+    assertEquals(List.of("0x00", "0x01", "0x04", "0x05"),
+                 changes.stream().map(SnapshotService.Change::name).toList());
+    assertNull(changes.get(0).after());
+    assertNull(changes.get(3).before());
+  }
+
+  @Test
+  void testLimitAndRemove() throws IOException
+  {
+    service.capture(1, "0x48", null, 0x00, 0x00);
+    service.capture(1, "0x48", null, 0x00, 0x00);
+    service.capture(1, "0x48", null, 0x00, 0x00);
+
+    assertThrows(IllegalArgumentException.class, () -> service.capture(1, "0x48", null, 0x00, 0x00));
+    assertTrue(service.remove("s2"));
+    assertFalse(service.remove("s2"));
+    assertEquals("s4", service.capture(1, "0x48", null, 0x00, 0x00).getId());
+    assertEquals(List.of("s1", "s3", "s4"), service.getSnapshots().stream().map(RegisterSnapshot::getId).toList());
+  }
+
+  @Test
+  void testLimitHoldsForConcurrentCaptures() throws InterruptedException
+  {
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger rejected = new AtomicInteger();
+    try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+      for (int i = 0; i < 16; i++) {
+        executor.execute(() -> {
+          try {
+            start.await();
+            service.capture(1, "0x48", null, 0x00, 0x0f);
+          } catch (IllegalArgumentException e) {
+            rejected.incrementAndGet();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+      }
+      start.countDown();
+    }
+
+    assertEquals(3, service.getSnapshots().size());
+    assertEquals(13, rejected.get());
+  }
+
+  @Test
+  void testInvalidArguments()
+  {
+    assertThrows(IllegalArgumentException.class, () -> service.capture(1, "0x48", null, 0x10, 0x0f));
+    assertThrows(IllegalArgumentException.class, () -> service.capture(1, "0x48", null, 0x00, 0x100));
+    assertThrows(IllegalArgumentException.class, () -> service.capture(1, "48", null, 0x00, 0xff));
+    assertThrows(IllegalArgumentException.class, () -> service.capture(1, "0x48", "missing", 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> service.capture(1, "0x48", "24c32", 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> service.diff("s9", null));
+    assertTrue(reads.isEmpty());
+    assertTrue(service.getSnapshots().isEmpty());
+  }
+
+  @Test
+  void testFailedReadStoresNothing()
+  {
+    failing = true;
+
+    IOException e = assertThrows(IOException.class, () -> service.capture(1, "0x48", null, 0x00, 0xff));
+
+    assertTrue(e.getMessage().startsWith("Block read at 0x00 failed"));
+    assertTrue(service.getSnapshots().isEmpty());
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.service;
+
+import io.quarkus.test.junit.QuarkusTest;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for TimeSeriesBuffer.
+ */
+@QuarkusTest
+class TimeSeriesBufferTest {
+
+  @Test
+  void testRecordAndQueryPoints()
+  {
+    TimeSeriesBuffer buffer = new TimeSeriesBuffer(8);
+    for (int i = 0; i < 5; i++) {
+      buffer.record(1000 + i * 100, i * 1.5);
+    }
+
+    TimeSeriesBuffer.Points points = buffer.points(1100, 1300, 100);
+
+    assertEquals(5, buffer.size());
+    assertArrayEquals(new long[]{1100, 1200, 1300}, points.times());
+    assertArrayEquals(new double[]{1.5, 3.0, 4.5}, points.values());
+    assertEquals(8 * TimeSeriesBuffer.ENTRY_BYTES, buffer.memoryBytes());
+  }
+
+  @Test
+  void testOverwritesOldestEntries()
+  {
+    TimeSeriesBuffer buffer = new TimeSeriesBuffer(4);
+    for (int i = 0; i < 10; i++) {
+      buffer.record(i, i);
+    }
+
+    TimeSeriesBuffer.Points points = buffer.points(Long.MIN_VALUE, Long.MAX_VALUE, 100);
+
+    assertEquals(4, buffer.size());
+    assertEquals(4, buffer.capacity());
+    assertArrayEquals(new long[]{6, 7, 8, 9}, points.times());
+  }
+
+  @Test
+  void testLimitReturnsMostRecentPoints()
+  {
+    TimeSeriesBuffer buffer = new TimeSeriesBuffer(16);
+    for (int i = 0; i < 10; i++) {
+      buffer.record(i, i);
+    }
+
+    assertArrayEquals(new long[]{7, 8, 9}, buffer.points(0, 100, 3).times());
+    assertEquals(0, buffer.points(0, 100, 0).times().length);
+    assertEquals(0, buffer.points(20, 30, 10).times().length);
+    assertEquals(0, new TimeSeriesBuffer(2).points(0, 100, 10).times().length);
+  }
+
+  @Test
+  void testBuckets()
+  {
+    TimeSeriesBuffer buffer = new TimeSeriesBuffer(16);
+    buffer.record(0, 1.0);
+    buffer.record(10, 3.0);
+    buffer.record(20, 2.0);
+    buffer.record(45, 10.0);
+    buffer.record(70, 5.0);
+
+    List<TimeSeriesBuffer.Bucket> buckets = buffer.buckets(0, 60, 20);
+
+    assertEquals(3, buckets.size());
+    assertEquals(new TimeSeriesBuffer.Bucket(0, 2, 1.0, 3.0, 2.0), buckets.get(0));
+    assertEquals(new TimeSeriesBuffer.Bucket(20, 1, 2.0, 2.0, 2.0), buckets.get(1));
+    assertEquals(new TimeSeriesBuffer.Bucket(40, 1, 10.0, 10.0, 10.0), buckets.get(2));
+  }
+
+  @Test
+  void testInvalidArguments()
+  {
+    TimeSeriesBuffer buffer = new TimeSeriesBuffer(4);
+
+    assertThrows(IllegalArgumentException.class, () -> new TimeSeriesBuffer(0));
+    assertThrows(IllegalArgumentException.class, () -> buffer.buckets(0, 100, 0));
+    assertThrows(IllegalArgumentException.class, () -> buffer.buckets(0, 1_000_000, 1));
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.store;
+
+import io.quarkus.test.junit.QuarkusTest;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for GorillaCodec.
+ */
+@QuarkusTest
+class GorillaCodecTest {
+
+  private static PointCollector decode(byte[] block, int count)
+  {
+    PointCollector collector = new PointCollector();
+    GorillaCodec.decode(ByteBuffer.wrap(block), 0, block.length, count, collector);
+    return collector;
+  }
+
+  @Test
+  void testFixedIntervalAndConstantValueCompressToTwoBitsPerSample()
+  {
+    int count = 256;
+    long[] times = new long[count];
+    double[] values = new double[count];
+    for (int i = 0; i < count; i++) {
+      times[i] = 1_760_000_000_000L + i * 1000L;
+      values[i] = 21.5;
+    }
+
+    byte[] block = GorillaCodec.encode(times, values, count);
+
+    // 16 bytes for the first sample; the first delta costs 37 bits, every further sample 2 bits
+    assertTrue(block.length <= 16 + (37 + 2 * 255 + 7) / 8, "block has " + block.length + " bytes");
+    var points = decode(block, count).toPoints(count);
+    assertArrayEquals(times, points.times());
+    assertArrayEquals(values, points.values());
+  }
+
+  @Test
+  void testRoundTripWithJitterGapsAndSpecialValues()
+  {
+    Random random = new Random(42);
+    int count = 1000;
+    long[] times = new long[count];
+    double[] values = new double[count];
+    long time = 1_760_000_000_000L;
+    for (int i = 0; i < count; i++) {
+      long jitter = switch (i % 7) {
+        case 0 -> random.nextInt(100) - 50;
+        case 1 -> random.nextInt(500) - 250;
+        case 2 -> random.nextInt(4000) - 2000;
+        case 3 -> 86_400_000L * 40;
+        case 4 -> -5;
+        default -> 0;
+      };
+      time += 1000 + jitter;
+      times[i] = time;
+      values[i] = switch (i % 5) {
+        case 0 -> random.nextGaussian() * 1000;
+        case 1 -> Math.round(random.nextDouble() * 100) * 0.0625;
+        case 2 -> i == 2 ? Double.NaN : -0.0;
+        case 3 -> i == 3 ? Double.POSITIVE_INFINITY : Double.MIN_VALUE;
+        default -> values[i - 1];
+      };
+    }
+    times[500] = times[499] - 10_000_000_000L;
+
+    byte[] block = GorillaCodec.encode(times, values, count);
+    var points = decode(block, count).toPoints(count);
+
+    assertArrayEquals(times, points.times());
+    for (int i = 0; i < count; i++) {
+      assertEquals(Double.doubleToRawLongBits(values[i]), Double.doubleToRawLongBits(points.values()[i]),
+              "value " + i);
+    }
+  }
+
+  @Test
+  void testSingleSample()
+  {
+    byte[] block = GorillaCodec.encode(new long[]{-1}, new double[]{3.25}, 1);
+
+    assertEquals(16, block.length);
+    assertArrayEquals(new long[]{-1}, decode(block, 1).toPoints(1).times());
+  }
+
+  @Test
+  void testReadBeyondEndOfBlock()
+  {
+    byte[] block = GorillaCodec.encode(new long[]{1, 2}, new double[]{1, 2}, 2);
+
+    assertThrows(IllegalStateException.class, () -> decode(block, 50));
+  }
+}
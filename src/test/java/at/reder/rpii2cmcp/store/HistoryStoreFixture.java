@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.store;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Opens and closes history stores for tests outside of this package, e.g. to restart a store on the same directory.
+ */
+public final class HistoryStoreFixture {
+
+  private HistoryStoreFixture()
+  {
+  }
+
+  /**
+   * Opens an enabled store with the default block and segment size.
+   *
+   * @param directory the store directory
+   * @return the open store
+   * @throws IOException if the directory cannot be read
+   */
+  public static HistoryStore open(Path directory) throws IOException
+  {
+    HistoryStore store = new HistoryStore();
+    store.enabled = true;
+    store.dir = directory.toString();
+    store.blockSize = 256;
+    store.flushInterval = Duration.ofHours(1);
+    store.segmentSize = 4 * 1024 * 1024;
+    store.retention = Duration.ofDays(30);
+    store.open();
+    return store;
+  }
+
+  /**
+   * Closes a store, writing its pending samples.
+   *
+   * @param store the store
+   */
+  public static void close(HistoryStore store)
+  {
+    store.close();
+  }
+}
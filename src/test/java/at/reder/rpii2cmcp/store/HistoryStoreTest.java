@@ -0,0 +1,237 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.store;
+
+import at.reder.rpii2cmcp.service.TimeSeriesBuffer;
+import io.quarkus.test.junit.QuarkusTest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for HistoryStore. Every test works on its own temporary directory.
+ */
+@QuarkusTest
+class HistoryStoreTest {
+
+  @TempDir
+  Path directory;
+
+  private HistoryStore store;
+
+  @AfterEach
+  void tearDown()
+  {
+    if (store != null) {
+      store.close();
+    }
+  }
+
+  private HistoryStore open(int blockSize, long segmentSize) throws IOException
+  {
+    HistoryStore result = new HistoryStore();
+    result.enabled = true;
+    result.dir = directory.toString();
+    result.blockSize = blockSize;
+    result.flushInterval = Duration.ofHours(1);
+    result.segmentSize = segmentSize;
+    result.retention = Duration.ofDays(30);
+    result.open();
+    return result;
+  }
+
+  private static List<Path> segmentFiles(Path series) throws IOException
+  {
+    try (Stream<Path> files = Files.list(series)) {
+      return files.sorted().toList();
+    }
+  }
+
+  @Test
+  void testPointsIncludeWrittenAndPendingSamples() throws IOException
+  {
+    store = open(4, 1 << 20);
+    for (int i = 0; i < 10; i++) {
+      store.append("cpu", 1000 + i * 100, i);
+    }
+
+    TimeSeriesBuffer.Points points = store.points("cpu", 1150, 1850, 100);
+
+    assertArrayEquals(new long[]{1200, 1300, 1400, 1500, 1600, 1700, 1800}, points.times());
+    assertArrayEquals(new double[]{2, 3, 4, 5, 6, 7, 8}, points.values());
+    assertArrayEquals(new long[]{1800, 1900}, store.points("cpu", 0, 5000, 2).times());
+    assertEquals(10L, store.getStatistics("cpu").get("samples"));
+    assertEquals(List.of("cpu"), store.getSeriesNames());
+  }
+
+  @Test
+  void testSurvivesRestart() throws IOException
+  {
+    store = open(256, 1 << 20);
+    for (int i = 0; i < 100; i++) {
+      store.append("cpu", i * 1000L, 20 + i % 3);
+    }
+    store.close();
+
+    store = open(256, 1 << 20);
+    store.append("cpu", 100_000, 99);
+
+    TimeSeriesBuffer.Points points = store.points("cpu", 0, Long.MAX_VALUE, 1000);
+    assertEquals(101, points.times().length);
+    assertEquals(21.0, points.values()[1]);
+    assertEquals(99.0, points.values()[100]);
+  }
+
+  @Test
+  void testTornBlockIsTruncatedOnOpen() throws IOException
+  {
+    store = open(4, 1 << 20);
+    for (int i = 0; i < 8; i++) {
+      store.append("cpu", i, i);
+    }
+    store.close();
+    Path segment = segmentFiles(directory.resolve("cpu")).get(0);
+    long size = Files.size(segment);
+    Files.write(segment, new byte[]{0x42, 0x43, 0x32, 0x49, 1, 2, 3}, StandardOpenOption.APPEND);
+
+    store = open(4, 1 << 20);
+
+    assertEquals(size, Files.size(segment));
+    assertEquals(8, store.points("cpu", 0, 100, 100).times().length);
+  }
+
+  @Test
+  void testCorruptPayloadIsTruncatedOnOpen() throws IOException
+  {
+    store = open(4, 1 << 20);
+    for (int i = 0; i < 8; i++) {
+      store.append("cpu", i, i);
+    }
+    store.close();
+    Path segment = segmentFiles(directory.resolve("cpu")).get(0);
+    byte[] data = Files.readAllBytes(segment);
+    data[data.length - 1] ^= 0x55;
+    Files.write(segment, data);
+
+    store = open(4, 1 << 20);
+
+    assertArrayEquals(new long[]{0, 1, 2, 3}, store.points("cpu", 0, 100, 100).times());
+  }
+
+  @Test
+  void testQueriesSpanSegments() throws IOException
+  {
+    store = open(16, 64);
+    for (int i = 0; i < 1000; i++) {
+      store.append("cpu", i * 10L, i % 50);
+    }
+
+    List<Path> segments = segmentFiles(directory.resolve("cpu"));
+    TimeSeriesBuffer.Points points = store.points("cpu", 0, Long.MAX_VALUE, 10_000);
+    List<TimeSeriesBuffer.Bucket> buckets = store.buckets("cpu", 0, 9999, 1000);
+
+    assertTrue(segments.size() > 10, segments.size() + " segments");
+    assertEquals(1000, points.times().length);
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i * 10L, points.times()[i]);
+    }
+    assertEquals(10, buckets.size());
+    for (TimeSeriesBuffer.Bucket bucket : buckets) {
+      assertEquals(100, bucket.count());
+      assertEquals(0.0, bucket.min());
+      assertEquals(49.0, bucket.max());
+      assertEquals(24.5, bucket.avg(), 1e-9);
+    }
+  }
+
+  @Test
+  void testBucketsSplitBlocksAtWindowAndBucketBorders() throws IOException
+  {
+    store = open(8, 1 << 20);
+    for (int i = 0; i < 30; i++) {
+      store.append("cpu", i * 10L, i);
+    }
+
+    List<TimeSeriesBuffer.Bucket> buckets = store.buckets("cpu", 25, 205, 50);
+
+    assertEquals(4, buckets.size());
+    assertEquals(new TimeSeriesBuffer.Bucket(25, 5, 3, 7, 5), buckets.get(0));
+    assertEquals(new TimeSeriesBuffer.Bucket(75, 5, 8, 12, 10), buckets.get(1));
+    assertEquals(new TimeSeriesBuffer.Bucket(125, 5, 13, 17, 15), buckets.get(2));
+    assertEquals(new TimeSeriesBuffer.Bucket(175, 3, 18, 20, 19), buckets.get(3));
+  }
+
+  @Test
+  void testRetentionKeepsCurrentSegment() throws IOException
+  {
+    store = open(4, 32);
+    for (int i = 0; i < 12; i++) {
+      store.append("cpu", i, i);
+    }
+    assertEquals(3, segmentFiles(directory.resolve("cpu")).size());
+
+    store.retention = Duration.ZERO;
+    store.maintain();
+
+    assertEquals(1, segmentFiles(directory.resolve("cpu")).size());
+    assertArrayEquals(new long[]{8, 9, 10, 11}, store.points("cpu", 0, 100, 100).times());
+  }
+
+  @Test
+  void testSnapshotSurvivesRetention() throws IOException
+  {
+    SeriesStore series = new SeriesStore("cpu", directory.resolve("cpu"), 4, 32);
+    for (int i = 0; i < 12; i++) {
+      series.append(i, i);
+    }
+    SeriesStore.Snapshot snapshot = series.snapshot();
+
+    assertEquals(2, series.deleteBefore(100));
+
+    PointCollector collector = new PointCollector();
+    for (Segment.View view : snapshot.segments()) {
+      view.scan(0, 100, collector);
+    }
+    assertArrayEquals(new long[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11}, collector.toPoints(100).times());
+    assertEquals(1, segmentFiles(directory.resolve("cpu")).size());
+  }
+
+  @Test
+  void testErrors() throws IOException
+  {
+    store = open(4, 1 << 20);
+    store.append("../escape", 1, 1);
+    HistoryStore disabled = new HistoryStore();
+    disabled.append("cpu", 1, 1);
+
+    assertEquals(List.of(), store.getSeriesNames());
+    assertThrows(IllegalArgumentException.class, () -> store.points("missing", 0, 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> store.points(null, 0, 1, 1));
+    store.append("cpu", 1, 1);
+    assertThrows(IllegalArgumentException.class, () -> store.buckets("cpu", 0, 100, 0));
+    assertThrows(IllegalArgumentException.class, () -> store.buckets("cpu", 0, 1_000_000, 1));
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> disabled.points("cpu", 0, 1, 1));
+    assertEquals("History store is disabled, set i2c.history.enabled to true", e.getMessage());
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import io.quarkus.test.junit.QuarkusTest;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ToolArguments and ToolSchema.
+ */
+@QuarkusTest
+class ToolArgumentsTest {
+
+  @Test
+  void testNullArguments()
+  {
+    ToolArguments arguments = new ToolArguments(null);
+
+    assertFalse(arguments.has("bus"));
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> arguments.getInt("bus"));
+    assertEquals("Missing required argument: bus", e.getMessage());
+  }
+
+  @Test
+  void testNumbers()
+  {
+    ToolArguments arguments = new ToolArguments(Map.of("a", 1, "b", "2", "c", 2.5, "d", "7"));
+
+    assertEquals(1, arguments.getInt("a"));
+    assertEquals(2, arguments.getInt("b"));
+    assertEquals(5, arguments.getInt("x", 5));
+    assertEquals(7L, arguments.getLong("d", 0));
+    assertEquals(9L, arguments.getLong("x", 9));
+    assertEquals(2.5, arguments.getDouble("c", 0));
+    assertEquals(1.5, arguments.getDouble("x", 1.5));
+    assertThrows(NumberFormatException.class, () -> new ToolArguments(Map.of("a", "x")).getInt("a"));
+  }
+
+  @Test
+  void testHexNumbers()
+  {
+    ToolArguments arguments = new ToolArguments(Map.of("a", 12, "b", "0x0F", "c", " 0x8000 ", "d", "10"));
+
+    assertEquals(12, arguments.getHexInt("a"));
+    assertEquals(15, arguments.getHexInt("b"));
+    assertEquals(0x8000, arguments.getHexInt("c"));
+    assertEquals(10, arguments.getHexInt("d"));
+    assertThrows(NumberFormatException.class, () -> new ToolArguments(Map.of("a", "0xZZ")).getHexInt("a"));
+    assertThrows(IllegalArgumentException.class, () -> arguments.getHexInt("x"));
+  }
+
+  @Test
+  void testStringsAndBooleans()
+  {
+    ToolArguments arguments = new ToolArguments(Map.of("s", "text", "t", true, "u", "false"));
+
+    assertEquals("text", arguments.getString("s"));
+    assertEquals("text", arguments.getOptionalString("s"));
+    assertNull(arguments.getOptionalString("x"));
+    assertTrue(arguments.getBoolean("t", false));
+    assertFalse(arguments.getBoolean("u", true));
+    assertTrue(arguments.getBoolean("x", true));
+  }
+
+  @Test
+  void testStringList()
+  {
+    ToolArguments arguments = new ToolArguments(Map.of("list", List.of("a", " b"), "csv", "c, d,,"));
+
+    assertEquals(List.of("a", "b"), arguments.getStringList("list"));
+    assertEquals(List.of("c", "d"), arguments.getStringList("csv"));
+    assertEquals(List.of(), arguments.getStringList("missing"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testSchema()
+  {
+    Map<String, Object> schema = ToolSchema.object()
+            .busAndAddress()
+            .optional("mode", "string", "Mode")
+            .build();
+
+    assertEquals("object", schema.get("type"));
+    assertEquals(List.of("bus", "address"), schema.get("required"));
+    assertEquals(List.of("bus", "address", "mode"), List.copyOf(((Map<String, Object>) schema.get("properties")).keySet()));
+  }
+}
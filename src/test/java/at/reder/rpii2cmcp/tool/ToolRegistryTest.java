@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Wolfgang Reder.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package at.reder.rpii2cmcp.tool;
+
+import at.reder.rpii2cmcp.model.mcp.McpTool;
+import at.reder.rpii2cmcp.model.mcp.McpToolResult;
+import at.reder.rpii2cmcp.service.Lane;
+import at.reder.rpii2cmcp.service.Priority;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ToolRegistry.
+ */
+@QuarkusTest
+class ToolRegistryTest {
+
+  @Inject
+  ToolRegistry registry;
+
+  private static ToolHandler handler(String name, int order)
+  {
+    return new ToolHandler() {
+      @Override
+      public McpTool definition()
+      {
+        return new McpTool(name, "Test tool " + name, ToolSchema.object().build());
+      }
+
+      @Override
+      public McpToolResult call(ToolArguments arguments)
+      {
+        return McpToolResult.success(name + ":" + arguments.getString("x"));
+      }
+
+      @Override
+      public int order()
+      {
+        return order;
+      }
+    };
+  }
+
+  /**
+   * Creates a bulk tool answering with the priority of the lane it runs in.
+   */
+  private static ToolHandler laneHandler()
+  {
+    return new ToolHandler() {
+      @Override
+      public McpTool definition()
+      {
+        return new McpTool("lane", "Test tool lane", ToolSchema.object().scheduling().build());
+      }
+
+      @Override
+      public McpToolResult call(ToolArguments arguments)
+      {
+        return McpToolResult.success(Lane.currentPriority().getName());
+      }
+
+      @Override
+      public Priority priority()
+      {
+        return Priority.BULK;
+      }
+    };
+  }
+
+  @Test
+  void testBuiltinToolsRegistered()
+  {
+    List<McpTool> tools = registry.getDefinitions();
+
+    assertEquals("i2cget", tools.get(0).getName());
+    assertEquals("i2cset", tools.get(1).getName());
+    assertEquals("i2c_update_bits", tools.get(2).getName());
+    assertNotNull(registry.getHandler("i2cget"));
+    assertNull(registry.getHandler("missing"));
+    assertNull(registry.getHandler(null));
+  }
+
+  @Test
+  void testRegisterSortsByOrder()
+  {
+    ToolRegistry local = new ToolRegistry();
+    local.register(List.of(handler("b", 20), handler("a", 10)));
+
+    assertEquals("a", local.getDefinitions().get(0).getName());
+    assertEquals("b", local.getDefinitions().get(1).getName());
+  }
+
+  @Test
+  void testRegisterDuplicateName()
+  {
+    ToolRegistry local = new ToolRegistry();
+
+    assertThrows(IllegalStateException.class, () -> local.register(List.of(handler("a", 1), handler("a", 2))));
+  }
+
+  @Test
+  void testCallDispatches()
+  {
+    ToolRegistry local = new ToolRegistry();
+    local.register(List.of(handler("a", 1), handler("b", 2)));
+
+    McpToolResult result = local.call("b", Map.of("x", "1"));
+
+    assertFalse(result.isError());
+    assertEquals("b:1", result.getContent().get(0).getText());
+  }
+
+  @Test
+  void testCallUnknownTool()
+  {
+    McpToolResult result = registry.call("nope", Map.of());
+
+    assertTrue(result.isError());
+    assertEquals("Unknown tool: nope", result.getContent().get(0).getText());
+  }
+
+  @Test
+  void testCallRunsInLane()
+  {
+    ToolRegistry local = new ToolRegistry();
+    local.register(List.of(handler("a", 1), laneHandler()));
+
+    assertEquals("bulk", local.call("lane", Map.of()).getContent().get(0).getText());
+    assertEquals("interactive", local.call("lane", Map.of("priority", "Interactive", "deadline_ms", 20))
+            .getContent().get(0).getText());
+    assertNull(Lane.current());
+    assertThrows(IllegalArgumentException.class, () -> local.call("lane", Map.of("priority", "urgent")));
+    assertThrows(IllegalArgumentException.class, () -> local.call("lane", Map.of("deadline_ms", -1)));
+  }
+}